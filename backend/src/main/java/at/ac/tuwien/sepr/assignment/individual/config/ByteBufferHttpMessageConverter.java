@@ -0,0 +1,50 @@
+package at.ac.tuwien.sepr.assignment.individual.config;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.util.StreamUtils;
+
+/**
+ * Message converter writing {@link ByteBuffer} response bodies, such as images served from the off-heap image cache.
+ * Only the remaining bytes of a duplicate of the buffer are written, so the buffer itself can be shared by concurrent
+ * responses, and the data is streamed to the response in chunks instead of being copied into a byte array first.
+ */
+public class ByteBufferHttpMessageConverter extends AbstractHttpMessageConverter<ByteBuffer> {
+
+  public ByteBufferHttpMessageConverter() {
+    super(MediaType.APPLICATION_OCTET_STREAM, MediaType.ALL);
+  }
+
+  @Override
+  protected boolean supports(Class<?> clazz) {
+    return ByteBuffer.class.isAssignableFrom(clazz);
+  }
+
+  @Override
+  protected ByteBuffer readInternal(Class<? extends ByteBuffer> clazz, HttpInputMessage inputMessage)
+      throws IOException, HttpMessageNotReadableException {
+    return ByteBuffer.wrap(StreamUtils.copyToByteArray(inputMessage.getBody()));
+  }
+
+  @Override
+  protected Long getContentLength(ByteBuffer buffer, MediaType contentType) {
+    return (long) buffer.remaining();
+  }
+
+  @Override
+  protected void writeInternal(ByteBuffer buffer, HttpOutputMessage outputMessage) throws IOException {
+    ByteBuffer data = buffer.duplicate();
+    WritableByteChannel channel = Channels.newChannel(outputMessage.getBody());
+    while (data.hasRemaining()) {
+      channel.write(data);
+    }
+  }
+}
@@ -0,0 +1,36 @@
+package at.ac.tuwien.sepr.assignment.individual.config;
+
+import java.util.concurrent.Executor;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Configuration class for the executor that renders pedigree charts.
+ * Rendering is CPU and memory intensive, so it runs on a small, bounded pool separate from the request threads.
+ * When all threads are busy and the queue is full, further rendering requests are rejected instead of queued.
+ */
+@Configuration
+public class ChartRenderingConfiguration {
+
+  /**
+   * Creates the bounded executor used for rendering pedigree charts.
+   *
+   * @param threads       the number of rendering threads
+   * @param queueCapacity the number of rendering tasks that may wait for a free thread
+   * @return the configured {@link Executor}
+   */
+  @Bean(name = "pedigreeChartExecutor")
+  public Executor pedigreeChartExecutor(@Value("${pedigree.chart.threads:2}") int threads,
+                                        @Value("${pedigree.chart.queue-capacity:16}") int queueCapacity) {
+    ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+    executor.setCorePoolSize(threads);
+    executor.setMaxPoolSize(threads);
+    executor.setQueueCapacity(queueCapacity);
+    executor.setThreadNamePrefix("pedigree-chart-");
+    executor.initialize();
+    return executor;
+  }
+}
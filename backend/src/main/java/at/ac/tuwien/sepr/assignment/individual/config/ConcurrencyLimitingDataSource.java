@@ -0,0 +1,108 @@
+package at.ac.tuwien.sepr.assignment.individual.config;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * Data source that limits the number of connections in use at the same time, in front of the connection pool.
+ * A caller obtains a permit of a fair semaphore before it gets a connection and returns it when the connection is closed,
+ * so callers beyond the limit wait in the order they arrived, and a waiting virtual thread parks without occupying a
+ * carrier thread. Callers that wait longer than the timeout fail like on an exhausted connection pool.
+ */
+public class ConcurrencyLimitingDataSource extends DelegatingDataSource {
+
+  private final Semaphore permits;
+  private final Duration acquireTimeout;
+
+  /**
+   * Creates a data source limiting the concurrent use of the given one.
+   *
+   * @param target         the data source providing the connections
+   * @param maxConcurrency the number of connections that may be in use at the same time
+   * @param acquireTimeout how long a caller waits for a connection before giving up
+   */
+  public ConcurrencyLimitingDataSource(DataSource target, int maxConcurrency, Duration acquireTimeout) {
+    super(target);
+    this.permits = new Semaphore(maxConcurrency, true);
+    this.acquireTimeout = acquireTimeout;
+  }
+
+  @Override
+  public Connection getConnection() throws SQLException {
+    acquire();
+    try {
+      return releasingOnClose(obtainTargetDataSource().getConnection());
+    } catch (SQLException | RuntimeException e) {
+      permits.release();
+      throw e;
+    }
+  }
+
+  @Override
+  public Connection getConnection(String username, String password) throws SQLException {
+    acquire();
+    try {
+      return releasingOnClose(obtainTargetDataSource().getConnection(username, password));
+    } catch (SQLException | RuntimeException e) {
+      permits.release();
+      throw e;
+    }
+  }
+
+  /**
+   * Returns the number of callers currently waiting for a connection.
+   *
+   * @return the number of waiting callers, an estimate while callers arrive and leave
+   */
+  public int getQueueLength() {
+    return permits.getQueueLength();
+  }
+
+  private void acquire() throws SQLException {
+    try {
+      if (!permits.tryAcquire(acquireTimeout.toNanos(), TimeUnit.NANOSECONDS)) {
+        throw new SQLTransientConnectionException(
+            "No database connection available within " + acquireTimeout.toMillis() + " ms, " + permits.getQueueLength() + " callers waiting");
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new SQLTransientConnectionException("Interrupted while waiting for a database connection", e);
+    }
+  }
+
+  /**
+   * Wraps a connection so that closing it returns the permit, exactly once, however often it is closed.
+   */
+  private Connection releasingOnClose(Connection connection) {
+    AtomicBoolean closed = new AtomicBoolean();
+    return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] {Connection.class},
+        (proxy, method, args) -> {
+          if (method.getName().equals("equals") && method.getParameterCount() == 1) {
+            return proxy == args[0];
+          }
+          if (method.getName().equals("hashCode") && method.getParameterCount() == 0) {
+            return System.identityHashCode(proxy);
+          }
+          boolean close = method.getName().equals("close") && method.getParameterCount() == 0;
+          try {
+            return method.invoke(connection, args);
+          } catch (InvocationTargetException e) {
+            throw e.getCause();
+          } finally {
+            if (close && closed.compareAndSet(false, true)) {
+              permits.release();
+            }
+          }
+        });
+  }
+}
@@ -0,0 +1,41 @@
+package at.ac.tuwien.sepr.assignment.individual.config;
+
+import java.time.Duration;
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration class limiting the concurrent access to the database.
+ * With request handling on virtual threads, thousands of requests may reach the persistence layer at the same time,
+ * far more than there are pooled connections. The data source is therefore wrapped in a
+ * {@link ConcurrencyLimitingDataSource}, where these requests queue fairly for one of a bounded number of connections.
+ */
+@Configuration
+public class DatabaseConcurrencyConfiguration {
+
+  /**
+   * Creates the post processor wrapping the data source in the concurrency limiter.
+   *
+   * @param maxConcurrency the number of connections that may be in use at the same time
+   * @param acquireTimeout how long a request waits for a connection before failing
+   * @return the configured {@link BeanPostProcessor}
+   */
+  @Bean
+  public static BeanPostProcessor concurrencyLimitingDataSourcePostProcessor(
+      @Value("${horse.jdbc.max-concurrency:10}") int maxConcurrency,
+      @Value("${horse.jdbc.acquire-timeout:30s}") Duration acquireTimeout) {
+    return new BeanPostProcessor() {
+      @Override
+      public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && !(bean instanceof ConcurrencyLimitingDataSource)) {
+          return new ConcurrencyLimitingDataSource(dataSource, maxConcurrency, acquireTimeout);
+        }
+        return bean;
+      }
+    };
+  }
+}
@@ -0,0 +1,63 @@
+package at.ac.tuwien.sepr.assignment.individual.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+import java.util.List;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Configuration class for the message converters of the REST endpoints in addition to the default ones.
+ * Besides JSON, all responses and request bodies handled by Jackson can be encoded as CBOR ({@code application/cbor})
+ * or Smile ({@code application/x-jackson-smile}), which clients select through the {@code Accept} and
+ * {@code Content-Type} headers.
+ */
+@Configuration
+public class MessageConverterConfiguration implements WebMvcConfigurer {
+
+  private final ObjectProvider<Jackson2ObjectMapperBuilder> objectMapperBuilder;
+
+  @Autowired
+  public MessageConverterConfiguration(ObjectProvider<Jackson2ObjectMapperBuilder> objectMapperBuilder) {
+    this.objectMapperBuilder = objectMapperBuilder;
+  }
+
+  /**
+   * Registers the converter for {@link java.nio.ByteBuffer} response bodies ahead of the default converters, and the
+   * converters for CBOR and Smile right after the JSON converter, so that JSON stays the default for clients that
+   * accept any format. The binary converters are configured by the same builder as the JSON converter, so all three
+   * formats contain the same properties with the same values, such as dates in ISO format.
+   *
+   * @param converters the default converters, to be extended
+   */
+  @Override
+  public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+
+    converters.removeIf(converter -> converter instanceof MappingJackson2CborHttpMessageConverter
+        || converter instanceof MappingJackson2SmileHttpMessageConverter);
+
+    int json = 0;
+    for (int i = 0; i < converters.size(); i++) {
+      if (converters.get(i) instanceof MappingJackson2HttpMessageConverter) {
+        json = i + 1;
+      }
+    }
+    converters.add(json, new MappingJackson2SmileHttpMessageConverter(builder().factory(new SmileFactory()).build()));
+    converters.add(json, new MappingJackson2CborHttpMessageConverter(builder().factory(new CBORFactory()).build()));
+
+    converters.addFirst(new ByteBufferHttpMessageConverter());
+  }
+
+  private Jackson2ObjectMapperBuilder builder() {
+    return objectMapperBuilder.getIfAvailable(Jackson2ObjectMapperBuilder::json);
+  }
+}
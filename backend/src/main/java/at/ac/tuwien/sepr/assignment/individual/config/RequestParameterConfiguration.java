@@ -0,0 +1,27 @@
+package at.ac.tuwien.sepr.assignment.individual.config;
+
+import at.ac.tuwien.sepr.assignment.individual.type.FamilyTreeFormat;
+
+import java.util.Locale;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.format.FormatterRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Configuration class for the conversion of request parameters in addition to the default conversions.
+ */
+@Configuration
+public class RequestParameterConfiguration implements WebMvcConfigurer {
+
+  /**
+   * Registers a case-insensitive conversion of the {@link FamilyTreeFormat}, so that {@code format=graph} selects the
+   * same format as {@code format=GRAPH}. Unknown formats still fail to convert and are rejected with 400 Bad Request.
+   *
+   * @param registry the registry to add the conversions to
+   */
+  @Override
+  public void addFormatters(FormatterRegistry registry) {
+    registry.addConverter(String.class, FamilyTreeFormat.class, value -> FamilyTreeFormat.valueOf(value.trim().toUpperCase(Locale.ROOT)));
+  }
+}
@@ -0,0 +1,36 @@
+package at.ac.tuwien.sepr.assignment.individual.config;
+
+import java.util.concurrent.Executor;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Configuration class for the executor that matches created and updated horses against the saved searches.
+ * Matching runs after the write has been committed, on a pool separate from the request threads, so that it
+ * adds no latency to the write itself.
+ */
+@Configuration
+public class SavedSearchConfiguration {
+
+  /**
+   * Creates the bounded executor used for matching horses against the saved searches.
+   *
+   * @param threads       the number of matching threads
+   * @param queueCapacity the number of horses that may wait for a free thread
+   * @return the configured {@link Executor}
+   */
+  @Bean(name = "savedSearchExecutor")
+  public Executor savedSearchExecutor(@Value("${horse.saved-search.threads:1}") int threads,
+                                      @Value("${horse.saved-search.queue-capacity:1000}") int queueCapacity) {
+    ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+    executor.setCorePoolSize(threads);
+    executor.setMaxPoolSize(threads);
+    executor.setQueueCapacity(queueCapacity);
+    executor.setThreadNamePrefix("saved-search-");
+    executor.initialize();
+    return executor;
+  }
+}
@@ -0,0 +1,12 @@
+package at.ac.tuwien.sepr.assignment.individual.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Configuration class enabling scheduled background jobs, such as the nightly pedigree analytics.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfiguration {
+}
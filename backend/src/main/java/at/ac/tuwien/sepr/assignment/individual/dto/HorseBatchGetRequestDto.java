@@ -0,0 +1,13 @@
+package at.ac.tuwien.sepr.assignment.individual.dto;
+
+import java.util.List;
+
+/**
+ * Represents a Data Transfer Object (DTO) for retrieving several horses by their unique identifiers at once.
+ *
+ * @param ids the unique identifiers of the horses to retrieve
+ */
+public record HorseBatchGetRequestDto(
+    List<Long> ids
+) {
+}
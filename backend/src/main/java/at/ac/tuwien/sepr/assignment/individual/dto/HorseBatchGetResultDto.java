@@ -0,0 +1,15 @@
+package at.ac.tuwien.sepr.assignment.individual.dto;
+
+import java.util.List;
+
+/**
+ * Represents a Data Transfer Object (DTO) with the horses retrieved by their unique identifiers at once.
+ *
+ * @param horses   the details of the horses found, in the requested order without duplicates
+ * @param notFound the requested identifiers that do not belong to any horse, in the requested order
+ */
+public record HorseBatchGetResultDto(
+    List<HorseDetailDto> horses,
+    List<Long> notFound
+) {
+}
@@ -0,0 +1,13 @@
+package at.ac.tuwien.sepr.assignment.individual.dto;
+
+import java.util.List;
+
+/**
+ * Represents a Data Transfer Object (DTO) for deleting several horses at once.
+ *
+ * @param ids the unique identifiers of the horses to delete
+ */
+public record HorseBulkDeleteDto(
+    List<Long> ids
+) {
+}
@@ -0,0 +1,15 @@
+package at.ac.tuwien.sepr.assignment.individual.dto;
+
+import java.util.List;
+
+/**
+ * Represents a Data Transfer Object (DTO) for assigning several horses to the same owner at once.
+ *
+ * @param ids     the unique identifiers of the horses to reassign
+ * @param ownerId the unique identifier of the new owner, or null to remove the owner of the horses
+ */
+public record HorseBulkReassignOwnerDto(
+    List<Long> ids,
+    Long ownerId
+) {
+}
@@ -0,0 +1,11 @@
+package at.ac.tuwien.sepr.assignment.individual.dto;
+
+/**
+ * Represents a Data Transfer Object (DTO) with the outcome of a bulk operation on horses.
+ *
+ * @param affected the number of distinct horses that have been changed or deleted
+ */
+public record HorseBulkResultDto(
+    int affected
+) {
+}
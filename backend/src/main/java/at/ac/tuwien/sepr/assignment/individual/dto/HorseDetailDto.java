@@ -17,6 +17,8 @@ public record HorseDetailDto(
     HorseDetailOwnerDto owner,
     HorseParentDto mother,
     HorseParentDto father,
-    String imageUrl
+    String imageUrl,
+    long offspringCount,
+    long version
 ) {
 }
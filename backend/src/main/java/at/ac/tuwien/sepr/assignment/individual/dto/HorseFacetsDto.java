@@ -0,0 +1,16 @@
+package at.ac.tuwien.sepr.assignment.individual.dto;
+
+import at.ac.tuwien.sepr.assignment.individual.type.Sex;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Represents the facet counts of a horse search, i.e. the number of matching horses per sex, per decade of birth
+ * and per owner. Facets that were not requested are null; requested facets only contain values with at least one horse.
+ */
+public record HorseFacetsDto(
+    Map<Sex, Long> sex,
+    Map<Integer, Long> decade,
+    List<HorseOwnerFacetDto> owner
+) {
+}
@@ -0,0 +1,14 @@
+package at.ac.tuwien.sepr.assignment.individual.dto;
+
+import java.util.List;
+
+/**
+ * Represents a Data Transfer Object (DTO) for one or more family trees in a compact graph format.
+ * Every horse is contained exactly once in {@code nodes}, and {@code roots} holds the indices of the
+ * horses whose family trees were requested.
+ */
+public record HorseFamilyGraphDto(
+    List<Integer> roots,
+    List<HorseFamilyGraphNodeDto> nodes
+) {
+}
@@ -0,0 +1,19 @@
+package at.ac.tuwien.sepr.assignment.individual.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Represents a single horse within a {@link HorseFamilyGraphDto}.
+ * Parents are referenced by their index in {@link HorseFamilyGraphDto#nodes()} instead of being nested,
+ * so an ancestor that occurs several times in a pedigree is only transferred once.
+ * A node is marked as {@code truncated} if the horse has a mother or father that is not part of the graph.
+ */
+public record HorseFamilyGraphNodeDto(
+    Long id,
+    String name,
+    LocalDate dateOfBirth,
+    Integer mother,
+    Integer father,
+    boolean truncated
+) {
+}
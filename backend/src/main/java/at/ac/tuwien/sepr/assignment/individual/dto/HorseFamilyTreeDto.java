@@ -5,12 +5,15 @@ import java.time.LocalDate;
 /**
  * Represents a Data Transfer Object (DTO) for a horse's family tree.
  * Includes horse details along with references to its mother and father.
+ * A node is marked as {@code truncated} if the horse has a mother or father that is not part of the
+ * tree, either because the requested number of generations or the node budget was reached.
  */
 public record HorseFamilyTreeDto(
     Long id,
     String name,
     LocalDate dateOfBirth,
     HorseFamilyTreeDto mother,
-    HorseFamilyTreeDto father
+    HorseFamilyTreeDto father,
+    boolean truncated
 ) {
 }
@@ -0,0 +1,12 @@
+package at.ac.tuwien.sepr.assignment.individual.dto;
+
+import java.util.List;
+
+/**
+ * DTO to bundle the request body used in retrieving the family trees of several horses at once.
+ */
+public record HorseFamilyTreesRequestDto(
+    List<Long> ids,
+    int generations
+) {
+}
@@ -0,0 +1,13 @@
+package at.ac.tuwien.sepr.assignment.individual.dto;
+
+/**
+ * Represents a Data Transfer Object (DTO) for starting a resumable upload of a horse image.
+ *
+ * @param mimeType the MIME type of the image (e.g., "image/jpeg", "image/png")
+ * @param size     the total size of the image in bytes, which completes the upload once it has been received
+ */
+public record HorseImageUploadCreateDto(
+    String mimeType,
+    Long size
+) {
+}
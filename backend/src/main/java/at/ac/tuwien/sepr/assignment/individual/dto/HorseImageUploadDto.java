@@ -0,0 +1,22 @@
+package at.ac.tuwien.sepr.assignment.individual.dto;
+
+/**
+ * Represents a Data Transfer Object (DTO) for the state of a resumable upload of a horse image.
+ * An interrupted upload is resumed by sending the remaining bytes starting at {@code offset}.
+ *
+ * @param id       the identifier of the upload session
+ * @param horseId  the unique identifier of the horse receiving the image
+ * @param mimeType the MIME type of the image
+ * @param size     the total size of the image in bytes
+ * @param offset   the number of bytes received so far
+ * @param complete whether all bytes have been received and the image has been stored
+ */
+public record HorseImageUploadDto(
+    String id,
+    long horseId,
+    String mimeType,
+    long size,
+    long offset,
+    boolean complete
+) {
+}
@@ -13,6 +13,8 @@ public record HorseListDto(
     String description,
     LocalDate dateOfBirth,
     Sex sex,
-    HorseDetailOwnerDto owner
+    HorseDetailOwnerDto owner,
+    String imageUrl,
+    long offspringCount
 ) {
 }
\ No newline at end of file
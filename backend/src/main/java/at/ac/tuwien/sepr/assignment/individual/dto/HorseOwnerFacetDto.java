@@ -0,0 +1,13 @@
+package at.ac.tuwien.sepr.assignment.individual.dto;
+
+/**
+ * Represents the number of horses of one owner in a search result.
+ * The owner fields are null for the horses without an owner.
+ */
+public record HorseOwnerFacetDto(
+    Long ownerId,
+    String firstName,
+    String lastName,
+    long count
+) {
+}
@@ -0,0 +1,27 @@
+package at.ac.tuwien.sepr.assignment.individual.dto;
+
+/**
+ * Represents a Data Transfer Object (DTO) with the usage statistics of the horse search result cache.
+ *
+ * @param entries    the number of cached results, including results of an outdated write epoch
+ * @param maxEntries the maximum number of cached results
+ * @param horses     the number of horses contained in the cached results
+ * @param maxHorses  the maximum number of horses the cached results may contain
+ * @param epoch      the current write epoch, incremented by every write to horses or owners
+ * @param hits       the number of searches answered from the cache
+ * @param misses     the number of searches answered by the persistent data store
+ * @param evictions  the number of results evicted to stay within the limits
+ * @param hitRatio   the share of searches answered from the cache (0 to 1)
+ */
+public record HorseSearchCacheStatsDto(
+    int entries,
+    int maxEntries,
+    long horses,
+    long maxHorses,
+    long epoch,
+    long hits,
+    long misses,
+    long evictions,
+    double hitRatio
+) {
+}
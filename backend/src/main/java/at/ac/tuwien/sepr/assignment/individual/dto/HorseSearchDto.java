@@ -1,24 +1,38 @@
 package at.ac.tuwien.sepr.assignment.individual.dto;
 
+import at.ac.tuwien.sepr.assignment.individual.type.HorseSort;
 import at.ac.tuwien.sepr.assignment.individual.type.Sex;
 
 import java.time.LocalDate;
+import java.util.Set;
 
 import org.springframework.format.annotation.DateTimeFormat;
 
 /**
  * DTO to bundle the query parameters used in searching horses.
  * Each field can be null, in which case this field is not filtered by.
+ * Horses born on or after {@code bornFrom} and before {@code dateOfBirth} match, as do horses of any of the
+ * given sexes and owned by any of the given owners. Without {@code sort}, the horses are sorted by id.
+ * {@code descendantOf} restricts the result to the descendants of the given horse, optionally only those
+ * at most {@code maxGenerations} generations below it.
+ * With {@code fuzzy} set, {@code name} and {@code ownerName} also match misspelled names, ranked by similarity.
  */
 public record HorseSearchDto(
     String name,
     String description,
     @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
     LocalDate dateOfBirth,
-    Sex sex,
+    Set<Sex> sex,
     String ownerName,
     Long excludeId,
-    Integer limit
+    Integer limit,
+    HorseSort sort,
+    Long descendantOf,
+    Integer maxGenerations,
+    Boolean fuzzy,
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    LocalDate bornFrom,
+    Set<Long> ownerIds
 ) {
 
   /**
@@ -33,6 +47,12 @@ public record HorseSearchDto(
         && sex == null
         && ownerName == null
         && excludeId == null
-        && limit == null;
+        && limit == null
+        && sort == null
+        && descendantOf == null
+        && maxGenerations == null
+        && fuzzy == null
+        && bornFrom == null
+        && ownerIds == null;
   }
 }
\ No newline at end of file
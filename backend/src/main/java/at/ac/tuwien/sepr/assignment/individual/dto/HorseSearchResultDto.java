@@ -0,0 +1,13 @@
+package at.ac.tuwien.sepr.assignment.individual.dto;
+
+import java.util.List;
+
+/**
+ * Represents the result of a horse search together with its facet counts.
+ * The facets count all matching horses, regardless of the limit applied to {@code horses}.
+ */
+public record HorseSearchResultDto(
+    List<HorseListDto> horses,
+    HorseFacetsDto facets
+) {
+}
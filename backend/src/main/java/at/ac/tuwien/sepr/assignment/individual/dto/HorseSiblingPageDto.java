@@ -0,0 +1,13 @@
+package at.ac.tuwien.sepr.assignment.individual.dto;
+
+import java.util.List;
+
+/**
+ * Represents one page of the siblings of a horse that share the same relation.
+ * {@code total} is the number of such siblings across all pages.
+ */
+public record HorseSiblingPageDto(
+    List<HorseSiblingDto> siblings,
+    long total
+) {
+}
@@ -0,0 +1,12 @@
+package at.ac.tuwien.sepr.assignment.individual.dto;
+
+/**
+ * Represents a Data Transfer Object (DTO) for the siblings of a horse, grouped by their relation.
+ * Each group is paged independently with the same page number and size.
+ */
+public record HorseSiblingsDto(
+    HorseSiblingPageDto fullSiblings,
+    HorseSiblingPageDto maternalHalfSiblings,
+    HorseSiblingPageDto paternalHalfSiblings
+) {
+}
@@ -0,0 +1,16 @@
+package at.ac.tuwien.sepr.assignment.individual.dto;
+
+import at.ac.tuwien.sepr.assignment.individual.type.Sex;
+
+import java.time.LocalDate;
+
+/**
+ * Represents a Data Transfer Object (DTO) for a horse suggested while typing its name.
+ */
+public record HorseSuggestionDto(
+    long id,
+    String name,
+    LocalDate dateOfBirth,
+    Sex sex
+) {
+}
@@ -0,0 +1,28 @@
+package at.ac.tuwien.sepr.assignment.individual.dto;
+
+import at.ac.tuwien.sepr.assignment.individual.type.Sex;
+
+import java.time.LocalDate;
+
+import org.springframework.format.annotation.DateTimeFormat;
+
+/**
+ * DTO to bundle the query parameters of the horse name suggestions.
+ * A horse is suggested if every word of {@code prefix} is the beginning of a word of its name.
+ * The remaining fields can be null, in which case they are not filtered by.
+ *
+ * @param prefix     the name as typed so far
+ * @param sex        the sex the suggested horses must have
+ * @param bornBefore the date before which the suggested horses must have been born
+ * @param excludeId  the unique identifier of a horse that must not be suggested
+ * @param limit      the maximum number of suggestions
+ */
+public record HorseSuggestionSearchDto(
+    String prefix,
+    Sex sex,
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    LocalDate bornBefore,
+    Long excludeId,
+    Integer limit
+) {
+}
@@ -7,6 +7,8 @@ import java.time.LocalDate;
 /**
  * Represents a Data Transfer Object (DTO) for updating horse details.
  * This record encapsulates all necessary fields for updating a horse entry.
+ * The optional {@code version} is the version of the horse the changes are based on; if given, the update is
+ * rejected with a conflict when the horse has been changed since.
  */
 public record HorseUpdateDto(
     Long id,
@@ -17,6 +19,7 @@ public record HorseUpdateDto(
     Long ownerId,
     Long motherId,
     Long fatherId,
-    Boolean deleteImage
+    Boolean deleteImage,
+    Long version
 ) {
 }
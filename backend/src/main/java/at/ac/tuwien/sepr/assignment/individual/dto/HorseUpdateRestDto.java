@@ -7,6 +7,7 @@ import java.time.LocalDate;
 /**
  * REST-DTO for updating horses.
  * Contains the same fields as the normal update DTO, without the ID (which should come from the request URL instead)
+ * The version may alternatively be given as {@code If-Match} header.
  */
 public record HorseUpdateRestDto(
     String name,
@@ -16,7 +17,8 @@ public record HorseUpdateRestDto(
     Long ownerId,
     Long motherId,
     Long fatherId,
-    Boolean deleteImage
+    Boolean deleteImage,
+    Long version
 ) {
 
   /**
@@ -26,7 +28,7 @@ public record HorseUpdateRestDto(
    * @return A new HorseUpdateDto with the provided ID and other details
    */
   public HorseUpdateDto toUpdateDtoWithId(Long id) {
-    return new HorseUpdateDto(id, name, description, dateOfBirth, sex, ownerId, motherId, fatherId, deleteImage);
+    return new HorseUpdateDto(id, name, description, dateOfBirth, sex, ownerId, motherId, fatherId, deleteImage, version);
   }
 
 }
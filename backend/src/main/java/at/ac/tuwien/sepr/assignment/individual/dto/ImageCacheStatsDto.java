@@ -0,0 +1,23 @@
+package at.ac.tuwien.sepr.assignment.individual.dto;
+
+/**
+ * Represents a Data Transfer Object (DTO) with the usage statistics of the off-heap image cache.
+ *
+ * @param entries   the number of cached images
+ * @param bytes     the number of bytes occupied by the cached images
+ * @param maxBytes  the maximum number of bytes the cached images may occupy
+ * @param hits      the number of images served from the cache
+ * @param misses    the number of images loaded from the persistent data store
+ * @param evictions the number of images evicted to stay within the byte limit
+ * @param hitRatio  the share of images served from the cache (0 to 1)
+ */
+public record ImageCacheStatsDto(
+    int entries,
+    long bytes,
+    long maxBytes,
+    long hits,
+    long misses,
+    long evictions,
+    double hitRatio
+) {
+}
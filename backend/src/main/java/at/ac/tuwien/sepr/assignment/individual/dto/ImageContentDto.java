@@ -0,0 +1,19 @@
+package at.ac.tuwien.sepr.assignment.individual.dto;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Represents a Data Transfer Object (DTO) for an image served from the image cache.
+ * The data is a read-only view of the cached buffer, which may be located outside the Java heap,
+ * so it can be written to a response without copying it into a byte array first.
+ *
+ * @param hash     the SHA-256 hash identifying the image
+ * @param data     a read-only buffer positioned at the start of the image data
+ * @param mimeType the MIME type of the image (e.g., "image/jpeg", "image/png")
+ */
+public record ImageContentDto(
+    String hash,
+    ByteBuffer data,
+    String mimeType
+) {
+}
@@ -5,24 +5,28 @@ import java.util.Collection;
 /**
  * DTO to encapsulate parameters for Owner search.
  * An owner, whose name has {@code name} as a substring is considered matched.
+ * With {@code fuzzy} set, owners whose name is similar to {@code name} are matched instead, most similar first.
  *
  * @param name  substring of the owner's name
  * @param limit the maximum number of owners to return, even if there are more matches
+ * @param fuzzy whether to match by similarity instead of by substring, null meaning false
  */
 public record OwnerSearchDto(
     String name,
     Collection<Long> ids,
-    Integer limit // needs to be present always
+    Integer limit, // needs to be present always
+    Boolean fuzzy
 ) {
 
   /**
    * Checks if the search parameters are empty.
    *
-   * @return true if all search parameters (name, ids, limit) are null, false otherwise
+   * @return true if all search parameters (name, ids, limit, fuzzy) are null, false otherwise
    */
   public boolean isEmpty() {
     return name == null
         && ids == null
-        && limit == null;
+        && limit == null
+        && fuzzy == null;
   }
 }
@@ -0,0 +1,14 @@
+package at.ac.tuwien.sepr.assignment.individual.dto;
+
+/**
+ * DTO to bundle the query parameters of the owner name suggestions.
+ * An owner is suggested if every word of {@code prefix} is the beginning of its first or last name.
+ *
+ * @param prefix the name as typed so far
+ * @param limit  the maximum number of suggestions, may be null
+ */
+public record OwnerSuggestionSearchDto(
+    String prefix,
+    Integer limit
+) {
+}
@@ -0,0 +1,17 @@
+package at.ac.tuwien.sepr.assignment.individual.dto;
+
+/**
+ * Represents a Data Transfer Object (DTO) summarizing a run of the pedigree analytics batch job.
+ *
+ * @param horses          the number of horses whose statistics were recomputed
+ * @param generations     the number of generation layers that were processed
+ * @param durationMillis  the total wall-clock duration of the run in milliseconds
+ * @param horsesPerSecond the overall throughput of the run
+ */
+public record PedigreeAnalyticsRunDto(
+    int horses,
+    int generations,
+    long durationMillis,
+    double horsesPerSecond
+) {
+}
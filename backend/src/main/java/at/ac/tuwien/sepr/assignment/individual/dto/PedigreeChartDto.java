@@ -0,0 +1,13 @@
+package at.ac.tuwien.sepr.assignment.individual.dto;
+
+/**
+ * Represents a rendered pedigree chart.
+ * The {@code version} identifies the content of the rendered family tree and changes whenever
+ * a horse shown in the chart is changed, so it can be used as an entity tag.
+ */
+public record PedigreeChartDto(
+    byte[] image,
+    String mimeType,
+    String version
+) {
+}
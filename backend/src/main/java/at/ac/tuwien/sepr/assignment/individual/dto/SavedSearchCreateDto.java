@@ -0,0 +1,21 @@
+package at.ac.tuwien.sepr.assignment.individual.dto;
+
+import at.ac.tuwien.sepr.assignment.individual.type.Sex;
+
+import java.time.LocalDate;
+
+/**
+ * Represents a Data Transfer Object (DTO) for creating a saved search.
+ * A horse matches if its name and description contain the given texts (case-insensitive), it has the given sex and
+ * owner and it was born on or after {@code bornFrom} and before {@code bornBefore}. Criteria that are null match every horse.
+ */
+public record SavedSearchCreateDto(
+    String subscriber,
+    String name,
+    String description,
+    Sex sex,
+    LocalDate bornFrom,
+    LocalDate bornBefore,
+    Long ownerId
+) {
+}
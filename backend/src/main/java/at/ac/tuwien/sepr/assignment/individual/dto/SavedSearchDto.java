@@ -0,0 +1,20 @@
+package at.ac.tuwien.sepr.assignment.individual.dto;
+
+import at.ac.tuwien.sepr.assignment.individual.type.Sex;
+
+import java.time.LocalDate;
+
+/**
+ * Represents a Data Transfer Object (DTO) for a saved search and its criteria.
+ */
+public record SavedSearchDto(
+    long id,
+    String subscriber,
+    String name,
+    String description,
+    Sex sex,
+    LocalDate bornFrom,
+    LocalDate bornBefore,
+    Long ownerId
+) {
+}
@@ -0,0 +1,18 @@
+package at.ac.tuwien.sepr.assignment.individual.dto;
+
+import at.ac.tuwien.sepr.assignment.individual.type.Sex;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Represents a Data Transfer Object (DTO) for a horse that matched a saved search when it was created or updated.
+ */
+public record SavedSearchNotificationDto(
+    long horseId,
+    String horseName,
+    LocalDate dateOfBirth,
+    Sex sex,
+    LocalDateTime notifiedAt
+) {
+}
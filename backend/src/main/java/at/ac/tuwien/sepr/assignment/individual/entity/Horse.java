@@ -6,6 +6,9 @@ import java.time.LocalDate;
 
 /**
  * Represents a horse in the persistent data store.
+ * The number of offspring is a denormalized counter, which is maintained by the persistent data store on every write.
+ * The version is incremented by every write to the horse, including changes to the set of its children,
+ * and is used to detect concurrent modifications without locking.
  */
 public record Horse(
     Long id,
@@ -16,6 +19,8 @@ public record Horse(
     Long ownerId,
     Long motherId,
     Long fatherId,
-    String imageUrl
+    String imageUrl,
+    long offspringCount,
+    long version
 ) {
 }
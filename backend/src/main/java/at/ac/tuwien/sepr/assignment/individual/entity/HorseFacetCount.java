@@ -0,0 +1,20 @@
+package at.ac.tuwien.sepr.assignment.individual.entity;
+
+import at.ac.tuwien.sepr.assignment.individual.type.Sex;
+
+/**
+ * Represents the number of horses sharing one combination of facet values in a search result.
+ * Values of facets that were not requested are null, as is the owner of horses without one.
+ *
+ * @param sex     the sex of the horses
+ * @param decade  the first year of the decade the horses were born in
+ * @param ownerId the ID of the owner of the horses
+ * @param count   the number of horses with these values
+ */
+public record HorseFacetCount(
+    Sex sex,
+    Integer decade,
+    Long ownerId,
+    long count
+) {
+}
@@ -0,0 +1,19 @@
+package at.ac.tuwien.sepr.assignment.individual.entity;
+
+/**
+ * Represents the population-wide pedigree statistics computed for a single horse.
+ *
+ * @param horseId                the ID of the horse the statistics belong to
+ * @param inbreedingCoefficient  Wright's coefficient of inbreeding (0 for non-inbred horses)
+ * @param pedigreeCompleteness   the average share of known ancestors over the evaluated generations (0 to 1)
+ * @param generationDepth        the number of known ancestral generations (0 for founders)
+ * @param descendantCount        the number of distinct descendants over all generations, estimated beyond 256
+ */
+public record HorsePedigreeStatistics(
+    long horseId,
+    double inbreedingCoefficient,
+    double pedigreeCompleteness,
+    int generationDepth,
+    long descendantCount
+) {
+}
@@ -0,0 +1,30 @@
+package at.ac.tuwien.sepr.assignment.individual.entity;
+
+import at.ac.tuwien.sepr.assignment.individual.type.Sex;
+import at.ac.tuwien.sepr.assignment.individual.type.SiblingRelation;
+
+import java.time.LocalDate;
+
+/**
+ * Represents a sibling of a horse, as retrieved from the persistent data store.
+ * Siblings are numbered per relation in order of their date of birth, and each row carries the number of siblings
+ * with the same relation, so that a page of each group and its total can be read in a single query.
+ *
+ * @param id          the ID of the sibling
+ * @param name        the name of the sibling
+ * @param dateOfBirth the date of birth of the sibling
+ * @param sex         the sex of the sibling
+ * @param relation    how the sibling is related to the horse
+ * @param position    the position of the sibling within its relation, starting with {@code 1}
+ * @param total       the number of siblings with the same relation
+ */
+public record HorseSibling(
+    Long id,
+    String name,
+    LocalDate dateOfBirth,
+    Sex sex,
+    SiblingRelation relation,
+    long position,
+    long total
+) {
+}
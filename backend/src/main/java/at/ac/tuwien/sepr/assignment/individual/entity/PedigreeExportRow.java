@@ -0,0 +1,27 @@
+package at.ac.tuwien.sepr.assignment.individual.entity;
+
+import at.ac.tuwien.sepr.assignment.individual.type.Sex;
+
+import java.time.LocalDate;
+
+/**
+ * Represents a single horse of an exported pedigree.
+ * Horses are renumbered consecutively from {@code 1} in topological order (parents before their offspring),
+ * and parents are referenced by their number, with {@code 0} marking an unknown parent.
+ *
+ * @param number      the number of the horse in the export
+ * @param sireNumber  the number of the horse's father, or {@code 0} if unknown
+ * @param damNumber   the number of the horse's mother, or {@code 0} if unknown
+ * @param dateOfBirth the horse's date of birth
+ * @param sex         the horse's sex
+ * @param horseId     the ID of the horse in the persistent data store
+ */
+public record PedigreeExportRow(
+    long number,
+    long sireNumber,
+    long damNumber,
+    LocalDate dateOfBirth,
+    Sex sex,
+    long horseId
+) {
+}
@@ -0,0 +1,27 @@
+package at.ac.tuwien.sepr.assignment.individual.entity;
+
+/**
+ * Represents the complete parent graph of all horses in the persistent data store.
+ * Horses are stored in topological order (parents before their offspring), and parents
+ * are referenced by their position in that order rather than by their ID, with {@code -1}
+ * marking an unknown parent.
+ *
+ * @param ids           the horse IDs in topological order
+ * @param motherIndices the position of each horse's mother, or {@code -1} if unknown
+ * @param fatherIndices the position of each horse's father, or {@code -1} if unknown
+ */
+public record PedigreeGraph(
+    long[] ids,
+    int[] motherIndices,
+    int[] fatherIndices
+) {
+
+  /**
+   * Returns the number of horses in the graph.
+   *
+   * @return the number of horses
+   */
+  public int size() {
+    return ids.length;
+  }
+}
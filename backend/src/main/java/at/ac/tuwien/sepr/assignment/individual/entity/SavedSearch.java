@@ -0,0 +1,21 @@
+package at.ac.tuwien.sepr.assignment.individual.entity;
+
+import at.ac.tuwien.sepr.assignment.individual.type.Sex;
+
+import java.time.LocalDate;
+
+/**
+ * Represents a saved search in the persistent data store, whose subscriber is notified of every created or updated
+ * horse matching all of its criteria. Criteria that are null match every horse.
+ */
+public record SavedSearch(
+    Long id,
+    String subscriber,
+    String name,
+    String description,
+    Sex sex,
+    LocalDate bornFrom,
+    LocalDate bornBefore,
+    Long ownerId
+) {
+}
@@ -0,0 +1,13 @@
+package at.ac.tuwien.sepr.assignment.individual.exception;
+
+import java.util.List;
+
+/**
+ * Exception that signals, that a request was rejected as a whole,
+ * because its response would exceed a configured size limit.
+ */
+public class LimitExceededException extends ErrorListException {
+  public LimitExceededException(String messageSummary, List<String> errors) {
+    super("Limits", messageSummary, errors);
+  }
+}
@@ -0,0 +1,13 @@
+package at.ac.tuwien.sepr.assignment.individual.exception;
+
+import java.util.List;
+
+/**
+ * Exception that signals, that a conditional request was not executed,
+ * because the version given in its {@code If-Match} header is not the current one.
+ */
+public class PreconditionFailedException extends ErrorListException {
+  public PreconditionFailedException(String messageSummary, List<String> errors) {
+    super("Preconditions", messageSummary, errors);
+  }
+}
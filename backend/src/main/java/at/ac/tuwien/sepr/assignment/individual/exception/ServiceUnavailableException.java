@@ -0,0 +1,16 @@
+package at.ac.tuwien.sepr.assignment.individual.exception;
+
+/**
+ * Exception that signals, that a request cannot be processed at the moment,
+ * because a limited resource of the backend is exhausted.
+ * The request may be retried later.
+ */
+public class ServiceUnavailableException extends RuntimeException {
+  public ServiceUnavailableException(String message) {
+    super(message);
+  }
+
+  public ServiceUnavailableException(String message, Throwable cause) {
+    super(message, cause);
+  }
+}
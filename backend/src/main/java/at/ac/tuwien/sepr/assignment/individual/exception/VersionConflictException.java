@@ -0,0 +1,26 @@
+package at.ac.tuwien.sepr.assignment.individual.exception;
+
+import java.util.List;
+
+/**
+ * Exception that signals, that data was changed concurrently
+ * since the version the request was based on had been read.
+ * The request may be repeated after reloading the current data.
+ */
+public class VersionConflictException extends ConflictException {
+  private final List<Long> horseIds;
+
+  public VersionConflictException(String messageSummary, List<String> errors, List<Long> horseIds) {
+    super(messageSummary, errors);
+    this.horseIds = List.copyOf(horseIds);
+  }
+
+  /**
+   * Retrieves the horses that may have been changed concurrently.
+   *
+   * @return the unique identifiers of the horses
+   */
+  public List<Long> horseIds() {
+    return horseIds;
+  }
+}
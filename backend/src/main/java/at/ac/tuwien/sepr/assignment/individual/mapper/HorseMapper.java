@@ -2,13 +2,34 @@ package at.ac.tuwien.sepr.assignment.individual.mapper;
 
 import at.ac.tuwien.sepr.assignment.individual.dto.HorseDetailDto;
 import at.ac.tuwien.sepr.assignment.individual.dto.HorseDetailOwnerDto;
+import at.ac.tuwien.sepr.assignment.individual.dto.HorseFacetsDto;
 import at.ac.tuwien.sepr.assignment.individual.dto.HorseListDto;
+import at.ac.tuwien.sepr.assignment.individual.dto.HorseOwnerFacetDto;
 import at.ac.tuwien.sepr.assignment.individual.dto.HorseParentDto;
+import at.ac.tuwien.sepr.assignment.individual.dto.HorseSiblingDto;
+import at.ac.tuwien.sepr.assignment.individual.dto.HorseSiblingPageDto;
+import at.ac.tuwien.sepr.assignment.individual.dto.HorseSiblingsDto;
+import at.ac.tuwien.sepr.assignment.individual.dto.HorseSuggestionDto;
 import at.ac.tuwien.sepr.assignment.individual.entity.Horse;
+import at.ac.tuwien.sepr.assignment.individual.entity.HorseFacetCount;
+import at.ac.tuwien.sepr.assignment.individual.entity.HorseSibling;
 import at.ac.tuwien.sepr.assignment.individual.exception.FatalException;
+import at.ac.tuwien.sepr.assignment.individual.type.HorseFacet;
+import at.ac.tuwien.sepr.assignment.individual.type.HorseField;
+import at.ac.tuwien.sepr.assignment.individual.type.Sex;
+import at.ac.tuwien.sepr.assignment.individual.type.SiblingRelation;
 
 import java.lang.invoke.MethodHandles;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -46,7 +67,9 @@ public class HorseMapper {
         horse.description(),
         horse.dateOfBirth(),
         horse.sex(),
-        getOwner(horse, owners)
+        getOwner(horse, owners),
+        horse.imageUrl(),
+        horse.offspringCount()
     );
 
     LOG.debug("Converted horse id {} to HorseListDto [requestId={}]: {}", horse.id(), MDC.get("r"), result);
@@ -54,6 +77,41 @@ public class HorseMapper {
     return result;
   }
 
+  /**
+   * Converts a partially read {@link Horse} entity into the requested properties of its {@link HorseListDto}, so that
+   * only these are serialized. The id always comes first, followed by the requested properties in the order of
+   * {@link HorseListDto}; requested properties without a value are contained as null.
+   *
+   * @param horse  the horse entity containing at least the requested fields
+   * @param fields the fields to include
+   * @param owners a map of owner IDs to {@link HorseDetailOwnerDto} objects, must contain the horse’s owner if referenced
+   *               and {@link HorseField#OWNER} is requested
+   * @return an unmodifiable map of the requested property names to their values
+   * @throws FatalException if the owners map does not contain the horse’s owner ID when it is requested
+   */
+  public Map<String, Object> entityToFieldsDto(Horse horse, Set<HorseField> fields, Map<Long, HorseDetailOwnerDto> owners) {
+
+    Map<String, Object> result = new LinkedHashMap<>();
+    result.put(HorseField.ID.property(), horse.id());
+    for (HorseField field : HorseField.values()) {
+      if (field == HorseField.ID || !fields.contains(field)) {
+        continue;
+      }
+      switch (field) {
+        case NAME -> result.put(field.property(), horse.name());
+        case DESCRIPTION -> result.put(field.property(), horse.description());
+        case DATE_OF_BIRTH -> result.put(field.property(), horse.dateOfBirth());
+        case SEX -> result.put(field.property(), horse.sex());
+        case OWNER -> result.put(field.property(), getOwner(horse, owners));
+        case IMAGE_URL -> result.put(field.property(), horse.imageUrl());
+        case OFFSPRING_COUNT -> result.put(field.property(), horse.offspringCount());
+        default -> throw new FatalException("Unknown horse field " + field);
+      }
+    }
+
+    return Collections.unmodifiableMap(result);
+  }
+
   /**
    * Converts a {@link Horse} entity into a {@link HorseDetailDto} with detailed information.
    *
@@ -83,7 +141,9 @@ public class HorseMapper {
         getOwner(horse, owners),
         mother,
         father,
-        horse.imageUrl()
+        horse.imageUrl(),
+        horse.offspringCount(),
+        horse.version()
     );
 
     LOG.debug("Converted horse id {} to HorseDetailDto [requestId={}]: {}", horse.id(), MDC.get("r"), result);
@@ -91,6 +151,98 @@ public class HorseMapper {
     return result;
   }
 
+  /**
+   * Groups the sibling rows of a horse by relation into one page per relation.
+   * Rows outside of the requested page, which are only retrieved for the totals, are not included in the pages.
+   *
+   * @param siblings the sibling rows as retrieved from the persistent data store
+   * @param offset   the number of siblings skipped in each relation
+   * @return a {@link HorseSiblingsDto} with one page per relation
+   */
+  public HorseSiblingsDto entitiesToSiblingsDto(List<HorseSibling> siblings, int offset) {
+
+    Map<SiblingRelation, List<HorseSiblingDto>> pages = new EnumMap<>(SiblingRelation.class);
+    Map<SiblingRelation, Long> totals = new EnumMap<>(SiblingRelation.class);
+    for (SiblingRelation relation : SiblingRelation.values()) {
+      pages.put(relation, new ArrayList<>());
+      totals.put(relation, 0L);
+    }
+    for (HorseSibling sibling : siblings) {
+      totals.put(sibling.relation(), sibling.total());
+      if (sibling.position() > offset) {
+        pages.get(sibling.relation()).add(new HorseSiblingDto(sibling.id(), sibling.name(), sibling.dateOfBirth(), sibling.sex()));
+      }
+    }
+
+    return new HorseSiblingsDto(
+        new HorseSiblingPageDto(pages.get(SiblingRelation.FULL), totals.get(SiblingRelation.FULL)),
+        new HorseSiblingPageDto(pages.get(SiblingRelation.MATERNAL_HALF), totals.get(SiblingRelation.MATERNAL_HALF)),
+        new HorseSiblingPageDto(pages.get(SiblingRelation.PATERNAL_HALF), totals.get(SiblingRelation.PATERNAL_HALF)));
+  }
+
+  /**
+   * Converts a {@link Horse} entity into a {@link HorseSuggestionDto} for the name suggestions.
+   *
+   * @param horse the horse entity to convert
+   * @return the corresponding {@link HorseSuggestionDto}
+   */
+  public HorseSuggestionDto entityToSuggestionDto(Horse horse) {
+    return new HorseSuggestionDto(horse.id(), horse.name(), horse.dateOfBirth(), horse.sex());
+  }
+
+  /**
+   * Rolls the counts per combination of facet values up into the counts per value of each requested facet.
+   * Owners are ordered by descending count, then by ID, with the horses without an owner last.
+   *
+   * @param counts the number of horses per combination of facet values
+   * @param facets the requested facets; the others are null in the result
+   * @param owners a map of owner IDs to {@link HorseDetailOwnerDto} objects, must contain every owner referenced in {@code counts}
+   * @return the counts per facet value
+   * @throws FatalException if the owners map does not contain an owner ID referenced in {@code counts}
+   */
+  public HorseFacetsDto facetCountsToDto(List<HorseFacetCount> counts, Set<HorseFacet> facets, Map<Long, HorseDetailOwnerDto> owners) {
+
+    LOG.trace("Entering facetCountsToDto [requestId={}]: Rolling up {} facet groups", MDC.get("r"), counts.size());
+
+    Map<Sex, Long> sexes = new EnumMap<>(Sex.class);
+    Map<Integer, Long> decades = new TreeMap<>();
+    Map<Long, Long> ownerCounts = new HashMap<>();
+    for (HorseFacetCount count : counts) {
+      if (facets.contains(HorseFacet.SEX)) {
+        sexes.merge(count.sex(), count.count(), Long::sum);
+      }
+      if (facets.contains(HorseFacet.DECADE)) {
+        decades.merge(count.decade(), count.count(), Long::sum);
+      }
+      if (facets.contains(HorseFacet.OWNER)) {
+        ownerCounts.merge(count.ownerId(), count.count(), Long::sum);
+      }
+    }
+
+    List<HorseOwnerFacetDto> ownerFacets = new ArrayList<>();
+    for (Map.Entry<Long, Long> entry : ownerCounts.entrySet()) {
+      if (entry.getKey() == null) {
+        ownerFacets.add(new HorseOwnerFacetDto(null, null, null, entry.getValue()));
+        continue;
+      }
+      HorseDetailOwnerDto owner = owners.get(entry.getKey());
+      if (owner == null) {
+        LOG.error("Owner with ID {} not found in owners map [requestId={}]", entry.getKey(), MDC.get("r"));
+
+        throw new FatalException("Given owner map does not contain owner of this facet count (%d)".formatted(entry.getKey()));
+      }
+      ownerFacets.add(new HorseOwnerFacetDto(entry.getKey(), owner.firstName(), owner.lastName(), entry.getValue()));
+    }
+    ownerFacets.sort(Comparator.comparing((HorseOwnerFacetDto facet) -> facet.ownerId() == null)
+        .thenComparing(HorseOwnerFacetDto::count, Comparator.reverseOrder())
+        .thenComparing(HorseOwnerFacetDto::ownerId, Comparator.nullsLast(Comparator.naturalOrder())));
+
+    return new HorseFacetsDto(
+        facets.contains(HorseFacet.SEX) ? sexes : null,
+        facets.contains(HorseFacet.DECADE) ? decades : null,
+        facets.contains(HorseFacet.OWNER) ? ownerFacets : null);
+  }
+
   /**
    * Retrieves the owner DTO for a horse from the provided owners map.
    *
@@ -0,0 +1,42 @@
+package at.ac.tuwien.sepr.assignment.individual.mapper;
+
+import at.ac.tuwien.sepr.assignment.individual.dto.SavedSearchDto;
+import at.ac.tuwien.sepr.assignment.individual.entity.SavedSearch;
+
+import java.lang.invoke.MethodHandles;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.stereotype.Component;
+
+/**
+ * Mapper class responsible for converting {@link SavedSearch} entities to {@link SavedSearchDto} objects.
+ */
+@Component
+public class SavedSearchMapper {
+
+  private static final Logger LOG = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+  /**
+   * Converts a {@link SavedSearch} entity to a corresponding {@link SavedSearchDto}.
+   *
+   * @param savedSearch the {@link SavedSearch} entity to convert
+   * @return the corresponding {@link SavedSearchDto}
+   */
+  public SavedSearchDto entityToDto(SavedSearch savedSearch) {
+
+    LOG.trace("Entering entityToDto [requestId={}]: Converting saved search entity {}", MDC.get("r"), savedSearch);
+
+    return new SavedSearchDto(
+        savedSearch.id(),
+        savedSearch.subscriber(),
+        savedSearch.name(),
+        savedSearch.description(),
+        savedSearch.sex(),
+        savedSearch.bornFrom(),
+        savedSearch.bornBefore(),
+        savedSearch.ownerId()
+    );
+  }
+}
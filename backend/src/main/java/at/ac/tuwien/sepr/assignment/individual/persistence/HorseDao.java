@@ -7,9 +7,17 @@ import at.ac.tuwien.sepr.assignment.individual.dto.HorseParentDto;
 import at.ac.tuwien.sepr.assignment.individual.dto.HorseSearchDto;
 import at.ac.tuwien.sepr.assignment.individual.dto.HorseUpdateDto;
 import at.ac.tuwien.sepr.assignment.individual.entity.Horse;
+import at.ac.tuwien.sepr.assignment.individual.entity.HorseFacetCount;
+import at.ac.tuwien.sepr.assignment.individual.entity.HorseSibling;
 import at.ac.tuwien.sepr.assignment.individual.exception.NotFoundException;
+import at.ac.tuwien.sepr.assignment.individual.exception.VersionConflictException;
+import at.ac.tuwien.sepr.assignment.individual.type.HorseFacet;
+import at.ac.tuwien.sepr.assignment.individual.type.HorseField;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Data Access Object for horses.
@@ -26,6 +34,47 @@ public interface HorseDao {
    */
   Horse getById(long id) throws NotFoundException;
 
+  /**
+   * Retrieves all horses with the given unique identifiers in a single query.
+   * Identifiers that do not belong to any horse are silently skipped.
+   *
+   * @param ids the unique identifiers of the horses to retrieve
+   * @return a list of {@link Horse} entities in no particular order
+   */
+  List<Horse> getAllById(Collection<Long> ids);
+
+  /**
+   * Determines which of the given unique identifiers belong to existing horses, in a single query
+   * that reads only the identifiers.
+   *
+   * @param ids the unique identifiers to check
+   * @return the subset of {@code ids} that belong to existing horses
+   */
+  Set<Long> getExistingIds(Collection<Long> ids);
+
+  /**
+   * Counts the descendants of a horse within the given number of generations, with one query per generation.
+   * Counting stops as soon as {@code limit} descendants are found, so the cost is bounded by the limit.
+   *
+   * @param id             the unique identifier of the horse whose descendants are counted
+   * @param maxGenerations the number of generations below the horse to count
+   * @param limit          the number of descendants after which counting stops
+   * @return the number of descendants, or {@code limit} if there are at least as many
+   */
+  int countDescendants(long id, int maxGenerations, int limit);
+
+  /**
+   * Retrieves one page of the full, maternal half- and paternal half-siblings of a horse in a single query.
+   * Siblings are ordered by date of birth within each relation. Besides the siblings on the requested page,
+   * the first sibling of every relation is always returned, so that the total of every non-empty relation is known.
+   *
+   * @param id     the unique identifier of the horse whose siblings are to be retrieved
+   * @param offset the number of siblings to skip in each relation
+   * @param limit  the maximum number of siblings per relation
+   * @return a list of {@link HorseSibling} entities ordered by relation and position
+   */
+  List<HorseSibling> getSiblings(long id, int offset, int limit);
+
   /**
    * Retrieves the image associated with a horse by its unique identifier.
    *
@@ -35,6 +84,15 @@ public interface HorseDao {
    */
   HorseImageDto getImageById(long id) throws NotFoundException;
 
+  /**
+   * Retrieves the hash of the image associated with a horse, without loading the image itself.
+   *
+   * @param id the unique identifier of the horse whose image is to be retrieved
+   * @return the hash identifying the image of the horse
+   * @throws NotFoundException if no horse with the given {@code id} exists or it has no associated image
+   */
+  String getImageHashById(long id) throws NotFoundException;
+
   /**
    * Retrieves a horse's parent details by its unique identifier.
    *
@@ -44,6 +102,15 @@ public interface HorseDao {
    */
   HorseParentDto getParentById(long id) throws NotFoundException;
 
+  /**
+   * Retrieves the parent details of several horses by their unique identifiers in a single query.
+   * Identifiers that do not belong to any horse are silently skipped.
+   *
+   * @param ids the unique identifiers of the parent horses to retrieve
+   * @return a list of {@link HorseParentDto} containing the parents' IDs and names, in no particular order
+   */
+  List<HorseParentDto> getParentsById(Collection<Long> ids);
+
   /**
    * Retrieves all children of a horse by its unique identifier.
    *
@@ -61,36 +128,131 @@ public interface HorseDao {
 
   /**
    * Searches for horses based on specified search criteria.
+   * If {@code searchParameters.fuzzy} is set, horses match by the trigram similarity of their name to {@code searchParameters.name}
+   * instead of by substring, and the most similar horses come first.
    *
    * @param searchParameters the criteria to filter horses (e.g., name, sex, date of birth)
    * @return a list of {@link Horse} entities matching the search criteria
    */
   List<Horse> search(HorseSearchDto searchParameters);
 
+  /**
+   * Searches for horses as {@link #search(HorseSearchDto)} does, but only reads the columns of the requested fields
+   * and the id. Attributes that are not requested are null, or 0 for counters, in the returned entities, and the
+   * parents and version are never read. Search parameters without any criteria list all horses.
+   *
+   * @param searchParameters the criteria to filter horses
+   * @param fields           the fields to read
+   * @return a list of partially read {@link Horse} entities matching the search criteria
+   */
+  List<Horse> search(HorseSearchDto searchParameters, Set<HorseField> fields);
+
+  /**
+   * Counts the horses matching the search criteria per combination of the values of the requested facets,
+   * in a single aggregation over all matching horses. The sort order and limit of the search are ignored.
+   *
+   * @param searchParameters the criteria to filter horses
+   * @param facets           the facets to group the matching horses by, at least one
+   * @return one count per combination of facet values that occurs among the matching horses
+   */
+  List<HorseFacetCount> countFacets(HorseSearchDto searchParameters, Set<HorseFacet> facets);
+
+  /**
+   * Retrieves the execution plan the database uses for the query of {@link #search(HorseSearchDto)}, for example
+   * to check which indexes a combination of search criteria uses.
+   *
+   * @param searchParameters the criteria to filter horses
+   * @return the execution plan as reported by the database
+   */
+  String explainSearch(HorseSearchDto searchParameters);
+
   /**
    * Creates a new horse in the persistent data store.
+   * The offspring counters of its parents and the reference counter of its image are incremented in the same transaction.
+   * The versions of its parents are incremented as well, and if a parent is contained in {@code versions}, it must still
+   * have that version, so that a parent changed since it was validated is detected without locking it beforehand.
    *
-   * @param horse      the data transfer object containing the details for the new horse
-   * @param horseImage the optional image data and MIME type for the horse, or null if no image is provided
+   * @param horse     the data transfer object containing the details for the new horse
+   * @param imageHash the hash of the stored image of the horse, or null if no image is provided
+   * @param versions  the versions of existing horses the creation is based on, by their unique identifier
    * @return the newly created {@link Horse} entity
+   * @throws VersionConflictException if a parent has been changed since the version given in {@code versions}
    */
-  Horse create(HorseCreateDto horse, HorseImageDto horseImage);
+  Horse create(HorseCreateDto horse, String imageHash, Map<Long, Long> versions) throws VersionConflictException;
 
   /**
-   * Updates an existing horse in the persistent data store.
+   * Updates an existing horse in the persistent data store and increments its version.
+   * If its parents change, the offspring counters of the previous and the new parents are adjusted in the same transaction,
+   * and likewise the reference counters of the previous and the new image. If its parents or its date of birth change,
+   * the versions of its parents are incremented and checked against {@code versions} as in {@link #create}.
    *
-   * @param horse      the data transfer object containing the updated horse details, including the ID
-   * @param horseImage the optional new image data and MIME type, or null if unchanged or to be deleted
+   * @param horse     the data transfer object containing the updated horse details, including the ID
+   * @param imageHash the hash of the stored new image, or null if unchanged or to be deleted
+   * @param versions  the versions of the horse and the other existing horses the update is based on, by their unique
+   *                  identifier; without a version of the horse itself, the version read at the start of the update is used
    * @return the updated {@link Horse} entity
-   * @throws NotFoundException if no horse with the ID in {@code horse} exists in the persistent data store
+   * @throws NotFoundException        if no horse with the ID in {@code horse} exists in the persistent data store
+   * @throws VersionConflictException if the horse or a parent has been changed since the version given in {@code versions}
    */
-  Horse update(HorseUpdateDto horse, HorseImageDto horseImage) throws NotFoundException;
+  Horse update(HorseUpdateDto horse, String imageHash, Map<Long, Long> versions) throws NotFoundException, VersionConflictException;
+
+  /**
+   * Replaces the image of an existing horse with a stored image and increments its version,
+   * adjusting the reference counters of the previous and the new image in the same transaction.
+   *
+   * @param id        the unique identifier of the horse
+   * @param imageHash the hash of the stored new image
+   * @throws NotFoundException        if no horse with the given {@code id} exists in the persistent data store
+   * @throws VersionConflictException if the horse is changed concurrently
+   */
+  void updateImage(long id, String imageHash) throws NotFoundException, VersionConflictException;
 
   /**
    * Deletes a horse from the persistent data store by its unique identifier.
+   * The offspring counters of its parents and the reference counter of its image are decremented in the same transaction,
+   * and the versions of its parents and children are incremented, as their links to the horse are removed.
    *
    * @param id the unique identifier of the horse to delete
-   * @throws NotFoundException if no horse with the given {@code id} exists in the persistent data store
+   * @throws NotFoundException        if no horse with the given {@code id} exists in the persistent data store
+   * @throws VersionConflictException if the horse is changed concurrently
+   */
+  void delete(long id) throws NotFoundException, VersionConflictException;
+
+  /**
+   * Assigns all given horses to the same owner with a single statement and increments their versions,
+   * without checking them, so that a concurrent update based on the previous owner fails instead of undoing the change.
+   *
+   * @param ids     the unique identifiers of the horses to reassign
+   * @param ownerId the unique identifier of the new owner, or null to remove the owner
+   * @return the number of reassigned horses
+   * @throws VersionConflictException if one of the horses has been deleted concurrently
+   */
+  int reassignOwner(Collection<Long> ids, Long ownerId) throws VersionConflictException;
+
+  /**
+   * Deletes all given horses with a fixed number of set-based statements, independent of the number of horses.
+   * As for {@link #delete(long)}, the offspring counters of their remaining parents and the reference counters of their
+   * images are decremented in the same transaction, and the versions of their remaining parents and children are incremented.
+   *
+   * @param ids the unique identifiers of the horses to delete
+   * @return the number of deleted horses
+   * @throws VersionConflictException if one of the horses has been deleted concurrently
+   */
+  int deleteAll(Collection<Long> ids) throws VersionConflictException;
+
+  /**
+   * Recomputes the offspring counters of all horses from their parent links in a single statement.
+   * The counters are maintained on every write, so this only corrects counters that were changed outside of this application.
+   *
+   * @return the number of horses whose counter was incorrect and has been corrected
+   */
+  int repairOffspringCounts();
+
+  /**
+   * Adds the names of all horses that are missing from the trigram index of the fuzzy name search, such as
+   * horses inserted by SQL scripts. Names of horses written through this data access object are indexed on every write.
+   *
+   * @return the number of horses whose name has been indexed
    */
-  void delete(long id) throws NotFoundException;
-}
\ No newline at end of file
+  int indexMissingNames();
+}
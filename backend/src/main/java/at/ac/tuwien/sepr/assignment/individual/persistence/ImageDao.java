@@ -0,0 +1,59 @@
+package at.ac.tuwien.sepr.assignment.individual.persistence;
+
+import at.ac.tuwien.sepr.assignment.individual.dto.HorseImageDto;
+import at.ac.tuwien.sepr.assignment.individual.exception.NotFoundException;
+
+import java.io.InputStream;
+import java.time.LocalDateTime;
+
+/**
+ * Data Access Object for images, which are stored once per distinct content and identified by the SHA-256 hash
+ * of their content. Horses reference images by their hash; every image counts the horses referencing it.
+ */
+public interface ImageDao {
+
+  /**
+   * Marks an image as freshly stored if it already exists, which protects it from the next garbage collection.
+   *
+   * @param hash the SHA-256 hash of the image content, as lower-case hexadecimal string
+   * @return true if the image exists, false if it still has to be created
+   */
+  boolean touch(String hash);
+
+  /**
+   * Stores a new image. Storing an image that has been stored concurrently with the same hash has no effect.
+   * The data is passed to the database as a stream of the given length and never held in memory as a whole.
+   *
+   * @param hash     the SHA-256 hash of the image content, as lower-case hexadecimal string
+   * @param mimeType the MIME type of the image
+   * @param data     the stream of the image data, which is read but not closed
+   * @param length   the number of bytes to read from {@code data}
+   */
+  void create(String hash, String mimeType, InputStream data, long length);
+
+  /**
+   * Retrieves an image by the hash of its content.
+   *
+   * @param hash the SHA-256 hash of the image content, as lower-case hexadecimal string
+   * @return a {@link HorseImageDto} containing the image data and MIME type
+   * @throws NotFoundException if no image with the given {@code hash} exists
+   */
+  HorseImageDto getByHash(String hash) throws NotFoundException;
+
+  /**
+   * Recomputes the reference counters of all images from the horses referencing them,
+   * to repair counters that are inconsistent after a failure.
+   *
+   * @return the number of repaired counters
+   */
+  int repairReferenceCounts();
+
+  /**
+   * Deletes all images that are not referenced by any horse and have not been stored since {@code storedBefore}.
+   * Recently stored images are kept, as they may be about to be referenced by the horse they were uploaded for.
+   *
+   * @param storedBefore the time before which unreferenced images have to have been stored to be deleted
+   * @return the number of deleted images
+   */
+  int deleteUnreferenced(LocalDateTime storedBefore);
+}
@@ -32,6 +32,8 @@ public interface OwnerDao {
   /**
    * Searches for owners based on specified search criteria.
    * An owner matches if its full name (first name + last name) contains {@code searchParameters.name} as a substring (case-insensitive).
+   * If {@code searchParameters.fuzzy} is set, an owner matches if its full name is similar to {@code searchParameters.name} by trigram
+   * similarity instead, and the most similar owners come first.
    * The result is limited to {@code searchParameters.limit} entries.
    *
    * @param searchParameters the search criteria to apply
@@ -46,4 +48,12 @@ public interface OwnerDao {
    * @return an {@link Owner} entity representing the newly created owner, including its generated ID
    */
   Owner create(OwnerCreateDto owner);
+
+  /**
+   * Adds the full names of all owners that are missing from the trigram index of the fuzzy name search, such as
+   * owners inserted by SQL scripts. Names of owners created through this data access object are indexed immediately.
+   *
+   * @return the number of owners whose name has been indexed
+   */
+  int indexMissingNames();
 }
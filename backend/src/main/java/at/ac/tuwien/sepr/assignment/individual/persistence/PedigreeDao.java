@@ -0,0 +1,43 @@
+package at.ac.tuwien.sepr.assignment.individual.persistence;
+
+import at.ac.tuwien.sepr.assignment.individual.entity.HorsePedigreeStatistics;
+import at.ac.tuwien.sepr.assignment.individual.entity.PedigreeExportRow;
+import at.ac.tuwien.sepr.assignment.individual.entity.PedigreeGraph;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Data Access Object for population-wide pedigree data.
+ * Provides bulk access to the parent graph of all horses and to their computed pedigree statistics.
+ */
+public interface PedigreeDao {
+
+  /**
+   * Loads the parent graph of all horses in a single pass over the persistent data store.
+   * Horses are ordered by date of birth, which is a topological order since parents must be older than their offspring.
+   *
+   * @return the {@link PedigreeGraph} of all horses
+   */
+  PedigreeGraph getParentGraph();
+
+  /**
+   * Writes the given pedigree statistics back to the persistent data store as one JDBC batch.
+   * Statistics of horses that no longer exist are silently ignored.
+   *
+   * @param statistics the statistics to store, one entry per horse
+   */
+  void updateStatistics(List<HorsePedigreeStatistics> statistics);
+
+  /**
+   * Streams the renumbered pedigree of all horses, or of the given horses and all their ancestors, to a consumer.
+   * Rows are passed in topological order, as parents must be older than their offspring. The ancestry and the
+   * renumbering are materialised in temporary tables of the persistent data store and rows are read from a cursor,
+   * so memory usage of the application does not depend on the number of exported horses.
+   *
+   * @param ids      the unique identifiers of the horses to export together with their ancestors, or {@code null} to export all horses
+   * @param consumer receives the exported rows one by one
+   */
+  void exportPedigree(Collection<Long> ids, Consumer<PedigreeExportRow> consumer);
+}
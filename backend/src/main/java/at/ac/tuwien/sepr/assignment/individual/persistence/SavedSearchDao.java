@@ -0,0 +1,66 @@
+package at.ac.tuwien.sepr.assignment.individual.persistence;
+
+import at.ac.tuwien.sepr.assignment.individual.dto.SavedSearchCreateDto;
+import at.ac.tuwien.sepr.assignment.individual.dto.SavedSearchNotificationDto;
+import at.ac.tuwien.sepr.assignment.individual.entity.SavedSearch;
+import at.ac.tuwien.sepr.assignment.individual.exception.NotFoundException;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Data Access Object for saved searches and the notifications recorded for them.
+ */
+public interface SavedSearchDao {
+
+  /**
+   * Retrieves a saved search by its unique identifier from the persistent data store.
+   *
+   * @param id the unique identifier of the saved search
+   * @return the {@link SavedSearch} with the specified {@code id}
+   * @throws NotFoundException if no saved search with the given {@code id} exists in the persistent data store
+   */
+  SavedSearch getById(long id) throws NotFoundException;
+
+  /**
+   * Retrieves all saved searches from the persistent data store.
+   *
+   * @return a list of all {@link SavedSearch} entities
+   */
+  List<SavedSearch> getAll();
+
+  /**
+   * Creates a new saved search in the persistent data store.
+   *
+   * @param savedSearch the criteria and subscriber of the saved search
+   * @return the newly created {@link SavedSearch}
+   */
+  SavedSearch create(SavedSearchCreateDto savedSearch);
+
+  /**
+   * Deletes a saved search and its notifications from the persistent data store.
+   *
+   * @param id the unique identifier of the saved search
+   * @throws NotFoundException if no saved search with the given {@code id} exists in the persistent data store
+   */
+  void delete(long id) throws NotFoundException;
+
+  /**
+   * Records that a horse matched the given saved searches, in a single statement.
+   * A horse that has already been recorded for a saved search, e.g. when it is updated, is not recorded again,
+   * and saved searches that no longer exist are skipped.
+   *
+   * @param horseId        the unique identifier of the matching horse
+   * @param savedSearchIds the unique identifiers of the matched saved searches
+   * @return the number of notifications that have been recorded
+   */
+  int recordNotifications(long horseId, Collection<Long> savedSearchIds);
+
+  /**
+   * Retrieves the horses that matched a saved search, most recent first.
+   *
+   * @param savedSearchId the unique identifier of the saved search
+   * @return the notifications of the saved search
+   */
+  List<SavedSearchNotificationDto> getNotifications(long savedSearchId);
+}
@@ -6,29 +6,46 @@ import at.ac.tuwien.sepr.assignment.individual.dto.HorseParentDto;
 import at.ac.tuwien.sepr.assignment.individual.dto.HorseSearchDto;
 import at.ac.tuwien.sepr.assignment.individual.dto.HorseUpdateDto;
 import at.ac.tuwien.sepr.assignment.individual.entity.Horse;
+import at.ac.tuwien.sepr.assignment.individual.entity.HorseFacetCount;
+import at.ac.tuwien.sepr.assignment.individual.entity.HorseSibling;
 import at.ac.tuwien.sepr.assignment.individual.exception.FatalException;
 import at.ac.tuwien.sepr.assignment.individual.exception.NotFoundException;
 import at.ac.tuwien.sepr.assignment.individual.exception.PersistenceException;
+import at.ac.tuwien.sepr.assignment.individual.exception.VersionConflictException;
 import at.ac.tuwien.sepr.assignment.individual.persistence.HorseDao;
+import at.ac.tuwien.sepr.assignment.individual.type.HorseFacet;
+import at.ac.tuwien.sepr.assignment.individual.type.HorseField;
+import at.ac.tuwien.sepr.assignment.individual.type.HorseSort;
 import at.ac.tuwien.sepr.assignment.individual.type.Sex;
+import at.ac.tuwien.sepr.assignment.individual.type.SiblingRelation;
 
 import java.lang.invoke.MethodHandles;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.ConcurrencyFailureException;
 import org.springframework.dao.DataAccessException;
 import org.springframework.jdbc.core.simple.JdbcClient;
 import org.springframework.jdbc.support.GeneratedKeyHolder;
 import org.springframework.jdbc.support.KeyHolder;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 /**
  * JDBC implementation of {@link HorseDao} for interacting with the database.
@@ -41,28 +58,94 @@ public class HorseJdbcDao implements HorseDao {
   private final JdbcClient jdbcClient;
 
   private static final String SQL_SELECT_IMAGE_BY_ID =
-      "SELECT image, mime_type FROM " + TABLE_NAME
-          + " WHERE ID = :id";
+      "SELECT i.data, i.mime_type FROM " + TABLE_NAME + " h"
+          + " JOIN image i ON i.hash = h.image_hash"
+          + " WHERE h.id = :id";
+
+  private static final String SQL_SELECT_IMAGE_HASH_BY_ID =
+      "SELECT image_hash FROM " + TABLE_NAME + " WHERE id = :id AND image_hash IS NOT NULL";
 
   private static final String SQL_SELECT_PARENT_BY_ID =
       "SELECT id, name "
           + "FROM " + TABLE_NAME
           + " WHERE id = :id";
 
+  private static final String SQL_SELECT_PARENTS_BY_ID =
+      "SELECT id, name "
+          + "FROM " + TABLE_NAME
+          + " WHERE id IN (:ids)";
+
   private static final String SQL_SELECT_CHILDREN_BY_ID =
       "SELECT id, date_of_birth, sex "
           + "FROM " + TABLE_NAME
           + " WHERE mother_id = :id OR father_id = :id";
 
   private static final String SQL_SELECT_ALL =
-      "SELECT id, name, description, date_of_birth, sex, owner_id, mother_id, father_id, "
-          + "CASE WHEN image IS NOT NULL THEN 1 ELSE 0 END AS has_image "
+      "SELECT id, name, description, date_of_birth, sex, owner_id, mother_id, father_id, offspring_count, image_hash, version "
           + "FROM " + TABLE_NAME;
 
+  private static final String SQL_SELECT_EXISTING_IDS =
+      "SELECT id FROM " + TABLE_NAME + " WHERE id IN (:ids)";
+
+  private static final String SQL_SELECT_CHILD_IDS =
+      "SELECT id FROM " + TABLE_NAME + " WHERE mother_id IN (:ids)"
+          + " UNION ALL "
+          + "SELECT id FROM " + TABLE_NAME + " WHERE father_id IN (:ids)";
+
+  private static final String SQL_SELECT_NAME_MATCHES =
+      "SELECT horse_id, CAST(COUNT(*) AS DOUBLE PRECISION) / (MAX(name_trigram_count) + :trigramCount - COUNT(*)) AS similarity"
+          + " FROM horse_name_trigram"
+          + " WHERE trigram IN (:trigrams)"
+          + " GROUP BY horse_id";
+
+  private static final String SQL_SELECT_UNINDEXED_NAMES =
+      "SELECT id, name FROM " + TABLE_NAME + " h"
+          + " WHERE NOT EXISTS (SELECT 1 FROM horse_name_trigram t WHERE t.horse_id = h.id)";
+
+  private static final String SQL_DELETE_NAME_TRIGRAMS =
+      "DELETE FROM horse_name_trigram WHERE horse_id = :id";
+
+  private static final String SQL_INSERT_NAME_TRIGRAMS =
+      "INSERT INTO horse_name_trigram (trigram, horse_id, name_trigram_count) VALUES :rows";
+
+  private static final String SQL_SELECT_SIBLINGS =
+      """
+          WITH target AS (
+            SELECT mother_id, father_id FROM horse WHERE id = :id
+          ),
+          candidate AS (
+            SELECT sibling.id, sibling.name, sibling.date_of_birth, sibling.sex, sibling.mother_id, sibling.father_id
+            FROM target JOIN horse sibling ON sibling.mother_id = target.mother_id
+            WHERE sibling.id <> :id
+            UNION
+            SELECT sibling.id, sibling.name, sibling.date_of_birth, sibling.sex, sibling.mother_id, sibling.father_id
+            FROM target JOIN horse sibling ON sibling.father_id = target.father_id
+            WHERE sibling.id <> :id
+          ),
+          classified AS (
+            SELECT candidate.id, candidate.name, candidate.date_of_birth, candidate.sex,
+                   CASE
+                     WHEN candidate.mother_id = target.mother_id AND candidate.father_id = target.father_id THEN 'FULL'
+                     WHEN candidate.mother_id = target.mother_id THEN 'MATERNAL_HALF'
+                     ELSE 'PATERNAL_HALF'
+                   END AS relation
+            FROM candidate, target
+          ),
+          ranked AS (
+            SELECT classified.*,
+                   ROW_NUMBER() OVER (PARTITION BY relation ORDER BY date_of_birth, id) AS position,
+                   COUNT(*) OVER (PARTITION BY relation) AS total
+            FROM classified
+          )
+          SELECT * FROM ranked
+          WHERE position = 1 OR position > :offset AND position <= :offset + :limit
+          ORDER BY relation, position
+          """;
+
   private static final String SQL_INSERT =
       "INSERT INTO " + TABLE_NAME
-          + " (name, description, date_of_birth, sex, owner_id, mother_id, father_id, image, mime_type) "
-          + "VALUES (:name, :description, :date_of_birth, :sex, :owner_id, :mother_id, :father_id, :image, :mime_type)";
+          + " (name, description, date_of_birth, sex, owner_id, mother_id, father_id, image_hash) "
+          + "VALUES (:name, :description, :date_of_birth, :sex, :owner_id, :mother_id, :father_id, :image_hash)";
 
   private static final String SQL_UPDATE_BY_ID =
       "UPDATE " + TABLE_NAME
@@ -74,14 +157,80 @@ public class HorseJdbcDao implements HorseDao {
                   owner_id = :owner_id,
                   mother_id = :mother_id,
                   father_id = :father_id,
-                  image = :image,
-                  mime_type = :mime_type
-              WHERE id = :id
+                  image_hash = :image_hash,
+                  version = version + 1
+              WHERE id = :id AND version = :version
+          """;
+
+  private static final String SQL_UPDATE_IMAGE_BY_ID =
+      "UPDATE " + TABLE_NAME + " SET image_hash = :image_hash, version = version + 1 WHERE id = :id AND version = :version";
+
+  private static final String SQL_SELECT_FOR_WRITE =
+      "SELECT date_of_birth, mother_id, father_id, offspring_count, image_hash, version FROM " + TABLE_NAME
+          + " WHERE id = :id";
+
+  private static final String SQL_ADJUST_IMAGE_REFERENCE_COUNT =
+      "UPDATE image SET reference_count = reference_count + :delta WHERE hash = :hash";
+
+  private static final String SQL_ADJUST_OFFSPRING_COUNTS =
+      "UPDATE " + TABLE_NAME
+          + " SET offspring_count = offspring_count + :delta, version = version + 1"
+          + " WHERE id IN (:ids)";
+
+  private static final String SQL_ADJUST_OFFSPRING_COUNT_OF_VERSION =
+      "UPDATE " + TABLE_NAME
+          + " SET offspring_count = offspring_count + :delta, version = version + 1"
+          + " WHERE id = :id AND version = :version";
+
+  private static final String SQL_INCREMENT_CHILD_VERSIONS =
+      "UPDATE " + TABLE_NAME
+          + " SET version = version + 1"
+          + " WHERE mother_id = :id OR father_id = :id";
+
+  private static final String SQL_REPAIR_OFFSPRING_COUNTS =
+      """
+          UPDATE horse h
+          SET offspring_count = (SELECT COUNT(*) FROM horse c WHERE c.mother_id = h.id)
+                              + (SELECT COUNT(*) FROM horse c WHERE c.father_id = h.id)
+          WHERE offspring_count <> (SELECT COUNT(*) FROM horse c WHERE c.mother_id = h.id)
+                                 + (SELECT COUNT(*) FROM horse c WHERE c.father_id = h.id)
           """;
 
   private static final String SQL_DELETE_BY_ID =
       "DELETE FROM " + TABLE_NAME
-          + " WHERE id = :id";
+          + " WHERE id = :id AND version = :version";
+
+  private static final String SQL_REASSIGN_OWNER =
+      "UPDATE " + TABLE_NAME
+          + " SET owner_id = :owner_id, version = version + 1"
+          + " WHERE id IN (:ids)";
+
+  private static final String SQL_INCREMENT_CHILD_VERSIONS_OF_ALL =
+      "UPDATE " + TABLE_NAME
+          + " SET version = version + 1"
+          + " WHERE (mother_id IN (:ids) OR father_id IN (:ids)) AND id NOT IN (:ids)";
+
+  private static final String SQL_DECREMENT_OFFSPRING_COUNTS_OF_ALL =
+      """
+          UPDATE horse p
+          SET offspring_count = p.offspring_count
+                                - (SELECT COUNT(*) FROM horse c WHERE c.mother_id = p.id AND c.id IN (:ids))
+                                - (SELECT COUNT(*) FROM horse c WHERE c.father_id = p.id AND c.id IN (:ids)),
+              version = p.version + 1
+          WHERE p.id NOT IN (:ids)
+            AND (p.id IN (SELECT mother_id FROM horse WHERE id IN (:ids)) OR p.id IN (SELECT father_id FROM horse WHERE id IN (:ids)))
+          """;
+
+  private static final String SQL_RELEASE_IMAGE_REFERENCES_OF_ALL =
+      """
+          UPDATE image i
+          SET reference_count = i.reference_count - (SELECT COUNT(*) FROM horse h WHERE h.image_hash = i.hash AND h.id IN (:ids))
+          WHERE i.hash IN (SELECT image_hash FROM horse WHERE id IN (:ids))
+          """;
+
+  private static final String SQL_DELETE_ALL_BY_ID =
+      "DELETE FROM " + TABLE_NAME
+          + " WHERE id IN (:ids)";
 
   @Autowired
   public HorseJdbcDao(JdbcClient jdbcClient) {
@@ -125,6 +274,112 @@ public class HorseJdbcDao implements HorseDao {
     }
   }
 
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public List<Horse> getAllById(Collection<Long> ids) {
+
+    LOG.trace("Entering getAllById [requestId={}]: Retrieving {} horses by id", MDC.get("r"), ids.size());
+
+    if (ids.isEmpty()) {
+      return List.of();
+    }
+
+    try {
+      List<Horse> horses = jdbcClient
+          .sql(SQL_SELECT_ALL + " WHERE id IN (:ids)")
+          .param("ids", ids)
+          .query(this::mapRow)
+          .list();
+
+      LOG.debug("Retrieved {} of {} requested horses [requestId={}]", horses.size(), ids.size(), MDC.get("r"));
+
+      return horses;
+
+    } catch (DataAccessException e) {
+      LOG.error("Database access failed for getAllById [requestId={}]: {}", MDC.get("r"), e.getMessage(), e);
+
+      throw new PersistenceException("Error accessing database", e);
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public Set<Long> getExistingIds(Collection<Long> ids) {
+
+    LOG.trace("Entering getExistingIds [requestId={}]: Checking {} horse ids", MDC.get("r"), ids.size());
+
+    if (ids.isEmpty()) {
+      return Set.of();
+    }
+
+    try {
+      Set<Long> existing = new HashSet<>(jdbcClient
+          .sql(SQL_SELECT_EXISTING_IDS)
+          .param("ids", ids)
+          .query(Long.class)
+          .list());
+
+      LOG.debug("Found {} of {} horse ids [requestId={}]", existing.size(), ids.size(), MDC.get("r"));
+
+      return existing;
+
+    } catch (DataAccessException e) {
+      LOG.error("Database access failed for getExistingIds [requestId={}]: {}", MDC.get("r"), e.getMessage(), e);
+
+      throw new PersistenceException("Error accessing database", e);
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public int countDescendants(long id, int maxGenerations, int limit) {
+
+    LOG.trace("Entering countDescendants [requestId={}]: Counting up to {} descendants of horse id {}", MDC.get("r"), limit, id);
+
+    return getDescendantIds(id, maxGenerations, limit).size();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public List<HorseSibling> getSiblings(long id, int offset, int limit) {
+
+    LOG.trace("Entering getSiblings [requestId={}]: Retrieving siblings of horse id {} with offset {} and limit {}", MDC.get("r"), id, offset, limit);
+
+    try {
+      List<HorseSibling> siblings = jdbcClient
+          .sql(SQL_SELECT_SIBLINGS)
+          .param("id", id)
+          .param("offset", offset)
+          .param("limit", limit)
+          .query((result, rowNum) -> new HorseSibling(
+              result.getLong("id"),
+              result.getString("name"),
+              result.getDate("date_of_birth").toLocalDate(),
+              Sex.valueOf(result.getString("sex")),
+              SiblingRelation.valueOf(result.getString("relation")),
+              result.getLong("position"),
+              result.getLong("total")))
+          .list();
+
+      LOG.debug("Retrieved {} sibling rows of horse id {} [requestId={}]", siblings.size(), id, MDC.get("r"));
+
+      return siblings;
+
+    } catch (DataAccessException e) {
+      LOG.error("Database access failed for getSiblings [requestId={}]: {}", MDC.get("r"), e.getMessage(), e);
+
+      throw new PersistenceException("Error accessing database", e);
+    }
+  }
+
   /**
    * {@inheritDoc}
    */
@@ -137,10 +392,10 @@ public class HorseJdbcDao implements HorseDao {
       List<HorseImageDto> images = jdbcClient
           .sql(SQL_SELECT_IMAGE_BY_ID)
           .param("id", id)
-          .query((rs, rowNum) -> new HorseImageDto(rs.getBytes("image"), rs.getString("mime_type")))
+          .query((rs, rowNum) -> new HorseImageDto(rs.getBytes("data"), rs.getString("mime_type")))
           .list();
 
-      if (images.isEmpty() || images.get(0) == null) {
+      if (images.isEmpty()) {
         LOG.warn("No image found for horse with ID {} [requestId={}]", id, MDC.get("r"));
 
         throw new NotFoundException("No image for horse with ID %d found".formatted(id));
@@ -162,6 +417,29 @@ public class HorseJdbcDao implements HorseDao {
     }
   }
 
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public String getImageHashById(long id) throws NotFoundException {
+
+    LOG.trace("Entering getImageHashById [requestId={}]: Retrieving image hash for horse with id {}", MDC.get("r"), id);
+
+    try {
+      return jdbcClient
+          .sql(SQL_SELECT_IMAGE_HASH_BY_ID)
+          .param("id", id)
+          .query(String.class)
+          .optional()
+          .orElseThrow(() -> new NotFoundException("No image for horse with ID %d found".formatted(id)));
+
+    } catch (DataAccessException e) {
+      LOG.error("Database access failed for getImageHashById with ID {} [requestId={}]: {}", id, MDC.get("r"), e.getMessage(), e);
+
+      throw new PersistenceException("Error accessing database", e);
+    }
+  }
+
   /**
    * {@inheritDoc}
    */
@@ -206,6 +484,36 @@ public class HorseJdbcDao implements HorseDao {
     }
   }
 
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public List<HorseParentDto> getParentsById(Collection<Long> ids) {
+
+    LOG.trace("Entering getParentsById [requestId={}]: Retrieving {} parents by id", MDC.get("r"), ids.size());
+
+    if (ids.isEmpty()) {
+      return List.of();
+    }
+
+    try {
+      List<HorseParentDto> parents = jdbcClient
+          .sql(SQL_SELECT_PARENTS_BY_ID)
+          .param("ids", ids)
+          .query(this::mapParentRow)
+          .list();
+
+      LOG.debug("Retrieved {} of {} requested parents [requestId={}]", parents.size(), ids.size(), MDC.get("r"));
+
+      return parents;
+
+    } catch (DataAccessException e) {
+      LOG.error("Database access failed for getParentsById [requestId={}]: {}", MDC.get("r"), e.getMessage(), e);
+
+      throw new PersistenceException("Error accessing database", e);
+    }
+  }
+
   /**
    * {@inheritDoc}
    */
@@ -265,10 +573,185 @@ public class HorseJdbcDao implements HorseDao {
 
     LOG.trace("Entering search [requestId={}]: Searching horses with parameters {}", MDC.get("r"), searchParameters);
 
+    try {
+      SearchQuery query = buildSearchQuery(searchParameters, SQL_SELECT_ALL);
+      List<Horse> horses = jdbcClient
+          .sql(query.sql())
+          .params(query.params())
+          .query(this::mapRow)
+          .list();
+
+      LOG.debug("Found {} horses matching search parameters [requestId={}]", horses.size(), MDC.get("r"));
+
+      return horses;
+
+    } catch (DataAccessException e) {
+      LOG.error("Database access failed for search with parameters {} [requestId={}]: {}", searchParameters, MDC.get("r"), e.getMessage(), e);
+
+      throw new PersistenceException("Error accessing database", e);
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public List<Horse> search(HorseSearchDto searchParameters, Set<HorseField> fields) {
+
+    LOG.trace("Entering search [requestId={}]: Searching fields {} of horses with parameters {}", MDC.get("r"), fields, searchParameters);
+
+    try {
+      String columns = EnumSet.copyOf(fields).stream()
+          .filter(field -> field != HorseField.ID)
+          .map(field -> ", " + field.column())
+          .collect(Collectors.joining());
+      SearchQuery query = buildSearchQuery(searchParameters, "SELECT id" + columns + " FROM " + TABLE_NAME);
+      List<Horse> horses = jdbcClient
+          .sql(query.sql())
+          .params(query.params())
+          .query((result, rowNum) -> mapFieldsRow(result, fields))
+          .list();
+
+      LOG.debug("Found {} horses matching search parameters, reading fields {} [requestId={}]", horses.size(), fields, MDC.get("r"));
+
+      return horses;
+
+    } catch (DataAccessException e) {
+      LOG.error("Database access failed for search with parameters {} [requestId={}]: {}", searchParameters, MDC.get("r"), e.getMessage(), e);
+
+      throw new PersistenceException("Error accessing database", e);
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public List<HorseFacetCount> countFacets(HorseSearchDto searchParameters, Set<HorseFacet> facets) {
+
+    LOG.trace("Entering countFacets [requestId={}]: Counting facets {} of search with parameters {}", MDC.get("r"), facets, searchParameters);
+
+    /*
+    All requested facets are counted in one aggregation over the matching horses, grouped by every
+    combination of facet values, instead of one query per facet or per facet value. The number of groups
+    is bounded by the product of the distinct values, which is small compared to the matching horses.
+     */
+    SearchFilter filter = buildSearchFilter(searchParameters);
+    List<String> columns = facets.stream()
+        .map(facet -> facet.column() + " AS facet_" + facet.name().toLowerCase(Locale.ROOT))
+        .toList();
+    String groupBy = String.join(", ", facets.stream().map(HorseFacet::column).toList());
+    String query = "SELECT " + String.join(", ", columns) + ", COUNT(*) AS horse_count FROM " + TABLE_NAME + filter.clauses()
+        + " GROUP BY " + groupBy;
+
+    try {
+      List<HorseFacetCount> counts = jdbcClient
+          .sql(query)
+          .params(filter.params())
+          .query((result, rowNum) -> new HorseFacetCount(
+              facets.contains(HorseFacet.SEX) ? Sex.valueOf(result.getString("facet_sex")) : null,
+              facets.contains(HorseFacet.DECADE) ? result.getInt("facet_decade") : null,
+              facets.contains(HorseFacet.OWNER) ? result.getObject("facet_owner", Long.class) : null,
+              result.getLong("horse_count")))
+          .list();
+
+      LOG.debug("Counted {} facet groups of search with parameters {} [requestId={}]", counts.size(), searchParameters, MDC.get("r"));
+
+      return counts;
+
+    } catch (DataAccessException e) {
+      LOG.error("Database access failed for countFacets with parameters {} [requestId={}]: {}", searchParameters, MDC.get("r"), e.getMessage(), e);
+
+      throw new PersistenceException("Error accessing database", e);
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public String explainSearch(HorseSearchDto searchParameters) {
+
+    LOG.trace("Entering explainSearch [requestId={}]: Explaining search with parameters {}", MDC.get("r"), searchParameters);
+
+    try {
+      SearchQuery query = buildSearchQuery(searchParameters, SQL_SELECT_ALL);
+      String plan = jdbcClient
+          .sql("EXPLAIN " + query.sql())
+          .params(query.params())
+          .query(String.class)
+          .single();
+
+      LOG.debug("Execution plan of search with parameters {} [requestId={}]: {}", searchParameters, MDC.get("r"), plan);
+
+      return plan;
+
+    } catch (DataAccessException e) {
+      LOG.error("Database access failed for explainSearch with parameters {} [requestId={}]: {}", searchParameters, MDC.get("r"), e.getMessage(), e);
+
+      throw new PersistenceException("Error accessing database", e);
+    }
+  }
+
+  /**
+   * Generates the SQL query and its parameters for a horse search.
+   *
+   * @param searchParameters the criteria to filter and sort horses
+   * @param select           the {@code SELECT} clause reading the columns from {@code FROM horse}
+   * @return the query to run
+   */
+  private SearchQuery buildSearchQuery(HorseSearchDto searchParameters, String select) {
+
+    /*
+    Every filter is a plain comparison or IN list on an indexed column, and every sort order matches an
+    index including its tiebreaker, so that the database can either look up the matching horses or read
+    them in the requested order from an index instead of scanning and sorting the whole table. Without
+    an explicit order the horses are sorted by id, which is answered by the primary key.
+     */
+    SearchFilter filter = buildSearchFilter(searchParameters);
+    Map<String, Object> params = new HashMap<>(filter.params());
+    String query = select + filter.clauses();
+
+    HorseSort sort = searchParameters.sort() == null ? HorseSort.ID_ASC : searchParameters.sort();
+    if (filter.ranked()) {
+      query += " ORDER BY name_match.similarity DESC, " + sort.orderBy();
+    } else {
+      query += " ORDER BY " + sort.orderBy();
+    }
+    if (searchParameters.limit() != null) {
+      params.put("limit", searchParameters.limit());
+      query += " LIMIT :limit";
+    }
+
+    return new SearchQuery(query, params);
+  }
+
+  /**
+   * Generates the join and {@code WHERE} clauses that restrict the horse table to the horses matching the
+   * search criteria, ignoring the sort order and limit.
+   *
+   * @param searchParameters the criteria to filter horses
+   * @return the clauses to append to {@code FROM horse}, and their parameters
+   */
+  private SearchFilter buildSearchFilter(HorseSearchDto searchParameters) {
+
     Map<String, Object> params = new HashMap<>();
     List<String> conditions = new ArrayList<>();
+    String clauses = "";
 
-    if (searchParameters.name() != null) {
+    /*
+    The fuzzy name search only looks at horses sharing at least one trigram with the searched name, found
+    through the primary key of the trigram index, instead of comparing the name of every horse. Names
+    without letters or digits have no trigrams and fall back to the substring search.
+     */
+    Set<String> trigrams = Boolean.TRUE.equals(searchParameters.fuzzy()) ? NameTrigrams.of(searchParameters.name()) : Set.of();
+    if (!trigrams.isEmpty()) {
+      params.put("trigrams", trigrams);
+      params.put("trigramCount", trigrams.size());
+      params.put("similarity", NameTrigrams.SIMILARITY_THRESHOLD);
+      clauses += " JOIN (" + SQL_SELECT_NAME_MATCHES + ") name_match ON name_match.horse_id = id";
+      conditions.add("name_match.similarity >= :similarity");
+    } else if (searchParameters.name() != null) {
       params.put("name", "%" + searchParameters.name() + "%");
       conditions.add("LOWER(name) LIKE LOWER(:name)");
     }
@@ -276,51 +759,100 @@ public class HorseJdbcDao implements HorseDao {
       params.put("description", "%" + searchParameters.description() + "%");
       conditions.add("LOWER(description) LIKE LOWER(:description)");
     }
+    if (searchParameters.bornFrom() != null) {
+      params.put("bornFrom", searchParameters.bornFrom());
+      conditions.add("date_of_birth >= :bornFrom");
+    }
     if (searchParameters.dateOfBirth() != null) {
       params.put("dateOfBirth", searchParameters.dateOfBirth());
       conditions.add("date_of_birth < :dateOfBirth");
     }
-    if (searchParameters.sex() != null) {
-      params.put("sex", searchParameters.sex().toString());
-      conditions.add("sex = :sex");
+    if (searchParameters.sex() != null && !searchParameters.sex().isEmpty()) {
+      params.put("sex", searchParameters.sex().stream().map(Sex::toString).toList());
+      conditions.add("sex IN (:sex)");
+    }
+    if (searchParameters.ownerIds() != null && !searchParameters.ownerIds().isEmpty()) {
+      params.put("ownerIds", searchParameters.ownerIds());
+      conditions.add("owner_id IN (:ownerIds)");
     }
     if (searchParameters.excludeId() != null) {
       params.put("excludeId", searchParameters.excludeId());
       conditions.add("id <> :excludeId");
     }
 
-    String query = SQL_SELECT_ALL;
-    if (!conditions.isEmpty()) {
-      query += " WHERE " + String.join(" AND ", conditions);
+    if (searchParameters.descendantOf() != null) {
+      Set<Long> descendants = getDescendantIds(searchParameters.descendantOf(),
+          searchParameters.maxGenerations() == null ? Integer.MAX_VALUE : searchParameters.maxGenerations(), Integer.MAX_VALUE);
+      if (descendants.isEmpty()) {
+        LOG.debug("Horse with ID {} has no descendants, search result is empty [requestId={}]", searchParameters.descendantOf(), MDC.get("r"));
+
+        conditions.add("FALSE");
+      } else {
+        params.put("descendants", descendants);
+        conditions.add("id IN (:descendants)");
+      }
     }
-    if (searchParameters.limit() != null) {
-      params.put("limit", searchParameters.limit());
-      query += " LIMIT :limit";
+
+    if (!conditions.isEmpty()) {
+      clauses += " WHERE " + String.join(" AND ", conditions);
     }
 
-    try {
-      List<Horse> horses = jdbcClient
-          .sql(query)
-          .params(params)
-          .query(this::mapRow)
-          .list();
+    return new SearchFilter(clauses, params, !trigrams.isEmpty());
+  }
 
-      LOG.debug("Found {} horses matching search parameters [requestId={}]", horses.size(), MDC.get("r"));
+  /**
+   * Collects the descendants of a horse generation by generation, with one query per generation.
+   * The service validates searches by descendants against the number of descendants beforehand, so the
+   * collected set, which is bound as a single {@code IN} list, stays bounded.
+   *
+   * @param id             the unique identifier of the horse whose descendants are collected
+   * @param maxGenerations the number of generations below the horse to collect
+   * @param limit          the number of descendants after which collecting stops
+   * @return the unique identifiers of the descendants within {@code maxGenerations} generations, at most {@code limit}
+   */
+  private Set<Long> getDescendantIds(long id, int maxGenerations, int limit) {
 
-      return horses;
+    /*
+    A recursive query would be the obvious choice, but H2 does not remove rows found in earlier iterations
+    of a recursive UNION. Every path from the horse to a descendant is then followed separately, and the
+    number of paths grows exponentially in inbred pedigrees. Expanding one generation per query and
+    skipping already visited horses keeps the work linear in the number of descendants, and each query
+    is answered from the mother and father indexes alone.
+     */
+    LOG.trace("Entering getDescendantIds [requestId={}]: Collecting {} generations of descendants of horse id {}", MDC.get("r"), maxGenerations, id);
 
+    Set<Long> descendants = new HashSet<>();
+    List<Long> generation = List.of(id);
+    int depth = 0;
+    try {
+      while (depth < maxGenerations && !generation.isEmpty() && descendants.size() < limit) {
+        generation = jdbcClient
+            .sql(SQL_SELECT_CHILD_IDS)
+            .param("ids", generation)
+            .query(Long.class)
+            .stream()
+            .takeWhile(childId -> descendants.size() < limit)
+            .filter(descendants::add)
+            .toList();
+        depth++;
+      }
     } catch (DataAccessException e) {
-      LOG.error("Database access failed for search with parameters {} [requestId={}]: {}", searchParameters, MDC.get("r"), e.getMessage(), e);
+      LOG.error("Database access failed for getDescendantIds with ID {} [requestId={}]: {}", id, MDC.get("r"), e.getMessage(), e);
 
       throw new PersistenceException("Error accessing database", e);
     }
+
+    LOG.debug("Collected {} descendants of horse id {} in {} generations [requestId={}]", descendants.size(), id, depth, MDC.get("r"));
+
+    return descendants;
   }
 
   /**
    * {@inheritDoc}
    */
   @Override
-  public Horse create(HorseCreateDto horse, HorseImageDto horseImage) {
+  @Transactional(rollbackFor = Exception.class)
+  public Horse create(HorseCreateDto horse, String imageHash, Map<Long, Long> versions) throws VersionConflictException {
 
     LOG.trace("Entering create [requestId={}]: Creating horse with data {}", MDC.get("r"), horse);
 
@@ -335,8 +867,7 @@ public class HorseJdbcDao implements HorseDao {
           .param("owner_id", horse.ownerId())
           .param("mother_id", horse.motherId())
           .param("father_id", horse.fatherId())
-          .param("image", horseImage == null ? null : horseImage.image())
-          .param("mime_type", horseImage == null ? null : horseImage.mimeType())
+          .param("image_hash", imageHash)
           .update(keyHolder);
 
       if (rowsAffected == 0 || keyHolder.getKey() == null) {
@@ -346,16 +877,24 @@ public class HorseJdbcDao implements HorseDao {
       }
 
       Long id = keyHolder.getKey().longValue();
+      adjustOffspringCounts(parentIds(horse.motherId(), horse.fatherId()), 1, versions);
+      adjustImageReferences(null, imageHash);
+      indexName(id, horse.name());
+
       Horse createdHorse = new Horse(
           id, horse.name(), horse.description(), horse.dateOfBirth(), horse.sex(),
           horse.ownerId(), horse.motherId(), horse.fatherId(),
-          horseImage == null ? null : "/horses/" + id + "/image"
+          imageUrl(imageHash),
+          0,
+          0
       );
 
       LOG.info("Successfully created horse with ID {} [requestId={}]", id, MDC.get("r"));
 
       return createdHorse;
 
+    } catch (ConcurrencyFailureException e) {
+      throw versionConflict(parentIds(horse.motherId(), horse.fatherId()), e);
     } catch (DataAccessException e) {
       LOG.error("Database access failed for create with data {} [requestId={}]: {}", horse, MDC.get("r"), e.getMessage(), e);
 
@@ -367,15 +906,23 @@ public class HorseJdbcDao implements HorseDao {
    * {@inheritDoc}
    */
   @Override
-  public Horse update(HorseUpdateDto horse, HorseImageDto horseImage) throws NotFoundException {
+  @Transactional(rollbackFor = Exception.class)
+  public Horse update(HorseUpdateDto horse, String imageHash, Map<Long, Long> versions) throws NotFoundException, VersionConflictException {
 
     LOG.trace("Entering update [requestId={}]: Updating horse with id {} and data {}", MDC.get("r"), horse.id(), horse);
 
-    if (horseImage == null && !horse.deleteImage()) {
-      horseImage = getImageById(horse.id());
-    }
-
     try {
+      CurrentHorse current = readForWrite(horse.id());
+      if (current == null) {
+        LOG.warn("No horse with ID {} found to update [requestId={}]", horse.id(), MDC.get("r"));
+
+        throw new NotFoundException("No horse with ID " + horse.id() + " found to update");
+      }
+      long version = versions.getOrDefault(horse.id(), current.version());
+
+      /* Keeping the image only keeps the reference to it, the image data itself is never read or written again. */
+      String newImageHash = imageHash != null || horse.deleteImage() ? imageHash : current.imageHash();
+
       int updated = jdbcClient
           .sql(SQL_UPDATE_BY_ID)
           .param("id", horse.id())
@@ -386,26 +933,45 @@ public class HorseJdbcDao implements HorseDao {
           .param("owner_id", horse.ownerId())
           .param("mother_id", horse.motherId())
           .param("father_id", horse.fatherId())
-          .param("image", horseImage == null ? null : horseImage.image())
-          .param("mime_type", horseImage == null ? null : horseImage.mimeType())
+          .param("image_hash", newImageHash)
+          .param("version", version)
           .update();
 
       if (updated == 0) {
-        LOG.warn("No horse with ID {} found to update [requestId={}]", horse.id(), MDC.get("r"));
+        throw versionConflict(List.of(horse.id()), null);
+      }
 
-        throw new NotFoundException("No horse with ID " + horse.id() + " found to update");
+      /*
+      Only a change of the parents or of the date of birth can invalidate the validated relation to the parents,
+      so all other updates leave the parents untouched and never conflict with concurrent updates of siblings.
+       */
+      List<Long> previousParents = parentIds(current.motherId(), current.fatherId());
+      List<Long> parents = parentIds(horse.motherId(), horse.fatherId());
+      adjustOffspringCounts(previousParents.stream().filter(parent -> !parents.contains(parent)).toList(), -1, Map.of());
+      adjustOffspringCounts(parents.stream().filter(parent -> !previousParents.contains(parent)).toList(), 1, versions);
+      if (!previousParents.equals(parents) || !current.dateOfBirth().equals(horse.dateOfBirth())) {
+        adjustOffspringCounts(parents.stream().filter(previousParents::contains).toList(), 0, versions);
       }
+      adjustImageReferences(current.imageHash(), newImageHash);
+      indexName(horse.id(), horse.name());
 
       Horse updatedHorse = new Horse(
           horse.id(), horse.name(), horse.description(), horse.dateOfBirth(), horse.sex(),
           horse.ownerId(), horse.motherId(), horse.fatherId(),
-          horseImage == null ? null : "/horses/" + horse.id() + "/image"
+          imageUrl(newImageHash),
+          current.offspringCount(),
+          version + 1
       );
 
-      LOG.info("Successfully updated horse with ID {} [requestId={}]", horse.id(), MDC.get("r"));
+      LOG.info("Successfully updated horse with ID {} to version {} [requestId={}]", horse.id(), version + 1, MDC.get("r"));
 
       return updatedHorse;
 
+    } catch (ConcurrencyFailureException e) {
+      // the write may have failed on the horse or on one of its parents, so all of them may have been changed
+      List<Long> ids = new ArrayList<>(List.of(horse.id()));
+      ids.addAll(parentIds(horse.motherId(), horse.fatherId()));
+      throw versionConflict(ids, e);
     } catch (DataAccessException e) {
       LOG.error("Database access failed for update with ID {} [requestId={}]: {}", horse.id(), MDC.get("r"), e.getMessage(), e);
 
@@ -417,24 +983,84 @@ public class HorseJdbcDao implements HorseDao {
    * {@inheritDoc}
    */
   @Override
-  public void delete(long id) throws NotFoundException {
+  @Transactional(rollbackFor = Exception.class)
+  public void updateImage(long id, String imageHash) throws NotFoundException, VersionConflictException {
+
+    LOG.trace("Entering updateImage [requestId={}]: Setting image {} for horse with id {}", MDC.get("r"), imageHash, id);
+
+    try {
+      CurrentHorse current = readForWrite(id);
+      if (current == null) {
+        LOG.warn("No horse with ID {} found to update the image [requestId={}]", id, MDC.get("r"));
 
+        throw new NotFoundException("No horse with ID " + id + " found to update the image");
+      }
+
+      int updated = jdbcClient
+          .sql(SQL_UPDATE_IMAGE_BY_ID)
+          .param("id", id)
+          .param("image_hash", imageHash)
+          .param("version", current.version())
+          .update();
+      if (updated == 0) {
+        throw versionConflict(List.of(id), null);
+      }
+      adjustImageReferences(current.imageHash(), imageHash);
+
+      LOG.info("Successfully set image {} for horse with ID {} [requestId={}]", imageHash, id, MDC.get("r"));
+
+    } catch (ConcurrencyFailureException e) {
+      throw versionConflict(List.of(id), e);
+    } catch (DataAccessException e) {
+      LOG.error("Database access failed for updateImage with ID {} [requestId={}]: {}", id, MDC.get("r"), e.getMessage(), e);
+
+      throw new PersistenceException("Error accessing database", e);
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  @Transactional(rollbackFor = Exception.class)
+  public void delete(long id) throws NotFoundException, VersionConflictException {
+
+    /*
+    The offspring of the deleted horse lose their link to it through ON DELETE SET NULL. This only
+    affects the counter of the deleted horse itself, which is removed together with its row, so only
+    the counters of its own parents have to be decremented. The versions of the offspring are incremented
+    before, as the database does not do so when it removes their link.
+     */
     LOG.trace("Entering delete [requestId={}]: Deleting horse with id {}", MDC.get("r"), id);
 
     try {
+      CurrentHorse current = readForWrite(id);
+      if (current == null) {
+        LOG.warn("No horse with ID {} found for deletion [requestId={}]", id, MDC.get("r"));
+
+        throw new NotFoundException("No horse with ID " + id + " found for deletion");
+      }
+      jdbcClient
+          .sql(SQL_INCREMENT_CHILD_VERSIONS)
+          .param("id", id)
+          .update();
+
       int rowsAffected = jdbcClient
           .sql(SQL_DELETE_BY_ID)
           .param("id", id)
+          .param("version", current.version())
           .update();
 
       if (rowsAffected == 0) {
-        LOG.warn("No horse with ID {} found for deletion [requestId={}]", id, MDC.get("r"));
-
-        throw new NotFoundException("No horse with ID " + id + " found for deletion");
+        throw versionConflict(List.of(id), null);
       }
+      adjustOffspringCounts(parentIds(current.motherId(), current.fatherId()), -1, Map.of());
+      adjustImageReferences(current.imageHash(), null);
 
       LOG.info("Successfully deleted horse with ID {} [requestId={}]", id, MDC.get("r"));
 
+    } catch (ConcurrencyFailureException e) {
+      throw versionConflict(List.of(id), e);
     } catch (DataAccessException e) {
       LOG.error("Database access failed for delete with ID {} [requestId={}]: {}", id, MDC.get("r"), e.getMessage(), e);
 
@@ -442,6 +1068,298 @@ public class HorseJdbcDao implements HorseDao {
     }
   }
 
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  @Transactional(rollbackFor = Exception.class)
+  public int reassignOwner(Collection<Long> ids, Long ownerId) throws VersionConflictException {
+
+    LOG.trace("Entering reassignOwner [requestId={}]: Assigning {} horses to owner {}", MDC.get("r"), ids.size(), ownerId);
+
+    try {
+      int updated = jdbcClient
+          .sql(SQL_REASSIGN_OWNER)
+          .param("owner_id", ownerId)
+          .param("ids", ids)
+          .update();
+
+      if (updated != ids.size()) {
+        throw versionConflict(List.copyOf(ids), null);
+      }
+
+      LOG.info("Successfully assigned {} horses to owner {} [requestId={}]", updated, ownerId, MDC.get("r"));
+
+      return updated;
+
+    } catch (ConcurrencyFailureException e) {
+      throw versionConflict(List.copyOf(ids), e);
+    } catch (DataAccessException e) {
+      LOG.error("Database access failed for reassignOwner of {} horses [requestId={}]: {}", ids.size(), MDC.get("r"), e.getMessage(), e);
+
+      throw new PersistenceException("Error accessing database", e);
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  @Transactional(rollbackFor = Exception.class)
+  public int deleteAll(Collection<Long> ids) throws VersionConflictException {
+
+    /*
+    The same bookkeeping as for a single deletion, but each step covers all horses at once: the counters and versions
+    of relatives that are deleted as well are left alone, as their rows are removed anyway, and the counters of parents
+    and images are decremented by the number of deleted children and references in the same statement.
+     */
+    LOG.trace("Entering deleteAll [requestId={}]: Deleting {} horses", MDC.get("r"), ids.size());
+
+    try {
+      jdbcClient
+          .sql(SQL_INCREMENT_CHILD_VERSIONS_OF_ALL)
+          .param("ids", ids)
+          .update();
+      jdbcClient
+          .sql(SQL_DECREMENT_OFFSPRING_COUNTS_OF_ALL)
+          .param("ids", ids)
+          .update();
+      jdbcClient
+          .sql(SQL_RELEASE_IMAGE_REFERENCES_OF_ALL)
+          .param("ids", ids)
+          .update();
+
+      int deleted = jdbcClient
+          .sql(SQL_DELETE_ALL_BY_ID)
+          .param("ids", ids)
+          .update();
+
+      if (deleted != ids.size()) {
+        throw versionConflict(List.copyOf(ids), null);
+      }
+
+      LOG.info("Successfully deleted {} horses [requestId={}]", deleted, MDC.get("r"));
+
+      return deleted;
+
+    } catch (ConcurrencyFailureException e) {
+      throw versionConflict(List.copyOf(ids), e);
+    } catch (DataAccessException e) {
+      LOG.error("Database access failed for deleteAll of {} horses [requestId={}]: {}", ids.size(), MDC.get("r"), e.getMessage(), e);
+
+      throw new PersistenceException("Error accessing database", e);
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public int repairOffspringCounts() {
+
+    LOG.trace("Entering repairOffspringCounts [requestId={}]: Recomputing offspring counters of all horses", MDC.get("r"));
+
+    try {
+      int repaired = jdbcClient
+          .sql(SQL_REPAIR_OFFSPRING_COUNTS)
+          .update();
+
+      LOG.debug("Repaired offspring counters of {} horses [requestId={}]", repaired, MDC.get("r"));
+
+      return repaired;
+
+    } catch (DataAccessException e) {
+      LOG.error("Database access failed for repairOffspringCounts [requestId={}]: {}", MDC.get("r"), e.getMessage(), e);
+
+      throw new PersistenceException("Error accessing database", e);
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  @Transactional
+  public int indexMissingNames() {
+
+    LOG.trace("Entering indexMissingNames [requestId={}]: Indexing names of horses without trigrams", MDC.get("r"));
+
+    try {
+      Map<Long, String> names = new HashMap<>();
+      jdbcClient
+          .sql(SQL_SELECT_UNINDEXED_NAMES)
+          .query(result -> {
+            names.put(result.getLong("id"), result.getString("name"));
+          });
+      names.forEach(this::indexName);
+
+      LOG.debug("Indexed names of {} horses [requestId={}]", names.size(), MDC.get("r"));
+
+      return names.size();
+
+    } catch (DataAccessException e) {
+      LOG.error("Database access failed for indexMissingNames [requestId={}]: {}", MDC.get("r"), e.getMessage(), e);
+
+      throw new PersistenceException("Error accessing database", e);
+    }
+  }
+
+  /**
+   * Replaces the trigrams of a horse name in the trigram index used by the fuzzy name search.
+   *
+   * @param id   the unique identifier of the horse
+   * @param name the current name of the horse
+   */
+  private void indexName(long id, String name) {
+
+    jdbcClient
+        .sql(SQL_DELETE_NAME_TRIGRAMS)
+        .param("id", id)
+        .update();
+
+    Set<String> trigrams = NameTrigrams.of(name);
+    if (!trigrams.isEmpty()) {
+      jdbcClient
+          .sql(SQL_INSERT_NAME_TRIGRAMS)
+          .param("rows", NameTrigrams.rows(id, trigrams))
+          .update();
+    }
+  }
+
+  /**
+   * Reads the parents, offspring counter, image and version of a horse that is about to be written, without locking it.
+   * The write is only applied if the horse still has the version read here, so a concurrent write in between is
+   * detected instead of being lost, and the parents cannot change before the counters of the previous parents have
+   * been adjusted.
+   *
+   * @param id the unique identifier of the horse to write
+   * @return the current state of the horse, or null if no horse with the given {@code id} exists
+   */
+  private CurrentHorse readForWrite(long id) {
+
+    return jdbcClient
+        .sql(SQL_SELECT_FOR_WRITE)
+        .param("id", id)
+        .query((result, rowNum) -> new CurrentHorse(
+            result.getDate("date_of_birth").toLocalDate(),
+            result.getObject("mother_id", Long.class),
+            result.getObject("father_id", Long.class),
+            result.getLong("offspring_count"),
+            result.getString("image_hash"),
+            result.getLong("version")))
+        .optional()
+        .orElse(null);
+  }
+
+  /**
+   * Adds {@code delta} to the offspring counters of the given horses and increments their versions, as their set of
+   * children changes. Horses contained in {@code versions} are only updated if they still have that version, one
+   * statement each; all others are updated with a single statement.
+   *
+   * @param parentIds the unique identifiers of the horses whose counters are to be adjusted
+   * @param delta     the value to add to each counter
+   * @param versions  the expected versions of horses by their unique identifier
+   * @throws VersionConflictException if a horse does not have its expected version anymore
+   */
+  private void adjustOffspringCounts(List<Long> parentIds, int delta, Map<Long, Long> versions) throws VersionConflictException {
+
+    List<Long> unchecked = new ArrayList<>(parentIds.size());
+    for (long parentId : parentIds) {
+      Long version = versions.get(parentId);
+      if (version == null) {
+        unchecked.add(parentId);
+        continue;
+      }
+      int updated = jdbcClient
+          .sql(SQL_ADJUST_OFFSPRING_COUNT_OF_VERSION)
+          .param("delta", delta)
+          .param("id", parentId)
+          .param("version", version)
+          .update();
+      if (updated == 0) {
+        throw versionConflict(List.of(parentId), null);
+      }
+    }
+    if (unchecked.isEmpty()) {
+      return;
+    }
+
+    jdbcClient
+        .sql(SQL_ADJUST_OFFSPRING_COUNTS)
+        .param("delta", delta)
+        .param("ids", unchecked)
+        .update();
+
+    LOG.debug("Adjusted offspring counters of horses {} by {} [requestId={}]", parentIds, delta, MDC.get("r"));
+  }
+
+  /**
+   * Creates the exception for a write that found a horse changed concurrently since the version it was based on.
+   *
+   * @param ids   the unique identifiers of the horses that may have been changed
+   * @param cause the exception reported by the database, or null if the version did not match
+   * @return the exception to throw
+   */
+  private static VersionConflictException versionConflict(List<Long> ids, Exception cause) {
+
+    LOG.warn("Concurrent modification of horses {} detected [requestId={}]: {}", ids, MDC.get("r"),
+        cause == null ? "version changed" : cause.getMessage());
+
+    return new VersionConflictException("Horse was changed concurrently",
+        ids.stream().map(id -> "Horse with ID %d has been changed by another request, reload it and try again".formatted(id)).toList(), ids);
+  }
+
+  /**
+   * Moves a reference from one image to another by adjusting both reference counters, if the images differ.
+   *
+   * @param previousHash the hash of the previously referenced image, or null if there was none
+   * @param hash         the hash of the newly referenced image, or null if there is none
+   */
+  private void adjustImageReferences(String previousHash, String hash) {
+
+    if (Objects.equals(previousHash, hash)) {
+      return;
+    }
+    for (String adjusted : new String[] {previousHash, hash}) {
+      if (adjusted != null) {
+        jdbcClient
+            .sql(SQL_ADJUST_IMAGE_REFERENCE_COUNT)
+            .param("delta", adjusted.equals(hash) ? 1 : -1)
+            .param("hash", adjusted)
+            .update();
+      }
+    }
+  }
+
+  /**
+   * Builds the URL of an image, which contains the hash of its content and therefore never changes its content.
+   *
+   * @param imageHash the hash of the image, or null if there is none
+   * @return the URL of the image, or null if there is none
+   */
+  private static String imageUrl(String imageHash) {
+    return imageHash == null ? null : "/images/" + imageHash;
+  }
+
+  /**
+   * Collects the known parents of a horse.
+   *
+   * @param motherId the unique identifier of the mother, or null if unknown
+   * @param fatherId the unique identifier of the father, or null if unknown
+   * @return the unique identifiers of the known parents
+   */
+  private static List<Long> parentIds(Long motherId, Long fatherId) {
+
+    List<Long> parents = new ArrayList<>(2);
+    if (motherId != null) {
+      parents.add(motherId);
+    }
+    if (fatherId != null) {
+      parents.add(fatherId);
+    }
+    return parents;
+  }
+
   /**
    * Maps a database result set row to a {@link Horse} entity.
    *
@@ -452,12 +1370,8 @@ public class HorseJdbcDao implements HorseDao {
    */
   private Horse mapRow(ResultSet result, int rowNum) throws SQLException {
 
-    long id = result.getLong("id");
-    boolean hasImage = result.getInt("has_image") == 1;
-    String imageUrl = hasImage ? "/horses/" + id + "/image" : null;
-
     return new Horse(
-        id,
+        result.getLong("id"),
         result.getString("name"),
         result.getString("description"),
         result.getDate("date_of_birth").toLocalDate(),
@@ -465,7 +1379,35 @@ public class HorseJdbcDao implements HorseDao {
         result.getObject("owner_id", Long.class),
         result.getObject("mother_id", Long.class),
         result.getObject("father_id", Long.class),
-        imageUrl
+        imageUrl(result.getString("image_hash")),
+        result.getLong("offspring_count"),
+        result.getLong("version")
+    );
+  }
+
+  /**
+   * Maps a database result set row that only contains the columns of the given fields to a {@link Horse} entity,
+   * leaving all other attributes null or 0.
+   *
+   * @param result the result set containing the requested columns
+   * @param fields the fields whose columns have been selected
+   * @return the partially mapped {@link Horse} entity
+   * @throws SQLException if an error occurs while accessing the result set
+   */
+  private static Horse mapFieldsRow(ResultSet result, Set<HorseField> fields) throws SQLException {
+
+    return new Horse(
+        result.getLong("id"),
+        fields.contains(HorseField.NAME) ? result.getString("name") : null,
+        fields.contains(HorseField.DESCRIPTION) ? result.getString("description") : null,
+        fields.contains(HorseField.DATE_OF_BIRTH) ? result.getDate("date_of_birth").toLocalDate() : null,
+        fields.contains(HorseField.SEX) ? Sex.valueOf(result.getString("sex")) : null,
+        fields.contains(HorseField.OWNER) ? result.getObject("owner_id", Long.class) : null,
+        null,
+        null,
+        fields.contains(HorseField.IMAGE_URL) ? imageUrl(result.getString("image_hash")) : null,
+        fields.contains(HorseField.OFFSPRING_COUNT) ? result.getLong("offspring_count") : 0,
+        0
     );
   }
 
@@ -504,7 +1446,28 @@ public class HorseJdbcDao implements HorseDao {
         null,
         null,
         null,
-        null
+        null,
+        0,
+        0
     );
   }
-}
\ No newline at end of file
+
+  /**
+   * The state of a horse read before writing it, which is only written if it still has this version.
+   */
+  private record CurrentHorse(LocalDate dateOfBirth, Long motherId, Long fatherId, long offspringCount, String imageHash, long version) {
+  }
+
+  /**
+   * A generated search query together with the values of its named parameters.
+   */
+  private record SearchQuery(String sql, Map<String, Object> params) {
+  }
+
+  /**
+   * The join and {@code WHERE} clauses of a search together with the values of their named parameters.
+   * {@code ranked} tells whether the clauses join the similarities of a fuzzy name search.
+   */
+  private record SearchFilter(String clauses, Map<String, Object> params, boolean ranked) {
+  }
+}
@@ -0,0 +1,182 @@
+package at.ac.tuwien.sepr.assignment.individual.persistence.impl;
+
+import at.ac.tuwien.sepr.assignment.individual.dto.HorseImageDto;
+import at.ac.tuwien.sepr.assignment.individual.exception.NotFoundException;
+import at.ac.tuwien.sepr.assignment.individual.exception.PersistenceException;
+import at.ac.tuwien.sepr.assignment.individual.persistence.ImageDao;
+
+import java.io.InputStream;
+import java.lang.invoke.MethodHandles;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.simple.JdbcClient;
+import org.springframework.jdbc.core.support.SqlBinaryValue;
+import org.springframework.stereotype.Repository;
+
+/**
+ * JDBC implementation of {@link ImageDao} for interacting with the database.
+ */
+@Repository
+public class ImageJdbcDao implements ImageDao {
+
+  private static final Logger LOG = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+  private static final String TABLE_NAME = "image";
+  private final JdbcClient jdbcClient;
+
+  private static final String SQL_TOUCH =
+      "UPDATE " + TABLE_NAME + " SET stored_at = CURRENT_TIMESTAMP WHERE hash = :hash";
+
+  private static final String SQL_INSERT =
+      "INSERT INTO " + TABLE_NAME + " (hash, data, mime_type, size) VALUES (:hash, :data, :mime_type, :size)";
+
+  private static final String SQL_SELECT_BY_HASH =
+      "SELECT data, mime_type FROM " + TABLE_NAME + " WHERE hash = :hash";
+
+  private static final String SQL_REPAIR_REFERENCE_COUNTS =
+      """
+          UPDATE image i
+          SET reference_count = (SELECT COUNT(*) FROM horse h WHERE h.image_hash = i.hash)
+          WHERE reference_count <> (SELECT COUNT(*) FROM horse h WHERE h.image_hash = i.hash)
+          """;
+
+  private static final String SQL_DELETE_UNREFERENCED =
+      """
+          DELETE FROM image i
+          WHERE i.reference_count = 0
+            AND i.stored_at < :storedBefore
+            AND NOT EXISTS (SELECT 1 FROM horse h WHERE h.image_hash = i.hash)
+          """;
+
+  @Autowired
+  public ImageJdbcDao(JdbcClient jdbcClient) {
+    this.jdbcClient = jdbcClient;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public boolean touch(String hash) {
+
+    LOG.trace("Entering touch [requestId={}]: Looking up image with hash {}", MDC.get("r"), hash);
+
+    try {
+      return jdbcClient
+          .sql(SQL_TOUCH)
+          .param("hash", hash)
+          .update() > 0;
+
+    } catch (DataAccessException e) {
+      LOG.error("Database access failed for touch with hash {} [requestId={}]: {}", hash, MDC.get("r"), e.getMessage(), e);
+
+      throw new PersistenceException("Error accessing database", e);
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void create(String hash, String mimeType, InputStream data, long length) {
+
+    LOG.trace("Entering create [requestId={}]: Storing image of {} bytes with hash {}", MDC.get("r"), length, hash);
+
+    try {
+      jdbcClient
+          .sql(SQL_INSERT)
+          .param("hash", hash)
+          .param("data", new SqlBinaryValue(data, length))
+          .param("mime_type", mimeType)
+          .param("size", length)
+          .update();
+
+      LOG.info("Successfully stored image of {} bytes with hash {} [requestId={}]", length, hash, MDC.get("r"));
+
+    } catch (DuplicateKeyException e) {
+      LOG.debug("Image with hash {} has been stored concurrently [requestId={}]", hash, MDC.get("r"));
+
+    } catch (DataAccessException e) {
+      LOG.error("Database access failed for create with hash {} [requestId={}]: {}", hash, MDC.get("r"), e.getMessage(), e);
+
+      throw new PersistenceException("Error accessing database", e);
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public HorseImageDto getByHash(String hash) throws NotFoundException {
+
+    LOG.trace("Entering getByHash [requestId={}]: Retrieving image with hash {}", MDC.get("r"), hash);
+
+    try {
+      List<HorseImageDto> images = jdbcClient
+          .sql(SQL_SELECT_BY_HASH)
+          .param("hash", hash)
+          .query((rs, rowNum) -> new HorseImageDto(rs.getBytes("data"), rs.getString("mime_type")))
+          .list();
+
+      if (images.isEmpty()) {
+        LOG.warn("No image with hash {} found [requestId={}]", hash, MDC.get("r"));
+
+        throw new NotFoundException("No image with hash %s found".formatted(hash));
+      }
+
+      return images.getFirst();
+
+    } catch (DataAccessException e) {
+      LOG.error("Database access failed for getByHash with hash {} [requestId={}]: {}", hash, MDC.get("r"), e.getMessage(), e);
+
+      throw new PersistenceException("Error accessing database", e);
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public int repairReferenceCounts() {
+
+    LOG.trace("Entering repairReferenceCounts [requestId={}]: Recomputing reference counters of all images", MDC.get("r"));
+
+    try {
+      return jdbcClient
+          .sql(SQL_REPAIR_REFERENCE_COUNTS)
+          .update();
+
+    } catch (DataAccessException e) {
+      LOG.error("Database access failed for repairReferenceCounts [requestId={}]: {}", MDC.get("r"), e.getMessage(), e);
+
+      throw new PersistenceException("Error accessing database", e);
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public int deleteUnreferenced(LocalDateTime storedBefore) {
+
+    LOG.trace("Entering deleteUnreferenced [requestId={}]: Deleting unreferenced images stored before {}", MDC.get("r"), storedBefore);
+
+    try {
+      return jdbcClient
+          .sql(SQL_DELETE_UNREFERENCED)
+          .param("storedBefore", storedBefore)
+          .update();
+
+    } catch (DataAccessException e) {
+      LOG.error("Database access failed for deleteUnreferenced [requestId={}]: {}", MDC.get("r"), e.getMessage(), e);
+
+      throw new PersistenceException("Error accessing database", e);
+    }
+  }
+}
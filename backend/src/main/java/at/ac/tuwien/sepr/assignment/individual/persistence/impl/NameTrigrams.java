@@ -0,0 +1,61 @@
+package at.ac.tuwien.sepr.assignment.individual.persistence.impl;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Splits names into trigrams for the fuzzy name search.
+ * Names are lower-cased and split into words at every character that is neither a letter nor a digit.
+ * Each word is padded with two spaces in front and one behind, so that the beginning of a word weighs
+ * more than its end, and contributes all three-character sequences of the padded word.
+ * Two names are similar if they share many trigrams; a single typo only affects up to three of them.
+ */
+final class NameTrigrams {
+
+  /**
+   * Minimum similarity of two names to be considered a match in a fuzzy search.
+   */
+  static final double SIMILARITY_THRESHOLD = 0.3;
+
+  private NameTrigrams() {
+  }
+
+  /**
+   * Computes the distinct trigrams of a name.
+   *
+   * @param name the name to split, may be null
+   * @return the distinct trigrams of the name, empty if the name contains no letters or digits
+   */
+  static Set<String> of(String name) {
+
+    Set<String> trigrams = new LinkedHashSet<>();
+    if (name == null) {
+      return trigrams;
+    }
+    for (String word : name.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+      if (word.isEmpty()) {
+        continue;
+      }
+      int[] codePoints = ("  " + word + " ").codePoints().toArray();
+      for (int i = 0; i + 3 <= codePoints.length; i++) {
+        trigrams.add(new String(codePoints, i, 3));
+      }
+    }
+    return trigrams;
+  }
+
+  /**
+   * Builds the rows of the trigram index of one name, for a multi-row {@code INSERT ... VALUES :rows}.
+   *
+   * @param id       the unique identifier of the entity the name belongs to
+   * @param trigrams the trigrams of the name
+   * @return one row {@code (trigram, id, number of trigrams)} per trigram
+   */
+  static List<Object[]> rows(long id, Set<String> trigrams) {
+    return trigrams.stream()
+        .map(trigram -> new Object[] {trigram, id, trigrams.size()})
+        .toList();
+  }
+}
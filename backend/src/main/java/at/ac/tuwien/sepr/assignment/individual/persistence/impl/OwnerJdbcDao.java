@@ -15,6 +15,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -25,6 +26,7 @@ import org.springframework.jdbc.core.simple.JdbcClient;
 import org.springframework.jdbc.support.GeneratedKeyHolder;
 import org.springframework.jdbc.support.KeyHolder;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 /**
  * JDBC implementation of {@link OwnerDao} for interacting with the database.
@@ -48,6 +50,19 @@ public class OwnerJdbcDao implements OwnerDao {
           + " (first_name, last_name, description) "
           + "VALUES (:firstName, :lastName, :description)";
 
+  private static final String SQL_SELECT_NAME_MATCHES =
+      "SELECT owner_id, CAST(COUNT(*) AS DOUBLE PRECISION) / (MAX(name_trigram_count) + :trigramCount - COUNT(*)) AS similarity"
+          + " FROM owner_name_trigram"
+          + " WHERE trigram IN (:trigrams)"
+          + " GROUP BY owner_id";
+
+  private static final String SQL_SELECT_UNINDEXED_NAMES =
+      "SELECT * FROM " + TABLE_NAME + " o"
+          + " WHERE NOT EXISTS (SELECT 1 FROM owner_name_trigram t WHERE t.owner_id = o.id)";
+
+  private static final String SQL_INSERT_NAME_TRIGRAMS =
+      "INSERT INTO owner_name_trigram (trigram, owner_id, name_trigram_count) VALUES :rows";
+
   @Autowired
   public OwnerJdbcDao(JdbcClient jdbcClient) {
     this.jdbcClient = jdbcClient;
@@ -125,8 +140,16 @@ public class OwnerJdbcDao implements OwnerDao {
 
     Map<String, Object> params = new HashMap<>();
     List<String> conditions = new ArrayList<>();
+    String query = SQL_SELECT_ALL;
 
-    if (searchParameters.name() != null) {
+    Set<String> trigrams = Boolean.TRUE.equals(searchParameters.fuzzy()) ? NameTrigrams.of(searchParameters.name()) : Set.of();
+    if (!trigrams.isEmpty()) {
+      params.put("trigrams", trigrams);
+      params.put("trigramCount", trigrams.size());
+      params.put("similarity", NameTrigrams.SIMILARITY_THRESHOLD);
+      query += " JOIN (" + SQL_SELECT_NAME_MATCHES + ") name_match ON name_match.owner_id = id";
+      conditions.add("name_match.similarity >= :similarity");
+    } else if (searchParameters.name() != null) {
       params.put("name", searchParameters.name());
       conditions.add("UPPER(first_name || ' ' || last_name) LIKE UPPER('%%' || COALESCE(:name, '') || '%%')");
     }
@@ -136,10 +159,12 @@ public class OwnerJdbcDao implements OwnerDao {
       conditions.add("id IN (:ids)");
     }
 
-    String query = SQL_SELECT_ALL;
     if (!conditions.isEmpty()) {
       query += " WHERE " + String.join(" AND ", conditions);
     }
+    if (!trigrams.isEmpty()) {
+      query += " ORDER BY name_match.similarity DESC, id ASC";
+    }
 
     if (searchParameters.limit() != null) {
       params.put("limit", searchParameters.limit());
@@ -168,6 +193,7 @@ public class OwnerJdbcDao implements OwnerDao {
    * {@inheritDoc}
    */
   @Override
+  @Transactional
   public Owner create(OwnerCreateDto owner) {
 
     LOG.trace("Entering create [requestId={}]: Creating owner with data {}", MDC.get("r"), owner);
@@ -189,6 +215,7 @@ public class OwnerJdbcDao implements OwnerDao {
 
       Long id = keyHolder.getKey().longValue();
       Owner createdOwner = new Owner(id, owner.firstName(), owner.lastName(), owner.description());
+      indexName(createdOwner);
 
       LOG.info("Successfully created owner with id {} [requestId={}]", id, MDC.get("r"));
 
@@ -201,6 +228,50 @@ public class OwnerJdbcDao implements OwnerDao {
     }
   }
 
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  @Transactional
+  public int indexMissingNames() {
+
+    LOG.trace("Entering indexMissingNames [requestId={}]: Indexing names of owners without trigrams", MDC.get("r"));
+
+    try {
+      List<Owner> owners = jdbcClient
+          .sql(SQL_SELECT_UNINDEXED_NAMES)
+          .query(this::mapRow)
+          .list();
+      owners.forEach(this::indexName);
+
+      LOG.debug("Indexed names of {} owners [requestId={}]", owners.size(), MDC.get("r"));
+
+      return owners.size();
+
+    } catch (DataAccessException e) {
+      LOG.error("Database access failed [requestId={}]: Error indexing owner names", MDC.get("r"), e);
+
+      throw new PersistenceException("Error accessing database", e);
+    }
+  }
+
+  /**
+   * Adds the trigrams of the full name of an owner to the trigram index used by the fuzzy name search.
+   * Owners cannot be renamed, so their trigrams never have to be replaced.
+   *
+   * @param owner the owner to index
+   */
+  private void indexName(Owner owner) {
+
+    Set<String> trigrams = NameTrigrams.of(owner.firstName() + " " + owner.lastName());
+    if (!trigrams.isEmpty()) {
+      jdbcClient
+          .sql(SQL_INSERT_NAME_TRIGRAMS)
+          .param("rows", NameTrigrams.rows(owner.id(), trigrams))
+          .update();
+    }
+  }
+
   /**
    * Maps a database row to an {@link Owner} entity.
    *
@@ -0,0 +1,326 @@
+package at.ac.tuwien.sepr.assignment.individual.persistence.impl;
+
+import at.ac.tuwien.sepr.assignment.individual.entity.HorsePedigreeStatistics;
+import at.ac.tuwien.sepr.assignment.individual.entity.PedigreeExportRow;
+import at.ac.tuwien.sepr.assignment.individual.entity.PedigreeGraph;
+import at.ac.tuwien.sepr.assignment.individual.exception.PersistenceException;
+import at.ac.tuwien.sepr.assignment.individual.persistence.PedigreeDao;
+import at.ac.tuwien.sepr.assignment.individual.type.Sex;
+
+import java.lang.invoke.MethodHandles;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.simple.JdbcClient;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * JDBC implementation of {@link PedigreeDao} for interacting with the database.
+ */
+@Repository
+public class PedigreeJdbcDao implements PedigreeDao {
+
+  private static final Logger LOG = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+  private static final String TABLE_NAME = "horse";
+  private static final long NO_PARENT = Long.MIN_VALUE;
+  private final JdbcClient jdbcClient;
+  private final JdbcTemplate jdbcTemplate;
+
+  private static final String SQL_SELECT_PARENT_GRAPH =
+      "SELECT id, mother_id, father_id "
+          + "FROM " + TABLE_NAME
+          + " ORDER BY date_of_birth, id";
+
+  private static final String SQL_UPDATE_STATISTICS =
+      "UPDATE " + TABLE_NAME
+          + """
+              SET inbreeding_coefficient = ?,
+                  pedigree_completeness = ?,
+                  generation_depth = ?,
+                  descendant_count = ?,
+                  pedigree_statistics_updated_at = CURRENT_TIMESTAMP
+              WHERE id = ?
+          """;
+
+  private static final String SQL_CREATE_EXPORT_ANCESTOR =
+      "CREATE LOCAL TEMPORARY TABLE IF NOT EXISTS export_ancestor (id BIGINT PRIMARY KEY, generation INT NOT NULL) "
+          + "ON COMMIT DROP TRANSACTIONAL";
+
+  private static final String SQL_CREATE_EXPORT_NUMBER =
+      "CREATE LOCAL TEMPORARY TABLE IF NOT EXISTS export_number (id BIGINT PRIMARY KEY, seq BIGINT NOT NULL UNIQUE) "
+          + "ON COMMIT DROP TRANSACTIONAL";
+
+  private static final String SQL_INSERT_EXPORT_ROOTS =
+      "INSERT INTO export_ancestor (id, generation) SELECT id, 0 FROM " + TABLE_NAME + " WHERE id IN (:ids)";
+
+  private static final String SQL_INSERT_EXPORT_PARENTS =
+      """
+          INSERT INTO export_ancestor (id, generation)
+          SELECT DISTINCT parent_id, :generation + 1
+          FROM (
+            SELECT child.mother_id AS parent_id
+            FROM export_ancestor a JOIN horse child ON child.id = a.id
+            WHERE a.generation = :generation
+            UNION ALL
+            SELECT child.father_id
+            FROM export_ancestor a JOIN horse child ON child.id = a.id
+            WHERE a.generation = :generation
+          ) parents
+          WHERE parent_id IS NOT NULL
+            AND NOT EXISTS (SELECT 1 FROM export_ancestor visited WHERE visited.id = parents.parent_id)
+          """;
+
+  private static final String SQL_NUMBER_ALL =
+      "INSERT INTO export_number (id, seq) SELECT id, ROW_NUMBER() OVER (ORDER BY date_of_birth, id) FROM " + TABLE_NAME;
+
+  private static final String SQL_NUMBER_ANCESTRY =
+      SQL_NUMBER_ALL + " WHERE id IN (SELECT id FROM export_ancestor)";
+
+  private static final String SQL_SELECT_EXPORT_ROWS =
+      """
+          SELECT numbered.seq, sire.seq AS sire_seq, dam.seq AS dam_seq, h.date_of_birth, h.sex, h.id
+          FROM horse h
+          JOIN export_number numbered ON numbered.id = h.id
+          LEFT JOIN export_number dam ON dam.id = h.mother_id
+          LEFT JOIN export_number sire ON sire.id = h.father_id
+          ORDER BY h.date_of_birth, h.id
+          """;
+
+  private static final int EXPORT_FETCH_SIZE = 1000;
+  private final JdbcClient exportClient;
+
+  @Autowired
+  public PedigreeJdbcDao(JdbcClient jdbcClient, JdbcTemplate jdbcTemplate) {
+    this.jdbcClient = jdbcClient;
+    this.jdbcTemplate = jdbcTemplate;
+    JdbcTemplate exportTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+    exportTemplate.setFetchSize(EXPORT_FETCH_SIZE);
+    this.exportClient = JdbcClient.create(exportTemplate);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public PedigreeGraph getParentGraph() {
+
+    LOG.trace("Entering getParentGraph [requestId={}]: Loading parent graph of all horses", MDC.get("r"));
+
+    /*
+    The graph is streamed into primitive arrays instead of a list of entities, so that a
+    population of a million horses only costs a few megabytes. Parent IDs are resolved to
+    positions with a sorted copy of the IDs, which avoids boxing every ID into a hash map.
+     */
+    GraphRows rows = new GraphRows();
+
+    try {
+      jdbcClient
+          .sql(SQL_SELECT_PARENT_GRAPH)
+          .query(rows::add);
+
+    } catch (DataAccessException e) {
+      LOG.error("Database access failed for getParentGraph [requestId={}]: {}", MDC.get("r"), e.getMessage(), e);
+
+      throw new PersistenceException("Error accessing database", e);
+    }
+
+    int size = rows.size;
+    long[] ids = Arrays.copyOf(rows.ids, size);
+    long[] sortedIds = ids.clone();
+    Arrays.sort(sortedIds);
+    int[] positionOfSortedId = new int[size];
+    for (int i = 0; i < size; i++) {
+      positionOfSortedId[Arrays.binarySearch(sortedIds, ids[i])] = i;
+    }
+
+    int[] motherIndices = new int[size];
+    int[] fatherIndices = new int[size];
+    for (int i = 0; i < size; i++) {
+      motherIndices[i] = resolveParent(ids[i], rows.motherIds[i], i, sortedIds, positionOfSortedId);
+      fatherIndices[i] = resolveParent(ids[i], rows.fatherIds[i], i, sortedIds, positionOfSortedId);
+    }
+
+    LOG.debug("Loaded parent graph with {} horses [requestId={}]", size, MDC.get("r"));
+
+    return new PedigreeGraph(ids, motherIndices, fatherIndices);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void updateStatistics(List<HorsePedigreeStatistics> statistics) {
+
+    LOG.trace("Entering updateStatistics [requestId={}]: Writing statistics for {} horses", MDC.get("r"), statistics.size());
+
+    if (statistics.isEmpty()) {
+      return;
+    }
+
+    try {
+      jdbcTemplate.batchUpdate(SQL_UPDATE_STATISTICS, statistics, statistics.size(), (statement, entry) -> {
+        statement.setDouble(1, entry.inbreedingCoefficient());
+        statement.setDouble(2, entry.pedigreeCompleteness());
+        statement.setInt(3, entry.generationDepth());
+        statement.setLong(4, entry.descendantCount());
+        statement.setLong(5, entry.horseId());
+      });
+
+      LOG.debug("Wrote pedigree statistics for {} horses [requestId={}]", statistics.size(), MDC.get("r"));
+
+    } catch (DataAccessException e) {
+      LOG.error("Database access failed for updateStatistics [requestId={}]: {}", MDC.get("r"), e.getMessage(), e);
+
+      throw new PersistenceException("Error accessing database", e);
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  @Transactional(rollbackFor = Exception.class)
+  public void exportPedigree(Collection<Long> ids, Consumer<PedigreeExportRow> consumer) {
+
+    LOG.trace("Entering exportPedigree [requestId={}]: Exporting pedigree of {}", MDC.get("r"), ids == null ? "all horses" : ids.size() + " horses");
+
+    /*
+    The numbering is materialised once in a temporary table of the transaction, instead of being kept in the
+    application or evaluated once per reference in a query. An ancestry is collected generation by generation
+    into a second temporary table, skipping horses that were already visited. The rows are then read from a
+    cursor in the order of the date of birth index, with both parents resolved by primary key lookups in the
+    numbering, so the application only ever holds the current row.
+     */
+    long[] count = {0};
+    try {
+      jdbcClient.sql(SQL_CREATE_EXPORT_NUMBER).update();
+      jdbcClient.sql("DELETE FROM export_number").update();
+      if (ids == null) {
+        jdbcClient.sql(SQL_NUMBER_ALL).update();
+      } else {
+        collectAncestry(ids);
+        jdbcClient.sql(SQL_NUMBER_ANCESTRY).update();
+      }
+
+      exportClient
+          .sql(SQL_SELECT_EXPORT_ROWS)
+          .query((RowCallbackHandler) result -> {
+            consumer.accept(new PedigreeExportRow(
+                result.getLong("seq"),
+                result.getLong("sire_seq"),
+                result.getLong("dam_seq"),
+                result.getDate("date_of_birth").toLocalDate(),
+                Sex.valueOf(result.getString("sex")),
+                result.getLong("id")));
+            count[0]++;
+          });
+
+      LOG.debug("Exported pedigree with {} horses [requestId={}]", count[0], MDC.get("r"));
+
+    } catch (DataAccessException e) {
+      LOG.error("Database access failed for exportPedigree [requestId={}]: {}", MDC.get("r"), e.getMessage(), e);
+
+      throw new PersistenceException("Error accessing database", e);
+    }
+  }
+
+  /**
+   * Collects the given horses and all their ancestors in the temporary table {@code export_ancestor},
+   * with one statement per generation. Horses reachable on several paths are inserted only once, so the
+   * work grows with the number of distinct ancestors instead of the number of paths through the pedigree.
+   *
+   * @param ids the unique identifiers of the horses whose ancestry is collected
+   */
+  private void collectAncestry(Collection<Long> ids) {
+
+    jdbcClient.sql(SQL_CREATE_EXPORT_ANCESTOR).update();
+    jdbcClient.sql("DELETE FROM export_ancestor").update();
+    int added = jdbcClient.sql(SQL_INSERT_EXPORT_ROOTS).param("ids", ids).update();
+    int total = added;
+    int generation = 0;
+    while (added > 0) {
+      added = jdbcClient
+          .sql(SQL_INSERT_EXPORT_PARENTS)
+          .param("generation", generation)
+          .update();
+      total += added;
+      generation++;
+    }
+
+    LOG.debug("Collected ancestry of {} horses with {} horses in {} generations [requestId={}]", ids.size(), total, generation, MDC.get("r"));
+  }
+
+  /**
+   * Resolves the ID of a parent to its position in the topological order.
+   * Links to parents that are not older than their child would break the topological order; they are
+   * impossible with validated data and are therefore logged and treated as unknown parents.
+   *
+   * @param childId            the ID of the child, used for logging
+   * @param parentId           the ID of the parent, or {@link #NO_PARENT} if unknown
+   * @param childIndex         the position of the child in the topological order
+   * @param sortedIds          all horse IDs in ascending order
+   * @param positionOfSortedId the topological position of each entry in {@code sortedIds}
+   * @return the position of the parent, or {@code -1} if the parent is unknown
+   */
+  private int resolveParent(long childId, long parentId, int childIndex, long[] sortedIds, int[] positionOfSortedId) {
+
+    if (parentId == NO_PARENT) {
+      return -1;
+    }
+
+    int sortedIndex = Arrays.binarySearch(sortedIds, parentId);
+    if (sortedIndex < 0 || positionOfSortedId[sortedIndex] >= childIndex) {
+      LOG.warn("Ignoring parent {} of horse {}, as it is not older than its child [requestId={}]", parentId, childId, MDC.get("r"));
+
+      return -1;
+    }
+
+    return positionOfSortedId[sortedIndex];
+  }
+
+  /**
+   * Growable primitive buffers for the rows of the parent graph query.
+   */
+  private static final class GraphRows {
+
+    private long[] ids = new long[1024];
+    private long[] motherIds = new long[1024];
+    private long[] fatherIds = new long[1024];
+    private int size;
+
+    /**
+     * Appends the current row of the result set.
+     *
+     * @param result the result set positioned on the row to append
+     * @throws SQLException if an error occurs while accessing the result set
+     */
+    private void add(ResultSet result) throws SQLException {
+
+      if (size == ids.length) {
+        int capacity = size * 2;
+        ids = Arrays.copyOf(ids, capacity);
+        motherIds = Arrays.copyOf(motherIds, capacity);
+        fatherIds = Arrays.copyOf(fatherIds, capacity);
+      }
+
+      ids[size] = result.getLong("id");
+      long motherId = result.getLong("mother_id");
+      motherIds[size] = result.wasNull() ? NO_PARENT : motherId;
+      long fatherId = result.getLong("father_id");
+      fatherIds[size] = result.wasNull() ? NO_PARENT : fatherId;
+      size++;
+    }
+  }
+}
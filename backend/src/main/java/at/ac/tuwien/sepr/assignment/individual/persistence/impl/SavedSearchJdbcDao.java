@@ -0,0 +1,281 @@
+package at.ac.tuwien.sepr.assignment.individual.persistence.impl;
+
+import at.ac.tuwien.sepr.assignment.individual.dto.SavedSearchCreateDto;
+import at.ac.tuwien.sepr.assignment.individual.dto.SavedSearchNotificationDto;
+import at.ac.tuwien.sepr.assignment.individual.entity.SavedSearch;
+import at.ac.tuwien.sepr.assignment.individual.exception.FatalException;
+import at.ac.tuwien.sepr.assignment.individual.exception.NotFoundException;
+import at.ac.tuwien.sepr.assignment.individual.exception.PersistenceException;
+import at.ac.tuwien.sepr.assignment.individual.persistence.SavedSearchDao;
+import at.ac.tuwien.sepr.assignment.individual.type.Sex;
+
+import java.lang.invoke.MethodHandles;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.simple.JdbcClient;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+/**
+ * JDBC implementation of {@link SavedSearchDao} for interacting with the database.
+ */
+@Repository
+public class SavedSearchJdbcDao implements SavedSearchDao {
+
+  private static final Logger LOG = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+  private static final String TABLE_NAME = "saved_search";
+  private final JdbcClient jdbcClient;
+
+  private static final String SQL_SELECT_BY_ID =
+      "SELECT * FROM " + TABLE_NAME
+          + " WHERE id = :id";
+
+  private static final String SQL_SELECT_ALL =
+      "SELECT * FROM " + TABLE_NAME + " ORDER BY id";
+
+  private static final String SQL_INSERT =
+      "INSERT INTO " + TABLE_NAME
+          + " (subscriber, name, description, sex, born_from, born_before, owner_id) "
+          + "VALUES (:subscriber, :name, :description, :sex, :bornFrom, :bornBefore, :ownerId)";
+
+  private static final String SQL_DELETE_BY_ID =
+      "DELETE FROM " + TABLE_NAME
+          + " WHERE id = :id";
+
+  private static final String SQL_INSERT_NOTIFICATION =
+      "INSERT INTO saved_search_notification (saved_search_id, horse_id)"
+          + " SELECT s.id, :horseId FROM " + TABLE_NAME + " s"
+          + " WHERE s.id IN (:savedSearchIds)"
+          + " AND NOT EXISTS (SELECT 1 FROM saved_search_notification n WHERE n.saved_search_id = s.id AND n.horse_id = :horseId)";
+
+  private static final String SQL_SELECT_NOTIFICATIONS =
+      "SELECT h.id, h.name, h.date_of_birth, h.sex, n.notified_at"
+          + " FROM saved_search_notification n JOIN horse h ON h.id = n.horse_id"
+          + " WHERE n.saved_search_id = :savedSearchId"
+          + " ORDER BY n.notified_at DESC, h.id DESC";
+
+  @Autowired
+  public SavedSearchJdbcDao(JdbcClient jdbcClient) {
+    this.jdbcClient = jdbcClient;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public SavedSearch getById(long id) throws NotFoundException {
+
+    LOG.trace("Entering getById [requestId={}]: Retrieving saved search with id {}", MDC.get("r"), id);
+
+    try {
+      List<SavedSearch> savedSearches = jdbcClient
+          .sql(SQL_SELECT_BY_ID)
+          .param("id", id)
+          .query(this::mapRow)
+          .list();
+
+      if (savedSearches.isEmpty()) {
+        LOG.warn("Saved search with ID {} not found [requestId={}]", id, MDC.get("r"));
+
+        throw new NotFoundException("Saved search with ID %d not found".formatted(id));
+      }
+      if (savedSearches.size() > 1) {
+        LOG.error("Unexpected error [requestId={}]: Found multiple saved searches with ID {}", MDC.get("r"), id);
+
+        throw new FatalException("Found more than one saved search with ID %d".formatted(id));
+      }
+
+      return savedSearches.getFirst();
+
+    } catch (DataAccessException e) {
+      LOG.error("Database access failed [requestId={}]: Error retrieving saved search with id {}", MDC.get("r"), id, e);
+
+      throw new PersistenceException("Error accessing database", e);
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public List<SavedSearch> getAll() {
+
+    LOG.trace("Entering getAll [requestId={}]: Retrieving all saved searches", MDC.get("r"));
+
+    try {
+      List<SavedSearch> savedSearches = jdbcClient
+          .sql(SQL_SELECT_ALL)
+          .query(this::mapRow)
+          .list();
+
+      LOG.debug("Retrieved {} saved searches [requestId={}]", savedSearches.size(), MDC.get("r"));
+
+      return savedSearches;
+
+    } catch (DataAccessException e) {
+      LOG.error("Database access failed [requestId={}]: Error retrieving all saved searches", MDC.get("r"), e);
+
+      throw new PersistenceException("Error accessing database", e);
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public SavedSearch create(SavedSearchCreateDto savedSearch) {
+
+    LOG.trace("Entering create [requestId={}]: Creating saved search with data {}", MDC.get("r"), savedSearch);
+
+    KeyHolder keyHolder = new GeneratedKeyHolder();
+
+    try {
+      int rowsAffected = jdbcClient.sql(SQL_INSERT)
+          .param("subscriber", savedSearch.subscriber())
+          .param("name", savedSearch.name())
+          .param("description", savedSearch.description())
+          .param("sex", savedSearch.sex() == null ? null : savedSearch.sex().toString())
+          .param("bornFrom", savedSearch.bornFrom())
+          .param("bornBefore", savedSearch.bornBefore())
+          .param("ownerId", savedSearch.ownerId())
+          .update(keyHolder, "id");
+
+      if (rowsAffected == 0 || keyHolder.getKey() == null) {
+        LOG.error("Unexpected error [requestId={}]: Failed to insert saved search into database, no rows affected or no key returned", MDC.get("r"));
+
+        throw new FatalException("Failed to insert saved search into database");
+      }
+
+      long id = keyHolder.getKey().longValue();
+
+      LOG.info("Successfully created saved search with id {} [requestId={}]", id, MDC.get("r"));
+
+      return new SavedSearch(id, savedSearch.subscriber(), savedSearch.name(), savedSearch.description(), savedSearch.sex(),
+          savedSearch.bornFrom(), savedSearch.bornBefore(), savedSearch.ownerId());
+
+    } catch (DataAccessException e) {
+      LOG.error("Database access failed [requestId={}]: Error creating saved search with data {}", MDC.get("r"), savedSearch, e);
+
+      throw new PersistenceException("Error accessing database", e);
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void delete(long id) throws NotFoundException {
+
+    LOG.trace("Entering delete [requestId={}]: Deleting saved search with id {}", MDC.get("r"), id);
+
+    try {
+      int rowsAffected = jdbcClient
+          .sql(SQL_DELETE_BY_ID)
+          .param("id", id)
+          .update();
+
+      if (rowsAffected == 0) {
+        LOG.warn("No saved search with ID {} found for deletion [requestId={}]", id, MDC.get("r"));
+
+        throw new NotFoundException("No saved search with ID " + id + " found for deletion");
+      }
+
+      LOG.info("Successfully deleted saved search with ID {} [requestId={}]", id, MDC.get("r"));
+
+    } catch (DataAccessException e) {
+      LOG.error("Database access failed for delete with ID {} [requestId={}]: {}", id, MDC.get("r"), e.getMessage(), e);
+
+      throw new PersistenceException("Error accessing database", e);
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public int recordNotifications(long horseId, Collection<Long> savedSearchIds) {
+
+    LOG.trace("Entering recordNotifications [requestId={}]: Recording horse {} for {} saved searches", MDC.get("r"), horseId, savedSearchIds.size());
+
+    if (savedSearchIds.isEmpty()) {
+      return 0;
+    }
+
+    try {
+      int recorded = jdbcClient
+          .sql(SQL_INSERT_NOTIFICATION)
+          .param("horseId", horseId)
+          .param("savedSearchIds", savedSearchIds)
+          .update();
+
+      LOG.debug("Recorded {} notifications for horse {} [requestId={}]", recorded, horseId, MDC.get("r"));
+
+      return recorded;
+
+    } catch (DataAccessException e) {
+      LOG.error("Database access failed for recordNotifications of horse {} [requestId={}]: {}", horseId, MDC.get("r"), e.getMessage(), e);
+
+      throw new PersistenceException("Error accessing database", e);
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public List<SavedSearchNotificationDto> getNotifications(long savedSearchId) {
+
+    LOG.trace("Entering getNotifications [requestId={}]: Retrieving notifications of saved search {}", MDC.get("r"), savedSearchId);
+
+    try {
+      return jdbcClient
+          .sql(SQL_SELECT_NOTIFICATIONS)
+          .param("savedSearchId", savedSearchId)
+          .query((result, rowNum) -> new SavedSearchNotificationDto(
+              result.getLong("id"),
+              result.getString("name"),
+              result.getDate("date_of_birth").toLocalDate(),
+              Sex.valueOf(result.getString("sex")),
+              result.getTimestamp("notified_at").toLocalDateTime()))
+          .list();
+
+    } catch (DataAccessException e) {
+      LOG.error("Database access failed for getNotifications of saved search {} [requestId={}]: {}", savedSearchId, MDC.get("r"), e.getMessage(), e);
+
+      throw new PersistenceException("Error accessing database", e);
+    }
+  }
+
+  /**
+   * Maps a database result set row to a {@link SavedSearch} entity.
+   *
+   * @param result the result set containing saved search data
+   * @param rowNum the current row number
+   * @return the mapped {@link SavedSearch} entity
+   * @throws SQLException if an error occurs while accessing the result set
+   */
+  private SavedSearch mapRow(ResultSet result, int rowNum) throws SQLException {
+
+    String sex = result.getString("sex");
+    return new SavedSearch(
+        result.getLong("id"),
+        result.getString("subscriber"),
+        result.getString("name"),
+        result.getString("description"),
+        sex == null ? null : Sex.valueOf(sex),
+        result.getObject("born_from", LocalDate.class),
+        result.getObject("born_before", LocalDate.class),
+        result.getObject("owner_id", Long.class)
+    );
+  }
+}
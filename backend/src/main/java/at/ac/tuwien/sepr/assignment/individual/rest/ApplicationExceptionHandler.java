@@ -2,8 +2,11 @@ package at.ac.tuwien.sepr.assignment.individual.rest;
 
 
 import at.ac.tuwien.sepr.assignment.individual.exception.ConflictException;
+import at.ac.tuwien.sepr.assignment.individual.exception.LimitExceededException;
 import at.ac.tuwien.sepr.assignment.individual.exception.NotFoundException;
 import at.ac.tuwien.sepr.assignment.individual.exception.PersistenceException;
+import at.ac.tuwien.sepr.assignment.individual.exception.PreconditionFailedException;
+import at.ac.tuwien.sepr.assignment.individual.exception.ServiceUnavailableException;
 import at.ac.tuwien.sepr.assignment.individual.exception.ValidationException;
 
 import java.io.IOException;
@@ -79,39 +82,37 @@ public class ApplicationExceptionHandler {
   }
 
   /**
-   * Handles {@link StackOverflowError} by returning a 400 Bad Request response.
+   * Handles {@link HttpMessageNotReadableException} by returning a 400 Bad Request response.
    *
-   * @param e the error indicating excessive recursion due to a large generations value
-   * @return an {@link ErrorDto} indicating the system capacity was exceeded
+   * @param e the exception indicating malformed JSON in the request
+   * @return an {@link ErrorDto} describing the JSON format error
    */
-  @ExceptionHandler
+  @ExceptionHandler(HttpMessageNotReadableException.class)
   @ResponseStatus(HttpStatus.BAD_REQUEST)
   @ResponseBody
-  public ErrorDto handleStackOverflowError(StackOverflowError e) {
+  public ErrorDto handleHttpMessageNotReadableException(HttpMessageNotReadableException e) {
 
-    String message = "Requested generations value is too large and exceeds system capacity";
+    String message = "Invalid JSON format: " + e.getLocalizedMessage();
 
-    LOG.warn("Excessive recursion [requestId={}]: {}", MDC.get("r"), message);
+    LOG.warn("Malformed JSON [requestId={}]: {}", MDC.get("r"), message);
 
     return new ErrorDto(message);
   }
 
   /**
-   * Handles {@link HttpMessageNotReadableException} by returning a 400 Bad Request response.
+   * Handles {@link LimitExceededException} by returning a 400 Bad Request response.
    *
-   * @param e the exception indicating malformed JSON in the request
-   * @return an {@link ErrorDto} describing the JSON format error
+   * @param e the exception indicating that the response to the request would exceed a configured limit
+   * @return a {@link ValidationErrorRestDto} containing the exceeded limits
    */
-  @ExceptionHandler(HttpMessageNotReadableException.class)
+  @ExceptionHandler
   @ResponseStatus(HttpStatus.BAD_REQUEST)
   @ResponseBody
-  public ErrorDto handleHttpMessageNotReadableException(HttpMessageNotReadableException e) {
-
-    String message = "Invalid JSON format: " + e.getLocalizedMessage();
+  public ValidationErrorRestDto handleLimitExceededException(LimitExceededException e) {
 
-    LOG.warn("Malformed JSON [requestId={}]: {}", MDC.get("r"), message);
+    LOG.warn("Limit exceeded [requestId={}]: {}", MDC.get("r"), e.summary());
 
-    return new ErrorDto(message);
+    return new ValidationErrorRestDto(e.summary(), e.errors());
   }
 
   /**
@@ -182,6 +183,22 @@ public class ApplicationExceptionHandler {
     return new ErrorDto(e.getMessage());
   }
 
+  /**
+   * Handles {@link PreconditionFailedException} by returning a 412 Precondition Failed response.
+   *
+   * @param e the exception indicating that the version in the {@code If-Match} header is outdated
+   * @return an {@link ErrorDto} containing the failed precondition
+   */
+  @ExceptionHandler
+  @ResponseStatus(HttpStatus.PRECONDITION_FAILED)
+  @ResponseBody
+  public ErrorDto handlePreconditionFailedException(PreconditionFailedException e) {
+
+    LOG.warn("Precondition failed [requestId={}]: {}", MDC.get("r"), e.getMessage());
+
+    return new ErrorDto(e.getMessage());
+  }
+
   /**
    * Handles {@link MaxUploadSizeExceededException} by returning a 413 Payload Too Large response.
    *
@@ -232,6 +249,22 @@ public class ApplicationExceptionHandler {
     return new ErrorDto("A server error occurred while accessing the database.");
   }
 
+  /**
+   * Handles {@link ServiceUnavailableException} by returning a 503 Service Unavailable response.
+   *
+   * @param e the exception indicating that a limited resource of the backend is exhausted
+   * @return an {@link ErrorDto} containing the error message
+   */
+  @ExceptionHandler
+  @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+  @ResponseBody
+  public ErrorDto handleServiceUnavailableException(ServiceUnavailableException e) {
+
+    LOG.warn("Service unavailable [requestId={}]: {}", MDC.get("r"), e.getMessage());
+
+    return new ErrorDto(e.getMessage());
+  }
+
   /**
    * Handles {@link IOException} by returning a 500 Internal Server Error response.
    *
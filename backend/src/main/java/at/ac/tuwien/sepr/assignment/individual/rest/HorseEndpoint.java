@@ -1,25 +1,60 @@
 package at.ac.tuwien.sepr.assignment.individual.rest;
 
+import at.ac.tuwien.sepr.assignment.individual.dto.HorseBatchGetRequestDto;
+import at.ac.tuwien.sepr.assignment.individual.dto.HorseBatchGetResultDto;
+import at.ac.tuwien.sepr.assignment.individual.dto.HorseBulkDeleteDto;
+import at.ac.tuwien.sepr.assignment.individual.dto.HorseBulkReassignOwnerDto;
+import at.ac.tuwien.sepr.assignment.individual.dto.HorseBulkResultDto;
 import at.ac.tuwien.sepr.assignment.individual.dto.HorseDetailDto;
+import at.ac.tuwien.sepr.assignment.individual.dto.HorseFamilyGraphDto;
 import at.ac.tuwien.sepr.assignment.individual.dto.HorseFamilyTreeDto;
+import at.ac.tuwien.sepr.assignment.individual.dto.HorseFamilyTreesRequestDto;
 import at.ac.tuwien.sepr.assignment.individual.dto.HorseImageDto;
+import at.ac.tuwien.sepr.assignment.individual.dto.HorseImageUploadCreateDto;
+import at.ac.tuwien.sepr.assignment.individual.dto.HorseImageUploadDto;
 import at.ac.tuwien.sepr.assignment.individual.dto.HorseListDto;
+import at.ac.tuwien.sepr.assignment.individual.dto.HorseSearchCacheStatsDto;
 import at.ac.tuwien.sepr.assignment.individual.dto.HorseSearchDto;
+import at.ac.tuwien.sepr.assignment.individual.dto.HorseSearchResultDto;
+import at.ac.tuwien.sepr.assignment.individual.dto.HorseSiblingsDto;
+import at.ac.tuwien.sepr.assignment.individual.dto.HorseSuggestionDto;
+import at.ac.tuwien.sepr.assignment.individual.dto.HorseSuggestionSearchDto;
+import at.ac.tuwien.sepr.assignment.individual.dto.HorseUpdateDto;
 import at.ac.tuwien.sepr.assignment.individual.dto.HorseUpdateRestDto;
+import at.ac.tuwien.sepr.assignment.individual.dto.ImageContentDto;
 import at.ac.tuwien.sepr.assignment.individual.dto.HorseCreateDto;
 import at.ac.tuwien.sepr.assignment.individual.exception.ConflictException;
+import at.ac.tuwien.sepr.assignment.individual.exception.LimitExceededException;
 import at.ac.tuwien.sepr.assignment.individual.exception.NotFoundException;
+import at.ac.tuwien.sepr.assignment.individual.exception.PreconditionFailedException;
 import at.ac.tuwien.sepr.assignment.individual.exception.ValidationException;
+import at.ac.tuwien.sepr.assignment.individual.exception.VersionConflictException;
+import at.ac.tuwien.sepr.assignment.individual.service.HorseImageUploadService;
 import at.ac.tuwien.sepr.assignment.individual.service.HorseService;
+import at.ac.tuwien.sepr.assignment.individual.service.PedigreeChartService;
+import at.ac.tuwien.sepr.assignment.individual.service.PedigreeExportService;
+import at.ac.tuwien.sepr.assignment.individual.type.FamilyTreeFormat;
+import at.ac.tuwien.sepr.assignment.individual.type.HorseFacet;
+import at.ac.tuwien.sepr.assignment.individual.type.HorseField;
+import at.ac.tuwien.sepr.assignment.individual.type.PedigreeChartFormat;
+import at.ac.tuwien.sepr.assignment.individual.type.PedigreeExportFormat;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.lang.invoke.MethodHandles;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Stream;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ContentDisposition;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -30,12 +65,15 @@ import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 /**
  * REST controller for managing horse-related operations.
@@ -48,48 +86,159 @@ public class HorseEndpoint {
 
   private static final Logger LOG = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
   static final String BASE_PATH = "/horses";
+  private static final MediaType TEXT_CSV = new MediaType("text", "csv", StandardCharsets.UTF_8);
   private final HorseService service;
+  private final PedigreeExportService pedigreeExportService;
+  private final PedigreeChartService pedigreeChartService;
+  private final HorseImageUploadService imageUploadService;
 
   @Autowired
-  public HorseEndpoint(HorseService service) {
+  public HorseEndpoint(HorseService service, PedigreeExportService pedigreeExportService, PedigreeChartService pedigreeChartService,
+                       HorseImageUploadService imageUploadService) {
     this.service = service;
+    this.pedigreeExportService = pedigreeExportService;
+    this.pedigreeChartService = pedigreeChartService;
+    this.imageUploadService = imageUploadService;
   }
 
   /**
    * Retrieves the details of a horse by its ID.
+   * The version of the horse is returned as {@code ETag}, to be sent back as {@code If-Match} header of an update.
    *
    * @param id the unique identifier of the horse
    * @return the detailed information of the requested horse
    * @throws ResponseStatusException if the horse is not found
    */
   @GetMapping("{id}")
-  public HorseDetailDto getById(@PathVariable("id") long id) throws NotFoundException {
+  public ResponseEntity<HorseDetailDto> getById(@PathVariable("id") long id) throws NotFoundException {
 
     LOG.info("Processing GET {} request [requestId={}]: Retrieving horse with id {}", BASE_PATH + "/{}", MDC.get("r"), id);
 
-    return service.getById(id);
+    HorseDetailDto horse = service.getById(id);
+
+    return ResponseEntity.ok().eTag(Long.toString(horse.version())).body(horse);
   }
 
   /**
    * Retrieves the image associated with a horse.
    *
    * @param id the unique identifier of the horse whose image is requested
-   * @return a {@link ResponseEntity} containing the image as a byte array along with the proper MIME type header
+   * @return a {@link ResponseEntity} containing the image, served from the off-heap image cache if possible,
+   *     along with the proper MIME type header
    * @throws ResponseStatusException with HTTP status 404 if the image or the horse is not found
    */
   @GetMapping("/{id}/image")
-  public ResponseEntity<byte[]> getHorseImage(@PathVariable("id") long id) throws NotFoundException {
+  public ResponseEntity<ByteBuffer> getHorseImage(@PathVariable("id") long id) throws NotFoundException {
 
     LOG.info("Processing GET {}/image request [requestId={}]: Retrieving image for horse with id {}", BASE_PATH + "/{}", MDC.get("r"), id);
 
-    HorseImageDto horseImageDto = service.getImageById(id);
+    ImageContentDto image = service.getImageContentById(id);
 
-    LOG.debug("Retrieved image for horse id {} [requestId={}]: MIME type {}", id, MDC.get("r"), horseImageDto.mimeType());
+    LOG.debug("Retrieved image for horse id {} [requestId={}]: MIME type {}", id, MDC.get("r"), image.mimeType());
 
     HttpHeaders headers = new HttpHeaders();
-    headers.setContentType(MediaType.parseMediaType(horseImageDto.mimeType()));
+    headers.setContentType(MediaType.parseMediaType(image.mimeType()));
+
+    return new ResponseEntity<>(image.data(), headers, HttpStatus.OK);
+  }
+
+  /**
+   * Replaces the image of a horse with the request body, which is streamed to storage instead of being buffered.
+   *
+   * @param id          the unique identifier of the horse
+   * @param contentType the MIME type of the image
+   * @param image       the request body containing the image data
+   * @throws NotFoundException   if the horse is not found
+   * @throws ValidationException if the MIME type is unsupported, the image is too large or does not match its MIME type
+   * @throws IOException         if reading the request body fails
+   */
+  @PutMapping("{id}/image")
+  @ResponseStatus(HttpStatus.NO_CONTENT)
+  public void putImage(@PathVariable("id") long id, @RequestHeader(value = HttpHeaders.CONTENT_TYPE, required = false) String contentType,
+                       InputStream image) throws NotFoundException, ValidationException, ConflictException, IOException {
+
+    LOG.info("Processing PUT {}/image request [requestId={}]: Streaming image with MIME type {} for horse with id {}",
+        BASE_PATH + "/{}", MDC.get("r"), contentType, id);
+
+    imageUploadService.putImage(id, contentType, image);
+  }
+
+  /**
+   * Starts a resumable upload of a horse image, whose chunks are sent to the returned upload session.
+   *
+   * @param id     the unique identifier of the horse
+   * @param upload the MIME type and total size of the image
+   * @return the state of the new upload session
+   * @throws NotFoundException   if the horse is not found
+   * @throws ValidationException if the MIME type is unsupported or the size is missing or too large
+   */
+  @PostMapping(path = "{id}/image/uploads", consumes = MediaType.APPLICATION_JSON_VALUE)
+  @ResponseStatus(HttpStatus.CREATED)
+  public HorseImageUploadDto startImageUpload(@PathVariable("id") long id, @RequestBody HorseImageUploadCreateDto upload)
+      throws NotFoundException, ValidationException {
+
+    LOG.info("Processing POST {}/image/uploads request [requestId={}]: Starting image upload {} for horse with id {}",
+        BASE_PATH + "/{}", MDC.get("r"), upload, id);
+
+    return imageUploadService.startUpload(id, upload);
+  }
+
+  /**
+   * Retrieves the state of a resumable image upload, whose offset tells where to resume it after an interruption.
+   *
+   * @param id       the unique identifier of the horse
+   * @param uploadId the identifier of the upload session
+   * @return the state of the upload session
+   * @throws NotFoundException if the upload session is not found
+   */
+  @GetMapping("{id}/image/uploads/{uploadId}")
+  public HorseImageUploadDto getImageUpload(@PathVariable("id") long id, @PathVariable("uploadId") String uploadId) throws NotFoundException {
+
+    LOG.info("Processing GET {}/image/uploads/{} request [requestId={}]: Retrieving image upload", BASE_PATH + "/" + id, uploadId, MDC.get("r"));
+
+    return imageUploadService.getUpload(id, uploadId);
+  }
+
+  /**
+   * Appends the request body as the next chunk of a resumable image upload.
+   * The image is stored once the declared number of bytes has been received.
+   *
+   * @param id       the unique identifier of the horse
+   * @param uploadId the identifier of the upload session
+   * @param offset   the position of the chunk within the image
+   * @param chunk    the request body containing the chunk data
+   * @return the state of the upload session after the chunk
+   * @throws NotFoundException   if the upload session is not found
+   * @throws ValidationException if the chunk exceeds the declared size or the image does not match its MIME type
+   * @throws ConflictException   if the offset does not continue the upload or another chunk is being received
+   * @throws IOException         if reading the request body fails
+   */
+  @PutMapping("{id}/image/uploads/{uploadId}")
+  public HorseImageUploadDto appendImageUpload(@PathVariable("id") long id, @PathVariable("uploadId") String uploadId,
+                                               @RequestParam("offset") long offset, InputStream chunk)
+      throws NotFoundException, ValidationException, ConflictException, IOException {
+
+    LOG.info("Processing PUT {}/image/uploads/{} request [requestId={}]: Appending chunk at offset {}",
+        BASE_PATH + "/" + id, uploadId, MDC.get("r"), offset);
+
+    return imageUploadService.appendToUpload(id, uploadId, offset, chunk);
+  }
+
+  /**
+   * Aborts a resumable image upload and discards the bytes received so far.
+   *
+   * @param id       the unique identifier of the horse
+   * @param uploadId the identifier of the upload session
+   * @throws NotFoundException if the upload session is not found
+   * @throws ConflictException if a chunk of the upload is being received
+   */
+  @DeleteMapping("{id}/image/uploads/{uploadId}")
+  @ResponseStatus(HttpStatus.NO_CONTENT)
+  public void abortImageUpload(@PathVariable("id") long id, @PathVariable("uploadId") String uploadId) throws NotFoundException, ConflictException {
 
-    return new ResponseEntity<>(horseImageDto.image(), headers, HttpStatus.OK);
+    LOG.info("Processing DELETE {}/image/uploads/{} request [requestId={}]: Aborting image upload", BASE_PATH + "/" + id, uploadId, MDC.get("r"));
+
+    imageUploadService.abortUpload(id, uploadId);
   }
 
   /**
@@ -112,15 +261,246 @@ public class HorseEndpoint {
     return service.search(searchParameters);
   }
 
+  /**
+   * Searches for horses based on the given search parameters and counts the matching horses per value of the requested facets,
+   * e.g. {@code GET /horses?limit=10&facets=SEX,DECADE,OWNER}.
+   *
+   * @param searchParameters the parameters to filter the horse search
+   * @param facets           the facets to count
+   * @return the matching horses together with the facet counts over all matching horses
+   */
+  @GetMapping(params = "facets")
+  public HorseSearchResultDto searchWithFacets(HorseSearchDto searchParameters, @RequestParam("facets") Set<HorseFacet> facets)
+      throws ValidationException {
+
+    LOG.info("Processing GET {}?facets request [requestId={}]: Searching horses with parameters {} and facets {}",
+        BASE_PATH, MDC.get("r"), searchParameters, facets);
+
+    return service.searchWithFacets(searchParameters, facets);
+  }
+
+  /**
+   * Searches for horses based on the given search parameters, but only returns the requested fields and the id,
+   * e.g. {@code GET /horses?limit=10&fields=NAME,SEX} for a list that does not show descriptions and owners.
+   * Without further parameters all horses are listed.
+   *
+   * @param searchParameters the parameters to filter the horse search
+   * @param fields           the fields to return
+   * @return a stream of the matching horses, each containing only the requested properties of {@link HorseListDto}
+   */
+  @GetMapping(params = {"fields", "!facets"})
+  public Stream<Map<String, Object>> searchFields(HorseSearchDto searchParameters, @RequestParam("fields") Set<HorseField> fields)
+      throws ValidationException {
+
+    LOG.info("Processing GET {}?fields request [requestId={}]: Searching fields {} of horses with parameters {}",
+        BASE_PATH, MDC.get("r"), fields, searchParameters);
+
+    return service.search(searchParameters, fields);
+  }
+
+  /**
+   * Retrieves the usage statistics of the horse search cache, e.g. to monitor its hit ratio.
+   *
+   * @return the size, write epoch, hits, misses and evictions of the search cache
+   */
+  @GetMapping("/search-cache")
+  public HorseSearchCacheStatsDto getSearchCacheStats() {
+
+    LOG.info("Processing GET {}/search-cache request [requestId={}]: Retrieving search cache statistics", BASE_PATH, MDC.get("r"));
+
+    return service.getSearchCacheStats();
+  }
+
+  /**
+   * Suggests horses whose name starts with the typed prefix, for the autocomplete of parents.
+   *
+   * @param searchParameters the prefix and the constraints on the suggested horses
+   * @return a list of {@link HorseSuggestionDto} matching the prefix
+   */
+  @GetMapping("/suggest")
+  public List<HorseSuggestionDto> suggest(HorseSuggestionSearchDto searchParameters) throws ValidationException {
+
+    LOG.info("Processing GET {}/suggest request [requestId={}]: Suggesting horses with parameters {}", BASE_PATH, MDC.get("r"), searchParameters);
+
+    return service.suggest(searchParameters);
+  }
+
 
+  /**
+   * Retrieves the family tree of a horse, either with nested parents or in a compact graph format, where every
+   * ancestor is contained only once and parents are referenced by index. The format is case-insensitive, and any
+   * format other than {@code TREE} and {@code GRAPH} fails to convert and is rejected with 400 Bad Request.
+   *
+   * @param id          the unique identifier of the horse
+   * @param generations the number of generations to include
+   * @param format      the requested format
+   * @return the family tree as a {@link HorseFamilyTreeDto} or, in the graph format, as a {@link HorseFamilyGraphDto}
+   */
   @GetMapping("/{id}/familytree")
-  public HorseFamilyTreeDto getFamilyTree(@PathVariable("id") long id, @RequestParam(name = "generations", defaultValue = "1") int generations)
+  public Object getFamilyTree(@PathVariable("id") long id, @RequestParam(name = "generations", defaultValue = "1") int generations,
+                              @RequestParam(name = "format", defaultValue = "TREE") FamilyTreeFormat format)
+      throws NotFoundException, ValidationException {
+
+    LOG.info("Processing GET {}/familytree request [requestId={}]: Retrieving family tree for horse id {} with {} generations as {}",
+        BASE_PATH + "/{}", MDC.get("r"), id, generations, format);
+
+    return switch (format) {
+      case TREE -> service.getFamilyTree(id, generations);
+      case GRAPH -> service.getFamilyGraph(id, generations);
+    };
+  }
+
+  /**
+   * Retrieves the full siblings and the maternal and paternal half-siblings of a horse, grouped by relation.
+   *
+   * @param id   the unique identifier of the horse
+   * @param page the zero-based page number, applied to each group
+   * @param size the maximum number of siblings per group
+   * @return the siblings as a {@link HorseSiblingsDto}
+   */
+  @GetMapping("/{id}/siblings")
+  public HorseSiblingsDto getSiblings(@PathVariable("id") long id,
+                                      @RequestParam(name = "page", defaultValue = "0") int page,
+                                      @RequestParam(name = "size", defaultValue = "20") int size)
+      throws NotFoundException, ValidationException {
+
+    LOG.info("Processing GET {}/siblings request [requestId={}]: Retrieving siblings of horse id {}, page {} with size {}",
+        BASE_PATH + "/{}", MDC.get("r"), id, page, size);
+
+    return service.getSiblings(id, page, size);
+  }
+
+  /**
+   * Retrieves the family tree of a horse rendered as an SVG pedigree chart.
+   *
+   * @param id          the unique identifier of the horse
+   * @param generations the number of generations to include
+   * @return a future completing with the rendered chart, tagged with the version of the family tree
+   */
+  @GetMapping("/{id}/familytree.svg")
+  public CompletableFuture<ResponseEntity<byte[]>> getFamilyTreeSvg(@PathVariable("id") long id,
+                                                                    @RequestParam(name = "generations", defaultValue = "1") int generations)
+      throws NotFoundException, ValidationException {
+
+    LOG.info("Processing GET {}/familytree.svg request [requestId={}]: Rendering family tree for horse id {} with {} generations",
+        BASE_PATH + "/{}", MDC.get("r"), id, generations);
+
+    return renderFamilyTree(id, generations, PedigreeChartFormat.SVG);
+  }
+
+  /**
+   * Retrieves the family tree of a horse rendered as a PNG pedigree chart.
+   *
+   * @param id          the unique identifier of the horse
+   * @param generations the number of generations to include
+   * @return a future completing with the rendered chart, tagged with the version of the family tree
+   */
+  @GetMapping("/{id}/familytree.png")
+  public CompletableFuture<ResponseEntity<byte[]>> getFamilyTreePng(@PathVariable("id") long id,
+                                                                    @RequestParam(name = "generations", defaultValue = "1") int generations)
+      throws NotFoundException, ValidationException {
+
+    LOG.info("Processing GET {}/familytree.png request [requestId={}]: Rendering family tree for horse id {} with {} generations",
+        BASE_PATH + "/{}", MDC.get("r"), id, generations);
+
+    return renderFamilyTree(id, generations, PedigreeChartFormat.PNG);
+  }
+
+  /**
+   * Renders the family tree of a horse and wraps the chart into a response tagged with the tree version.
+   */
+  private CompletableFuture<ResponseEntity<byte[]>> renderFamilyTree(long id, int generations, PedigreeChartFormat format)
+      throws NotFoundException, ValidationException {
+
+    return pedigreeChartService.renderFamilyTree(id, generations, format)
+        .thenApply(chart -> ResponseEntity.ok()
+            .contentType(MediaType.parseMediaType(chart.mimeType()))
+            .eTag(chart.version())
+            .body(chart.image()));
+  }
+
+  /**
+   * Retrieves the next generations of ancestors above the given horses in the compact graph format.
+   * Allows clients to expand the frontier of an already loaded family tree without reloading it.
+   *
+   * @param ids         the unique identifiers of the horses to expand
+   * @param generations the number of generations to load above the given horses
+   * @return the ancestors as a {@link HorseFamilyGraphDto} whose roots are the given horses
+   */
+  @GetMapping("/familytree/expansion")
+  public HorseFamilyGraphDto expandFamilyGraph(@RequestParam(name = "ids") List<Long> ids,
+                                               @RequestParam(name = "generations", defaultValue = "1") int generations)
+      throws NotFoundException, ValidationException {
+
+    LOG.info("Processing GET {}/familytree/expansion request [requestId={}]: Expanding {} generations above horse ids {}",
+        BASE_PATH, MDC.get("r"), generations, ids);
+
+    return service.expandFamilyGraph(ids, generations);
+  }
+
+  /**
+   * Retrieves the family trees of several horses at once, with ancestors shared between the horses loaded only once.
+   * In the graph format, the trees are returned as a single graph, in which every ancestor is contained only once.
+   * The format is parsed as for {@link #getFamilyTree}.
+   *
+   * @param request the ids of the horses and the number of generations to include
+   * @param format  the requested format
+   * @return one {@link HorseFamilyTreeDto} per requested horse, in the requested order, or, in the graph format,
+   *     a {@link HorseFamilyGraphDto} whose roots are the requested horses, in the requested order
+   */
+  @PostMapping("/familytrees")
+  public Object getFamilyTrees(@RequestBody HorseFamilyTreesRequestDto request,
+                               @RequestParam(name = "format", defaultValue = "TREE") FamilyTreeFormat format)
+      throws NotFoundException, ValidationException, LimitExceededException {
+
+    LOG.info("Processing POST {}/familytrees request [requestId={}]: Retrieving family trees for {} horses with {} generations as {}",
+        BASE_PATH, MDC.get("r"), request.ids() == null ? 0 : request.ids().size(), request.generations(), format);
+
+    return switch (format) {
+      case TREE -> service.getFamilyTrees(request.ids(), request.generations());
+      case GRAPH -> service.getFamilyGraphs(request.ids(), request.generations());
+    };
+  }
+
+  /**
+   * Retrieves the details of several horses at once, instead of retrieving every horse on its own.
+   * Horses that do not exist do not fail the request, but are listed as not found.
+   *
+   * @param request the ids of the horses to retrieve, at most 1000
+   * @return the horses found, in the requested order, and the ids of the horses not found
+   */
+  @PostMapping("/batch-get")
+  public HorseBatchGetResultDto getAllById(@RequestBody HorseBatchGetRequestDto request) throws ValidationException {
+
+    LOG.info("Processing POST {}/batch-get request [requestId={}]: Retrieving {} horses",
+        BASE_PATH, MDC.get("r"), request.ids() == null ? 0 : request.ids().size());
+
+    return service.getAllById(request.ids());
+  }
+
+  /**
+   * Exports the pedigree of all horses, or of the given horses and all their ancestors, as a flat file for
+   * external breeding software. Horses are renumbered in topological order and the file is streamed to the client.
+   *
+   * @param ids    the unique identifiers of the horses to export together with their ancestors; all horses if omitted
+   * @param format the file format to export
+   * @return a {@link ResponseEntity} streaming the pedigree file
+   */
+  @GetMapping("/pedigree")
+  public ResponseEntity<StreamingResponseBody> exportPedigree(@RequestParam(name = "ids", required = false) List<Long> ids,
+                                                              @RequestParam(name = "format", defaultValue = "CSV") PedigreeExportFormat format)
       throws NotFoundException, ValidationException {
 
-    LOG.info("Processing GET {}/familytree request [requestId={}]: Retrieving family tree for horse id {} with {} generations", BASE_PATH + "/{}", MDC.get("r"),
-        id, generations);
+    LOG.info("Processing GET {}/pedigree request [requestId={}]: Exporting pedigree of {} as {}",
+        BASE_PATH, MDC.get("r"), ids == null ? "all horses" : ids, format);
+
+    PedigreeExportService.PedigreeExport export = pedigreeExportService.exportPedigree(ids, format);
+    String fileName = format == PedigreeExportFormat.CSV ? "pedigree.csv" : "pedigree.txt";
 
-    return service.getFamilyTree(id, generations);
+    return ResponseEntity.ok()
+        .contentType(format == PedigreeExportFormat.CSV ? TEXT_CSV : MediaType.TEXT_PLAIN)
+        .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(fileName).build().toString())
+        .body(export::writeTo);
   }
 
   /**
@@ -160,15 +540,19 @@ public class HorseEndpoint {
    * @param id       the unique identifier of the horse to update
    * @param toUpdate the data transfer object containing updated horse details
    * @param image    an optional new image file for the horse; may be null or empty
-   * @return the updated horse details as a {@link HorseDetailDto}
+   * @param ifMatch  the optional {@code ETag} of the version the update is based on, taking precedence over the
+   *                 version in {@code toUpdate}; {@code *} matches any version
+   * @return the updated horse details as a {@link HorseDetailDto}, with the new version as {@code ETag}
    * @throws ResponseStatusException with HTTP status 404 if the horse is not found,
    *                                 with HTTP status 400 if validation fails or image processing fails,
-   *                                 or with HTTP status 409 if there is a conflict with existing data.
+   *                                 with HTTP status 409 if there is a conflict with existing data or a concurrent update,
+   *                                 or with HTTP status 412 if the horse itself does not have the version given in {@code If-Match}.
    */
   @PutMapping(path = "{id}", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
-  public HorseDetailDto update(@PathVariable("id") long id, @ModelAttribute HorseUpdateRestDto toUpdate,
-                               @RequestParam(value = "image", required = false) MultipartFile image)
-      throws NotFoundException, ValidationException, ConflictException, IOException {
+  public ResponseEntity<HorseDetailDto> update(@PathVariable("id") long id, @ModelAttribute HorseUpdateRestDto toUpdate,
+                                               @RequestParam(value = "image", required = false) MultipartFile image,
+                                               @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch)
+      throws NotFoundException, ValidationException, ConflictException, PreconditionFailedException, IOException {
 
     LOG.info("Processing PUT {}/{} request [requestId={}]: Updating horse with id {} and data {}",
         BASE_PATH, id, MDC.get("r"), id, toUpdate);
@@ -182,9 +566,45 @@ public class HorseEndpoint {
       horseImage = new HorseImageDto(image.getBytes(), image.getContentType());
     }
 
-    HorseDetailDto updatedHorse = service.update(toUpdate.toUpdateDtoWithId(id), horseImage);
+    HorseUpdateDto update = toUpdate.toUpdateDtoWithId(id);
+    boolean versionChecked = ifMatch != null && !ifMatch.trim().equals("*");
+    if (versionChecked) {
+      update = withVersion(update, parseVersion(ifMatch));
+    }
+
+    HorseDetailDto updatedHorse;
+    try {
+      updatedHorse = service.update(update, horseImage);
+    } catch (VersionConflictException e) {
+      // only the version of the horse itself is the precondition, concurrent changes of its parents remain conflicts
+      if (!versionChecked || !e.horseIds().equals(List.of(id))) {
+        throw e;
+      }
+      throw new PreconditionFailedException("Horse does not have the expected version", e.errors());
+    }
     LOG.info("Successfully updated horse with id {} [requestId={}]", id, MDC.get("r"));
-    return updatedHorse;
+    return ResponseEntity.ok().eTag(Long.toString(updatedHorse.version())).body(updatedHorse);
+  }
+
+  /**
+   * Parses the version from an {@code If-Match} header such as {@code "3"} or {@code W/"3"}.
+   * An unparsable tag cannot match any version, which is reported as -1.
+   */
+  private static long parseVersion(String ifMatch) {
+    String tag = ifMatch.trim();
+    if (tag.startsWith("W/")) {
+      tag = tag.substring(2);
+    }
+    try {
+      return Long.parseLong(tag.replace("\"", ""));
+    } catch (NumberFormatException e) {
+      return -1;
+    }
+  }
+
+  private static HorseUpdateDto withVersion(HorseUpdateDto horse, long version) {
+    return new HorseUpdateDto(horse.id(), horse.name(), horse.description(), horse.dateOfBirth(), horse.sex(),
+        horse.ownerId(), horse.motherId(), horse.fatherId(), horse.deleteImage(), version);
   }
 
   /**
@@ -195,7 +615,7 @@ public class HorseEndpoint {
    */
   @DeleteMapping("{id}")
   @ResponseStatus(HttpStatus.NO_CONTENT)
-  public void delete(@PathVariable("id") long id) throws NotFoundException {
+  public void delete(@PathVariable("id") long id) throws NotFoundException, ConflictException {
 
     LOG.info("Processing DELETE {}/{} request [requestId={}]: Deleting horse with id {}", BASE_PATH, id, MDC.get("r"), id);
 
@@ -203,4 +623,34 @@ public class HorseEndpoint {
 
     LOG.info("Successfully deleted horse with id {} [requestId={}]", id, MDC.get("r"));
   }
+
+  /**
+   * Assigns several horses to the same owner at once, instead of updating every horse on its own.
+   *
+   * @param request the ids of the horses, at most 1000, and the id of the new owner, or null to remove the owner
+   * @return the number of reassigned horses
+   */
+  @PostMapping("/bulk/reassign-owner")
+  public HorseBulkResultDto reassignOwner(@RequestBody HorseBulkReassignOwnerDto request) throws ValidationException, ConflictException {
+
+    LOG.info("Processing POST {}/bulk/reassign-owner request [requestId={}]: Assigning {} horses to owner {}",
+        BASE_PATH, MDC.get("r"), request.ids() == null ? 0 : request.ids().size(), request.ownerId());
+
+    return service.reassignOwner(request);
+  }
+
+  /**
+   * Deletes several horses at once, instead of deleting every horse on its own.
+   *
+   * @param request the ids of the horses to delete, at most 1000
+   * @return the number of deleted horses
+   */
+  @PostMapping("/bulk/delete")
+  public HorseBulkResultDto deleteAll(@RequestBody HorseBulkDeleteDto request) throws ValidationException, ConflictException {
+
+    LOG.info("Processing POST {}/bulk/delete request [requestId={}]: Deleting {} horses",
+        BASE_PATH, MDC.get("r"), request.ids() == null ? 0 : request.ids().size());
+
+    return service.deleteAll(request);
+  }
 }
@@ -0,0 +1,82 @@
+package at.ac.tuwien.sepr.assignment.individual.rest;
+
+import at.ac.tuwien.sepr.assignment.individual.dto.ImageCacheStatsDto;
+import at.ac.tuwien.sepr.assignment.individual.dto.ImageContentDto;
+import at.ac.tuwien.sepr.assignment.individual.exception.NotFoundException;
+import at.ac.tuwien.sepr.assignment.individual.service.ImageService;
+
+import java.lang.invoke.MethodHandles;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+/**
+ * REST controller serving the stored images by the hash of their content.
+ * The content behind an image URL never changes, so the responses may be cached by clients and proxies forever.
+ */
+@RestController
+@RequestMapping(ImageEndpoint.BASE_PATH)
+public class ImageEndpoint {
+
+  private static final Logger LOG = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+  static final String BASE_PATH = "/images";
+  private static final CacheControl IMMUTABLE = CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable();
+  private final ImageService service;
+
+  public ImageEndpoint(ImageService service) {
+    this.service = service;
+  }
+
+  /**
+   * Retrieves the usage statistics of the off-heap image cache.
+   *
+   * @return the number of cached images and bytes, hits, misses and evictions
+   */
+  @GetMapping("/cache")
+  public ImageCacheStatsDto getCacheStats() {
+
+    LOG.info("Processing GET {}/cache request [requestId={}]: Retrieving image cache statistics", BASE_PATH, MDC.get("r"));
+
+    return service.getCacheStats();
+  }
+
+  /**
+   * Retrieves an image by the hash of its content, served from the off-heap image cache if possible.
+   * A conditional request for the same hash is answered with 304 Not Modified without loading the image.
+   *
+   * @param hash    the hash identifying the image, as contained in the image URL of a horse
+   * @param request the current request, used to evaluate its {@code If-None-Match} header
+   * @return the image with its MIME type, marked as immutable
+   * @throws NotFoundException if no image with the given hash is stored
+   */
+  @GetMapping("{hash}")
+  public ResponseEntity<ByteBuffer> getImage(@PathVariable("hash") String hash, WebRequest request) throws NotFoundException {
+
+    LOG.info("Processing GET {}/{} request [requestId={}]: Retrieving image", BASE_PATH, hash, MDC.get("r"));
+
+    String etag = "\"" + hash + "\"";
+    if (request.checkNotModified(etag)) {
+      return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(IMMUTABLE).build();
+    }
+
+    ImageContentDto image = service.getContentByHash(hash);
+
+    return ResponseEntity.ok()
+        .contentType(MediaType.parseMediaType(image.mimeType()))
+        .cacheControl(IMMUTABLE)
+        .eTag(etag)
+        .body(image.data());
+  }
+}
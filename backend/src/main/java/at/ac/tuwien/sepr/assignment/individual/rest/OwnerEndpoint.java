@@ -3,11 +3,13 @@ package at.ac.tuwien.sepr.assignment.individual.rest;
 import at.ac.tuwien.sepr.assignment.individual.dto.OwnerCreateDto;
 import at.ac.tuwien.sepr.assignment.individual.dto.OwnerDto;
 import at.ac.tuwien.sepr.assignment.individual.dto.OwnerSearchDto;
+import at.ac.tuwien.sepr.assignment.individual.dto.OwnerSuggestionSearchDto;
 import at.ac.tuwien.sepr.assignment.individual.exception.ConflictException;
 import at.ac.tuwien.sepr.assignment.individual.exception.ValidationException;
 import at.ac.tuwien.sepr.assignment.individual.service.OwnerService;
 
 import java.lang.invoke.MethodHandles;
+import java.util.List;
 import java.util.stream.Stream;
 
 import org.slf4j.Logger;
@@ -58,6 +60,20 @@ public class OwnerEndpoint {
     return service.search(searchParameters);
   }
 
+  /**
+   * Suggests owners whose first or last name starts with the typed prefix, for the autocomplete of owners.
+   *
+   * @param searchParameters the prefix and the maximum number of suggestions
+   * @return a list of {@link OwnerDto} matching the prefix
+   */
+  @GetMapping("/suggest")
+  public List<OwnerDto> suggest(OwnerSuggestionSearchDto searchParameters) throws ValidationException {
+
+    LOG.info("Processing GET {}/suggest request [requestId={}]: Suggesting owners with parameters {}", BASE_PATH, MDC.get("r"), searchParameters);
+
+    return service.suggest(searchParameters);
+  }
+
 
   @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
   @ResponseStatus(HttpStatus.CREATED)
@@ -0,0 +1,100 @@
+package at.ac.tuwien.sepr.assignment.individual.rest;
+
+import at.ac.tuwien.sepr.assignment.individual.dto.SavedSearchCreateDto;
+import at.ac.tuwien.sepr.assignment.individual.dto.SavedSearchDto;
+import at.ac.tuwien.sepr.assignment.individual.dto.SavedSearchNotificationDto;
+import at.ac.tuwien.sepr.assignment.individual.exception.NotFoundException;
+import at.ac.tuwien.sepr.assignment.individual.exception.ValidationException;
+import at.ac.tuwien.sepr.assignment.individual.service.SavedSearchService;
+
+import java.lang.invoke.MethodHandles;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * REST controller for managing saved searches.
+ * Subscribers save their search criteria once and are notified of every created or updated horse matching them,
+ * instead of polling the horse search.
+ */
+@RestController
+@RequestMapping(SavedSearchEndpoint.BASE_PATH)
+public class SavedSearchEndpoint {
+
+  private static final Logger LOG = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+  static final String BASE_PATH = "/saved-searches";
+  private final SavedSearchService service;
+
+  public SavedSearchEndpoint(SavedSearchService service) {
+    this.service = service;
+  }
+
+  /**
+   * Retrieves all saved searches.
+   *
+   * @return a stream of all saved searches
+   */
+  @GetMapping
+  public Stream<SavedSearchDto> getAll() {
+
+    LOG.info("Processing GET {} request [requestId={}]: Retrieving all saved searches", BASE_PATH, MDC.get("r"));
+
+    return service.getAll();
+  }
+
+  /**
+   * Creates a new saved search.
+   *
+   * @param toCreate the subscriber and the criteria of the saved search
+   * @return the created saved search
+   */
+  @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
+  @ResponseStatus(HttpStatus.CREATED)
+  public SavedSearchDto create(@RequestBody SavedSearchCreateDto toCreate) throws ValidationException {
+
+    LOG.info("Processing POST {} request [requestId={}]: Creating saved search with data {}", BASE_PATH, MDC.get("r"), toCreate);
+
+    return service.create(toCreate);
+  }
+
+  /**
+   * Retrieves the horses that matched a saved search, most recent first.
+   *
+   * @param id the unique identifier of the saved search
+   * @return the notifications of the saved search
+   */
+  @GetMapping("{id}/notifications")
+  public List<SavedSearchNotificationDto> getNotifications(@PathVariable("id") long id) throws NotFoundException {
+
+    LOG.info("Processing GET {}/{}/notifications request [requestId={}]: Retrieving notifications of saved search", BASE_PATH, id, MDC.get("r"));
+
+    return service.getNotifications(id);
+  }
+
+  /**
+   * Deletes a saved search together with its notifications.
+   *
+   * @param id the unique identifier of the saved search
+   */
+  @DeleteMapping("{id}")
+  @ResponseStatus(HttpStatus.NO_CONTENT)
+  public void delete(@PathVariable("id") long id) throws NotFoundException {
+
+    LOG.info("Processing DELETE {}/{} request [requestId={}]: Deleting saved search", BASE_PATH, id, MDC.get("r"));
+
+    service.delete(id);
+  }
+}
@@ -0,0 +1,88 @@
+package at.ac.tuwien.sepr.assignment.individual.service;
+
+import at.ac.tuwien.sepr.assignment.individual.dto.HorseImageUploadCreateDto;
+import at.ac.tuwien.sepr.assignment.individual.dto.HorseImageUploadDto;
+import at.ac.tuwien.sepr.assignment.individual.exception.ConflictException;
+import at.ac.tuwien.sepr.assignment.individual.exception.NotFoundException;
+import at.ac.tuwien.sepr.assignment.individual.exception.ValidationException;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Service for uploading horse images as streams, either at once or in resumable chunks.
+ * Uploads are copied through a small buffer of constant size, so no upload is ever held in memory as a whole.
+ */
+public interface HorseImageUploadService {
+
+  /**
+   * Replaces the image of a horse with the image read from a stream of unknown length.
+   * The size and the content type are checked while the stream is read, so invalid uploads are rejected early.
+   *
+   * @param horseId  the unique identifier of the horse
+   * @param mimeType the declared MIME type of the image
+   * @param image    the stream of the image data
+   * @throws NotFoundException   if no horse with the given {@code horseId} exists
+   * @throws ValidationException if the MIME type is unsupported, the image is too large or its content does not match its MIME type
+   * @throws ConflictException   if the horse is changed concurrently while its image is replaced
+   * @throws IOException         if reading the stream or spooling it fails
+   */
+  void putImage(long horseId, String mimeType, InputStream image) throws NotFoundException, ValidationException, ConflictException, IOException;
+
+  /**
+   * Starts a resumable upload of an image of known size.
+   *
+   * @param horseId the unique identifier of the horse
+   * @param upload  the MIME type and size of the image
+   * @return the state of the new upload, with offset 0
+   * @throws NotFoundException   if no horse with the given {@code horseId} exists
+   * @throws ValidationException if the MIME type is unsupported or the size is missing or too large
+   */
+  HorseImageUploadDto startUpload(long horseId, HorseImageUploadCreateDto upload) throws NotFoundException, ValidationException;
+
+  /**
+   * Retrieves the state of a resumable upload, whose offset tells where to resume an interrupted upload.
+   *
+   * @param horseId  the unique identifier of the horse
+   * @param uploadId the identifier of the upload session
+   * @return the state of the upload
+   * @throws NotFoundException if no unfinished upload with the given {@code uploadId} exists for the horse
+   */
+  HorseImageUploadDto getUpload(long horseId, String uploadId) throws NotFoundException;
+
+  /**
+   * Appends a chunk to a resumable upload. The image is stored as soon as all bytes have been received.
+   * If the chunk is interrupted, the bytes received so far are kept and the upload can be resumed at the new offset.
+   *
+   * @param horseId  the unique identifier of the horse
+   * @param uploadId the identifier of the upload session
+   * @param offset   the position of the chunk within the image, which must equal the number of bytes received so far
+   * @param chunk    the stream of the chunk data
+   * @return the state of the upload after the chunk
+   * @throws NotFoundException   if no unfinished upload with the given {@code uploadId} exists for the horse
+   * @throws ValidationException if the chunk exceeds the declared size or the content does not match the MIME type,
+   *                             which aborts the upload
+   * @throws ConflictException   if {@code offset} does not match or another chunk of the upload is being received
+   * @throws IOException         if reading the chunk or spooling it fails
+   */
+  HorseImageUploadDto appendToUpload(long horseId, String uploadId, long offset, InputStream chunk)
+      throws NotFoundException, ValidationException, ConflictException, IOException;
+
+  /**
+   * Aborts a resumable upload and discards the bytes received so far.
+   *
+   * @param horseId  the unique identifier of the horse
+   * @param uploadId the identifier of the upload session
+   * @throws NotFoundException if no unfinished upload with the given {@code uploadId} exists for the horse
+   * @throws ConflictException if a chunk of the upload is being received
+   */
+  void abortUpload(long horseId, String uploadId) throws NotFoundException, ConflictException;
+
+  /**
+   * Discards resumable uploads without any chunk within the configured expiry, together with the spooled
+   * data left behind by uploads that were lost on a restart.
+   *
+   * @return the number of discarded uploads
+   */
+  int removeExpiredUploads();
+}
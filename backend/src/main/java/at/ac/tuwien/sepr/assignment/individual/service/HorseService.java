@@ -1,17 +1,35 @@
 package at.ac.tuwien.sepr.assignment.individual.service;
 
 
+import at.ac.tuwien.sepr.assignment.individual.dto.HorseBatchGetResultDto;
+import at.ac.tuwien.sepr.assignment.individual.dto.HorseBulkDeleteDto;
+import at.ac.tuwien.sepr.assignment.individual.dto.HorseBulkReassignOwnerDto;
+import at.ac.tuwien.sepr.assignment.individual.dto.HorseBulkResultDto;
 import at.ac.tuwien.sepr.assignment.individual.dto.HorseCreateDto;
 import at.ac.tuwien.sepr.assignment.individual.dto.HorseDetailDto;
+import at.ac.tuwien.sepr.assignment.individual.dto.HorseFamilyGraphDto;
 import at.ac.tuwien.sepr.assignment.individual.dto.HorseFamilyTreeDto;
 import at.ac.tuwien.sepr.assignment.individual.dto.HorseImageDto;
 import at.ac.tuwien.sepr.assignment.individual.dto.HorseListDto;
+import at.ac.tuwien.sepr.assignment.individual.dto.HorseSearchCacheStatsDto;
 import at.ac.tuwien.sepr.assignment.individual.dto.HorseSearchDto;
+import at.ac.tuwien.sepr.assignment.individual.dto.HorseSearchResultDto;
+import at.ac.tuwien.sepr.assignment.individual.dto.HorseSiblingsDto;
+import at.ac.tuwien.sepr.assignment.individual.dto.HorseSuggestionDto;
+import at.ac.tuwien.sepr.assignment.individual.dto.HorseSuggestionSearchDto;
 import at.ac.tuwien.sepr.assignment.individual.dto.HorseUpdateDto;
+import at.ac.tuwien.sepr.assignment.individual.dto.ImageContentDto;
 import at.ac.tuwien.sepr.assignment.individual.exception.ConflictException;
+import at.ac.tuwien.sepr.assignment.individual.exception.LimitExceededException;
 import at.ac.tuwien.sepr.assignment.individual.exception.NotFoundException;
 import at.ac.tuwien.sepr.assignment.individual.exception.ValidationException;
+import at.ac.tuwien.sepr.assignment.individual.exception.VersionConflictException;
+import at.ac.tuwien.sepr.assignment.individual.type.HorseFacet;
+import at.ac.tuwien.sepr.assignment.individual.type.HorseField;
 
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Stream;
 
 /**
@@ -29,6 +47,17 @@ public interface HorseService {
    */
   HorseDetailDto getById(long id) throws NotFoundException;
 
+  /**
+   * Retrieves detailed information about several horses at once, as {@link #getById(long)} does for a single horse.
+   * The horses, the names of their parents and their owners are loaded with three queries, independent of the number
+   * of horses. Horses that do not exist are reported as not found instead of failing the whole request.
+   *
+   * @param ids the unique identifiers of the horses to retrieve, at most 1000
+   * @return the horses found in the requested order, and the identifiers of the horses not found
+   * @throws ValidationException if {@code ids} are missing, contain null values or are too many
+   */
+  HorseBatchGetResultDto getAllById(List<Long> ids) throws ValidationException;
+
   /**
    * Retrieves the image associated with a horse by its unique identifier.
    *
@@ -38,6 +67,16 @@ public interface HorseService {
    */
   HorseImageDto getImageById(long id) throws NotFoundException;
 
+  /**
+   * Retrieves the content of the image associated with a horse, preferably from the off-heap image cache.
+   * Only the hash of the image is read from the horse, so a replaced image is never served from the cache.
+   *
+   * @param id the unique identifier of the horse whose image is to be retrieved
+   * @return a read-only view of the image data together with its hash and MIME type
+   * @throws NotFoundException if no horse with the specified {@code id} exists or if it has no associated image
+   */
+  ImageContentDto getImageContentById(long id) throws NotFoundException;
+
   /**
    * Retrieves all horses from the persistent data store in a summarized format.
    *
@@ -47,15 +86,95 @@ public interface HorseService {
 
   /**
    * Retrieves the family tree of a horse up to a specified depth.
+   * The tree contains at most the configured number of nodes; ancestors beyond that budget are omitted
+   * and their descendants in the tree are marked as truncated.
    *
    * @param id    the unique identifier of the horse whose family tree is to be retrieved
-   * @param depth the number of generations to include in the family tree (minimum 1, maximum 25)
+   * @param depth the number of generations to include in the family tree (minimum 1, maximum 50)
    * @return a {@link HorseFamilyTreeDto} representing the horse's family tree
    * @throws NotFoundException   if no horse with the specified {@code id} exists in the persistent data store
-   * @throws ValidationException if {@code depth} is invalid (e.g., less than 1 or greater than 25)
+   * @throws ValidationException if {@code depth} is invalid (e.g., less than 1 or greater than 50)
    */
   HorseFamilyTreeDto getFamilyTree(long id, int depth) throws NotFoundException, ValidationException;
 
+  /**
+   * Retrieves the family tree of a horse up to a specified depth in a compact graph format.
+   * Each ancestor is contained only once, even if it occurs several times in the pedigree,
+   * and parents are referenced by their index in the list of nodes.
+   *
+   * @param id    the unique identifier of the horse whose family tree is to be retrieved
+   * @param depth the number of generations to include in the family tree (minimum 1, maximum 50)
+   * @return a {@link HorseFamilyGraphDto} with a single root representing the horse's family tree
+   * @throws NotFoundException   if no horse with the specified {@code id} exists in the persistent data store
+   * @throws ValidationException if {@code depth} is invalid (e.g., less than 1 or greater than 50)
+   */
+  HorseFamilyGraphDto getFamilyGraph(long id, int depth) throws NotFoundException, ValidationException;
+
+  /**
+   * Retrieves the next generations of ancestors above a set of horses in the compact graph format.
+   * Used to lazily expand the frontier of a family tree that has already been loaded.
+   * All ancestors are loaded with a single query.
+   *
+   * @param ids         the unique identifiers of the horses to expand, at most 1000
+   * @param generations the number of generations to load above the given horses (minimum 1, maximum 50)
+   * @return a {@link HorseFamilyGraphDto} whose roots are the given horses in the given order
+   * @throws NotFoundException   if one of the given horses does not exist in the persistent data store
+   * @throws ValidationException if {@code ids} or {@code generations} are invalid
+   */
+  HorseFamilyGraphDto expandFamilyGraph(List<Long> ids, int generations) throws NotFoundException, ValidationException;
+
+  /**
+   * Retrieves the family trees of several horses at once.
+   * The ancestors of all horses are loaded together with one batched query per generation,
+   * so ancestors shared by several horses are only loaded once. Every tree has the same node budget as a single
+   * family tree, and the distinct horses and the nodes of all trees together are limited by a separate batch limit.
+   *
+   * @param ids   the unique identifiers of the horses, at most 1000
+   * @param depth the number of generations to include in each family tree (minimum 1, maximum 50)
+   * @return a list of {@link HorseFamilyTreeDto}, one per requested horse in the requested order
+   * @throws NotFoundException      if one of the given horses does not exist in the persistent data store
+   * @throws ValidationException    if {@code ids} or {@code depth} are invalid
+   * @throws LimitExceededException if the family trees together exceed the batch limit
+   */
+  List<HorseFamilyTreeDto> getFamilyTrees(List<Long> ids, int depth) throws NotFoundException, ValidationException, LimitExceededException;
+
+  /**
+   * Retrieves the family trees of several horses at once as a single shared graph.
+   * Each ancestor is contained only once, even if it occurs in the family trees of several horses.
+   * The batch limit of family trees applies to the distinct horses of the graph as a whole, ancestors beyond it are truncated.
+   *
+   * @param ids   the unique identifiers of the horses, at most 1000
+   * @param depth the number of generations to include in each family tree (minimum 1, maximum 50)
+   * @return a {@link HorseFamilyGraphDto} whose roots are the requested horses in the requested order
+   * @throws NotFoundException   if one of the given horses does not exist in the persistent data store
+   * @throws ValidationException if {@code ids} or {@code depth} are invalid
+   */
+  HorseFamilyGraphDto getFamilyGraphs(List<Long> ids, int depth) throws NotFoundException, ValidationException;
+
+  /**
+   * Retrieves the full siblings and the maternal and paternal half-siblings of a horse, grouped by relation.
+   * Each group is paged independently and ordered by date of birth.
+   *
+   * @param id   the unique identifier of the horse whose siblings are to be retrieved
+   * @param page the zero-based page number, applied to each group
+   * @param size the maximum number of siblings per group (minimum 1, maximum 100)
+   * @return a {@link HorseSiblingsDto} containing one page of siblings per relation
+   * @throws NotFoundException   if no horse with the specified {@code id} exists in the persistent data store
+   * @throws ValidationException if {@code page} or {@code size} are invalid
+   */
+  HorseSiblingsDto getSiblings(long id, int page, int size) throws NotFoundException, ValidationException;
+
+  /**
+   * Suggests horses whose name starts with the typed prefix, for the autocomplete of parents.
+   * The suggestions are answered from an in-memory prefix index that is kept up to date on every write,
+   * without accessing the persistent data store.
+   *
+   * @param searchParameters the prefix, the constraints on the suggested horses and the maximum number of suggestions
+   * @return the suggested horses, in alphabetical order of the matched word
+   * @throws ValidationException if {@code searchParameters} is invalid (e.g., prefix longer than 255 characters)
+   */
+  List<HorseSuggestionDto> suggest(HorseSuggestionSearchDto searchParameters) throws ValidationException;
+
   /**
    * Searches for horses based on specified search criteria.
    * Results are limited to {@code searchParameters.limit} entries.
@@ -66,6 +185,38 @@ public interface HorseService {
    */
   Stream<HorseListDto> search(HorseSearchDto searchParameters) throws ValidationException;
 
+  /**
+   * Searches for horses based on specified search criteria, but only reads and returns the requested fields and the id.
+   * The owners are only looked up if {@link HorseField#OWNER} is requested. Search parameters without any criteria
+   * list all horses.
+   *
+   * @param searchParameters the search criteria to apply
+   * @param fields           the fields to return, at least one
+   * @return a stream of the matching horses, each as a map from the names of the returned properties of
+   *         {@link HorseListDto} to their values
+   * @throws ValidationException if {@code searchParameters} is invalid or no field is requested
+   */
+  Stream<Map<String, Object>> search(HorseSearchDto searchParameters, Set<HorseField> fields) throws ValidationException;
+
+  /**
+   * Searches for horses based on specified search criteria and counts all matching horses per value of the requested facets.
+   * The counts are computed in a single aggregation and are not affected by {@code searchParameters.limit}.
+   * Search parameters without any criteria list all horses.
+   *
+   * @param searchParameters the search criteria to apply
+   * @param facets           the facets to count, at least one
+   * @return the matching horses together with the facet counts
+   * @throws ValidationException if {@code searchParameters} is invalid or no facet is requested
+   */
+  HorseSearchResultDto searchWithFacets(HorseSearchDto searchParameters, Set<HorseFacet> facets) throws ValidationException;
+
+  /**
+   * Retrieves the usage statistics of the cache that answers repeated horse searches between writes.
+   *
+   * @return the size, write epoch, hits, misses and evictions of the search cache
+   */
+  HorseSearchCacheStatsDto getSearchCacheStats();
+
   /**
    * Creates a new horse in the persistent data store with optional image data.
    *
@@ -79,13 +230,16 @@ public interface HorseService {
 
   /**
    * Updates an existing horse in the persistent data store with optional image data.
+   * Validation and write form one transaction, which fails with a {@link VersionConflictException} instead of
+   * overwriting concurrent changes to the horse or its parents, or if the horse does not have the given version.
    *
    * @param horse the data transfer object containing the updated horse details, including the ID
    * @param image the optional new image data and MIME type, or null if unchanged or to be deleted
    * @return a {@link HorseDetailDto} representing the updated horse
    * @throws NotFoundException   if no horse with the ID in {@code horse} exists in the persistent data store
    * @throws ValidationException if {@code horse} data is invalid (e.g., missing sex, description too long)
-   * @throws ConflictException   if the update conflicts with existing data (e.g., changing sex of a parent)
+   * @throws ConflictException   if the update conflicts with existing data (e.g., changing sex of a parent),
+   *                             or a {@link VersionConflictException} if the horse or its parents were changed concurrently
    */
   HorseDetailDto update(HorseUpdateDto horse, HorseImageDto image) throws NotFoundException, ValidationException, ConflictException;
 
@@ -94,6 +248,38 @@ public interface HorseService {
    *
    * @param id the unique identifier of the horse to delete
    * @throws NotFoundException if no horse with the specified {@code id} exists in the persistent data store
+   * @throws ConflictException if the horse is changed concurrently
+   */
+  void delete(long id) throws NotFoundException, ConflictException;
+
+  /**
+   * Assigns several horses to the same owner at once, for example when a stable is sold.
+   * All horses are validated with a single query and reassigned with a single statement in one transaction,
+   * so the cost does not grow with the number of statements per horse.
+   *
+   * @param request the horses to reassign, at most 1000, and the new owner
+   * @return the number of reassigned horses
+   * @throws ValidationException if the request is invalid, or a horse or the owner does not exist
+   * @throws ConflictException   if one of the horses has been deleted concurrently
+   */
+  HorseBulkResultDto reassignOwner(HorseBulkReassignOwnerDto request) throws ValidationException, ConflictException;
+
+  /**
+   * Deletes several horses at once.
+   * All horses are validated with a single query and deleted with a fixed number of set-based statements in one transaction.
+   *
+   * @param request the horses to delete, at most 1000
+   * @return the number of deleted horses
+   * @throws ValidationException if the request is invalid or a horse does not exist
+   * @throws ConflictException   if one of the horses has been deleted concurrently
+   */
+  HorseBulkResultDto deleteAll(HorseBulkDeleteDto request) throws ValidationException, ConflictException;
+
+  /**
+   * Recomputes the offspring counters of all horses and corrects those that have drifted from the parent links.
+   * The counters are maintained on every write; this consistency repair runs as a nightly batch job.
+   *
+   * @return the number of horses whose counter has been corrected
    */
-  void delete(long id) throws NotFoundException;
-}
\ No newline at end of file
+  int repairOffspringCounts();
+}
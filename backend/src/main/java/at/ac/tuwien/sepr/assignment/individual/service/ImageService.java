@@ -0,0 +1,70 @@
+package at.ac.tuwien.sepr.assignment.individual.service;
+
+import at.ac.tuwien.sepr.assignment.individual.dto.HorseImageDto;
+import at.ac.tuwien.sepr.assignment.individual.dto.ImageCacheStatsDto;
+import at.ac.tuwien.sepr.assignment.individual.dto.ImageContentDto;
+import at.ac.tuwien.sepr.assignment.individual.exception.NotFoundException;
+
+import java.io.InputStream;
+
+/**
+ * Service for the content-addressed image store. Every distinct image is stored once under the SHA-256 hash of its
+ * content, no matter how many horses use it, and deleted by a garbage collection once no horse references it anymore.
+ * As the content of a hash never changes, images can be cached by clients forever.
+ */
+public interface ImageService {
+
+  /**
+   * Stores an image unless an image with the same content is stored already.
+   *
+   * @param image the image data and MIME type
+   * @return the hash identifying the stored image
+   */
+  String store(HorseImageDto image);
+
+  /**
+   * Stores an image whose content hash has been computed while it was received, unless an image with the same hash
+   * is stored already. Its data is only read if it has to be stored.
+   *
+   * @param hash     the SHA-256 hash of the image content, as lower-case hexadecimal string
+   * @param mimeType the MIME type of the image
+   * @param data     the stream of the image data, which is read but not closed
+   * @param length   the number of bytes to read from {@code data}
+   * @return the hash identifying the stored image
+   */
+  String store(String hash, String mimeType, InputStream data, long length);
+
+  /**
+   * Retrieves an image by the hash of its content.
+   *
+   * @param hash the hash identifying the image
+   * @return the image data and MIME type
+   * @throws NotFoundException if no image with the given {@code hash} is stored
+   */
+  HorseImageDto getByHash(String hash) throws NotFoundException;
+
+  /**
+   * Retrieves the content of an image by its hash, preferably from the off-heap image cache, which keeps the most
+   * recently requested images up to a configured total size.
+   *
+   * @param hash the hash identifying the image
+   * @return a read-only view of the image data together with its MIME type
+   * @throws NotFoundException if no image with the given {@code hash} is stored
+   */
+  ImageContentDto getContentByHash(String hash) throws NotFoundException;
+
+  /**
+   * Returns the usage statistics of the image cache, to size it for the actual image traffic.
+   *
+   * @return the number of cached images and bytes, hits, misses and evictions
+   */
+  ImageCacheStatsDto getCacheStats();
+
+  /**
+   * Repairs inconsistent reference counters and deletes all images no horse references anymore,
+   * except for images stored within the configured grace period.
+   *
+   * @return the number of deleted images
+   */
+  int collectGarbage();
+}
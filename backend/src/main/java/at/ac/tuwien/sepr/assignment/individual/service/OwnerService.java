@@ -4,11 +4,13 @@ import at.ac.tuwien.sepr.assignment.individual.dto.HorseDetailOwnerDto;
 import at.ac.tuwien.sepr.assignment.individual.dto.OwnerCreateDto;
 import at.ac.tuwien.sepr.assignment.individual.dto.OwnerDto;
 import at.ac.tuwien.sepr.assignment.individual.dto.OwnerSearchDto;
+import at.ac.tuwien.sepr.assignment.individual.dto.OwnerSuggestionSearchDto;
 import at.ac.tuwien.sepr.assignment.individual.exception.ConflictException;
 import at.ac.tuwien.sepr.assignment.individual.exception.NotFoundException;
 import at.ac.tuwien.sepr.assignment.individual.exception.ValidationException;
 
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 import java.util.stream.Stream;
 
@@ -53,6 +55,17 @@ public interface OwnerService {
    */
   Stream<OwnerDto> search(OwnerSearchDto searchParameters) throws ValidationException;
 
+  /**
+   * Suggests owners whose first or last name starts with the typed prefix, for the autocomplete of owners.
+   * The suggestions are answered from an in-memory prefix index that is kept up to date on every write,
+   * without accessing the persistent data store.
+   *
+   * @param searchParameters the prefix and the maximum number of suggestions
+   * @return the suggested owners, in alphabetical order of the matched name
+   * @throws ValidationException if {@code searchParameters} is invalid (e.g., prefix longer than 255 characters)
+   */
+  List<OwnerDto> suggest(OwnerSuggestionSearchDto searchParameters) throws ValidationException;
+
   /**
    * Creates a new owner in the persistent data store.
    *
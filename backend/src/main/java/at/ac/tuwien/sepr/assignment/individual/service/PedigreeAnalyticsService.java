@@ -0,0 +1,20 @@
+package at.ac.tuwien.sepr.assignment.individual.service;
+
+import at.ac.tuwien.sepr.assignment.individual.dto.PedigreeAnalyticsRunDto;
+
+/**
+ * Service for computing population-wide pedigree statistics.
+ * The statistics (inbreeding coefficient, pedigree completeness, generation depth and number of descendants)
+ * are stored alongside each horse and refreshed by a nightly batch job. Up to 256 descendants are counted exactly,
+ * larger numbers are estimated with a standard error of about three percent.
+ */
+public interface PedigreeAnalyticsService {
+
+  /**
+   * Recomputes the pedigree statistics of every horse and writes them back to the persistent data store.
+   * Concurrent invocations are serialized, so that at most one run is active at any time.
+   *
+   * @return a {@link PedigreeAnalyticsRunDto} summarizing the run
+   */
+  PedigreeAnalyticsRunDto refreshAll();
+}
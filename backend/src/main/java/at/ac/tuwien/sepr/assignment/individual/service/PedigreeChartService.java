@@ -0,0 +1,31 @@
+package at.ac.tuwien.sepr.assignment.individual.service;
+
+import at.ac.tuwien.sepr.assignment.individual.dto.PedigreeChartDto;
+import at.ac.tuwien.sepr.assignment.individual.exception.NotFoundException;
+import at.ac.tuwien.sepr.assignment.individual.exception.ServiceUnavailableException;
+import at.ac.tuwien.sepr.assignment.individual.exception.ValidationException;
+import at.ac.tuwien.sepr.assignment.individual.type.PedigreeChartFormat;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Service for rendering family trees as pedigree charts on the server.
+ */
+public interface PedigreeChartService {
+
+  /**
+   * Renders the family tree of a horse as an image.
+   * The family tree is loaded immediately, while rendering runs asynchronously on a bounded executor.
+   * Rendered charts are cached by the version of the family tree, so unchanged trees are not rendered again.
+   *
+   * @param id          the unique identifier of the horse whose family tree is to be rendered
+   * @param generations the number of generations to include in the chart (minimum 1, maximum 50)
+   * @param format      the image format to render
+   * @return a future completing with the rendered {@link PedigreeChartDto}
+   * @throws NotFoundException           if no horse with the specified {@code id} exists in the persistent data store
+   * @throws ValidationException         if {@code generations} is invalid
+   * @throws ServiceUnavailableException if the rendering executor is saturated
+   */
+  CompletableFuture<PedigreeChartDto> renderFamilyTree(long id, int generations, PedigreeChartFormat format)
+      throws NotFoundException, ValidationException;
+}
@@ -0,0 +1,43 @@
+package at.ac.tuwien.sepr.assignment.individual.service;
+
+import at.ac.tuwien.sepr.assignment.individual.exception.NotFoundException;
+import at.ac.tuwien.sepr.assignment.individual.exception.ValidationException;
+import at.ac.tuwien.sepr.assignment.individual.type.PedigreeExportFormat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * Service for exporting pedigrees as flat files for external breeding software.
+ */
+public interface PedigreeExportService {
+
+  /**
+   * Prepares the export of the pedigree of all horses, or of the given horses and all their ancestors.
+   * The request is validated immediately, while the pedigree itself is only read once the returned
+   * {@link PedigreeExport} is written, so that it can be streamed to the client.
+   *
+   * @param ids    the unique identifiers of the horses to export together with their ancestors, or {@code null} to export all horses
+   * @param format the file format to export
+   * @return a {@link PedigreeExport} writing the pedigree in the requested format
+   * @throws NotFoundException   if one of the given horses does not exist in the persistent data store
+   * @throws ValidationException if {@code ids} or {@code format} are invalid
+   */
+  PedigreeExport exportPedigree(List<Long> ids, PedigreeExportFormat format) throws NotFoundException, ValidationException;
+
+  /**
+   * A prepared pedigree export that can be written to an output stream.
+   */
+  @FunctionalInterface
+  interface PedigreeExport {
+
+    /**
+     * Writes the pedigree to the given stream, one horse per line in topological order.
+     *
+     * @param out the stream to write to; it is flushed but not closed
+     * @throws IOException if writing to {@code out} fails
+     */
+    void writeTo(OutputStream out) throws IOException;
+  }
+}
@@ -0,0 +1,86 @@
+package at.ac.tuwien.sepr.assignment.individual.service;
+
+import at.ac.tuwien.sepr.assignment.individual.dto.SavedSearchCreateDto;
+import at.ac.tuwien.sepr.assignment.individual.dto.SavedSearchDto;
+import at.ac.tuwien.sepr.assignment.individual.dto.SavedSearchNotificationDto;
+import at.ac.tuwien.sepr.assignment.individual.exception.NotFoundException;
+import at.ac.tuwien.sepr.assignment.individual.exception.ValidationException;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Service for saved searches, whose subscribers are notified of created or updated horses matching their criteria.
+ */
+public interface SavedSearchService {
+
+  /**
+   * Retrieves all saved searches.
+   *
+   * @return a stream of all saved searches
+   */
+  Stream<SavedSearchDto> getAll();
+
+  /**
+   * Creates a new saved search. Horses created or updated afterwards are matched against it.
+   *
+   * @param savedSearch the subscriber and the criteria of the saved search
+   * @return the created saved search
+   * @throws ValidationException if {@code savedSearch} is invalid (e.g., missing subscriber, no criterion)
+   */
+  SavedSearchDto create(SavedSearchCreateDto savedSearch) throws ValidationException;
+
+  /**
+   * Deletes a saved search together with its notifications.
+   *
+   * @param id the unique identifier of the saved search
+   * @throws NotFoundException if no saved search with the given {@code id} exists
+   */
+  void delete(long id) throws NotFoundException;
+
+  /**
+   * Retrieves the horses that matched a saved search, most recent first.
+   *
+   * @param id the unique identifier of the saved search
+   * @return the notifications of the saved search
+   * @throws NotFoundException if no saved search with the given {@code id} exists
+   */
+  List<SavedSearchNotificationDto> getNotifications(long id) throws NotFoundException;
+
+  /**
+   * Matches a horse against all saved searches and records a notification for each matching one.
+   * The matching saved searches are looked up in an in-memory reverse index instead of evaluating every saved search.
+   *
+   * @param horseId the unique identifier of the created or updated horse
+   * @return the number of recorded notifications
+   * @throws NotFoundException if no horse with the given {@code horseId} exists
+   */
+  int recordMatches(long horseId) throws NotFoundException;
+
+  /**
+   * Matches several horses against all saved searches as {@link #recordMatches(long)} does, loading all of them
+   * with a single query. Horses that do not exist (anymore) are skipped.
+   *
+   * @param horseIds the unique identifiers of the created or updated horses
+   * @return the number of recorded notifications
+   */
+  int recordMatches(Collection<Long> horseIds);
+
+  /**
+   * Schedules {@link #recordMatches(long)} on a background thread once the current transaction has been committed,
+   * or right away if there is none, so that matching adds no latency to the write.
+   *
+   * @param horseId the unique identifier of the created or updated horse
+   */
+  void recordMatchesAfterCommit(long horseId);
+
+  /**
+   * Schedules {@link #recordMatches(Collection)} as a single background task once the current transaction has been
+   * committed, or right away if there is none, so that a bulk write occupies one slot of the executor queue
+   * regardless of the number of horses it changed.
+   *
+   * @param horseIds the unique identifiers of the created or updated horses
+   */
+  void recordMatchesAfterCommit(Collection<Long> horseIds);
+}
@@ -0,0 +1,349 @@
+package at.ac.tuwien.sepr.assignment.individual.service.impl;
+
+import at.ac.tuwien.sepr.assignment.individual.dto.HorseImageUploadCreateDto;
+import at.ac.tuwien.sepr.assignment.individual.dto.HorseImageUploadDto;
+import at.ac.tuwien.sepr.assignment.individual.exception.ConflictException;
+import at.ac.tuwien.sepr.assignment.individual.exception.NotFoundException;
+import at.ac.tuwien.sepr.assignment.individual.exception.ValidationException;
+import at.ac.tuwien.sepr.assignment.individual.persistence.HorseDao;
+import at.ac.tuwien.sepr.assignment.individual.service.HorseImageUploadService;
+import at.ac.tuwien.sepr.assignment.individual.service.ImageService;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.invoke.MethodHandles;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Service implementation for streaming and resumable uploads of horse images.
+ * Every upload is spooled to a file in the upload directory through a buffer of {@value #BUFFER_SIZE} bytes
+ * while its content hash is computed, and streamed from there into the image store once it is complete,
+ * unless an image with the same content is stored already.
+ * The state of resumable uploads is kept in memory, so they have to be restarted after a restart of the application.
+ */
+@Service
+public class HorseImageUploadServiceImpl implements HorseImageUploadService {
+
+  private static final Logger LOG = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+  private static final int BUFFER_SIZE = 8192;
+  private final Map<String, UploadSession> uploads = new ConcurrentHashMap<>();
+  private final HorseDao dao;
+  private final HorseValidator validator;
+  private final HorseSearchCache searchCache;
+  private final ImageService imageService;
+  private final Path directory;
+  private final long maxSize;
+  private final Duration expiry;
+
+  @Autowired
+  public HorseImageUploadServiceImpl(HorseDao dao, HorseValidator validator, HorseSearchCache searchCache, ImageService imageService,
+                                     @Value("${horse.image-upload.directory:${java.io.tmpdir}/horse-image-uploads}") Path directory,
+                                     @Value("${horse.image-upload.max-size:10MB}") DataSize maxSize,
+                                     @Value("${horse.image-upload.expiry:24h}") Duration expiry) throws IOException {
+    this.dao = dao;
+    this.validator = validator;
+    this.searchCache = searchCache;
+    this.imageService = imageService;
+    this.directory = Files.createDirectories(directory);
+    this.maxSize = maxSize.toBytes();
+    this.expiry = expiry;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void putImage(long horseId, String mimeType, InputStream image)
+      throws NotFoundException, ValidationException, ConflictException, IOException {
+
+    LOG.trace("Entering putImage [requestId={}]: Streaming image with MIME type {} for horse with id {}", MDC.get("r"), mimeType, horseId);
+
+    validator.validateForImageStream(mimeType);
+    dao.getById(horseId);
+
+    UploadSession session = new UploadSession(UUID.randomUUID().toString(), horseId, mimeType, maxSize);
+    try {
+      receive(session, image);
+      store(session);
+    } finally {
+      Files.deleteIfExists(session.file);
+    }
+
+    LOG.info("Successfully streamed image of {} bytes for horse with id {} [requestId={}]", session.offset, horseId, MDC.get("r"));
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public HorseImageUploadDto startUpload(long horseId, HorseImageUploadCreateDto upload) throws NotFoundException, ValidationException {
+
+    LOG.trace("Entering startUpload [requestId={}]: Starting upload {} for horse with id {}", MDC.get("r"), upload, horseId);
+
+    validator.validateForImageUpload(upload, maxSize);
+    dao.getById(horseId);
+
+    UploadSession session = new UploadSession(UUID.randomUUID().toString(), horseId, upload.mimeType(), upload.size());
+    uploads.put(session.id, session);
+
+    LOG.info("Started upload {} of {} bytes for horse with id {} [requestId={}]", session.id, session.size, horseId, MDC.get("r"));
+
+    return toDto(session, false);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public HorseImageUploadDto getUpload(long horseId, String uploadId) throws NotFoundException {
+
+    LOG.trace("Entering getUpload [requestId={}]: Retrieving upload {} for horse with id {}", MDC.get("r"), uploadId, horseId);
+
+    return toDto(find(horseId, uploadId), false);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public HorseImageUploadDto appendToUpload(long horseId, String uploadId, long offset, InputStream chunk)
+      throws NotFoundException, ValidationException, ConflictException, IOException {
+
+    LOG.trace("Entering appendToUpload [requestId={}]: Appending chunk at offset {} to upload {}", MDC.get("r"), offset, uploadId);
+
+    UploadSession session = find(horseId, uploadId);
+    lock(session);
+    try {
+      if (offset != session.offset) {
+        LOG.warn("Chunk of upload {} at offset {} does not continue at offset {} [requestId={}]", uploadId, offset, session.offset, MDC.get("r"));
+
+        throw new ConflictException("Chunk does not continue the upload",
+            List.of("Upload " + uploadId + " continues at offset " + session.offset + ", not at " + offset));
+      }
+
+      boolean complete;
+      try {
+        receive(session, chunk);
+        complete = session.offset == session.size;
+        if (complete) {
+          store(session);
+          discard(session);
+        }
+      } catch (ValidationException | NotFoundException e) {
+        discard(session);
+        throw e;
+      }
+      session.lastActivity = Instant.now();
+
+      LOG.debug("Upload {} received {} of {} bytes [requestId={}]", uploadId, session.offset, session.size, MDC.get("r"));
+
+      return toDto(session, complete);
+    } finally {
+      session.lock.unlock();
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void abortUpload(long horseId, String uploadId) throws NotFoundException, ConflictException {
+
+    LOG.trace("Entering abortUpload [requestId={}]: Aborting upload {} for horse with id {}", MDC.get("r"), uploadId, horseId);
+
+    UploadSession session = find(horseId, uploadId);
+    lock(session);
+    try {
+      discard(session);
+    } finally {
+      session.lock.unlock();
+    }
+
+    LOG.info("Aborted upload {} after {} bytes [requestId={}]", uploadId, session.offset, MDC.get("r"));
+  }
+
+  /**
+   * Triggers {@link #removeExpiredUploads()} at the configured interval, starting right after startup.
+   */
+  @Scheduled(fixedDelayString = "${horse.image-upload.cleanup-interval:15m}")
+  public void scheduledUploadCleanup() {
+
+    MDC.put("r", "image-upload-cleanup");
+    try {
+      removeExpiredUploads();
+    } finally {
+      MDC.clear();
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public int removeExpiredUploads() {
+
+    LOG.trace("Entering removeExpiredUploads [requestId={}]: Removing uploads idle for more than {}", MDC.get("r"), expiry);
+
+    Instant deadline = Instant.now().minus(expiry);
+    int removed = 0;
+    for (UploadSession session : uploads.values()) {
+      if (session.lastActivity.isBefore(deadline) && session.lock.tryLock()) {
+        try {
+          discard(session);
+          removed++;
+        } finally {
+          session.lock.unlock();
+        }
+      }
+    }
+
+    try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+      for (Path file : files) {
+        if (!uploads.containsKey(file.getFileName().toString()) && Files.getLastModifiedTime(file).toInstant().isBefore(deadline)) {
+          Files.deleteIfExists(file);
+          removed++;
+        }
+      }
+    } catch (IOException e) {
+      LOG.warn("Failed to remove orphaned uploads in {} [requestId={}]: {}", directory, MDC.get("r"), e.getMessage());
+    }
+
+    if (removed > 0) {
+      LOG.info("Removed {} expired image uploads [requestId={}]", removed, MDC.get("r"));
+    }
+    return removed;
+  }
+
+  /**
+   * Copies a stream to the end of the spooled data of an upload through a buffer of constant size.
+   * The size limit and, once enough bytes have arrived, the signature of the image type are checked after every read,
+   * so an invalid upload is rejected without reading the remainder of the stream. The offset of the upload is advanced
+   * with every written buffer, so an interrupted stream leaves an upload that can be resumed.
+   */
+  private void receive(UploadSession session, InputStream stream) throws IOException, ValidationException {
+
+    byte[] buffer = new byte[BUFFER_SIZE];
+    try (FileChannel channel = FileChannel.open(session.file, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+      channel.truncate(session.offset);
+      channel.position(session.offset);
+
+      int read;
+      while ((read = stream.read(buffer)) != -1) {
+        validator.validateImageSize(session.offset + read, session.size);
+        if (session.offset < session.header.length) {
+          int headerBytes = (int) Math.min(read, session.header.length - session.offset);
+          System.arraycopy(buffer, 0, session.header, (int) session.offset, headerBytes);
+          if (session.offset + headerBytes == session.header.length) {
+            validator.validateImageSignature(session.mimeType, session.header, session.header.length);
+          }
+        }
+
+        ByteBuffer written = ByteBuffer.wrap(buffer, 0, read);
+        while (written.hasRemaining()) {
+          channel.write(written);
+        }
+        session.digest.update(buffer, 0, read);
+        session.offset += read;
+      }
+    }
+  }
+
+  /**
+   * Stores the complete spooled data of an upload in the image store, which only reads the spooled data if no image
+   * with the same content is stored already, and references the stored image from the horse.
+   */
+  private void store(UploadSession session) throws IOException, ValidationException, NotFoundException, ConflictException {
+
+    if (session.offset < session.header.length) {
+      validator.validateImageSignature(session.mimeType, session.header, (int) session.offset);
+    }
+
+    String hash;
+    try (InputStream image = Files.newInputStream(session.file)) {
+      hash = imageService.store(ImageHash.toHex(session.digest), session.mimeType, image, session.offset);
+    }
+    dao.updateImage(session.horseId, hash);
+    searchCache.invalidate();
+  }
+
+  private UploadSession find(long horseId, String uploadId) throws NotFoundException {
+
+    UploadSession session = uploads.get(uploadId);
+    if (session == null || session.horseId != horseId) {
+      LOG.warn("No upload {} found for horse with id {} [requestId={}]", uploadId, horseId, MDC.get("r"));
+
+      throw new NotFoundException("No upload %s for horse with ID %d found".formatted(uploadId, horseId));
+    }
+    return session;
+  }
+
+  private static void lock(UploadSession session) throws ConflictException {
+    if (!session.lock.tryLock()) {
+      LOG.warn("Upload {} is busy receiving another chunk [requestId={}]", session.id, MDC.get("r"));
+
+      throw new ConflictException("Upload is busy", List.of("Another chunk of upload " + session.id + " is being received"));
+    }
+  }
+
+  private void discard(UploadSession session) {
+    uploads.remove(session.id);
+    try {
+      Files.deleteIfExists(session.file);
+    } catch (IOException e) {
+      LOG.warn("Failed to delete the spooled data of upload {} [requestId={}]: {}", session.id, MDC.get("r"), e.getMessage());
+    }
+  }
+
+  private static HorseImageUploadDto toDto(UploadSession session, boolean complete) {
+    return new HorseImageUploadDto(session.id, session.horseId, session.mimeType, session.size, session.offset, complete);
+  }
+
+  /**
+   * A running upload: its declared properties, the spooled file, the number of bytes received so far,
+   * the leading bytes needed to check the image type and the digest of the bytes received so far.
+   * The lock serializes the chunks of the upload.
+   */
+  private final class UploadSession {
+
+    private final String id;
+    private final long horseId;
+    private final String mimeType;
+    private final long size;
+    private final Path file;
+    private final byte[] header = new byte[HorseValidator.IMAGE_SIGNATURE_LENGTH];
+    private final MessageDigest digest = ImageHash.newDigest();
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile long offset;
+    private volatile Instant lastActivity = Instant.now();
+
+    UploadSession(String id, long horseId, String mimeType, long size) {
+      this.id = id;
+      this.horseId = horseId;
+      this.mimeType = mimeType;
+      this.size = size;
+      this.file = directory.resolve(id);
+    }
+  }
+}
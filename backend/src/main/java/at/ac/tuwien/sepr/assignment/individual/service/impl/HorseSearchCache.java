@@ -0,0 +1,171 @@
+package at.ac.tuwien.sepr.assignment.individual.service.impl;
+
+import at.ac.tuwien.sepr.assignment.individual.dto.HorseSearchCacheStatsDto;
+
+import java.lang.invoke.MethodHandles;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * LRU cache of horse search results, bounded both by the number of results and by the total number of horses they
+ * contain, as a single unfiltered search may hold a copy of the whole table. Results with more horses than the whole
+ * cache may hold are not cached.
+ * Every write to horses or owners increments a global write epoch. Each cached result remembers the epoch it was
+ * loaded in and is only served while the epoch is unchanged, so a write invalidates all results in constant time
+ * without touching the cache, and stale results are dropped when they are next looked up or age out.
+ * The entries are guarded by a {@link ReentrantLock} rather than a monitor, so that a virtual thread blocked on
+ * logging while holding it, or waiting for it, does not pin its carrier thread.
+ */
+@Component
+class HorseSearchCache {
+
+  private static final Logger LOG = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+  private final AtomicLong epoch = new AtomicLong();
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Map<Object, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+  private final int maxEntries;
+  private final long maxHorses;
+  private long horses;
+
+  HorseSearchCache(@Value("${horse.search-cache.max-entries:1000}") int maxEntries,
+                   @Value("${horse.search-cache.max-horses:50000}") long maxHorses) {
+    this.maxEntries = Math.max(1, maxEntries);
+    this.maxHorses = Math.max(1, maxHorses);
+  }
+
+  /**
+   * Returns the cached result for a key, or loads and caches it if there is no result of the current write epoch.
+   * A result is not cached if a write happened while it was loaded, as it might not reflect that write.
+   * The least recently used results are evicted until the new result fits into both bounds.
+   *
+   * @param key     the normalized search, compared by {@code equals}
+   * @param loader  loads the result from the persistent data store, must return an immutable value
+   * @param weigher returns the number of horses in a result, every result counts as at least one horse
+   * @param <V>     the type of the result
+   * @return the cached or loaded result
+   */
+  @SuppressWarnings("unchecked")
+  <V> V get(Object key, Supplier<V> loader, ToIntFunction<? super V> weigher) {
+
+    long loadedIn = epoch.get();
+    lock.lock();
+    try {
+      Entry entry = entries.get(key);
+      if (entry != null && entry.epoch() == loadedIn) {
+        hits.increment();
+        LOG.debug("Serving cached search result for {} of write epoch {} [requestId={}]", key, loadedIn, MDC.get("r"));
+
+        return (V) entry.value();
+      }
+      if (entry != null) {
+        horses -= entries.remove(key).weight();
+      }
+    } finally {
+      lock.unlock();
+    }
+
+    misses.increment();
+    V value = loader.get();
+    int weight = Math.max(1, weigher.applyAsInt(value));
+    if (weight > maxHorses) {
+      LOG.debug("Search result for {} with {} horses is too large to be cached [requestId={}]", key, weight, MDC.get("r"));
+
+      return value;
+    }
+
+    lock.lock();
+    try {
+      if (epoch.get() == loadedIn) {
+        Entry replaced = entries.remove(key);
+        if (replaced != null) {
+          horses -= replaced.weight();
+        }
+        evictUntilFree(weight);
+        entries.put(key, new Entry(loadedIn, value, weight));
+        horses += weight;
+      }
+    } finally {
+      lock.unlock();
+    }
+    return value;
+  }
+
+  /**
+   * Invalidates all cached results after a write to horses or owners.
+   * Inside a transaction the epoch is incremented again once the transaction has completed, so that results
+   * loaded by concurrent searches before the write became visible are not served afterwards.
+   */
+  void invalidate() {
+
+    long invalidated = epoch.incrementAndGet();
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCompletion(int status) {
+          epoch.incrementAndGet();
+        }
+      });
+    }
+
+    LOG.debug("Invalidated search results, write epoch is now {} [requestId={}]", invalidated, MDC.get("r"));
+  }
+
+  /**
+   * Returns the current usage statistics of the cache.
+   *
+   * @return the number of results and horses, write epoch, hits, misses and evictions of the cache
+   */
+  HorseSearchCacheStatsDto stats() {
+
+    int size;
+    long cachedHorses;
+    lock.lock();
+    try {
+      size = entries.size();
+      cachedHorses = horses;
+    } finally {
+      lock.unlock();
+    }
+    long hitCount = hits.sum();
+    long missCount = misses.sum();
+    long lookups = hitCount + missCount;
+    return new HorseSearchCacheStatsDto(size, maxEntries, cachedHorses, maxHorses, epoch.get(), hitCount, missCount, evictions.sum(),
+        lookups == 0 ? 0 : (double) hitCount / lookups);
+  }
+
+  /**
+   * Evicts the least recently used results until a result with the given number of horses fits into the cache.
+   * Must be called while holding the lock.
+   */
+  private void evictUntilFree(int required) {
+    Iterator<Entry> eldest = entries.values().iterator();
+    while ((entries.size() >= maxEntries || horses + required > maxHorses) && eldest.hasNext()) {
+      horses -= eldest.next().weight();
+      eldest.remove();
+      evictions.increment();
+    }
+  }
+
+  /**
+   * A cached result together with the write epoch it was loaded in and the number of horses it contains.
+   */
+  private record Entry(long epoch, Object value, int weight) {
+  }
+}
@@ -1,32 +1,62 @@
 package at.ac.tuwien.sepr.assignment.individual.service.impl;
 
+import at.ac.tuwien.sepr.assignment.individual.dto.HorseBatchGetResultDto;
+import at.ac.tuwien.sepr.assignment.individual.dto.HorseBulkDeleteDto;
+import at.ac.tuwien.sepr.assignment.individual.dto.HorseBulkReassignOwnerDto;
+import at.ac.tuwien.sepr.assignment.individual.dto.HorseBulkResultDto;
 import at.ac.tuwien.sepr.assignment.individual.dto.HorseCreateDto;
 import at.ac.tuwien.sepr.assignment.individual.dto.HorseDetailDto;
 import at.ac.tuwien.sepr.assignment.individual.dto.HorseDetailOwnerDto;
+import at.ac.tuwien.sepr.assignment.individual.dto.HorseFamilyGraphDto;
+import at.ac.tuwien.sepr.assignment.individual.dto.HorseFamilyGraphNodeDto;
 import at.ac.tuwien.sepr.assignment.individual.dto.HorseFamilyTreeDto;
 import at.ac.tuwien.sepr.assignment.individual.dto.HorseImageDto;
 import at.ac.tuwien.sepr.assignment.individual.dto.HorseListDto;
 import at.ac.tuwien.sepr.assignment.individual.dto.HorseParentDto;
+import at.ac.tuwien.sepr.assignment.individual.dto.HorseSearchCacheStatsDto;
 import at.ac.tuwien.sepr.assignment.individual.dto.HorseSearchDto;
+import at.ac.tuwien.sepr.assignment.individual.dto.HorseSearchResultDto;
+import at.ac.tuwien.sepr.assignment.individual.dto.HorseSiblingsDto;
+import at.ac.tuwien.sepr.assignment.individual.dto.HorseSuggestionDto;
+import at.ac.tuwien.sepr.assignment.individual.dto.HorseSuggestionSearchDto;
 import at.ac.tuwien.sepr.assignment.individual.dto.HorseUpdateDto;
+import at.ac.tuwien.sepr.assignment.individual.dto.ImageContentDto;
 import at.ac.tuwien.sepr.assignment.individual.dto.OwnerDto;
 import at.ac.tuwien.sepr.assignment.individual.dto.OwnerSearchDto;
 import at.ac.tuwien.sepr.assignment.individual.entity.Horse;
+import at.ac.tuwien.sepr.assignment.individual.entity.HorseFacetCount;
 import at.ac.tuwien.sepr.assignment.individual.exception.ConflictException;
 import at.ac.tuwien.sepr.assignment.individual.exception.FatalException;
+import at.ac.tuwien.sepr.assignment.individual.exception.LimitExceededException;
 import at.ac.tuwien.sepr.assignment.individual.exception.NotFoundException;
 import at.ac.tuwien.sepr.assignment.individual.exception.PersistenceException;
 import at.ac.tuwien.sepr.assignment.individual.exception.ValidationException;
+import at.ac.tuwien.sepr.assignment.individual.exception.VersionConflictException;
 import at.ac.tuwien.sepr.assignment.individual.mapper.HorseMapper;
 import at.ac.tuwien.sepr.assignment.individual.persistence.HorseDao;
 import at.ac.tuwien.sepr.assignment.individual.service.HorseService;
+import at.ac.tuwien.sepr.assignment.individual.service.ImageService;
 import at.ac.tuwien.sepr.assignment.individual.service.OwnerService;
+import at.ac.tuwien.sepr.assignment.individual.service.SavedSearchService;
+import at.ac.tuwien.sepr.assignment.individual.type.HorseFacet;
+import at.ac.tuwien.sepr.assignment.individual.type.HorseField;
+import at.ac.tuwien.sepr.assignment.individual.type.HorseSort;
 
 import java.lang.invoke.MethodHandles;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Deque;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -34,8 +64,13 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 /**
  * Service implementation for managing horse-related operations.
@@ -44,18 +79,33 @@ import org.springframework.stereotype.Service;
 public class HorseServiceImpl implements HorseService {
 
   private static final Logger LOG = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+  private static final int DEFAULT_SUGGESTIONS = 10;
+  private final PrefixIndex<HorseSuggestionDto> suggestionIndex = new PrefixIndex<>();
   private final HorseDao dao;
   private final HorseMapper mapper;
   private final HorseValidator validator;
   private final OwnerService ownerService;
+  private final HorseSearchCache searchCache;
+  private final SavedSearchService savedSearchService;
+  private final ImageService imageService;
+  private final int maxFamilyTreeNodes;
+  private final int maxFamilyTreeBatchNodes;
 
   @Autowired
-  public HorseServiceImpl(HorseDao dao, HorseMapper mapper, HorseValidator validator, OwnerService ownerService) {
+  public HorseServiceImpl(HorseDao dao, HorseMapper mapper, HorseValidator validator, OwnerService ownerService,
+                          HorseSearchCache searchCache, SavedSearchService savedSearchService, ImageService imageService,
+                          @Value("${horse.family-tree.max-nodes:1000}") int maxFamilyTreeNodes,
+                          @Value("${horse.family-tree.max-batch-nodes:50000}") int maxFamilyTreeBatchNodes) {
 
     this.dao = dao;
     this.mapper = mapper;
     this.validator = validator;
     this.ownerService = ownerService;
+    this.searchCache = searchCache;
+    this.savedSearchService = savedSearchService;
+    this.imageService = imageService;
+    this.maxFamilyTreeNodes = Math.max(1, maxFamilyTreeNodes);
+    this.maxFamilyTreeBatchNodes = Math.max(1, maxFamilyTreeBatchNodes);
   }
 
   /**
@@ -112,6 +162,63 @@ public class HorseServiceImpl implements HorseService {
     return result;
   }
 
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public HorseBatchGetResultDto getAllById(List<Long> ids) throws ValidationException {
+
+    LOG.trace("Entering getAllById [requestId={}]: Retrieving horses with ids {}", MDC.get("r"), ids);
+
+    validator.validateForBatchGet(ids);
+
+    Set<Long> requested = new LinkedHashSet<>(ids);
+    Map<Long, Horse> horses = dao.getAllById(requested).stream()
+        .collect(Collectors.toMap(Horse::id, horse -> horse));
+
+    /*
+    The parents only contribute their names, so they are loaded as parent rows instead of full horses, even if they
+    are among the requested horses. A parent deleted in between is treated like a parent that is no longer linked.
+     */
+    Set<Long> parentIds = new HashSet<>();
+    Set<Long> ownerIds = new HashSet<>();
+    for (Horse horse : horses.values()) {
+      parentIds.addAll(Stream.of(horse.motherId(), horse.fatherId()).filter(Objects::nonNull).toList());
+      if (horse.ownerId() != null) {
+        ownerIds.add(horse.ownerId());
+      }
+    }
+    Map<Long, HorseParentDto> parents = dao.getParentsById(parentIds).stream()
+        .collect(Collectors.toMap(HorseParentDto::id, parent -> parent));
+
+    Map<Long, HorseDetailOwnerDto> ownerMap;
+    try {
+      ownerMap = ownerIds.isEmpty() ? Map.of() : ownerService.getAllById(ownerIds);
+    } catch (NotFoundException e) {
+      LOG.error("Unexpected error [requestId={}]: Horse refers to non-existing owner", MDC.get("r"), e);
+
+      throw new FatalException("Horse, that is already persisted, refers to non-existing owner", e);
+    }
+
+    List<HorseDetailDto> found = new ArrayList<>(horses.size());
+    List<Long> notFound = new ArrayList<>();
+    for (Long id : requested) {
+      Horse horse = horses.get(id);
+      if (horse == null) {
+        notFound.add(id);
+        continue;
+      }
+      found.add(mapper.entityToDetailDto(horse, ownerMap,
+          horse.motherId() == null ? null : parents.get(horse.motherId()),
+          horse.fatherId() == null ? null : parents.get(horse.fatherId())));
+    }
+
+    LOG.info("Successfully retrieved {} of {} requested horses [requestId={}]: Not found {}",
+        found.size(), requested.size(), MDC.get("r"), notFound);
+
+    return new HorseBatchGetResultDto(found, notFound);
+  }
+
   /**
    * {@inheritDoc}
    */
@@ -134,6 +241,17 @@ public class HorseServiceImpl implements HorseService {
     return image;
   }
 
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public ImageContentDto getImageContentById(long id) throws NotFoundException {
+
+    LOG.trace("Entering getImageContentById [requestId={}]: Retrieving image content for horse with id {}", MDC.get("r"), id);
+
+    return imageService.getContentByHash(dao.getImageHashById(id));
+  }
+
   /**
    * {@inheritDoc}
    */
@@ -142,6 +260,16 @@ public class HorseServiceImpl implements HorseService {
 
     LOG.trace("Entering getAll [requestId={}]: Retrieving all horses", MDC.get("r"));
 
+    return searchCache.get(new SearchKey(null, null, null), this::loadAll, List::size).stream();
+  }
+
+  /**
+   * Loads all horses together with their owners from the persistent data store.
+   *
+   * @return all horses
+   */
+  private List<HorseListDto> loadAll() {
+
     var horses = dao.getAll();
 
     LOG.debug("Retrieved {} horses [requestId={}]", horses.size(), MDC.get("r"));
@@ -165,7 +293,8 @@ public class HorseServiceImpl implements HorseService {
     }
 
     return horses.stream()
-        .map(horse -> mapper.entityToListDto(horse, ownerMap));
+        .map(horse -> mapper.entityToListDto(horse, ownerMap))
+        .toList();
   }
 
   /**
@@ -179,7 +308,7 @@ public class HorseServiceImpl implements HorseService {
     validator.validateGenerations(depth);
 
     Horse horse = dao.getById(id);
-    HorseFamilyTreeDto tree = buildFamilyTree(horse, depth);
+    HorseFamilyTreeDto tree = buildFamilyTree(horse, depth, maxFamilyTreeNodes, new HashMap<>());
 
     LOG.info("Successfully built family tree for horse id {} with depth {} [requestId={}]", id, depth, MDC.get("r"));
 
@@ -187,60 +316,409 @@ public class HorseServiceImpl implements HorseService {
   }
 
   /**
-   * Recursively constructs a family tree for a horse up to the specified depth.
-   * Fetches parent information from the persistence layer and builds a tree structure.
+   * Iteratively constructs a family tree for a horse up to the specified depth.
+   * Ancestors are loaded one generation at a time with a single batched query per generation, and the tree
+   * is limited to the given number of nodes. Once the budget is exhausted, remaining parents are
+   * omitted and the affected nodes are marked as truncated.
    *
-   * @param horse the horse entity to build the family tree for, or null if no further recursion is needed
-   * @param depth the remaining number of generations to include (decrements with each recursive call)
-   * @return a {@link HorseFamilyTreeDto} representing the horse’s family tree, or null if depth is 0 or horse is null
-   * @throws NotFoundException if a referenced mother or father cannot be found in the persistent data store
+   * @param root     the horse entity to build the family tree for
+   * @param depth    the number of generations to include, including the root
+   * @param maxNodes the maximum number of nodes in the tree, at least {@code 1}
+   * @param loaded   horses that are already loaded, by id; horses loaded while building the tree are added to it
+   * @return a {@link HorseFamilyTreeDto} representing the horse’s family tree
+   * @throws FatalException if a referenced mother or father cannot be found in the persistent data store
    */
-  private HorseFamilyTreeDto buildFamilyTree(Horse horse, int depth) throws NotFoundException {
+  private HorseFamilyTreeDto buildFamilyTree(Horse root, int depth, int maxNodes, Map<Long, Horse> loaded) {
 
     /*
-    Doing the recursion here in the service layer instead of in persistence keeps the database
-    logic simple and makes the recursion easier to test and maintain. Also fits better with clean
-    architecture since this is business logic, not data access.
+    The tree is built breadth-first with an explicit frontier instead of recursing on the call stack,
+    so the limiting factor is the node budget rather than the stack depth. Every generation costs one
+    query for the distinct parents that are not loaded yet, and the immutable DTOs are assembled
+    afterwards from the deepest generation up to the root. Memory is proportional to the returned nodes.
      */
-    LOG.trace("Building family tree for horse {} with remaining depth {} [requestId={}]",
-        horse != null ? "id " + horse.id() : "null", depth, MDC.get("r"));
+    LOG.trace("Building family tree for horse id {} with depth {} and node budget {} [requestId={}]",
+        root.id(), depth, maxNodes, MDC.get("r"));
+
+    loaded.put(root.id(), root);
+    List<List<FamilyTreeNode>> generations = new ArrayList<>();
+    List<FamilyTreeNode> frontier = List.of(new FamilyTreeNode(root.id()));
+    int nodeCount = 1;
 
-    if (depth == 0 || horse == null) {
-      return null;
+    while (!frontier.isEmpty()) {
+      for (FamilyTreeNode node : frontier) {
+        node.horse = loaded.get(node.id);
+      }
+      generations.add(frontier);
+      if (generations.size() == depth) {
+        break;
+      }
+
+      List<FamilyTreeNode> next = new ArrayList<>();
+      for (FamilyTreeNode node : frontier) {
+        Long motherId = node.horse.motherId();
+        Long fatherId = node.horse.fatherId();
+        if (motherId != null && nodeCount < maxNodes) {
+          node.mother = new FamilyTreeNode(motherId);
+          next.add(node.mother);
+          nodeCount++;
+        }
+        if (fatherId != null && nodeCount < maxNodes) {
+          node.father = new FamilyTreeNode(fatherId);
+          next.add(node.father);
+          nodeCount++;
+        }
+      }
+
+      Set<Long> missing = next.stream()
+          .map(node -> node.id)
+          .filter(parentId -> !loaded.containsKey(parentId))
+          .collect(Collectors.toSet());
+      dao.getAllById(missing).forEach(horse -> loaded.put(horse.id(), horse));
+
+      for (Long parentId : missing) {
+        if (!loaded.containsKey(parentId)) {
+          LOG.error("Unexpected error [requestId={}]: Parent with ID {} not found while building family tree for horse id {}",
+              MDC.get("r"), parentId, root.id());
+
+          throw new FatalException("Parent with ID " + parentId + " not found, but was referenced in the family tree of horse " + root.id());
+        }
+      }
+
+      LOG.debug("Built generation {} of family tree for horse id {} [requestId={}]: {} nodes, {} new horses",
+          generations.size() + 1, root.id(), MDC.get("r"), next.size(), missing.size());
+
+      frontier = next;
     }
 
-    HorseFamilyTreeDto mother = null;
-    HorseFamilyTreeDto father = null;
+    for (int generation = generations.size() - 1; generation >= 0; generation--) {
+      for (FamilyTreeNode node : generations.get(generation)) {
+        Horse horse = node.horse;
+        boolean truncated = (horse.motherId() != null && node.mother == null)
+            || (horse.fatherId() != null && node.father == null);
+        node.dto = new HorseFamilyTreeDto(horse.id(), horse.name(), horse.dateOfBirth(),
+            node.mother == null ? null : node.mother.dto,
+            node.father == null ? null : node.father.dto,
+            truncated);
+      }
+    }
 
-    if (horse.motherId() != null) {
-      try {
-        Horse motherHorse = dao.getById(horse.motherId());
-        mother = buildFamilyTree(motherHorse, depth - 1);
+    return generations.getFirst().getFirst().dto;
+  }
+
+  /**
+   * Mutable node of a family tree under construction.
+   * Each node represents one occurrence of a horse in the tree, so a horse that appears several times
+   * (pedigree collapse) is represented by several nodes sharing the same loaded {@link Horse}.
+   */
+  private static final class FamilyTreeNode {
 
-        LOG.debug("Added mother to family tree for horse id {} [requestId={}]: id {}", horse.id(), MDC.get("r"), horse.motherId());
+    private final Long id;
+    private Horse horse;
+    private FamilyTreeNode mother;
+    private FamilyTreeNode father;
+    private HorseFamilyTreeDto dto;
 
-      } catch (NotFoundException e) {
-        LOG.error("Unexpected error [requestId={}]: Mother with ID {} not found for horse id {}", MDC.get("r"), horse.motherId(), horse.id(), e);
+    private FamilyTreeNode(Long id) {
+      this.id = id;
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public HorseFamilyGraphDto getFamilyGraph(long id, int depth) throws NotFoundException, ValidationException {
+
+    LOG.trace("Entering getFamilyGraph [requestId={}]: Retrieving family graph for horse id {} with depth {}", MDC.get("r"), id, depth);
+
+    validator.validateGenerations(depth);
+
+    Horse horse = dao.getById(id);
+    HorseFamilyGraphDto graph = buildFamilyGraph(List.of(horse), depth, maxFamilyTreeNodes, dao::getAllById);
+
+    LOG.info("Successfully built family graph for horse id {} with depth {} and {} nodes [requestId={}]",
+        id, depth, graph.nodes().size(), MDC.get("r"));
+
+    return graph;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public HorseFamilyGraphDto expandFamilyGraph(List<Long> ids, int generations) throws NotFoundException, ValidationException {
+
+    LOG.trace("Entering expandFamilyGraph [requestId={}]: Expanding {} generations above horse ids {}", MDC.get("r"), generations, ids);
+
+    validator.validateFamilyTreeIds(ids);
+    validator.validateGenerations(generations);
 
-        throw new FatalException("Mother with ID " + horse.motherId() + " not found, but was referenced by horse " + horse.id(), e);
+    /*
+    The ancestors are loaded level by level with one batched query per generation, skipping horses that were
+    already visited, so every distinct ancestor is read once and the traversal stops at the node budget.
+     */
+    HorseFamilyGraphDto graph = buildFamilyGraph(getRoots(ids), generations + 1, maxFamilyTreeNodes, dao::getAllById);
+
+    LOG.info("Successfully expanded family graph above {} horses by {} generations with {} nodes [requestId={}]",
+        ids.size(), generations, graph.nodes().size(), MDC.get("r"));
+
+    return graph;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public List<HorseFamilyTreeDto> getFamilyTrees(List<Long> ids, int depth)
+      throws NotFoundException, ValidationException, LimitExceededException {
+
+    LOG.trace("Entering getFamilyTrees [requestId={}]: Retrieving family trees for {} horses with depth {}",
+        MDC.get("r"), ids == null ? 0 : ids.size(), depth);
+
+    validator.validateFamilyTreeIds(ids);
+    validator.validateGenerations(depth);
+
+    /*
+    The union of all pedigrees is loaded level by level through the graph traversal first, so every
+    distinct ancestor costs one row in one query per generation. The nested trees are then assembled
+    from the loaded horses without further queries. Every tree gets the full node budget of a single
+    family tree, and a batch whose distinct ancestors or nested nodes exceed the batch limit is rejected
+    as a whole instead of returning trees that are shallower than requested.
+     */
+    List<Horse> roots = getRoots(ids);
+    Map<Long, Horse> loaded = new HashMap<>();
+    roots.forEach(root -> loaded.put(root.id(), root));
+    buildFamilyGraph(roots, depth, maxFamilyTreeBatchNodes + 1, pending -> {
+      List<Horse> horses = dao.getAllById(pending);
+      horses.forEach(horse -> loaded.put(horse.id(), horse));
+      return horses;
+    });
+    if (loaded.size() > maxFamilyTreeBatchNodes) {
+      throw familyTreeBatchTooLarge(ids.size(), depth, "distinct horses");
+    }
+
+    List<HorseFamilyTreeDto> trees = new ArrayList<>(roots.size());
+    long nodeCount = 0;
+    for (Horse root : roots) {
+      HorseFamilyTreeDto tree = buildFamilyTree(root, depth, maxFamilyTreeNodes, loaded);
+      nodeCount += countNodes(tree);
+      if (nodeCount > maxFamilyTreeBatchNodes) {
+        throw familyTreeBatchTooLarge(ids.size(), depth, "family tree nodes");
       }
+      trees.add(tree);
     }
 
-    if (horse.fatherId() != null) {
-      try {
-        Horse fatherHorse = dao.getById(horse.fatherId());
-        father = buildFamilyTree(fatherHorse, depth - 1);
+    LOG.info("Successfully built {} family trees with depth {} from {} distinct horses [requestId={}]",
+        trees.size(), depth, loaded.size(), MDC.get("r"));
 
-        LOG.debug("Added father to family tree for horse id {} [requestId={}]: id {}", horse.id(), MDC.get("r"), horse.fatherId());
+    return trees;
+  }
 
-      } catch (NotFoundException e) {
-        LOG.error("Unexpected error [requestId={}]: Father with ID {} not found for horse id {}", MDC.get("r"), horse.fatherId(), horse.id(), e);
+  /**
+   * Creates the exception for a batch of family trees that exceeds {@link #maxFamilyTreeBatchNodes}.
+   *
+   * @param horses the number of requested horses
+   * @param depth  the requested number of generations
+   * @param what   what exceeded the limit, for the error message
+   * @return the exception to throw
+   */
+  private LimitExceededException familyTreeBatchTooLarge(int horses, int depth, String what) {
+
+    LOG.warn("Family trees rejected [requestId={}]: {} horses with depth {} exceed {} {}",
+        MDC.get("r"), horses, depth, maxFamilyTreeBatchNodes, what);
 
-        throw new FatalException("Father with ID " + horse.fatherId() + " not found, but was referenced by horse " + horse.id(), e);
+    return new LimitExceededException("Family trees too large", List.of(
+        "The family trees of " + horses + " horses with depth " + depth + " exceed the limit of " + maxFamilyTreeBatchNodes + " " + what
+            + ", request fewer horses or generations"));
+  }
+
+  /**
+   * Counts the nodes of a nested family tree, including the root.
+   *
+   * @param tree the family tree to count
+   * @return the number of nodes in the tree
+   */
+  private static int countNodes(HorseFamilyTreeDto tree) {
+
+    int count = 0;
+    Deque<HorseFamilyTreeDto> pending = new ArrayDeque<>();
+    pending.push(tree);
+    while (!pending.isEmpty()) {
+      HorseFamilyTreeDto node = pending.pop();
+      count++;
+      if (node.mother() != null) {
+        pending.push(node.mother());
+      }
+      if (node.father() != null) {
+        pending.push(node.father());
       }
     }
+    return count;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public HorseFamilyGraphDto getFamilyGraphs(List<Long> ids, int depth) throws NotFoundException, ValidationException {
+
+    LOG.trace("Entering getFamilyGraphs [requestId={}]: Retrieving family graph for {} horses with depth {}",
+        MDC.get("r"), ids == null ? 0 : ids.size(), depth);
+
+    validator.validateFamilyTreeIds(ids);
+    validator.validateGenerations(depth);
 
-    return new HorseFamilyTreeDto(horse.id(), horse.name(), horse.dateOfBirth(), mother, father);
+    HorseFamilyGraphDto graph = buildFamilyGraph(getRoots(ids), depth, maxFamilyTreeBatchNodes, dao::getAllById);
+
+    LOG.info("Successfully built family graph for {} horses with depth {} and {} nodes [requestId={}]",
+        ids.size(), depth, graph.nodes().size(), MDC.get("r"));
+
+    return graph;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public HorseSiblingsDto getSiblings(long id, int page, int size) throws NotFoundException, ValidationException {
+
+    LOG.trace("Entering getSiblings [requestId={}]: Retrieving siblings of horse id {}, page {} with size {}", MDC.get("r"), id, page, size);
+
+    validator.validatePage(page, size);
+    dao.getById(id);
+
+    int offset = (int) Math.min(Integer.MAX_VALUE, (long) page * size);
+    HorseSiblingsDto siblings = mapper.entitiesToSiblingsDto(dao.getSiblings(id, offset, size), offset);
+
+    LOG.info("Successfully retrieved siblings of horse id {} [requestId={}]: {} full, {} maternal half, {} paternal half",
+        id, MDC.get("r"), siblings.fullSiblings().total(), siblings.maternalHalfSiblings().total(), siblings.paternalHalfSiblings().total());
+
+    return siblings;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public List<HorseSuggestionDto> suggest(HorseSuggestionSearchDto searchParameters) throws ValidationException {
+
+    LOG.trace("Entering suggest [requestId={}]: Suggesting horses for parameters {}", MDC.get("r"), searchParameters);
+
+    validator.validateForSuggest(searchParameters);
+
+    List<HorseSuggestionDto> suggestions = suggestionIndex.search(
+        searchParameters.prefix(),
+        horse -> (searchParameters.sex() == null || horse.sex() == searchParameters.sex())
+            && (searchParameters.bornBefore() == null || horse.dateOfBirth().isBefore(searchParameters.bornBefore()))
+            && (searchParameters.excludeId() == null || horse.id() != searchParameters.excludeId()),
+        searchParameters.limit() == null ? DEFAULT_SUGGESTIONS : searchParameters.limit());
+
+    LOG.debug("Suggested {} horses for prefix '{}' [requestId={}]", suggestions.size(), searchParameters.prefix(), MDC.get("r"));
+
+    return suggestions;
+  }
+
+  /**
+   * Loads the horses with the given ids in a single query, preserving the order and duplicates of {@code ids}.
+   *
+   * @param ids the unique identifiers of the horses to load
+   * @return the horses in the order of {@code ids}
+   * @throws NotFoundException if one of the horses does not exist in the persistent data store
+   */
+  private List<Horse> getRoots(List<Long> ids) throws NotFoundException {
+
+    Map<Long, Horse> horses = dao.getAllById(Set.copyOf(ids)).stream()
+        .collect(Collectors.toMap(Horse::id, horse -> horse));
+
+    List<Horse> roots = new ArrayList<>(ids.size());
+    for (Long id : ids) {
+      Horse horse = horses.get(id);
+      if (horse == null) {
+        LOG.warn("Horse not found [requestId={}]: No horse with ID {} found", MDC.get("r"), id);
+
+        throw new NotFoundException("No horse with ID " + id + " found");
+      }
+      roots.add(horse);
+    }
+    return roots;
+  }
+
+  /**
+   * Constructs a deduplicated family graph for the given horses up to the specified depth.
+   * Every horse is visited at most once, at the lowest generation in which it occurs, and ancestors are loaded
+   * with a single batched query per generation. The graph is limited to the given number of distinct horses in total,
+   * however many roots it has; nodes whose parents did not fit into the budget are marked as truncated.
+   *
+   * @param roots    the horses whose family trees are requested, in the order of the resulting roots
+   * @param depth    the number of generations to include, including the roots
+   * @param maxNodes the maximum number of distinct horses in the graph
+   * @param loader   loads the horses with the given ids, called once per generation
+   * @return a {@link HorseFamilyGraphDto} with one node per distinct horse
+   * @throws FatalException if a referenced mother or father cannot be found in the persistent data store
+   */
+  private HorseFamilyGraphDto buildFamilyGraph(List<Horse> roots, int depth, int maxNodes, Function<List<Long>, List<Horse>> loader) {
+
+    /*
+    The same breadth-first traversal as for the nested tree, but keyed by horse id instead of by occurrence.
+    With pedigree collapse the nested tree grows exponentially with the depth while the number of distinct
+    ancestors stays small, so the graph is both cheaper to build and much smaller on the wire.
+     */
+    Map<Long, Integer> indices = new HashMap<>();
+    List<Horse> horses = new ArrayList<>();
+    List<Integer> rootIndices = new ArrayList<>(roots.size());
+    List<Horse> frontier = new ArrayList<>();
+    for (Horse root : roots) {
+      Integer index = indices.get(root.id());
+      if (index == null) {
+        index = horses.size();
+        indices.put(root.id(), index);
+        horses.add(root);
+        frontier.add(root);
+      }
+      rootIndices.add(index);
+    }
+
+    for (int generation = 1; generation < depth && !frontier.isEmpty(); generation++) {
+      List<Long> pending = new ArrayList<>();
+      for (Horse horse : frontier) {
+        for (Long parentId : new Long[] {horse.motherId(), horse.fatherId()}) {
+          if (parentId != null && !indices.containsKey(parentId) && horses.size() + pending.size() < maxNodes) {
+            indices.put(parentId, horses.size() + pending.size());
+            pending.add(parentId);
+          }
+        }
+      }
+      if (pending.isEmpty()) {
+        break;
+      }
+
+      Map<Long, Horse> loaded = loader.apply(pending).stream()
+          .collect(Collectors.toMap(Horse::id, horse -> horse));
+      frontier = new ArrayList<>(pending.size());
+      for (Long parentId : pending) {
+        Horse parent = loaded.get(parentId);
+        if (parent == null) {
+          LOG.error("Unexpected error [requestId={}]: Parent with ID {} not found while building family graph", MDC.get("r"), parentId);
+
+          throw new FatalException("Parent with ID " + parentId + " not found, but was referenced in a family graph");
+        }
+        horses.add(parent);
+        frontier.add(parent);
+      }
+
+      LOG.debug("Loaded generation {} of family graph [requestId={}]: {} new horses", generation + 1, MDC.get("r"), pending.size());
+    }
+
+    List<HorseFamilyGraphNodeDto> nodes = new ArrayList<>(horses.size());
+    for (Horse horse : horses) {
+      Integer mother = horse.motherId() == null ? null : indices.get(horse.motherId());
+      Integer father = horse.fatherId() == null ? null : indices.get(horse.fatherId());
+      boolean truncated = (horse.motherId() != null && mother == null)
+          || (horse.fatherId() != null && father == null);
+      nodes.add(new HorseFamilyGraphNodeDto(horse.id(), horse.name(), horse.dateOfBirth(), mother, father, truncated));
+    }
+
+    return new HorseFamilyGraphDto(rootIndices, nodes);
   }
 
   /**
@@ -253,12 +731,27 @@ public class HorseServiceImpl implements HorseService {
 
     validator.validateForSearch(searchParameters);
 
+    /*
+    Results are cached per normalized search until the next write to horses or owners, so that repeated
+    searches, such as the default list of the frontend, do not access the persistent data store at all.
+     */
+    return searchCache.get(new SearchKey(normalize(searchParameters), null, null), () -> loadSearch(searchParameters), List::size).stream();
+  }
+
+  /**
+   * Loads the horses matching a search together with their owners from the persistent data store.
+   *
+   * @param searchParameters the validated search criteria
+   * @return the matching horses
+   */
+  private List<HorseListDto> loadSearch(HorseSearchDto searchParameters) {
+
     List<Horse> horses = dao.search(searchParameters);
 
     LOG.debug("Found {} horses matching search parameters [requestId={}]", horses.size(), MDC.get("r"));
 
     if (horses.isEmpty()) {
-      return Stream.empty();
+      return List.of();
     }
 
     var ownerIds = horses.stream()
@@ -271,7 +764,7 @@ public class HorseServiceImpl implements HorseService {
       ownerMap = Collections.emptyMap();
     } else {
       try {
-        ownerMap = ownerService.search(new OwnerSearchDto(searchParameters.ownerName(), ownerIds, Integer.MAX_VALUE))
+        ownerMap = ownerService.search(new OwnerSearchDto(searchParameters.ownerName(), ownerIds, Integer.MAX_VALUE, searchParameters.fuzzy()))
             .collect(Collectors.toMap(OwnerDto::id, OwnerDto::toHorseDetailOwnerDto));
 
         LOG.debug("Retrieved owners for {} IDs during search [requestId={}]", ownerIds.size(), MDC.get("r"));
@@ -285,21 +778,152 @@ public class HorseServiceImpl implements HorseService {
 
     return horses.stream()
         .filter(horse -> searchParameters.ownerName() == null || (horse.ownerId() != null && ownerMap.containsKey(horse.ownerId())))
-        .map(horse -> mapper.entityToListDto(horse, ownerMap));
+        .map(horse -> mapper.entityToListDto(horse, ownerMap))
+        .toList();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public Stream<Map<String, Object>> search(HorseSearchDto searchParameters, Set<HorseField> fields) throws ValidationException {
+
+    LOG.trace("Entering search [requestId={}]: Searching fields {} of horses with parameters {}", MDC.get("r"), fields, searchParameters);
+
+    validator.validateForFieldSearch(searchParameters, fields);
+
+    Set<HorseField> requested = EnumSet.copyOf(fields);
+    requested.add(HorseField.ID);
+    HorseSearchDto search = searchParameters.isEmpty() ? null : normalize(searchParameters);
+    return searchCache.get(new SearchKey(search, null, requested), () -> loadSearchFields(searchParameters, requested), List::size).stream();
+  }
+
+  /**
+   * Loads the requested fields of the horses matching a search from the persistent data store, and their owners only
+   * if the owner is requested.
+   *
+   * @param searchParameters the validated search criteria
+   * @param fields           the fields to load, including the id
+   * @return the matching horses as maps of their requested properties
+   */
+  private List<Map<String, Object>> loadSearchFields(HorseSearchDto searchParameters, Set<HorseField> fields) {
+
+    List<Horse> horses = dao.search(searchParameters, fields);
+
+    LOG.debug("Found {} horses matching search parameters, loaded fields {} [requestId={}]", horses.size(), fields, MDC.get("r"));
+
+    Map<Long, HorseDetailOwnerDto> ownerMap = Map.of();
+    if (fields.contains(HorseField.OWNER)) {
+      Set<Long> ownerIds = horses.stream()
+          .map(Horse::ownerId)
+          .filter(Objects::nonNull)
+          .collect(Collectors.toUnmodifiableSet());
+      try {
+        ownerMap = ownerIds.isEmpty() ? Map.of() : ownerService.getAllById(ownerIds);
+      } catch (NotFoundException e) {
+        LOG.error("Unexpected error [requestId={}]: Horse refers to non-existing owner", MDC.get("r"), e);
+
+        throw new FatalException("Horse, that is already persisted, refers to non-existing owner", e);
+      }
+    }
+
+    Map<Long, HorseDetailOwnerDto> owners = ownerMap;
+    return horses.stream()
+        .map(horse -> mapper.entityToFieldsDto(horse, fields, owners))
+        .toList();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public HorseSearchResultDto searchWithFacets(HorseSearchDto searchParameters, Set<HorseFacet> facets) throws ValidationException {
+
+    LOG.trace("Entering searchWithFacets [requestId={}]: Searching horses with parameters {} and facets {}", MDC.get("r"), searchParameters, facets);
+
+    validator.validateForFacetSearch(searchParameters, facets);
+
+    Set<HorseFacet> requested = EnumSet.copyOf(facets);
+    return searchCache.get(new SearchKey(normalize(searchParameters), requested, null), () -> loadSearchWithFacets(searchParameters, requested),
+        result -> result.horses().size());
+  }
+
+  /**
+   * Loads the horses matching a search and their facet counts from the persistent data store.
+   *
+   * @param searchParameters the validated search criteria
+   * @param facets           the facets to count
+   * @return the matching horses together with the facet counts
+   */
+  private HorseSearchResultDto loadSearchWithFacets(HorseSearchDto searchParameters, Set<HorseFacet> facets) {
+
+    /*
+    The owner name is resolved to owner ids before querying the horses, unlike in the plain search, which
+    filters the horses afterwards. This way the facet counts, which are aggregated by the database, only
+    include horses of the matching owners.
+     */
+    HorseSearchDto filter = searchParameters;
+    if (searchParameters.ownerName() != null) {
+      Set<Long> ownerIds;
+      try {
+        ownerIds = ownerService.search(new OwnerSearchDto(searchParameters.ownerName(), searchParameters.ownerIds(), Integer.MAX_VALUE,
+                searchParameters.fuzzy()))
+            .map(OwnerDto::id)
+            .collect(Collectors.toUnmodifiableSet());
+      } catch (ValidationException e) {
+        LOG.error("Unexpected error [requestId={}]: OwnerSearchDto validation failed during horse facet search", MDC.get("r"), e);
+
+        throw new FatalException("OwnerSearchDto validation failed during horse facet search. This should not happen. Please check mapping logic.", e);
+      }
+
+      if (ownerIds.isEmpty()) {
+        LOG.debug("No owners match name {}, search result is empty [requestId={}]", searchParameters.ownerName(), MDC.get("r"));
+
+        return new HorseSearchResultDto(List.of(), mapper.facetCountsToDto(List.of(), facets, Map.of()));
+      }
+      filter = new HorseSearchDto(searchParameters.name(), searchParameters.description(), searchParameters.dateOfBirth(), searchParameters.sex(),
+          null, searchParameters.excludeId(), searchParameters.limit(), searchParameters.sort(), searchParameters.descendantOf(),
+          searchParameters.maxGenerations(), searchParameters.fuzzy(), searchParameters.bornFrom(), ownerIds);
+    }
+
+    List<Horse> horses = filter.isEmpty() ? dao.getAll() : dao.search(filter);
+    List<HorseFacetCount> counts = dao.countFacets(filter, facets);
+
+    LOG.debug("Found {} horses in {} facet groups matching search parameters [requestId={}]", horses.size(), counts.size(), MDC.get("r"));
+
+    Set<Long> ownerIds = Stream.concat(horses.stream().map(Horse::ownerId), counts.stream().map(HorseFacetCount::ownerId))
+        .filter(Objects::nonNull)
+        .collect(Collectors.toUnmodifiableSet());
+    Map<Long, HorseDetailOwnerDto> ownerMap;
+    try {
+      ownerMap = ownerService.getAllById(ownerIds);
+    } catch (NotFoundException e) {
+      LOG.error("Unexpected error [requestId={}]: Horse refers to non-existing owner", MDC.get("r"), e);
+
+      throw new FatalException("Horse, that is already persisted, refers to non-existing owner", e);
+    }
+
+    return new HorseSearchResultDto(
+        horses.stream().map(horse -> mapper.entityToListDto(horse, ownerMap)).toList(),
+        mapper.facetCountsToDto(counts, facets, ownerMap));
   }
 
   /**
    * {@inheritDoc}
    */
   @Override
+  @Transactional(rollbackFor = Exception.class)
   public HorseDetailDto create(HorseCreateDto horse, HorseImageDto image) throws ValidationException, ConflictException {
 
     LOG.trace("Entering create [requestId={}]: Creating horse with data {}", MDC.get("r"), horse);
 
-    validator.validateForCreate(horse);
+    Map<Long, Long> versions = validator.validateForCreate(horse);
     validator.validateImage(image);
 
-    var createdHorse = dao.create(horse, image);
+    var createdHorse = dao.create(horse, image == null ? null : imageService.store(image), versions);
+    searchCache.invalidate();
+    savedSearchService.recordMatchesAfterCommit(createdHorse.id());
+    suggestionIndex.put(createdHorse.id(), createdHorse.name(), mapper.entityToSuggestionDto(createdHorse));
 
     LOG.info("Successfully created horse with id {} [requestId={}]", createdHorse.id(), MDC.get("r"));
 
@@ -339,14 +963,30 @@ public class HorseServiceImpl implements HorseService {
    * {@inheritDoc}
    */
   @Override
+  @Transactional(rollbackFor = Exception.class)
   public HorseDetailDto update(HorseUpdateDto horse, HorseImageDto image) throws NotFoundException, ValidationException, ConflictException {
 
     LOG.trace("Entering update [requestId={}]: Updating horse with id {} and data {}", MDC.get("r"), horse.id(), horse);
 
-    validator.validateForUpdate(horse);
+    /*
+    Validation and write run in one transaction, but without locking: the write only succeeds if the horse and the
+    parents the validation relied on still have the versions read during validation, otherwise it is rolled back.
+     */
+    Map<Long, Long> versions = validator.validateForUpdate(horse);
     validator.validateImage(image);
+    if (horse.version() != null && !horse.version().equals(versions.get(horse.id()))) {
+      LOG.warn("Update of horse id {} is based on version {}, but the current version is {} [requestId={}]",
+          horse.id(), horse.version(), versions.get(horse.id()), MDC.get("r"));
+
+      throw new VersionConflictException("Horse was changed concurrently",
+          List.of("Horse with ID %d has version %d instead of %d, reload it and try again".formatted(horse.id(), versions.get(horse.id()), horse.version())),
+          List.of(horse.id()));
+    }
 
-    var updatedHorse = dao.update(horse, image);
+    var updatedHorse = dao.update(horse, image == null ? null : imageService.store(image), versions);
+    searchCache.invalidate();
+    savedSearchService.recordMatchesAfterCommit(updatedHorse.id());
+    suggestionIndex.put(updatedHorse.id(), updatedHorse.name(), mapper.entityToSuggestionDto(updatedHorse));
 
     LOG.info("Successfully updated horse with id {} [requestId={}]", updatedHorse.id(), MDC.get("r"));
 
@@ -386,12 +1026,15 @@ public class HorseServiceImpl implements HorseService {
    * {@inheritDoc}
    */
   @Override
-  public void delete(long id) throws NotFoundException {
+  @Transactional(rollbackFor = Exception.class)
+  public void delete(long id) throws NotFoundException, ConflictException {
 
     LOG.trace("Entering delete [requestId={}]: Deleting horse with id {}", MDC.get("r"), id);
 
     try {
       dao.delete(id);
+      searchCache.invalidate();
+      suggestionIndex.remove(id);
 
       LOG.info("Successfully deleted horse with id {} [requestId={}]", id, MDC.get("r"));
 
@@ -402,6 +1045,158 @@ public class HorseServiceImpl implements HorseService {
     }
   }
 
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  @Transactional(rollbackFor = Exception.class)
+  public HorseBulkResultDto reassignOwner(HorseBulkReassignOwnerDto request) throws ValidationException, ConflictException {
+
+    LOG.trace("Entering reassignOwner [requestId={}]: Assigning horses to owner with data {}", MDC.get("r"), request);
+
+    Set<Long> ids = validator.validateForBulkReassignOwner(request);
+
+    int reassigned = dao.reassignOwner(ids, request.ownerId());
+    searchCache.invalidate();
+    savedSearchService.recordMatchesAfterCommit(ids);
+
+    LOG.info("Successfully assigned {} horses to owner {} [requestId={}]", reassigned, request.ownerId(), MDC.get("r"));
+
+    return new HorseBulkResultDto(reassigned);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  @Transactional(rollbackFor = Exception.class)
+  public HorseBulkResultDto deleteAll(HorseBulkDeleteDto request) throws ValidationException, ConflictException {
+
+    LOG.trace("Entering deleteAll [requestId={}]: Deleting horses with data {}", MDC.get("r"), request);
+
+    Set<Long> ids = validator.validateForBulkDelete(request);
+
+    int deleted = dao.deleteAll(ids);
+    searchCache.invalidate();
+    ids.forEach(suggestionIndex::remove);
+
+    LOG.info("Successfully deleted {} horses [requestId={}]", deleted, MDC.get("r"));
+
+    return new HorseBulkResultDto(deleted);
+  }
+
+  /**
+   * Loads all horses into the in-memory prefix index of the name suggestions once the application has started.
+   * Afterwards the index is maintained by the writes of this service.
+   */
+  @EventListener(ApplicationReadyEvent.class)
+  public void loadSuggestionIndex() {
+
+    MDC.put("r", "horse-suggestion-index");
+    try {
+      long start = System.nanoTime();
+      for (Horse horse : dao.getAll()) {
+        suggestionIndex.put(horse.id(), horse.name(), mapper.entityToSuggestionDto(horse));
+      }
+
+      LOG.info("Loaded {} horses into the suggestion index in {} ms [requestId={}]",
+          suggestionIndex.size(), (System.nanoTime() - start) / 1_000_000, MDC.get("r"));
+    } finally {
+      MDC.clear();
+    }
+  }
+
+  /**
+   * Indexes the names of horses that are missing from the trigram index of the fuzzy search once the application
+   * has started, which covers horses inserted by SQL scripts such as the test data.
+   */
+  @EventListener(ApplicationReadyEvent.class)
+  public void indexMissingNames() {
+
+    MDC.put("r", "horse-name-index");
+    try {
+      int indexed = dao.indexMissingNames();
+      if (indexed > 0) {
+        searchCache.invalidate();
+      }
+
+      LOG.info("Indexed names of {} horses for the fuzzy search [requestId={}]", indexed, MDC.get("r"));
+    } finally {
+      MDC.clear();
+    }
+  }
+
+  /**
+   * Triggers {@link #repairOffspringCounts()} according to the configured cron expression (nightly by default).
+   */
+  @Scheduled(cron = "${horse.offspring-count.repair-cron:0 30 3 * * *}")
+  public void scheduledOffspringCountRepair() {
+
+    MDC.put("r", "offspring-count-repair");
+    try {
+      repairOffspringCounts();
+    } finally {
+      MDC.clear();
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public int repairOffspringCounts() {
+
+    LOG.trace("Entering repairOffspringCounts [requestId={}]: Repairing offspring counters", MDC.get("r"));
+
+    long start = System.nanoTime();
+    int repaired = dao.repairOffspringCounts();
+
+    if (repaired > 0) {
+      searchCache.invalidate();
+      LOG.warn("Repaired {} inconsistent offspring counters in {} ms [requestId={}]", repaired, (System.nanoTime() - start) / 1_000_000, MDC.get("r"));
+    } else {
+      LOG.info("All offspring counters are consistent, checked in {} ms [requestId={}]", (System.nanoTime() - start) / 1_000_000, MDC.get("r"));
+    }
+
+    return repaired;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public HorseSearchCacheStatsDto getSearchCacheStats() {
+
+    LOG.trace("Entering getSearchCacheStats [requestId={}]: Retrieving search cache statistics", MDC.get("r"));
+
+    return searchCache.stats();
+  }
+
+  /**
+   * Normalizes search parameters for use as cache key, so that searches which are guaranteed to return the same
+   * horses share one cached result. The name and description are compared case-insensitively by the persistent
+   * data store, as is the owner name, empty sets do not filter and searches without an order are sorted by id.
+   *
+   * @param searchParameters the validated search criteria
+   * @return the normalized search criteria
+   */
+  private static HorseSearchDto normalize(HorseSearchDto searchParameters) {
+    return new HorseSearchDto(
+        searchParameters.name() == null ? null : searchParameters.name().toLowerCase(Locale.ROOT),
+        searchParameters.description() == null ? null : searchParameters.description().toLowerCase(Locale.ROOT),
+        searchParameters.dateOfBirth(),
+        searchParameters.sex() == null || searchParameters.sex().isEmpty() ? null : EnumSet.copyOf(searchParameters.sex()),
+        searchParameters.ownerName() == null ? null : searchParameters.ownerName().toUpperCase(Locale.ROOT),
+        searchParameters.excludeId(),
+        searchParameters.limit(),
+        searchParameters.sort() == null ? HorseSort.ID_ASC : searchParameters.sort(),
+        searchParameters.descendantOf(),
+        searchParameters.maxGenerations(),
+        Boolean.TRUE.equals(searchParameters.fuzzy()) ? Boolean.TRUE : null,
+        searchParameters.bornFrom(),
+        searchParameters.ownerIds() == null || searchParameters.ownerIds().isEmpty() ? null : Set.copyOf(searchParameters.ownerIds()));
+  }
+
   /**
    * Creates a single-entry map of an owner ID to its detailed DTO for use in horse details.
    * Retrieves the owner from the {@link OwnerService} if an ID is provided.
@@ -425,4 +1220,11 @@ public class HorseServiceImpl implements HorseService {
       throw new FatalException("Owner %d referenced by horse not found".formatted(ownerId));
     }
   }
+
+  /**
+   * Key of a cached search result: the normalized search criteria, null for all horses, the counted facets,
+   * null for results without facet counts, and the returned fields, null for complete horses.
+   */
+  private record SearchKey(HorseSearchDto search, Set<HorseFacet> facets, Set<HorseField> fields) {
+  }
 }
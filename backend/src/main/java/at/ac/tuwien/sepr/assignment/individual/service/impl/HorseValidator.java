@@ -1,9 +1,13 @@
 package at.ac.tuwien.sepr.assignment.individual.service.impl;
 
 
+import at.ac.tuwien.sepr.assignment.individual.dto.HorseBulkDeleteDto;
+import at.ac.tuwien.sepr.assignment.individual.dto.HorseBulkReassignOwnerDto;
 import at.ac.tuwien.sepr.assignment.individual.dto.HorseCreateDto;
 import at.ac.tuwien.sepr.assignment.individual.dto.HorseImageDto;
+import at.ac.tuwien.sepr.assignment.individual.dto.HorseImageUploadCreateDto;
 import at.ac.tuwien.sepr.assignment.individual.dto.HorseSearchDto;
+import at.ac.tuwien.sepr.assignment.individual.dto.HorseSuggestionSearchDto;
 import at.ac.tuwien.sepr.assignment.individual.dto.HorseUpdateDto;
 import at.ac.tuwien.sepr.assignment.individual.entity.Horse;
 import at.ac.tuwien.sepr.assignment.individual.exception.ConflictException;
@@ -13,11 +17,18 @@ import at.ac.tuwien.sepr.assignment.individual.exception.ValidationException;
 import java.lang.invoke.MethodHandles;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 
 import at.ac.tuwien.sepr.assignment.individual.persistence.HorseDao;
 import at.ac.tuwien.sepr.assignment.individual.service.OwnerService;
+import at.ac.tuwien.sepr.assignment.individual.type.HorseFacet;
+import at.ac.tuwien.sepr.assignment.individual.type.HorseField;
 import at.ac.tuwien.sepr.assignment.individual.type.Sex;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -35,6 +46,15 @@ public class HorseValidator {
   private final HorseDao horseDao;
   private final OwnerService ownerService;
   private static final Set<String> SUPPORTED_IMAGE_TYPES = Set.of("image/jpeg", "image/png", "image/gif", "image/webp", "image/heic");
+  private static final int MAX_GENERATIONS = 50;
+  private static final int MAX_PAGE_SIZE = 100;
+  private static final int MAX_SEARCH_OWNER_IDS = 1000;
+  private static final int MAX_SEARCH_DESCENDANTS = 10_000;
+  private static final int MAX_HORSE_IDS = 1000;
+  /**
+   * Number of leading bytes of an image that identify its format.
+   */
+  public static final int IMAGE_SIGNATURE_LENGTH = 12;
 
   @Autowired
   public HorseValidator(HorseDao horseDao, OwnerService ownerService) {
@@ -58,6 +78,76 @@ public class HorseValidator {
      */
     LOG.trace("Entering validateForSearch [requestId={}]: Validating search parameters {}", MDC.get("r"), searchParams);
 
+    List<String> validationErrors = searchErrors(searchParams);
+
+    if (!validationErrors.isEmpty()) {
+      LOG.warn("Validation of horse search parameters failed [requestId={}]: {}", MDC.get("r"), validationErrors);
+      throw new ValidationException("Validation of horse search parameters failed", validationErrors);
+    }
+
+    LOG.debug("Successfully validated search parameters [requestId={}]: {}", MDC.get("r"), searchParams);
+  }
+
+  /**
+   * Validates the parameters of a horse search with facet counts.
+   * Search parameters without any criteria list all horses and are therefore valid without a limit.
+   *
+   * @param searchParams the search parameters to validate
+   * @param facets       the facets to count
+   * @throws ValidationException if the search parameters are invalid or no facet is requested
+   */
+  public void validateForFacetSearch(HorseSearchDto searchParams, Set<HorseFacet> facets) throws ValidationException {
+
+    LOG.trace("Entering validateForFacetSearch [requestId={}]: Validating search parameters {} with facets {}", MDC.get("r"), searchParams, facets);
+
+    List<String> validationErrors = searchParams.isEmpty() ? new ArrayList<>() : searchErrors(searchParams);
+
+    if (facets == null || facets.isEmpty()) {
+      validationErrors.add("At least one facet is required");
+    }
+
+    if (!validationErrors.isEmpty()) {
+      LOG.warn("Validation of horse facet search parameters failed [requestId={}]: {}", MDC.get("r"), validationErrors);
+      throw new ValidationException("Validation of horse facet search parameters failed", validationErrors);
+    }
+
+    LOG.debug("Successfully validated facet search parameters [requestId={}]: {}", MDC.get("r"), searchParams);
+  }
+
+  /**
+   * Validates search parameters for querying selected fields of horses.
+   * Search parameters without any criteria list all horses and are valid, otherwise they must satisfy the same
+   * constraints as in {@link #validateForSearch(HorseSearchDto)}. At least one field has to be requested.
+   *
+   * @param searchParams the search parameters to validate
+   * @param fields       the requested fields
+   * @throws ValidationException if any validation rule is violated or no field is requested
+   */
+  public void validateForFieldSearch(HorseSearchDto searchParams, Set<HorseField> fields) throws ValidationException {
+
+    LOG.trace("Entering validateForFieldSearch [requestId={}]: Validating search parameters {} with fields {}", MDC.get("r"), searchParams, fields);
+
+    List<String> validationErrors = searchParams.isEmpty() ? new ArrayList<>() : searchErrors(searchParams);
+
+    if (fields == null || fields.isEmpty()) {
+      validationErrors.add("At least one field is required");
+    }
+
+    if (!validationErrors.isEmpty()) {
+      LOG.warn("Validation of horse field search parameters failed [requestId={}]: {}", MDC.get("r"), validationErrors);
+      throw new ValidationException("Validation of horse field search parameters failed", validationErrors);
+    }
+
+    LOG.debug("Successfully validated field search parameters [requestId={}]: {}", MDC.get("r"), searchParams);
+  }
+
+  /**
+   * Collects the violations of the constraints on search parameters.
+   * A search by descendants is bound as a single list of identifiers, so the number of descendants is counted,
+   * up to one beyond the limit, and rejected if it exceeds {@value #MAX_SEARCH_DESCENDANTS}.
+   */
+  private List<String> searchErrors(HorseSearchDto searchParams) {
+
     List<String> validationErrors = new ArrayList<>();
 
     if (searchParams.name() != null && searchParams.name().length() > 255) {
@@ -72,26 +162,78 @@ public class HorseValidator {
       validationErrors.add("Owner name too long: must be 255 characters or fewer");
     }
 
+    if (searchParams.maxGenerations() != null) {
+      if (searchParams.descendantOf() == null) {
+        validationErrors.add("Max generations can only be used together with descendantOf");
+      }
+      if (searchParams.maxGenerations() < 1) {
+        validationErrors.add("Max generations must be at minimum 1");
+      } else if (searchParams.maxGenerations() > MAX_GENERATIONS) {
+        validationErrors.add("Max generations must not exceed " + MAX_GENERATIONS);
+      }
+    }
+
+    if (searchParams.descendantOf() != null && validationErrors.isEmpty()) {
+      int maxGenerations = searchParams.maxGenerations() == null ? Integer.MAX_VALUE : searchParams.maxGenerations();
+      if (horseDao.countDescendants(searchParams.descendantOf(), maxGenerations, MAX_SEARCH_DESCENDANTS + 1) > MAX_SEARCH_DESCENDANTS) {
+        validationErrors.add("Too many descendants: horse " + searchParams.descendantOf() + " has more than " + MAX_SEARCH_DESCENDANTS
+            + " descendants within the requested generations, restrict maxGenerations");
+      }
+    }
+
+    if (searchParams.bornFrom() != null && searchParams.dateOfBirth() != null
+        && !searchParams.bornFrom().isBefore(searchParams.dateOfBirth())) {
+      validationErrors.add("Birth date range is empty: bornFrom must be before dateOfBirth");
+    }
+
+    if (searchParams.ownerIds() != null && searchParams.ownerIds().size() > MAX_SEARCH_OWNER_IDS) {
+      validationErrors.add("Too many owner ids: must be " + MAX_SEARCH_OWNER_IDS + " or fewer");
+    }
+
     if (searchParams.limit() == null) {
       validationErrors.add("Search limit is required");
     } else if (searchParams.limit() <= 0) {
       validationErrors.add("Search limit must be greater or equal to 1");
     }
 
+    return validationErrors;
+  }
+
+  /**
+   * Validates the query parameters of the horse name suggestions.
+   *
+   * @param searchParams the suggestion parameters to validate
+   * @throws ValidationException if the prefix exceeds 255 characters or the limit is outside of 1 to 100
+   */
+  public void validateForSuggest(HorseSuggestionSearchDto searchParams) throws ValidationException {
+
+    LOG.trace("Entering validateForSuggest [requestId={}]: Validating suggestion parameters {}", MDC.get("r"), searchParams);
+
+    List<String> validationErrors = new ArrayList<>();
+
+    if (searchParams.prefix() != null && searchParams.prefix().length() > 255) {
+      validationErrors.add("Prefix too long: must be 255 characters or fewer");
+    }
+
+    if (searchParams.limit() != null && (searchParams.limit() < 1 || searchParams.limit() > MAX_PAGE_SIZE)) {
+      validationErrors.add("Suggestion limit must be between 1 and " + MAX_PAGE_SIZE);
+    }
+
     if (!validationErrors.isEmpty()) {
-      LOG.warn("Validation of horse search parameters failed [requestId={}]: {}", MDC.get("r"), validationErrors);
-      throw new ValidationException("Validation of horse search parameters failed", validationErrors);
+      LOG.warn("Validation of horse suggestion parameters failed [requestId={}]: {}", MDC.get("r"), validationErrors);
+      throw new ValidationException("Validation of horse suggestion parameters failed", validationErrors);
     }
 
-    LOG.debug("Successfully validated search parameters [requestId={}]: {}", MDC.get("r"), searchParams);
+    LOG.debug("Successfully validated suggestion parameters [requestId={}]: {}", MDC.get("r"), searchParams);
   }
 
   /**
    * Validates the number of generations for pedigree-related queries.
-   * Ensures the number of generations is within acceptable bounds (1 to 10).
+   * Ensures the number of generations is within acceptable bounds (1 to 50).
+   * The size of the resulting pedigree is limited separately by the family tree node budget.
    *
    * @param generations the number of generations to validate
-   * @throws ValidationException if generations is less than 1 or exceeds 10
+   * @throws ValidationException if generations is less than 1 or exceeds 50
    */
   public void validateGenerations(int generations) throws ValidationException {
 
@@ -102,8 +244,8 @@ public class HorseValidator {
     if (generations < 1) {
       validationErrors.add("Generations must be at minimum 1");
     }
-    if (generations > 10) {
-      validationErrors.add("Generations must not exceed 10");
+    if (generations > MAX_GENERATIONS) {
+      validationErrors.add("Generations must not exceed " + MAX_GENERATIONS);
     }
 
     if (!validationErrors.isEmpty()) {
@@ -115,6 +257,196 @@ public class HorseValidator {
     LOG.debug("Successfully validated generations [requestId={}]: {}", MDC.get("r"), generations);
   }
 
+  /**
+   * Validates a set of horse identifiers whose family trees are requested together.
+   * Ensures the set is not empty, contains no null values and does not exceed {@value #MAX_HORSE_IDS} horses.
+   *
+   * @param ids the identifiers of the horses to validate
+   * @throws ValidationException if the identifiers are missing, contain null values or are too many
+   */
+  public void validateFamilyTreeIds(List<Long> ids) throws ValidationException {
+
+    LOG.trace("Entering validateFamilyTreeIds [requestId={}]: Validating horse ids {}", MDC.get("r"), ids);
+
+    List<String> validationErrors = new ArrayList<>();
+    validateIdList(ids, MAX_HORSE_IDS, validationErrors);
+
+    if (!validationErrors.isEmpty()) {
+      LOG.warn("Validation of horse ids failed [requestId={}]: {}", MDC.get("r"), validationErrors);
+
+      throw new ValidationException("Validation of horse ids failed", validationErrors);
+    }
+
+    LOG.debug("Successfully validated horse ids [requestId={}]: {}", MDC.get("r"), ids);
+  }
+
+  /**
+   * Validates a set of horse identifiers that are retrieved together.
+   * Ensures the set is not empty, contains no null values and does not exceed {@value #MAX_HORSE_IDS} horses.
+   * Whether the horses exist is not validated, as horses that do not exist are reported as not found instead.
+   *
+   * @param ids the identifiers of the horses to validate
+   * @throws ValidationException if the identifiers are missing, contain null values or are too many
+   */
+  public void validateForBatchGet(List<Long> ids) throws ValidationException {
+
+    LOG.trace("Entering validateForBatchGet [requestId={}]: Validating horse ids {}", MDC.get("r"), ids);
+
+    List<String> validationErrors = new ArrayList<>();
+    validateIdList(ids, MAX_HORSE_IDS, validationErrors);
+
+    if (!validationErrors.isEmpty()) {
+      LOG.warn("Validation of horse ids to retrieve failed [requestId={}]: {}", MDC.get("r"), validationErrors);
+
+      throw new ValidationException("Validation of horse ids to retrieve failed", validationErrors);
+    }
+
+    LOG.debug("Successfully validated {} horse ids to retrieve [requestId={}]", ids.size(), MDC.get("r"));
+  }
+
+  /**
+   * Validates a request to assign several horses to the same owner.
+   * Ensures the horses are given as for {@link #validateForBulkDelete(HorseBulkDeleteDto)} and the owner exists, if given.
+   *
+   * @param request the horses and the new owner to validate
+   * @return the distinct identifiers of the horses to reassign, in the requested order
+   * @throws ValidationException if the identifiers are invalid, a horse does not exist or the owner does not exist
+   */
+  public Set<Long> validateForBulkReassignOwner(HorseBulkReassignOwnerDto request) throws ValidationException {
+
+    LOG.trace("Entering validateForBulkReassignOwner [requestId={}]: Validating bulk reassignment {}", MDC.get("r"), request);
+
+    List<String> validationErrors = new ArrayList<>();
+    final Set<Long> ids = validateBulkIds(request.ids(), validationErrors);
+
+    if (request.ownerId() != null) {
+      try {
+        ownerService.getById(request.ownerId());
+      } catch (NotFoundException e) {
+        validationErrors.add("Owner with ID " + request.ownerId() + " does not exist");
+      }
+    }
+
+    if (!validationErrors.isEmpty()) {
+      LOG.warn("Validation of bulk reassignment failed [requestId={}]: {}", MDC.get("r"), validationErrors);
+
+      throw new ValidationException("Validation of bulk reassignment failed", validationErrors);
+    }
+
+    LOG.debug("Successfully validated bulk reassignment of {} horses [requestId={}]", ids.size(), MDC.get("r"));
+
+    return ids;
+  }
+
+  /**
+   * Validates a request to delete several horses.
+   * Ensures the set is not empty, contains no null values, does not exceed {@value #MAX_HORSE_IDS} horses, and that all horses exist,
+   * which is checked with a single query.
+   *
+   * @param request the horses to validate
+   * @return the distinct identifiers of the horses to delete, in the requested order
+   * @throws ValidationException if the identifiers are invalid or a horse does not exist
+   */
+  public Set<Long> validateForBulkDelete(HorseBulkDeleteDto request) throws ValidationException {
+
+    LOG.trace("Entering validateForBulkDelete [requestId={}]: Validating bulk deletion {}", MDC.get("r"), request);
+
+    List<String> validationErrors = new ArrayList<>();
+    Set<Long> ids = validateBulkIds(request.ids(), validationErrors);
+
+    if (!validationErrors.isEmpty()) {
+      LOG.warn("Validation of bulk deletion failed [requestId={}]: {}", MDC.get("r"), validationErrors);
+
+      throw new ValidationException("Validation of bulk deletion failed", validationErrors);
+    }
+
+    LOG.debug("Successfully validated bulk deletion of {} horses [requestId={}]", ids.size(), MDC.get("r"));
+
+    return ids;
+  }
+
+  /**
+   * Validates the horses of a bulk operation and checks that all of them exist with a single query.
+   *
+   * @param ids              the identifiers of the horses to validate
+   * @param validationErrors the list to add violated rules to
+   * @return the distinct identifiers, in the requested order
+   */
+  private Set<Long> validateBulkIds(List<Long> ids, List<String> validationErrors) {
+
+    // a horse listed twice is changed once, so only distinct horses count towards the limit
+    Set<Long> distinct = ids == null ? null : new LinkedHashSet<>(ids);
+    if (!validateIdList(distinct, MAX_HORSE_IDS, validationErrors)) {
+      return Set.of();
+    }
+
+    Set<Long> existing = horseDao.getExistingIds(distinct);
+    List<Long> missing = distinct.stream().filter(id -> !existing.contains(id)).toList();
+    if (!missing.isEmpty()) {
+      validationErrors.add("Horses with IDs " + missing + " do not exist");
+    }
+    return distinct;
+  }
+
+  /**
+   * Validates horse identifiers that are processed together.
+   * Ensures the identifiers are not empty, contain no null values and do not exceed the given number.
+   *
+   * @param ids              the identifiers to validate
+   * @param max              the maximum number of identifiers
+   * @param validationErrors the list to add violated rules to
+   * @return {@code true} if the identifiers are valid
+   */
+  private static boolean validateIdList(Collection<Long> ids, int max, List<String> validationErrors) {
+
+    if (ids == null || ids.isEmpty()) {
+      validationErrors.add("At least one horse id is required");
+      return false;
+    }
+
+    int errors = validationErrors.size();
+    if (ids.stream().anyMatch(Objects::isNull)) {
+      validationErrors.add("Horse ids must not be null");
+    }
+    if (ids.size() > max) {
+      validationErrors.add("At most " + max + " horse ids can be given at once");
+    }
+    return validationErrors.size() == errors;
+  }
+
+  /**
+   * Validates paging parameters.
+   * Ensures the page number is not negative and the page size is between 1 and 100.
+   *
+   * @param page the zero-based page number to validate
+   * @param size the page size to validate
+   * @throws ValidationException if the page is negative or the size is out of bounds
+   */
+  public void validatePage(int page, int size) throws ValidationException {
+
+    LOG.trace("Entering validatePage [requestId={}]: Validating page {} with size {}", MDC.get("r"), page, size);
+
+    List<String> validationErrors = new ArrayList<>();
+
+    if (page < 0) {
+      validationErrors.add("Page must not be negative");
+    }
+    if (size < 1) {
+      validationErrors.add("Page size must be at minimum 1");
+    }
+    if (size > MAX_PAGE_SIZE) {
+      validationErrors.add("Page size must not exceed " + MAX_PAGE_SIZE);
+    }
+
+    if (!validationErrors.isEmpty()) {
+      LOG.warn("Validation of paging parameters failed [requestId={}]: {}", MDC.get("r"), validationErrors);
+
+      throw new ValidationException("Validation of paging parameters failed", validationErrors);
+    }
+
+    LOG.debug("Successfully validated page {} with size {} [requestId={}]", page, size, MDC.get("r"));
+  }
+
   /**
    * Validates the horse image data, ensuring the MIME type is supported and valid.
    *
@@ -133,11 +465,7 @@ public class HorseValidator {
       return;
     }
 
-    if (image.mimeType() == null || image.mimeType().trim().isEmpty()) {
-      validationErrors.add("Image MIME type is required and cannot be empty");
-    } else if (!SUPPORTED_IMAGE_TYPES.contains(image.mimeType().toLowerCase())) {
-      validationErrors.add("Unsupported image MIME type: " + image.mimeType() + ". Supported types are: " + SUPPORTED_IMAGE_TYPES);
-    }
+    imageTypeErrors(image.mimeType(), validationErrors);
 
     if (image.image() == null || image.image().length == 0) {
       validationErrors.add("Image data is required and cannot be empty");
@@ -152,19 +480,135 @@ public class HorseValidator {
     LOG.debug("Successfully validated horse image [requestId={}]: MIME type {}", MDC.get("r"), image.mimeType());
   }
 
+  /**
+   * Validates the MIME type of an image that is uploaded as a stream of unknown length.
+   *
+   * @param mimeType the declared MIME type of the image
+   * @throws ValidationException if the MIME type is missing or unsupported
+   */
+  public void validateForImageStream(String mimeType) throws ValidationException {
+
+    LOG.trace("Entering validateForImageStream [requestId={}]: Validating image stream with MIME type {}", MDC.get("r"), mimeType);
+
+    List<String> validationErrors = new ArrayList<>();
+    imageTypeErrors(mimeType, validationErrors);
+
+    if (!validationErrors.isEmpty()) {
+      LOG.warn("Validation of horse image failed [requestId={}]: {}", MDC.get("r"), validationErrors);
+
+      throw new ValidationException("Validation of horse image failed", validationErrors);
+    }
+  }
+
+  /**
+   * Validates the MIME type and the declared size of an image before a resumable upload is started.
+   *
+   * @param upload  the MIME type and size of the image to upload
+   * @param maxSize the maximum size of an image in bytes
+   * @throws ValidationException if the MIME type is missing or unsupported, or the size is missing or out of range
+   */
+  public void validateForImageUpload(HorseImageUploadCreateDto upload, long maxSize) throws ValidationException {
+
+    LOG.trace("Entering validateForImageUpload [requestId={}]: Validating image upload {}", MDC.get("r"), upload);
+
+    List<String> validationErrors = new ArrayList<>();
+    imageTypeErrors(upload.mimeType(), validationErrors);
+
+    if (upload.size() == null) {
+      validationErrors.add("Image size is required for resumable uploads");
+    } else if (upload.size() <= 0) {
+      validationErrors.add("Image size must be positive");
+    } else if (upload.size() > maxSize) {
+      validationErrors.add("Image size must not exceed " + maxSize + " bytes");
+    }
+
+    if (!validationErrors.isEmpty()) {
+      LOG.warn("Validation of horse image upload failed [requestId={}]: {}", MDC.get("r"), validationErrors);
+
+      throw new ValidationException("Validation of horse image upload failed", validationErrors);
+    }
+  }
+
+  /**
+   * Validates the number of bytes received so far for an image against its limit.
+   * Called after every chunk, so an oversized upload is rejected as soon as it exceeds the limit.
+   *
+   * @param received the number of bytes received so far
+   * @param limit    the declared size of the image or the maximum size of an image, in bytes
+   * @throws ValidationException if more bytes than {@code limit} have been received
+   */
+  public void validateImageSize(long received, long limit) throws ValidationException {
+    if (received > limit) {
+      LOG.warn("Validation of horse image failed [requestId={}]: more than {} bytes received", MDC.get("r"), limit);
+
+      throw new ValidationException("Validation of horse image failed", List.of("Image must not exceed " + limit + " bytes"));
+    }
+  }
+
+  /**
+   * Validates that the leading bytes of an image match the signature of its declared MIME type,
+   * so that the declared type cannot disguise other content.
+   *
+   * @param mimeType the declared MIME type of the image
+   * @param header   the leading bytes of the image
+   * @param length   the number of valid bytes in {@code header}, at most {@link #IMAGE_SIGNATURE_LENGTH}
+   * @throws ValidationException if the leading bytes do not identify an image of the declared type
+   */
+  public void validateImageSignature(String mimeType, byte[] header, int length) throws ValidationException {
+
+    LOG.trace("Entering validateImageSignature [requestId={}]: Validating {} leading bytes against MIME type {}", MDC.get("r"), length, mimeType);
+
+    boolean matches = switch (mimeType.toLowerCase()) {
+      case "image/jpeg" -> startsWith(header, length, 0, 0xFF, 0xD8, 0xFF);
+      case "image/png" -> startsWith(header, length, 0, 0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A);
+      case "image/gif" -> startsWith(header, length, 0, 'G', 'I', 'F', '8');
+      case "image/webp" -> startsWith(header, length, 0, 'R', 'I', 'F', 'F') && startsWith(header, length, 8, 'W', 'E', 'B', 'P');
+      case "image/heic" -> startsWith(header, length, 4, 'f', 't', 'y', 'p');
+      default -> false;
+    };
+
+    if (!matches) {
+      LOG.warn("Validation of horse image failed [requestId={}]: content is not of type {}", MDC.get("r"), mimeType);
+
+      throw new ValidationException("Validation of horse image failed", List.of("Image content does not match its MIME type " + mimeType));
+    }
+  }
+
+  private static void imageTypeErrors(String mimeType, List<String> validationErrors) {
+    if (mimeType == null || mimeType.trim().isEmpty()) {
+      validationErrors.add("Image MIME type is required and cannot be empty");
+    } else if (!SUPPORTED_IMAGE_TYPES.contains(mimeType.toLowerCase())) {
+      validationErrors.add("Unsupported image MIME type: " + mimeType + ". Supported types are: " + SUPPORTED_IMAGE_TYPES);
+    }
+  }
+
+  private static boolean startsWith(byte[] header, int length, int offset, int... signature) {
+    if (length < offset + signature.length) {
+      return false;
+    }
+    for (int i = 0; i < signature.length; i++) {
+      if ((header[offset + i] & 0xFF) != signature[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
   /**
    * Validates horse data before creation.
    * Ensures required fields (e.g., name, date of birth, sex) are present and valid, and checks for conflicts with existing data.
    *
    * @param horse the data transfer object containing horse details to validate
+   * @return the versions of the parents the validation is based on, by their unique identifier
    * @throws ValidationException if required fields are missing or invalid (e.g., empty name, future birth date)
    * @throws ConflictException   if data conflicts with existing records (e.g., mother is not female, parents not older than child)
    */
-  public void validateForCreate(HorseCreateDto horse) throws ValidationException, ConflictException {
+  public Map<Long, Long> validateForCreate(HorseCreateDto horse) throws ValidationException, ConflictException {
 
     LOG.trace("Entering validateForCreate [requestId={}]: Validating horse creation with data {}", MDC.get("r"), horse);
 
     List<String> validationErrors = new ArrayList<>();
+    final Map<Long, Long> versions = new HashMap<>();
 
     /*
     Note: Horse names are not checked for specific formats (e.g., no special characters) to allow flexibility,
@@ -213,6 +657,7 @@ public class HorseValidator {
     if (horse.motherId() != null) {
       try {
         Horse mother = horseDao.getById(horse.motherId());
+        versions.put(mother.id(), mother.version());
         if (mother.sex() != Sex.FEMALE) {
           conflictErrors.add("Sex of mother has to be FEMALE");
         }
@@ -227,6 +672,7 @@ public class HorseValidator {
     if (horse.fatherId() != null) {
       try {
         Horse father = horseDao.getById(horse.fatherId());
+        versions.put(father.id(), father.version());
         if (father.sex() != Sex.MALE) {
           conflictErrors.add("Sex of father has to be MALE");
         }
@@ -250,6 +696,8 @@ public class HorseValidator {
     }
 
     LOG.debug("Successfully validated horse for creation [requestId={}]: {}", MDC.get("r"), horse);
+
+    return versions;
   }
 
   /**
@@ -257,19 +705,23 @@ public class HorseValidator {
    * Ensures all fields meet constraints and checks for conflicts with existing data, such as parent-child relationships.
    *
    * @param horse the data transfer object containing updated horse details
+   * @return the versions of the horse and its parents the validation is based on, by their unique identifier;
+   *     the children of the horse are covered by its own version, which changes whenever its children change
    * @throws ValidationException if validation fails (e.g., missing name, future birth date)
    * @throws ConflictException   if conflicts are detected (e.g., changing sex of a parent, birth date after child's birth)
    */
-  public void validateForUpdate(HorseUpdateDto horse) throws ValidationException, ConflictException {
+  public Map<Long, Long> validateForUpdate(HorseUpdateDto horse) throws ValidationException, ConflictException {
 
     LOG.trace("Entering validateForUpdate [requestId={}]: Validating horse update with data {}", MDC.get("r"), horse);
 
     List<String> validationErrors = new ArrayList<>();
     List<String> conflictErrors = new ArrayList<>();
+    final Map<Long, Long> versions = new HashMap<>();
 
     if (horse.id() != null) {
       try {
         Horse existingHorse = horseDao.getById(horse.id());
+        versions.put(existingHorse.id(), existingHorse.version());
         List<Horse> children = horseDao.getChildrenByParentId(horse.id());
 
         if (!children.isEmpty()) {
@@ -331,6 +783,7 @@ public class HorseValidator {
     if (horse.motherId() != null) {
       try {
         Horse mother = horseDao.getById(horse.motherId());
+        versions.put(mother.id(), mother.version());
         if (mother.sex() != Sex.FEMALE) {
           conflictErrors.add("Sex of mother has to be FEMALE");
         }
@@ -345,6 +798,7 @@ public class HorseValidator {
     if (horse.fatherId() != null) {
       try {
         Horse father = horseDao.getById(horse.fatherId());
+        versions.put(father.id(), father.version());
         if (father.sex() != Sex.MALE) {
           conflictErrors.add("Sex of father has to be MALE");
         }
@@ -372,5 +826,7 @@ public class HorseValidator {
     }
 
     LOG.debug("Successfully validated horse for update [requestId={}]: {}", MDC.get("r"), horse);
+
+    return versions;
   }
 }
@@ -0,0 +1,140 @@
+package at.ac.tuwien.sepr.assignment.individual.service.impl;
+
+import at.ac.tuwien.sepr.assignment.individual.dto.HorseImageDto;
+import at.ac.tuwien.sepr.assignment.individual.dto.ImageCacheStatsDto;
+import at.ac.tuwien.sepr.assignment.individual.dto.ImageContentDto;
+import at.ac.tuwien.sepr.assignment.individual.exception.NotFoundException;
+
+import java.lang.invoke.MethodHandles;
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * LRU cache of image contents bounded by their total size, which keeps the images in direct buffers outside the
+ * Java heap, so that a few frequently requested images neither hit the database nor add to garbage collection.
+ * Images are keyed by the hash of their content, which never changes, so a cached image can only become stale
+ * by being deleted. Hits are handed out as read-only views of the cached buffer without copying the data.
+ */
+@Component
+class ImageCache {
+
+  private static final Logger LOG = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+  private final Map<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+  private final long maxBytes;
+  private final long maxEntryBytes;
+  private long bytes;
+
+  ImageCache(@Value("${horse.image-cache.max-size:64MB}") DataSize maxSize,
+             @Value("${horse.image-cache.max-entry-size:4MB}") DataSize maxEntrySize) {
+    this.maxBytes = Math.max(0, maxSize.toBytes());
+    this.maxEntryBytes = Math.min(maxBytes, maxEntrySize.toBytes());
+  }
+
+  /**
+   * Returns the cached content of an image, or loads it and caches it in a direct buffer unless it is larger than
+   * the maximum entry size. The least recently used images are evicted until the new image fits.
+   *
+   * @param hash   the hash identifying the image
+   * @param loader loads the image from the persistent data store
+   * @return a read-only view of the image content, positioned at its start
+   * @throws NotFoundException if the loader does not find the image
+   */
+  ImageContentDto get(String hash, Loader loader) throws NotFoundException {
+
+    synchronized (entries) {
+      Entry entry = entries.get(hash);
+      if (entry != null) {
+        hits.increment();
+        return new ImageContentDto(hash, entry.data().asReadOnlyBuffer(), entry.mimeType());
+      }
+    }
+
+    misses.increment();
+    HorseImageDto image = loader.load(hash);
+    if (image.image().length > maxEntryBytes) {
+      LOG.debug("Image with hash {} of {} bytes is too large to be cached [requestId={}]", hash, image.image().length, MDC.get("r"));
+
+      return new ImageContentDto(hash, ByteBuffer.wrap(image.image()).asReadOnlyBuffer(), image.mimeType());
+    }
+
+    ByteBuffer data = ByteBuffer.allocateDirect(image.image().length).put(image.image()).flip();
+    synchronized (entries) {
+      if (!entries.containsKey(hash)) {
+        evictUntilFree(data.capacity());
+        entries.put(hash, new Entry(data, image.mimeType()));
+        bytes += data.capacity();
+      }
+    }
+    return new ImageContentDto(hash, data.asReadOnlyBuffer(), image.mimeType());
+  }
+
+  /**
+   * Removes all images from the cache, after images have been deleted from the persistent data store.
+   */
+  void invalidateAll() {
+    synchronized (entries) {
+      entries.clear();
+      bytes = 0;
+    }
+  }
+
+  /**
+   * Returns the current usage statistics of the cache.
+   *
+   * @return the number of images and bytes, hits, misses and evictions of the cache
+   */
+  ImageCacheStatsDto stats() {
+
+    int size;
+    long usedBytes;
+    synchronized (entries) {
+      size = entries.size();
+      usedBytes = bytes;
+    }
+    long hitCount = hits.sum();
+    long missCount = misses.sum();
+    long lookups = hitCount + missCount;
+    return new ImageCacheStatsDto(size, usedBytes, maxBytes, hitCount, missCount, evictions.sum(),
+        lookups == 0 ? 0 : (double) hitCount / lookups);
+  }
+
+  /**
+   * Evicts the least recently used images until the given number of bytes fits into the cache.
+   * The buffers of evicted images are released by the garbage collector once no response uses them anymore.
+   */
+  private void evictUntilFree(long required) {
+    Iterator<Entry> eldest = entries.values().iterator();
+    while (bytes + required > maxBytes && eldest.hasNext()) {
+      bytes -= eldest.next().data().capacity();
+      eldest.remove();
+      evictions.increment();
+    }
+  }
+
+  /**
+   * Loads an image missing from the cache.
+   */
+  @FunctionalInterface
+  interface Loader {
+    HorseImageDto load(String hash) throws NotFoundException;
+  }
+
+  /**
+   * A cached image, whose buffer is never modified after it has been filled.
+   */
+  private record Entry(ByteBuffer data, String mimeType) {
+  }
+}
@@ -0,0 +1,42 @@
+package at.ac.tuwien.sepr.assignment.individual.service.impl;
+
+import at.ac.tuwien.sepr.assignment.individual.exception.FatalException;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Computes the content hashes identifying stored images.
+ * A digest is updated with every chunk of an image as it arrives, so the hash is known without a second pass.
+ */
+final class ImageHash {
+
+  private static final String ALGORITHM = "SHA-256";
+
+  private ImageHash() {
+  }
+
+  /**
+   * Creates a digest for hashing the content of an image.
+   *
+   * @return a new SHA-256 digest
+   */
+  static MessageDigest newDigest() {
+    try {
+      return MessageDigest.getInstance(ALGORITHM);
+    } catch (NoSuchAlgorithmException e) {
+      throw new FatalException("Message digest " + ALGORITHM + " is not available", e);
+    }
+  }
+
+  /**
+   * Completes a digest and formats the hash as lower-case hexadecimal string.
+   *
+   * @param digest the digest updated with the whole image content
+   * @return the hash of the image content
+   */
+  static String toHex(MessageDigest digest) {
+    return HexFormat.of().formatHex(digest.digest());
+  }
+}
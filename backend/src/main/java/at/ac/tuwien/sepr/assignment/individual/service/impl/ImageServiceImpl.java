@@ -0,0 +1,139 @@
+package at.ac.tuwien.sepr.assignment.individual.service.impl;
+
+import at.ac.tuwien.sepr.assignment.individual.dto.HorseImageDto;
+import at.ac.tuwien.sepr.assignment.individual.dto.ImageCacheStatsDto;
+import at.ac.tuwien.sepr.assignment.individual.dto.ImageContentDto;
+import at.ac.tuwien.sepr.assignment.individual.exception.NotFoundException;
+import at.ac.tuwien.sepr.assignment.individual.persistence.ImageDao;
+import at.ac.tuwien.sepr.assignment.individual.service.ImageService;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.lang.invoke.MethodHandles;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service implementation for the content-addressed image store.
+ */
+@Service
+public class ImageServiceImpl implements ImageService {
+
+  private static final Logger LOG = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+  private final ImageDao dao;
+  private final ImageCache cache;
+  private final Duration gracePeriod;
+
+  @Autowired
+  public ImageServiceImpl(ImageDao dao, ImageCache cache, @Value("${horse.image.gc-grace-period:1h}") Duration gracePeriod) {
+    this.dao = dao;
+    this.cache = cache;
+    this.gracePeriod = gracePeriod;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public String store(HorseImageDto image) {
+
+    MessageDigest digest = ImageHash.newDigest();
+    digest.update(image.image());
+    return store(ImageHash.toHex(digest), image.mimeType(), new ByteArrayInputStream(image.image()), image.image().length);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public String store(String hash, String mimeType, InputStream data, long length) {
+
+    LOG.trace("Entering store [requestId={}]: Storing image of {} bytes with hash {}", MDC.get("r"), length, hash);
+
+    if (dao.touch(hash)) {
+      LOG.debug("Image with hash {} is stored already, skipped {} bytes [requestId={}]", hash, length, MDC.get("r"));
+    } else {
+      dao.create(hash, mimeType, data, length);
+    }
+    return hash;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public HorseImageDto getByHash(String hash) throws NotFoundException {
+
+    LOG.trace("Entering getByHash [requestId={}]: Retrieving image with hash {}", MDC.get("r"), hash);
+
+    return dao.getByHash(hash);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public ImageContentDto getContentByHash(String hash) throws NotFoundException {
+
+    LOG.trace("Entering getContentByHash [requestId={}]: Retrieving content of image with hash {}", MDC.get("r"), hash);
+
+    return cache.get(hash, dao::getByHash);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public ImageCacheStatsDto getCacheStats() {
+
+    LOG.trace("Entering getCacheStats [requestId={}]: Retrieving image cache statistics", MDC.get("r"));
+
+    return cache.stats();
+  }
+
+  /**
+   * Triggers {@link #collectGarbage()} according to the configured cron expression (nightly by default).
+   */
+  @Scheduled(cron = "${horse.image.gc-cron:0 45 3 * * *}")
+  public void scheduledGarbageCollection() {
+
+    MDC.put("r", "image-gc");
+    try {
+      collectGarbage();
+    } finally {
+      MDC.clear();
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public int collectGarbage() {
+
+    LOG.trace("Entering collectGarbage [requestId={}]: Deleting unreferenced images", MDC.get("r"));
+
+    long start = System.nanoTime();
+    int repaired = dao.repairReferenceCounts();
+    if (repaired > 0) {
+      LOG.warn("Repaired {} inconsistent image reference counters [requestId={}]", repaired, MDC.get("r"));
+    }
+    int deleted = dao.deleteUnreferenced(LocalDateTime.now().minus(gracePeriod));
+    if (deleted > 0) {
+      cache.invalidateAll();
+    }
+
+    LOG.info("Deleted {} unreferenced images in {} ms [requestId={}]", deleted, (System.nanoTime() - start) / 1_000_000, MDC.get("r"));
+
+    return deleted;
+  }
+}
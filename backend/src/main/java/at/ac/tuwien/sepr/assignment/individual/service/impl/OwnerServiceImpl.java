@@ -4,6 +4,8 @@ import at.ac.tuwien.sepr.assignment.individual.dto.HorseDetailOwnerDto;
 import at.ac.tuwien.sepr.assignment.individual.dto.OwnerCreateDto;
 import at.ac.tuwien.sepr.assignment.individual.dto.OwnerDto;
 import at.ac.tuwien.sepr.assignment.individual.dto.OwnerSearchDto;
+import at.ac.tuwien.sepr.assignment.individual.dto.OwnerSuggestionSearchDto;
+import at.ac.tuwien.sepr.assignment.individual.entity.Owner;
 import at.ac.tuwien.sepr.assignment.individual.exception.ConflictException;
 import at.ac.tuwien.sepr.assignment.individual.exception.NotFoundException;
 import at.ac.tuwien.sepr.assignment.individual.exception.ValidationException;
@@ -13,6 +15,7 @@ import at.ac.tuwien.sepr.assignment.individual.service.OwnerService;
 
 import java.lang.invoke.MethodHandles;
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -20,6 +23,8 @@ import java.util.stream.Stream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 
 /**
@@ -29,14 +34,18 @@ import org.springframework.stereotype.Service;
 public class OwnerServiceImpl implements OwnerService {
 
   private static final Logger LOG = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+  private static final int DEFAULT_SUGGESTIONS = 10;
+  private final PrefixIndex<OwnerDto> suggestionIndex = new PrefixIndex<>();
   private final OwnerDao dao;
   private final OwnerMapper mapper;
   private final OwnerValidator validator;
+  private final HorseSearchCache horseSearchCache;
 
-  public OwnerServiceImpl(OwnerDao dao, OwnerMapper mapper, OwnerValidator validator) {
+  public OwnerServiceImpl(OwnerDao dao, OwnerMapper mapper, OwnerValidator validator, HorseSearchCache horseSearchCache) {
     this.dao = dao;
     this.mapper = mapper;
     this.validator = validator;
+    this.horseSearchCache = horseSearchCache;
   }
 
   /**
@@ -77,7 +86,7 @@ public class OwnerServiceImpl implements OwnerService {
 
     LOG.trace("Entering getAllById [requestId={}]: Retrieving owners with ids {}", MDC.get("r"), ids);
 
-    Map<Long, HorseDetailOwnerDto> owners = dao.search(new OwnerSearchDto(null, ids, null)).stream()
+    Map<Long, HorseDetailOwnerDto> owners = dao.search(new OwnerSearchDto(null, ids, null, null)).stream()
         .map(mapper::entityToDto)
         .collect(Collectors.toUnmodifiableMap(OwnerDto::id, OwnerDto::toHorseDetailOwnerDto));
 
@@ -110,6 +119,26 @@ public class OwnerServiceImpl implements OwnerService {
     return owners;
   }
 
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public List<OwnerDto> suggest(OwnerSuggestionSearchDto searchParameters) throws ValidationException {
+
+    LOG.trace("Entering suggest [requestId={}]: Suggesting owners for parameters {}", MDC.get("r"), searchParameters);
+
+    validator.validateForSuggest(searchParameters);
+
+    List<OwnerDto> suggestions = suggestionIndex.search(
+        searchParameters.prefix(),
+        owner -> true,
+        searchParameters.limit() == null ? DEFAULT_SUGGESTIONS : searchParameters.limit());
+
+    LOG.debug("Suggested {} owners for prefix '{}' [requestId={}]", suggestions.size(), searchParameters.prefix(), MDC.get("r"));
+
+    return suggestions;
+  }
+
   /**
    * {@inheritDoc}
    */
@@ -121,10 +150,56 @@ public class OwnerServiceImpl implements OwnerService {
     validator.validateForCreate(owner);
 
     var createdOwner = dao.create(owner);
+    horseSearchCache.invalidate();
     OwnerDto result = mapper.entityToDto(createdOwner);
+    suggestionIndex.put(result.id(), fullName(result), result);
 
     LOG.info("Successfully created owner with id {} [requestId={}]", result.id(), MDC.get("r"));
 
     return result;
   }
+
+  /**
+   * Loads all owners into the in-memory prefix index of the name suggestions once the application has started.
+   * Afterwards the index is maintained by the writes of this service.
+   */
+  @EventListener(ApplicationReadyEvent.class)
+  public void loadSuggestionIndex() {
+
+    MDC.put("r", "owner-suggestion-index");
+    try {
+      for (Owner owner : dao.getAll()) {
+        OwnerDto dto = mapper.entityToDto(owner);
+        suggestionIndex.put(dto.id(), fullName(dto), dto);
+      }
+
+      LOG.info("Loaded {} owners into the suggestion index [requestId={}]", suggestionIndex.size(), MDC.get("r"));
+    } finally {
+      MDC.clear();
+    }
+  }
+
+  /**
+   * Indexes the names of owners that are missing from the trigram index of the fuzzy search once the application
+   * has started, which covers owners inserted by SQL scripts such as the test data.
+   */
+  @EventListener(ApplicationReadyEvent.class)
+  public void indexMissingNames() {
+
+    MDC.put("r", "owner-name-index");
+    try {
+      int indexed = dao.indexMissingNames();
+      if (indexed > 0) {
+        horseSearchCache.invalidate();
+      }
+
+      LOG.info("Indexed names of {} owners for the fuzzy search [requestId={}]", indexed, MDC.get("r"));
+    } finally {
+      MDC.clear();
+    }
+  }
+
+  private static String fullName(OwnerDto owner) {
+    return owner.firstName() + " " + owner.lastName();
+  }
 }
@@ -2,6 +2,7 @@ package at.ac.tuwien.sepr.assignment.individual.service.impl;
 
 import at.ac.tuwien.sepr.assignment.individual.dto.OwnerCreateDto;
 import at.ac.tuwien.sepr.assignment.individual.dto.OwnerSearchDto;
+import at.ac.tuwien.sepr.assignment.individual.dto.OwnerSuggestionSearchDto;
 import at.ac.tuwien.sepr.assignment.individual.exception.ValidationException;
 
 import java.lang.invoke.MethodHandles;
@@ -20,6 +21,35 @@ import org.springframework.stereotype.Component;
 public class OwnerValidator {
 
   private static final Logger LOG = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+  private static final int MAX_SUGGESTIONS = 100;
+
+  /**
+   * Validates the query parameters of the owner name suggestions.
+   *
+   * @param searchParams the suggestion parameters to validate
+   * @throws ValidationException if the prefix exceeds 255 characters or the limit is outside of 1 to 100
+   */
+  public void validateForSuggest(OwnerSuggestionSearchDto searchParams) throws ValidationException {
+
+    LOG.trace("Entering validateForSuggest [requestId={}]: Validating suggestion parameters {}", MDC.get("r"), searchParams);
+
+    List<String> validationErrors = new ArrayList<>();
+
+    if (searchParams.prefix() != null && searchParams.prefix().length() > 255) {
+      validationErrors.add("Prefix too long: must be 255 characters or fewer");
+    }
+
+    if (searchParams.limit() != null && (searchParams.limit() < 1 || searchParams.limit() > MAX_SUGGESTIONS)) {
+      validationErrors.add("Suggestion limit must be between 1 and " + MAX_SUGGESTIONS);
+    }
+
+    if (!validationErrors.isEmpty()) {
+      LOG.warn("Validation of owner suggestion parameters failed [requestId={}]: {}", MDC.get("r"), validationErrors);
+      throw new ValidationException("Validation of owner suggestion parameters failed", validationErrors);
+    }
+
+    LOG.debug("Successfully validated suggestion parameters [requestId={}]: {}", MDC.get("r"), searchParams);
+  }
 
   /**
    * Validates search parameters for querying owners.
@@ -0,0 +1,600 @@
+package at.ac.tuwien.sepr.assignment.individual.service.impl;
+
+import at.ac.tuwien.sepr.assignment.individual.dto.PedigreeAnalyticsRunDto;
+import at.ac.tuwien.sepr.assignment.individual.entity.HorsePedigreeStatistics;
+import at.ac.tuwien.sepr.assignment.individual.entity.PedigreeGraph;
+import at.ac.tuwien.sepr.assignment.individual.persistence.PedigreeDao;
+import at.ac.tuwien.sepr.assignment.individual.service.PedigreeAnalyticsService;
+
+import java.lang.invoke.MethodHandles;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service implementation of the nightly pedigree analytics batch job.
+ */
+@Service
+public class PedigreeAnalyticsServiceImpl implements PedigreeAnalyticsService {
+
+  private static final Logger LOG = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+  private static final int COMPLETENESS_GENERATIONS = 5;
+  private static final int EXACT_DESCENDANTS = 256;
+  private static final int SKETCH_PRECISION = 10;
+  private static final int SKETCH_REGISTERS = 1 << SKETCH_PRECISION;
+  private static final int[] NO_DESCENDANTS = new int[0];
+  private final PedigreeDao dao;
+  private final int parallelism;
+  private final int batchSize;
+  private final ReentrantLock refreshLock = new ReentrantLock();
+
+  @Autowired
+  public PedigreeAnalyticsServiceImpl(PedigreeDao dao,
+                                      @Value("${pedigree.analytics.parallelism:0}") int parallelism,
+                                      @Value("${pedigree.analytics.batch-size:1000}") int batchSize) {
+
+    this.dao = dao;
+    this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+    this.batchSize = Math.max(1, batchSize);
+  }
+
+  /**
+   * Triggers {@link #refreshAll()} according to the configured cron expression (nightly by default).
+   */
+  @Scheduled(cron = "${pedigree.analytics.cron:0 0 3 * * *}")
+  public void scheduledRefresh() {
+
+    MDC.put("r", "pedigree-analytics");
+    try {
+      refreshAll();
+    } finally {
+      MDC.clear();
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public PedigreeAnalyticsRunDto refreshAll() {
+
+    // a lock instead of a monitor, so that a refresh on a virtual thread does not pin its carrier while it waits
+    refreshLock.lock();
+    try {
+      return refresh();
+    } finally {
+      refreshLock.unlock();
+    }
+  }
+
+  /**
+   * Recomputes the pedigree statistics of all horses, one refresh at a time.
+   *
+   * @return the summary of the run
+   */
+  private PedigreeAnalyticsRunDto refresh() {
+
+    /*
+    The parent graph is loaded once and every horse is processed in birth-date order, which is a
+    topological order: when a horse is processed, all of its ancestors are already final. Horses of
+    the same generation layer (same distance to their deepest known founder) never depend on each
+    other, so each layer is processed in parallel. Inbreeding coefficients are computed with the
+    algorithm of Meuwissen and Luo (1992), which only visits the ancestors of each horse instead of
+    building the quadratic relationship matrix. Descendants are counted in the opposite direction,
+    from the deepest layer up, by merging the descendant sets of the children into their parents.
+     */
+    LOG.trace("Entering refreshAll [requestId={}]: Recomputing pedigree statistics of all horses", MDC.get("r"));
+
+    long start = System.nanoTime();
+    PedigreeGraph graph = dao.getParentGraph();
+    int size = graph.size();
+    int[] mothers = graph.motherIndices();
+    int[] fathers = graph.fatherIndices();
+
+    LOG.info("Loaded parent graph of {} horses in {} ms [requestId={}]", size, (System.nanoTime() - start) / 1_000_000, MDC.get("r"));
+
+    int[] depths = new int[size];
+    int maxDepth = 0;
+    for (int i = 0; i < size; i++) {
+      int depth = 0;
+      if (mothers[i] >= 0) {
+        depth = depths[mothers[i]] + 1;
+      }
+      if (fathers[i] >= 0) {
+        depth = Math.max(depth, depths[fathers[i]] + 1);
+      }
+      depths[i] = depth;
+      maxDepth = Math.max(maxDepth, depth);
+    }
+
+    int[] layerStarts = new int[maxDepth + 2];
+    for (int i = 0; i < size; i++) {
+      layerStarts[depths[i] + 1]++;
+    }
+    for (int layer = 0; layer <= maxDepth; layer++) {
+      layerStarts[layer + 1] += layerStarts[layer];
+    }
+    int[] layerMembers = new int[size];
+    int[] layerCursors = Arrays.copyOf(layerStarts, maxDepth + 1);
+    for (int i = 0; i < size; i++) {
+      layerMembers[layerCursors[depths[i]]++] = i;
+    }
+
+    double[] inbreeding = new double[size];
+    double[] mendelianVariances = new double[size];
+    double[] completeness = new double[size];
+    int[] knownAncestors = new int[size * COMPLETENESS_GENERATIONS];
+    long[] descendants = new long[size];
+
+    ForkJoinPool pool = new ForkJoinPool(parallelism);
+    try {
+      ThreadLocal<Workspace> workspaces = ThreadLocal.withInitial(() -> new Workspace(size));
+
+      Progress ancestry = new Progress("ancestry", size);
+      for (int layer = 0; layer <= maxDepth; layer++) {
+        forEachParallel(pool, layerStarts[layer], layerStarts[layer + 1], position -> {
+          int horse = layerMembers[position];
+          completeness[horse] = computeCompleteness(horse, mothers, fathers, knownAncestors);
+          inbreeding[horse] = computeInbreeding(horse, mothers, fathers, inbreeding, mendelianVariances, workspaces.get());
+        });
+        ancestry.advance(layerStarts[layer + 1] - layerStarts[layer]);
+      }
+
+      int[] childOffsets = new int[size + 1];
+      for (int i = 0; i < size; i++) {
+        if (mothers[i] >= 0) {
+          childOffsets[mothers[i] + 1]++;
+        }
+        if (fathers[i] >= 0) {
+          childOffsets[fathers[i] + 1]++;
+        }
+      }
+      for (int i = 0; i < size; i++) {
+        childOffsets[i + 1] += childOffsets[i];
+      }
+      int[] children = new int[childOffsets[size]];
+      int[] childCursors = Arrays.copyOf(childOffsets, size);
+      for (int i = 0; i < size; i++) {
+        if (mothers[i] >= 0) {
+          children[childCursors[mothers[i]]++] = i;
+        }
+        if (fathers[i] >= 0) {
+          children[childCursors[fathers[i]]++] = i;
+        }
+      }
+
+      /*
+      The descendant sets of the children are merged into their parents layer by layer, from the deepest
+      layer up, so every parent-child link is followed once instead of once per ancestor. Small sets are
+      kept exactly, larger ones as HyperLogLog sketches of fixed size, and every set is released as soon
+      as the last of its parents has merged it, so memory is bounded by the sets of the layers in flight.
+       */
+      int[][] exactDescendants = new int[size][];
+      byte[][] sketchedDescendants = new byte[size][];
+      Progress descendantProgress = new Progress("descendants", size);
+      for (int layer = maxDepth; layer >= 0; layer--) {
+        forEachParallel(pool, layerStarts[layer], layerStarts[layer + 1], position -> {
+          int horse = layerMembers[position];
+          boolean merged = mothers[horse] >= 0 || fathers[horse] >= 0;
+          descendants[horse] = countDescendants(horse, merged, childOffsets, children, exactDescendants, sketchedDescendants,
+              workspaces.get());
+        });
+        for (int position = layerStarts[layer]; position < layerStarts[layer + 1]; position++) {
+          int horse = layerMembers[position];
+          for (int c = childOffsets[horse]; c < childOffsets[horse + 1]; c++) {
+            int child = children[c];
+            if (lastMergingDepth(child, mothers, fathers, depths) == layer) {
+              exactDescendants[child] = null;
+              sketchedDescendants[child] = null;
+            }
+          }
+        }
+        descendantProgress.advance(layerStarts[layer + 1] - layerStarts[layer]);
+      }
+
+    } finally {
+      pool.shutdown();
+    }
+
+    Progress writeProgress = new Progress("write-back", size);
+    List<HorsePedigreeStatistics> batch = new ArrayList<>(Math.min(batchSize, size));
+    for (int i = 0; i < size; i++) {
+      batch.add(new HorsePedigreeStatistics(graph.ids()[i], inbreeding[i], completeness[i], depths[i], descendants[i]));
+      if (batch.size() == batchSize || i == size - 1) {
+        dao.updateStatistics(batch);
+        writeProgress.advance(batch.size());
+        batch = new ArrayList<>(Math.min(batchSize, size - i - 1));
+      }
+    }
+
+    long durationMillis = (System.nanoTime() - start) / 1_000_000;
+    double throughput = durationMillis == 0 ? size : size * 1000.0 / durationMillis;
+    PedigreeAnalyticsRunDto result = new PedigreeAnalyticsRunDto(size, size == 0 ? 0 : maxDepth + 1, durationMillis, throughput);
+
+    LOG.info("Successfully refreshed pedigree statistics [requestId={}]: {}", MDC.get("r"), result);
+
+    return result;
+  }
+
+  /**
+   * Runs the given action for every position in {@code [from, to)} on the given pool and waits for completion.
+   *
+   * @param pool   the pool to run the action on
+   * @param from   the first position (inclusive)
+   * @param to     the last position (exclusive)
+   * @param action the action to run for each position
+   */
+  private static void forEachParallel(ForkJoinPool pool, int from, int to, IntConsumer action) {
+
+    if (to - from == 1) {
+      action.accept(from);
+      return;
+    }
+    pool.submit(() -> IntStream.range(from, to).parallel().forEach(action)).join();
+  }
+
+  /**
+   * Computes the pedigree completeness of a horse as the average share of known ancestors per generation,
+   * evaluated over the first {@link #COMPLETENESS_GENERATIONS} generations. Also records the number of
+   * known ancestors per generation, which the offspring of this horse build upon.
+   *
+   * @param horse          the position of the horse
+   * @param mothers        the position of each horse's mother
+   * @param fathers        the position of each horse's father
+   * @param knownAncestors the number of known ancestors per horse and generation
+   * @return the pedigree completeness between 0 and 1
+   */
+  private static double computeCompleteness(int horse, int[] mothers, int[] fathers, int[] knownAncestors) {
+
+    int mother = mothers[horse];
+    int father = fathers[horse];
+    int base = horse * COMPLETENESS_GENERATIONS;
+    double completeness = 0;
+
+    for (int generation = 0; generation < COMPLETENESS_GENERATIONS; generation++) {
+      int known;
+      if (generation == 0) {
+        known = (mother >= 0 ? 1 : 0) + (father >= 0 ? 1 : 0);
+      } else {
+        known = (mother >= 0 ? knownAncestors[mother * COMPLETENESS_GENERATIONS + generation - 1] : 0)
+            + (father >= 0 ? knownAncestors[father * COMPLETENESS_GENERATIONS + generation - 1] : 0);
+      }
+      knownAncestors[base + generation] = known;
+      completeness += known / (double) (2L << generation);
+    }
+
+    return completeness / COMPLETENESS_GENERATIONS;
+  }
+
+  /**
+   * Computes the inbreeding coefficient of a horse with the algorithm of Meuwissen and Luo.
+   * The parents' inbreeding coefficients must already be known. Also records the Mendelian sampling
+   * variance of the horse, which the offspring of this horse build upon.
+   *
+   * @param horse              the position of the horse
+   * @param mothers            the position of each horse's mother
+   * @param fathers            the position of each horse's father
+   * @param inbreeding         the inbreeding coefficient of each horse
+   * @param mendelianVariances the Mendelian sampling variance of each horse
+   * @param workspace          the calling thread's workspace
+   * @return the inbreeding coefficient of the horse
+   */
+  private static double computeInbreeding(int horse, int[] mothers, int[] fathers, double[] inbreeding,
+                                          double[] mendelianVariances, Workspace workspace) {
+
+    int mother = mothers[horse];
+    int father = fathers[horse];
+
+    if (mother < 0 && father < 0) {
+      mendelianVariances[horse] = 1.0;
+      return 0.0;
+    }
+    if (mother < 0 || father < 0) {
+      mendelianVariances[horse] = 0.75 - 0.25 * inbreeding[mother >= 0 ? mother : father];
+      return 0.0;
+    }
+    mendelianVariances[horse] = 0.5 - 0.25 * (inbreeding[mother] + inbreeding[father]);
+
+    double[] contributions = workspace.contributions;
+    double sum = 0.0;
+    contributions[horse] = 1.0;
+    workspace.push(horse);
+
+    while (!workspace.isEmpty()) {
+      int ancestor = workspace.popMax();
+      double contribution = contributions[ancestor];
+      contributions[ancestor] = 0.0;
+      sum += contribution * contribution * mendelianVariances[ancestor];
+
+      int ancestorMother = mothers[ancestor];
+      if (ancestorMother >= 0) {
+        if (contributions[ancestorMother] == 0.0) {
+          workspace.push(ancestorMother);
+        }
+        contributions[ancestorMother] += 0.5 * contribution;
+      }
+      int ancestorFather = fathers[ancestor];
+      if (ancestorFather >= 0) {
+        if (contributions[ancestorFather] == 0.0) {
+          workspace.push(ancestorFather);
+        }
+        contributions[ancestorFather] += 0.5 * contribution;
+      }
+    }
+
+    return Math.max(0.0, sum - 1.0);
+  }
+
+  /**
+   * Counts the distinct descendants of a horse by merging the descendant sets of its children, which must
+   * already be known. Up to {@value #EXACT_DESCENDANTS} descendants are counted exactly, more are estimated
+   * with a HyperLogLog sketch of {@value #SKETCH_REGISTERS} registers, with a standard error of about three percent.
+   *
+   * @param horse               the position of the horse
+   * @param merged              whether the set of the horse is merged into a parent later and has to be kept
+   * @param childOffsets        the start of each horse's children in {@code children}
+   * @param children            the positions of all children, grouped by parent
+   * @param exactDescendants    the sorted positions of the descendants of each horse counted exactly
+   * @param sketchedDescendants the sketch of the descendants of each horse counted approximately
+   * @param workspace           the calling thread's workspace
+   * @return the number of distinct descendants
+   */
+  private static long countDescendants(int horse, boolean merged, int[] childOffsets, int[] children,
+                                       int[][] exactDescendants, byte[][] sketchedDescendants, Workspace workspace) {
+
+    int[] buffer = workspace.descendants;
+    int count = 0;
+    byte[] sketch = null;
+
+    for (int c = childOffsets[horse]; c < childOffsets[horse + 1]; c++) {
+      int child = children[c];
+      int[] exact = exactDescendants[child];
+      if (sketch == null && exact != null) {
+        buffer[count++] = child;
+        System.arraycopy(exact, 0, buffer, count, exact.length);
+        count += exact.length;
+        if (count > 2 * EXACT_DESCENDANTS) {
+          count = sortDistinct(buffer, count);
+          if (count > EXACT_DESCENDANTS) {
+            sketch = sketch(buffer, count);
+          }
+        }
+        continue;
+      }
+      if (sketch == null) {
+        sketch = sketch(buffer, count);
+      }
+      addToSketch(sketch, child);
+      if (exact != null) {
+        for (int descendant : exact) {
+          addToSketch(sketch, descendant);
+        }
+      } else {
+        byte[] childSketch = sketchedDescendants[child];
+        for (int register = 0; register < SKETCH_REGISTERS; register++) {
+          sketch[register] = (byte) Math.max(sketch[register], childSketch[register]);
+        }
+      }
+    }
+
+    if (sketch == null) {
+      count = sortDistinct(buffer, count);
+      if (count <= EXACT_DESCENDANTS) {
+        if (merged) {
+          exactDescendants[horse] = count == 0 ? NO_DESCENDANTS : Arrays.copyOf(buffer, count);
+        }
+        return count;
+      }
+      sketch = sketch(buffer, count);
+    }
+    if (merged) {
+      sketchedDescendants[horse] = sketch;
+    }
+    // the set is only sketched once it exceeds the exact range, so the estimate must not fall below it
+    return Math.max(EXACT_DESCENDANTS + 1, estimate(sketch));
+  }
+
+  /**
+   * Returns the depth of the layer in which the descendant set of a horse is merged for the last time,
+   * which is the layer of its parent that is processed last, going from the deepest layer up.
+   *
+   * @param horse   the position of the horse
+   * @param mothers the position of each horse's mother
+   * @param fathers the position of each horse's father
+   * @param depths  the layer of each horse
+   * @return the depth of the layer of the parent that merges the set last
+   */
+  private static int lastMergingDepth(int horse, int[] mothers, int[] fathers, int[] depths) {
+
+    int mother = mothers[horse];
+    int father = fathers[horse];
+    if (mother < 0) {
+      return depths[father];
+    }
+    return father < 0 ? depths[mother] : Math.min(depths[mother], depths[father]);
+  }
+
+  /**
+   * Sorts the first {@code count} values of the buffer and removes duplicates in place.
+   *
+   * @param buffer the values
+   * @param count  the number of values in the buffer
+   * @return the number of distinct values, which are now at the start of the buffer
+   */
+  private static int sortDistinct(int[] buffer, int count) {
+
+    Arrays.sort(buffer, 0, count);
+    int distinct = 0;
+    for (int i = 0; i < count; i++) {
+      if (distinct == 0 || buffer[distinct - 1] != buffer[i]) {
+        buffer[distinct++] = buffer[i];
+      }
+    }
+    return distinct;
+  }
+
+  /**
+   * Creates a HyperLogLog sketch of the first {@code count} values of the buffer.
+   *
+   * @param buffer the values
+   * @param count  the number of values in the buffer
+   * @return the sketch
+   */
+  private static byte[] sketch(int[] buffer, int count) {
+
+    byte[] sketch = new byte[SKETCH_REGISTERS];
+    for (int i = 0; i < count; i++) {
+      addToSketch(sketch, buffer[i]);
+    }
+    return sketch;
+  }
+
+  /**
+   * Adds a horse to a HyperLogLog sketch.
+   *
+   * @param sketch the sketch
+   * @param horse  the position of the horse
+   */
+  private static void addToSketch(byte[] sketch, int horse) {
+
+    // SplitMix64 finalizer, so that consecutive positions are spread over all registers
+    long hash = horse + 0x9E3779B97F4A7C15L;
+    hash = (hash ^ (hash >>> 30)) * 0xBF58476D1CE4E5B9L;
+    hash = (hash ^ (hash >>> 27)) * 0x94D049BB133111EBL;
+    hash ^= hash >>> 31;
+
+    int register = (int) (hash >>> (64 - SKETCH_PRECISION));
+    byte rank = (byte) (Math.min(Long.numberOfLeadingZeros(hash << SKETCH_PRECISION), 64 - SKETCH_PRECISION) + 1);
+    if (sketch[register] < rank) {
+      sketch[register] = rank;
+    }
+  }
+
+  /**
+   * Estimates the number of distinct horses in a HyperLogLog sketch, with linear counting for small numbers.
+   *
+   * @param sketch the sketch
+   * @return the estimated number of distinct horses
+   */
+  private static long estimate(byte[] sketch) {
+
+    double sum = 0;
+    int empty = 0;
+    for (byte rank : sketch) {
+      sum += 1.0 / (1L << rank);
+      if (rank == 0) {
+        empty++;
+      }
+    }
+    double alpha = 0.7213 / (1 + 1.079 / SKETCH_REGISTERS);
+    double estimate = alpha * SKETCH_REGISTERS * SKETCH_REGISTERS / sum;
+    if (estimate <= 2.5 * SKETCH_REGISTERS && empty > 0) {
+      estimate = SKETCH_REGISTERS * Math.log(SKETCH_REGISTERS / (double) empty);
+    }
+    return Math.round(estimate);
+  }
+
+  /**
+   * Per-thread scratch space, allocated once per worker thread and reused for every horse it processes.
+   */
+  private static final class Workspace {
+
+    private final double[] contributions;
+    // room for twice the exact range before it is compacted, plus the set of one more child
+    private final int[] descendants = new int[3 * EXACT_DESCENDANTS + 1];
+    private int[] heap = new int[64];
+    private int heapSize;
+
+    private Workspace(int size) {
+      this.contributions = new double[size];
+    }
+
+    private boolean isEmpty() {
+      return heapSize == 0;
+    }
+
+    private void push(int value) {
+
+      if (heapSize == heap.length) {
+        heap = Arrays.copyOf(heap, heapSize * 2);
+      }
+      int index = heapSize++;
+      while (index > 0) {
+        int parent = (index - 1) / 2;
+        if (heap[parent] >= value) {
+          break;
+        }
+        heap[index] = heap[parent];
+        index = parent;
+      }
+      heap[index] = value;
+    }
+
+    private int popMax() {
+
+      int max = heap[0];
+      int last = heap[--heapSize];
+      int index = 0;
+      while (true) {
+        int child = 2 * index + 1;
+        if (child >= heapSize) {
+          break;
+        }
+        if (child + 1 < heapSize && heap[child + 1] > heap[child]) {
+          child++;
+        }
+        if (heap[child] <= last) {
+          break;
+        }
+        heap[index] = heap[child];
+        index = child;
+      }
+      heap[index] = last;
+      return max;
+    }
+  }
+
+  /**
+   * Logs the progress and throughput of one phase of a run in steps of five percent.
+   */
+  private static final class Progress {
+
+    private static final int STEPS = 20;
+    private final String phase;
+    private final int total;
+    private final int step;
+    private final long start = System.nanoTime();
+    private final AtomicInteger done = new AtomicInteger();
+    private final String requestId = MDC.get("r");
+
+    private Progress(String phase, int total) {
+      this.phase = phase;
+      this.total = total;
+      this.step = Math.max(1, total / STEPS);
+    }
+
+    private void advance(int count) {
+
+      int now = done.addAndGet(count);
+      if (now / step == (now - count) / step && now != total) {
+        return;
+      }
+      long elapsedMillis = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+      LOG.info("Pedigree analytics phase '{}': {}/{} horses ({} horses/s) [requestId={}]",
+          phase, now, total, now * 1000L / elapsedMillis, requestId);
+    }
+  }
+}
@@ -0,0 +1,249 @@
+package at.ac.tuwien.sepr.assignment.individual.service.impl;
+
+import at.ac.tuwien.sepr.assignment.individual.dto.HorseFamilyTreeDto;
+
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.Path2D;
+import java.awt.geom.RoundRectangle2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import javax.imageio.ImageIO;
+
+/**
+ * Lays out family trees as classic pedigree charts and renders them as SVG or PNG images.
+ * The horse is placed on the left and each generation of ancestors in a column further to the right,
+ * with mothers above fathers. Ancestors whose parents are not part of the tree are marked with a small arrow.
+ */
+final class PedigreeChartRenderer {
+
+  private static final int BOX_WIDTH = 180;
+  private static final int BOX_HEIGHT = 44;
+  private static final int COLUMN_GAP = 40;
+  private static final int ROW_GAP = 10;
+  private static final int MARGIN = 20;
+  private static final int MAX_NAME_LENGTH = 24;
+  private static final long MAX_PNG_PIXELS = 16L * 1024 * 1024;
+  private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ISO_LOCAL_DATE;
+  private static final Color BOX_FILL = new Color(0xF8F9FA);
+  private static final Color BOX_STROKE = new Color(0x0D6EFD);
+  private static final Color EDGE_STROKE = new Color(0x6C757D);
+  private static final Color TEXT = new Color(0x212529);
+
+  private PedigreeChartRenderer() {
+  }
+
+  /**
+   * Computes the position of every horse of the family tree.
+   * Horses without parents in the tree are stacked from top to bottom, and every other horse is centered
+   * between its parents, so that no two boxes overlap.
+   *
+   * @param tree the family tree to lay out
+   * @return the computed {@link Layout}
+   */
+  static Layout layout(HorseFamilyTreeDto tree) {
+
+    List<Box> boxes = new ArrayList<>();
+    List<Edge> edges = new ArrayList<>();
+    int[] leaves = {0};
+    int[] columns = {0};
+    place(tree, 0, boxes, edges, leaves, columns);
+
+    int width = 2 * MARGIN + columns[0] * (BOX_WIDTH + COLUMN_GAP) - COLUMN_GAP;
+    int height = 2 * MARGIN + leaves[0] * (BOX_HEIGHT + ROW_GAP) - ROW_GAP;
+    return new Layout(width, height, boxes, edges);
+  }
+
+  /**
+   * Places a horse and its ancestors, returning the vertical center of the horse's box.
+   * The recursion depth is bounded by the number of generations, which is validated to be small.
+   */
+  private static double place(HorseFamilyTreeDto horse, int generation, List<Box> boxes, List<Edge> edges, int[] leaves, int[] columns) {
+
+    columns[0] = Math.max(columns[0], generation + 1);
+    double x = MARGIN + generation * (BOX_WIDTH + COLUMN_GAP);
+    List<Double> parents = new ArrayList<>(2);
+    for (HorseFamilyTreeDto parent : new HorseFamilyTreeDto[] {horse.mother(), horse.father()}) {
+      if (parent != null) {
+        parents.add(place(parent, generation + 1, boxes, edges, leaves, columns));
+      }
+    }
+
+    double centerY;
+    if (parents.isEmpty()) {
+      centerY = MARGIN + leaves[0] * (BOX_HEIGHT + ROW_GAP) + BOX_HEIGHT / 2.0;
+      leaves[0]++;
+    } else {
+      centerY = parents.stream().mapToDouble(Double::doubleValue).average().orElseThrow();
+    }
+    for (double parentY : parents) {
+      edges.add(new Edge(x + BOX_WIDTH, centerY, x + BOX_WIDTH + COLUMN_GAP, parentY));
+    }
+
+    String name = horse.name().length() > MAX_NAME_LENGTH
+        ? horse.name().substring(0, MAX_NAME_LENGTH - 1) + "…"
+        : horse.name();
+    String born = horse.dateOfBirth() == null ? "" : "born " + DATE_FORMAT.format(horse.dateOfBirth());
+    boxes.add(new Box(x, centerY - BOX_HEIGHT / 2.0, name, born, horse.truncated()));
+    return centerY;
+  }
+
+  /**
+   * Renders a layout as an SVG document.
+   *
+   * @param layout the layout to render
+   * @return the UTF-8 encoded SVG document
+   */
+  static byte[] renderSvg(Layout layout) {
+
+    StringBuilder svg = new StringBuilder(256 + layout.boxes().size() * 400);
+    svg.append("<svg xmlns=\"http://www.w3.org/2000/svg\" width=\"").append(layout.width())
+        .append("\" height=\"").append(layout.height())
+        .append("\" viewBox=\"0 0 ").append(layout.width()).append(' ').append(layout.height()).append("\">\n")
+        .append("<style>rect{fill:#f8f9fa;stroke:#0d6efd;stroke-width:1.5}path{fill:none;stroke:#6c757d;stroke-width:1.2}")
+        .append("text{font-family:sans-serif;fill:#212529}.name{font-size:13px;font-weight:bold}.born{font-size:11px}</style>\n");
+
+    for (Edge edge : layout.edges()) {
+      double middleX = (edge.fromX() + edge.toX()) / 2;
+      svg.append("<path d=\"M").append(format(edge.fromX())).append(',').append(format(edge.fromY()))
+          .append(" H").append(format(middleX))
+          .append(" V").append(format(edge.toY()))
+          .append(" H").append(format(edge.toX())).append("\"/>\n");
+    }
+    for (Box box : layout.boxes()) {
+      svg.append("<g transform=\"translate(").append(format(box.x())).append(',').append(format(box.y())).append(")\">")
+          .append("<rect width=\"").append(BOX_WIDTH).append("\" height=\"").append(BOX_HEIGHT).append("\" rx=\"6\"/>")
+          .append("<text class=\"name\" x=\"8\" y=\"18\">").append(escape(box.name())).append("</text>")
+          .append("<text class=\"born\" x=\"8\" y=\"35\">").append(escape(box.born())).append("</text>");
+      if (box.truncated()) {
+        svg.append("<text class=\"born\" x=\"").append(BOX_WIDTH - 14).append("\" y=\"27\">›</text>");
+      }
+      svg.append("</g>\n");
+    }
+    svg.append("</svg>\n");
+
+    return svg.toString().getBytes(StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Renders a layout as a PNG image with Java2D.
+   * Very large charts are scaled down, so that the image never exceeds a fixed number of pixels.
+   *
+   * @param layout the layout to render
+   * @return the PNG encoded image
+   */
+  static byte[] renderPng(Layout layout) {
+
+    double scale = Math.min(1.0, Math.sqrt((double) MAX_PNG_PIXELS / ((long) layout.width() * layout.height())));
+    int width = Math.max(1, (int) Math.ceil(layout.width() * scale));
+    int height = Math.max(1, (int) Math.ceil(layout.height() * scale));
+
+    BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+    Graphics2D graphics = image.createGraphics();
+    try {
+      graphics.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+      graphics.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+      graphics.setColor(Color.WHITE);
+      graphics.fillRect(0, 0, width, height);
+      graphics.scale(scale, scale);
+
+      graphics.setColor(EDGE_STROKE);
+      graphics.setStroke(new BasicStroke(1.2f));
+      for (Edge edge : layout.edges()) {
+        double middleX = (edge.fromX() + edge.toX()) / 2;
+        Path2D path = new Path2D.Double();
+        path.moveTo(edge.fromX(), edge.fromY());
+        path.lineTo(middleX, edge.fromY());
+        path.lineTo(middleX, edge.toY());
+        path.lineTo(edge.toX(), edge.toY());
+        graphics.draw(path);
+      }
+
+      Font nameFont = new Font(Font.SANS_SERIF, Font.BOLD, 13);
+      Font bornFont = new Font(Font.SANS_SERIF, Font.PLAIN, 11);
+      graphics.setStroke(new BasicStroke(1.5f));
+      for (Box box : layout.boxes()) {
+        RoundRectangle2D rectangle = new RoundRectangle2D.Double(box.x(), box.y(), BOX_WIDTH, BOX_HEIGHT, 12, 12);
+        graphics.setColor(BOX_FILL);
+        graphics.fill(rectangle);
+        graphics.setColor(BOX_STROKE);
+        graphics.draw(rectangle);
+        graphics.setColor(TEXT);
+        graphics.setFont(nameFont);
+        graphics.drawString(box.name(), (float) box.x() + 8, (float) box.y() + 18);
+        graphics.setFont(bornFont);
+        graphics.drawString(box.born(), (float) box.x() + 8, (float) box.y() + 35);
+        if (box.truncated()) {
+          graphics.drawString("›", (float) box.x() + BOX_WIDTH - 14, (float) box.y() + 27);
+        }
+      }
+    } finally {
+      graphics.dispose();
+    }
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try {
+      ImageIO.write(image, "png", out);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return out.toByteArray();
+  }
+
+  /**
+   * Formats a coordinate for SVG output with at most one decimal place.
+   */
+  private static String format(double value) {
+    return value == Math.rint(value) ? Long.toString((long) value) : String.format(Locale.ROOT, "%.1f", value);
+  }
+
+  /**
+   * Escapes the characters of a text that have a special meaning in XML.
+   */
+  private static String escape(String text) {
+    StringBuilder escaped = new StringBuilder(text.length());
+    for (char c : text.toCharArray()) {
+      switch (c) {
+        case '<' -> escaped.append("&lt;");
+        case '>' -> escaped.append("&gt;");
+        case '&' -> escaped.append("&amp;");
+        case '"' -> escaped.append("&quot;");
+        default -> escaped.append(c);
+      }
+    }
+    return escaped.toString();
+  }
+
+  /**
+   * The computed positions of a family tree.
+   *
+   * @param width  the width of the chart in pixels
+   * @param height the height of the chart in pixels
+   * @param boxes  one box per horse occurrence
+   * @param edges  one edge per child-parent link
+   */
+  record Layout(int width, int height, List<Box> boxes, List<Edge> edges) {
+  }
+
+  /**
+   * The box of a single horse, positioned by its top left corner.
+   */
+  record Box(double x, double y, String name, String born, boolean truncated) {
+  }
+
+  /**
+   * An elbow connector from the right side of a child's box to the left side of a parent's box.
+   */
+  record Edge(double fromX, double fromY, double toX, double toY) {
+  }
+}
@@ -0,0 +1,188 @@
+package at.ac.tuwien.sepr.assignment.individual.service.impl;
+
+import at.ac.tuwien.sepr.assignment.individual.dto.HorseFamilyTreeDto;
+import at.ac.tuwien.sepr.assignment.individual.dto.PedigreeChartDto;
+import at.ac.tuwien.sepr.assignment.individual.exception.FatalException;
+import at.ac.tuwien.sepr.assignment.individual.exception.NotFoundException;
+import at.ac.tuwien.sepr.assignment.individual.exception.ServiceUnavailableException;
+import at.ac.tuwien.sepr.assignment.individual.exception.ValidationException;
+import at.ac.tuwien.sepr.assignment.individual.service.HorseService;
+import at.ac.tuwien.sepr.assignment.individual.service.PedigreeChartService;
+import at.ac.tuwien.sepr.assignment.individual.type.PedigreeChartFormat;
+
+import java.lang.invoke.MethodHandles;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service implementation for rendering pedigree charts.
+ */
+@Service
+public class PedigreeChartServiceImpl implements PedigreeChartService {
+
+  private static final Logger LOG = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+  private final HorseService horseService;
+  private final Executor executor;
+  private final ReentrantLock cacheLock = new ReentrantLock();
+  private final Map<ChartKey, CompletableFuture<PedigreeChartDto>> cache;
+
+  @Autowired
+  public PedigreeChartServiceImpl(HorseService horseService,
+                                  @Qualifier("pedigreeChartExecutor") Executor executor,
+                                  @Value("${pedigree.chart.cache-size:100}") int cacheSize) {
+
+    this.horseService = horseService;
+    this.executor = executor;
+    int maxEntries = Math.max(1, cacheSize);
+    this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<ChartKey, CompletableFuture<PedigreeChartDto>> eldest) {
+        return size() > maxEntries;
+      }
+    };
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public CompletableFuture<PedigreeChartDto> renderFamilyTree(long id, int generations, PedigreeChartFormat format)
+      throws NotFoundException, ValidationException {
+
+    LOG.trace("Entering renderFamilyTree [requestId={}]: Rendering {} chart for horse id {} with {} generations",
+        MDC.get("r"), format, id, generations);
+
+    /*
+    The family tree is loaded with the batched ancestor queries on the request thread, which is cheap
+    compared to rendering. Its content hash is the version of the chart, so a change to any horse in the
+    tree yields a new cache key, while stale entries simply age out of the LRU cache. Only cache misses
+    are rendered, on the bounded executor; concurrent requests for the same chart share one rendering.
+    The cache is guarded by a lock instead of a monitor, as a request on a virtual thread may block on
+    logging or on submitting the rendering while holding it, which must not pin its carrier thread.
+     */
+    HorseFamilyTreeDto tree = horseService.getFamilyTree(id, generations);
+    String version = version(tree);
+    ChartKey key = new ChartKey(id, generations, format, version);
+
+    CompletableFuture<PedigreeChartDto> chart;
+    cacheLock.lock();
+    try {
+      chart = cache.get(key);
+      if (chart != null && !chart.isCompletedExceptionally()) {
+        LOG.debug("Serving cached {} chart for horse id {} with version {} [requestId={}]", format, id, version, MDC.get("r"));
+
+        return chart;
+      }
+
+      String requestId = MDC.get("r");
+      try {
+        chart = CompletableFuture.supplyAsync(() -> render(tree, format, version, requestId), executor);
+      } catch (RejectedExecutionException e) {
+        LOG.warn("Rejected rendering of {} chart for horse id {} [requestId={}]: Rendering executor is saturated", format, id, MDC.get("r"));
+
+        throw new ServiceUnavailableException("Too many pedigree charts are being rendered, please try again later", e);
+      }
+      cache.put(key, chart);
+    } finally {
+      cacheLock.unlock();
+    }
+
+    CompletableFuture<PedigreeChartDto> rendering = chart;
+    rendering.whenComplete((result, e) -> {
+      if (e != null) {
+        cacheLock.lock();
+        try {
+          cache.remove(key, rendering);
+        } finally {
+          cacheLock.unlock();
+        }
+      }
+    });
+    return rendering;
+  }
+
+  /**
+   * Lays out and renders a family tree.
+   *
+   * @param tree      the family tree to render
+   * @param format    the image format to render
+   * @param version   the version of the family tree
+   * @param requestId the id of the request that triggered the rendering, for logging
+   * @return the rendered {@link PedigreeChartDto}
+   */
+  private PedigreeChartDto render(HorseFamilyTreeDto tree, PedigreeChartFormat format, String version, String requestId) {
+
+    MDC.put("r", requestId);
+    try {
+      long start = System.nanoTime();
+      PedigreeChartRenderer.Layout layout = PedigreeChartRenderer.layout(tree);
+      byte[] image = format == PedigreeChartFormat.SVG
+          ? PedigreeChartRenderer.renderSvg(layout)
+          : PedigreeChartRenderer.renderPng(layout);
+
+      LOG.info("Rendered {} chart for horse id {} with {} boxes and {} bytes in {} ms [requestId={}]",
+          format, tree.id(), layout.boxes().size(), image.length, (System.nanoTime() - start) / 1_000_000, requestId);
+
+      return new PedigreeChartDto(image, format.mimeType(), version);
+    } finally {
+      MDC.remove("r");
+    }
+  }
+
+  /**
+   * Computes the version of a family tree as a hash over its structure and the displayed data of all horses.
+   *
+   * @param tree the family tree
+   * @return the version as a hexadecimal string
+   */
+  private static String version(HorseFamilyTreeDto tree) {
+
+    MessageDigest digest;
+    try {
+      digest = MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new FatalException("SHA-256 is not supported by this JVM", e);
+    }
+
+    Deque<HorseFamilyTreeDto> stack = new ArrayDeque<>();
+    stack.push(tree);
+    while (!stack.isEmpty()) {
+      HorseFamilyTreeDto horse = stack.pop();
+      String node = horse.id() + "\u0000" + horse.name() + "\u0000" + horse.dateOfBirth() + "\u0000"
+          + horse.truncated() + "\u0000" + (horse.mother() != null) + "\u0000" + (horse.father() != null) + "\n";
+      digest.update(node.getBytes(StandardCharsets.UTF_8));
+      if (horse.father() != null) {
+        stack.push(horse.father());
+      }
+      if (horse.mother() != null) {
+        stack.push(horse.mother());
+      }
+    }
+
+    return HexFormat.of().formatHex(digest.digest(), 0, 16);
+  }
+
+  /**
+   * Cache key of a rendered chart.
+   */
+  private record ChartKey(long id, int generations, PedigreeChartFormat format, String version) {
+  }
+}
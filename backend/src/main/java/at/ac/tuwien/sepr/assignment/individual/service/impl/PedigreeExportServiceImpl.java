@@ -0,0 +1,150 @@
+package at.ac.tuwien.sepr.assignment.individual.service.impl;
+
+import at.ac.tuwien.sepr.assignment.individual.entity.Horse;
+import at.ac.tuwien.sepr.assignment.individual.entity.PedigreeExportRow;
+import at.ac.tuwien.sepr.assignment.individual.exception.NotFoundException;
+import at.ac.tuwien.sepr.assignment.individual.exception.ValidationException;
+import at.ac.tuwien.sepr.assignment.individual.persistence.HorseDao;
+import at.ac.tuwien.sepr.assignment.individual.persistence.PedigreeDao;
+import at.ac.tuwien.sepr.assignment.individual.service.PedigreeExportService;
+import at.ac.tuwien.sepr.assignment.individual.type.PedigreeExportFormat;
+import at.ac.tuwien.sepr.assignment.individual.type.Sex;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.lang.invoke.MethodHandles;
+import java.nio.charset.StandardCharsets;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service implementation for exporting pedigrees as flat files.
+ */
+@Service
+public class PedigreeExportServiceImpl implements PedigreeExportService {
+
+  private static final Logger LOG = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+  private static final int BUFFER_SIZE = 64 * 1024;
+  private static final String CSV_HEADER = "id,sire,dam,birth_date,sex,horse_id\n";
+  private static final DateTimeFormatter BLUPF90_DATE = DateTimeFormatter.BASIC_ISO_DATE;
+  private final PedigreeDao dao;
+  private final HorseDao horseDao;
+  private final HorseValidator validator;
+
+  @Autowired
+  public PedigreeExportServiceImpl(PedigreeDao dao, HorseDao horseDao, HorseValidator validator) {
+    this.dao = dao;
+    this.horseDao = horseDao;
+    this.validator = validator;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public PedigreeExport exportPedigree(List<Long> ids, PedigreeExportFormat format) throws NotFoundException, ValidationException {
+
+    LOG.trace("Entering exportPedigree [requestId={}]: Preparing {} export of {}", MDC.get("r"), format, ids == null ? "all horses" : ids);
+
+    if (format == null) {
+      throw new ValidationException("Validation of pedigree export failed", List.of("Export format is required"));
+    }
+    if (ids != null) {
+      validator.validateFamilyTreeIds(ids);
+      Set<Long> found = horseDao.getAllById(Set.copyOf(ids)).stream()
+          .map(Horse::id)
+          .collect(Collectors.toSet());
+      for (Long id : ids) {
+        if (!found.contains(id)) {
+          LOG.warn("Horse not found [requestId={}]: No horse with ID {} found for pedigree export", MDC.get("r"), id);
+
+          throw new NotFoundException("No horse with ID " + id + " found");
+        }
+      }
+    }
+
+    String requestId = MDC.get("r");
+    return out -> {
+      // the export is usually written on a different thread than the one that prepared it
+      MDC.put("r", requestId);
+      try {
+        write(ids, format, out);
+      } finally {
+        MDC.remove("r");
+      }
+    };
+  }
+
+  /**
+   * Streams the pedigree from the persistent data store to the given stream.
+   * The data store numbers the horses and passes them on one by one, so besides the current row only a fixed-size
+   * write buffer is held in memory, independent of the number of exported horses.
+   *
+   * @param ids    the horses to export together with their ancestors, or {@code null} to export all horses
+   * @param format the file format to write
+   * @param out    the stream to write to
+   * @throws IOException if writing to {@code out} fails
+   */
+  private void write(List<Long> ids, PedigreeExportFormat format, OutputStream out) throws IOException {
+
+    final long start = System.nanoTime();
+    long[] count = {0};
+    Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+    if (format == PedigreeExportFormat.CSV) {
+      writer.write(CSV_HEADER);
+    }
+
+    try {
+      dao.exportPedigree(ids, row -> {
+        try {
+          writer.write(format == PedigreeExportFormat.CSV ? toCsv(row) : toBlupf90(row));
+          count[0]++;
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+      });
+    } catch (UncheckedIOException e) {
+      LOG.warn("Pedigree export aborted after {} horses [requestId={}]: {}", count[0], MDC.get("r"), e.getMessage());
+
+      throw e.getCause();
+    }
+    writer.flush();
+
+    LOG.info("Successfully exported pedigree with {} horses as {} in {} ms [requestId={}]",
+        count[0], format, (System.nanoTime() - start) / 1_000_000, MDC.get("r"));
+  }
+
+  /**
+   * Formats a row as a line of the CSV format.
+   *
+   * @param row the row to format
+   * @return the formatted line, including the line break
+   */
+  private static String toCsv(PedigreeExportRow row) {
+    return row.number() + "," + row.sireNumber() + "," + row.damNumber() + ","
+        + row.dateOfBirth() + "," + (row.sex() == Sex.MALE ? "M" : "F") + "," + row.horseId() + "\n";
+  }
+
+  /**
+   * Formats a row as a line of the BLUPF90 format.
+   *
+   * @param row the row to format
+   * @return the formatted line, including the line break
+   */
+  private static String toBlupf90(PedigreeExportRow row) {
+    return row.number() + " " + row.sireNumber() + " " + row.damNumber() + " "
+        + BLUPF90_DATE.format(row.dateOfBirth()) + " " + (row.sex() == Sex.MALE ? 1 : 2) + "\n";
+  }
+}
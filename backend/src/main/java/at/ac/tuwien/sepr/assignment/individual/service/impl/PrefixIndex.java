@@ -0,0 +1,159 @@
+package at.ac.tuwien.sepr.assignment.individual.service.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Predicate;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Thread-safe in-memory index of names for the typeahead suggestions.
+ * Every word of a name is stored as a key of a sorted map, so all names containing a word that starts with a
+ * given prefix are found in one contiguous range of the map, in alphabetical order of that word.
+ * Lookups therefore only touch the matching entries instead of all names.
+ *
+ * @param <T> the type of the values returned as suggestions
+ */
+final class PrefixIndex<T> {
+
+  private final ConcurrentSkipListMap<Key, Entry<T>> entries = new ConcurrentSkipListMap<>();
+  private final Map<Long, List<Key>> keysById = new ConcurrentHashMap<>();
+
+  /**
+   * Adds an entry to the index or replaces the existing entry with the same {@code id}.
+   * Inside a transaction, the index is only changed once the transaction has been committed.
+   *
+   * @param id    the unique identifier of the entry
+   * @param name  the name to index
+   * @param value the value to return as suggestion
+   */
+  void put(long id, String name, T value) {
+    afterCommit(() -> keysById.compute(id, (key, previous) -> {
+      if (previous != null) {
+        previous.forEach(entries::remove);
+      }
+      List<String> words = words(name);
+      Entry<T> entry = new Entry<>(words, value);
+      List<Key> keys = new ArrayList<>(words.size());
+      for (String word : new HashSet<>(words)) {
+        Key wordKey = new Key(word, id);
+        entries.put(wordKey, entry);
+        keys.add(wordKey);
+      }
+      return keys;
+    }));
+  }
+
+  /**
+   * Removes the entry with the given {@code id} from the index, if present.
+   * Inside a transaction, the index is only changed once the transaction has been committed.
+   *
+   * @param id the unique identifier of the entry
+   */
+  void remove(long id) {
+    afterCommit(() -> keysById.computeIfPresent(id, (key, previous) -> {
+      previous.forEach(entries::remove);
+      return null;
+    }));
+  }
+
+  /**
+   * Finds the entries whose name contains a word starting with each word of the query.
+   * The range of the first query word is scanned in alphabetical order until {@code limit} entries accepted by
+   * {@code filter} have been found.
+   *
+   * @param query  the query as typed by the user
+   * @param filter additional constraints the returned values have to satisfy
+   * @param limit  the maximum number of values to return
+   * @return the matching values, each at most once
+   */
+  List<T> search(String query, Predicate<T> filter, int limit) {
+
+    List<String> words = words(query);
+    List<T> result = new ArrayList<>();
+    if (words.isEmpty()) {
+      return result;
+    }
+
+    String first = words.getFirst();
+    Set<Long> seen = new HashSet<>();
+    for (Map.Entry<Key, Entry<T>> candidate : entries.tailMap(new Key(first, Long.MIN_VALUE)).entrySet()) {
+      if (result.size() >= limit || !candidate.getKey().word().startsWith(first)) {
+        break;
+      }
+      Entry<T> entry = candidate.getValue();
+      if (seen.add(candidate.getKey().id()) && entry.matches(words) && filter.test(entry.value())) {
+        result.add(entry.value());
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Returns the number of entries in the index.
+   *
+   * @return the number of indexed entries
+   */
+  int size() {
+    return keysById.size();
+  }
+
+  /**
+   * Splits a name into lower-case words at every character that is neither a letter nor a digit.
+   */
+  private static List<String> words(String name) {
+    if (name == null) {
+      return List.of();
+    }
+    return Arrays.stream(name.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+"))
+        .filter(word -> !word.isEmpty())
+        .toList();
+  }
+
+  /**
+   * Runs an action after the commit of the current transaction, or immediately if there is none,
+   * so that the index never contains writes that are rolled back.
+   */
+  private static void afterCommit(Runnable action) {
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCommit() {
+          action.run();
+        }
+      });
+    } else {
+      action.run();
+    }
+  }
+
+  /**
+   * Key of one word of an indexed name, ordered by the word and then by the identifier of the entry.
+   */
+  private record Key(String word, long id) implements Comparable<Key> {
+
+    @Override
+    public int compareTo(Key other) {
+      int byWord = word.compareTo(other.word);
+      return byWord != 0 ? byWord : Long.compare(id, other.id);
+    }
+  }
+
+  /**
+   * An indexed value together with all words of its name.
+   */
+  private record Entry<T>(List<String> words, T value) {
+
+    boolean matches(List<String> query) {
+      return query.stream().allMatch(prefix -> words.stream().anyMatch(word -> word.startsWith(prefix)));
+    }
+  }
+}
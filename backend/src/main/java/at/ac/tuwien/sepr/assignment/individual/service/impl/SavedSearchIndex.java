@@ -0,0 +1,203 @@
+package at.ac.tuwien.sepr.assignment.individual.service.impl;
+
+import at.ac.tuwien.sepr.assignment.individual.entity.Horse;
+import at.ac.tuwien.sepr.assignment.individual.entity.SavedSearch;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Thread-safe in-memory reverse index of saved searches, which finds the saved searches matching a horse
+ * without evaluating every saved search.
+ * Each saved search is stored under a single anchor that every matching horse must hit:
+ * <ul>
+ *   <li>searches for a name or description of at least three characters under one trigram of that text, namely the
+ *   trigram shared by the fewest other searches, as a matching horse contains all trigrams of the text;</li>
+ *   <li>other searches for an owner under that owner;</li>
+ *   <li>all remaining searches under their sex, ordered by the start of their birth date range.</li>
+ * </ul>
+ * A horse therefore only looks up the trigrams of its own name and description, its owner, and the searches of its
+ * sex whose birth date range starts no later than its birth, and verifies the full criteria of these candidates only.
+ */
+final class SavedSearchIndex {
+
+  private static final int TRIGRAM_LENGTH = 3;
+  private final Map<Long, Registration> registrations = new HashMap<>();
+  private final Map<String, Set<Long>> byTrigram = new HashMap<>();
+  private final Map<Long, Set<Long>> byOwner = new HashMap<>();
+  private final Map<String, NavigableMap<LocalDate, Set<Long>>> bySex = new HashMap<>();
+
+  /**
+   * Adds a saved search to the index or replaces the existing one with the same id.
+   *
+   * @param savedSearch the saved search to index
+   */
+  synchronized void put(SavedSearch savedSearch) {
+
+    remove(savedSearch.id());
+
+    Registration registration = new Registration(savedSearch, lower(savedSearch.name()), lower(savedSearch.description()),
+        anchorTrigram(savedSearch));
+    registrations.put(savedSearch.id(), registration);
+    if (registration.trigram() != null) {
+      byTrigram.computeIfAbsent(registration.trigram(), key -> new HashSet<>()).add(savedSearch.id());
+    } else if (savedSearch.ownerId() != null) {
+      byOwner.computeIfAbsent(savedSearch.ownerId(), key -> new HashSet<>()).add(savedSearch.id());
+    } else {
+      bySex.computeIfAbsent(sexKey(savedSearch), key -> new TreeMap<>())
+          .computeIfAbsent(bornFrom(savedSearch), key -> new HashSet<>())
+          .add(savedSearch.id());
+    }
+  }
+
+  /**
+   * Removes the saved search with the given id from the index, if present.
+   *
+   * @param id the unique identifier of the saved search
+   */
+  synchronized void remove(long id) {
+
+    Registration registration = registrations.remove(id);
+    if (registration == null) {
+      return;
+    }
+    SavedSearch savedSearch = registration.savedSearch();
+    if (registration.trigram() != null) {
+      removeFrom(byTrigram, registration.trigram(), id);
+    } else if (savedSearch.ownerId() != null) {
+      removeFrom(byOwner, savedSearch.ownerId(), id);
+    } else {
+      NavigableMap<LocalDate, Set<Long>> byBornFrom = bySex.get(sexKey(savedSearch));
+      removeFrom(byBornFrom, bornFrom(savedSearch), id);
+      if (byBornFrom != null && byBornFrom.isEmpty()) {
+        bySex.remove(sexKey(savedSearch));
+      }
+    }
+  }
+
+  /**
+   * Finds the saved searches whose criteria are all satisfied by a horse.
+   *
+   * @param horse the created or updated horse
+   * @return the ids of the matching saved searches
+   */
+  synchronized List<Long> match(Horse horse) {
+
+    String name = lower(horse.name());
+    String description = lower(horse.description());
+    Set<Long> candidates = new HashSet<>();
+    for (String trigram : trigrams(name)) {
+      candidates.addAll(byTrigram.getOrDefault(trigram, Set.of()));
+    }
+    for (String trigram : trigrams(description)) {
+      candidates.addAll(byTrigram.getOrDefault(trigram, Set.of()));
+    }
+    if (horse.ownerId() != null) {
+      candidates.addAll(byOwner.getOrDefault(horse.ownerId(), Set.of()));
+    }
+    for (String sex : List.of(horse.sex().toString(), "")) {
+      NavigableMap<LocalDate, Set<Long>> byBornFrom = bySex.get(sex);
+      if (byBornFrom != null) {
+        byBornFrom.headMap(horse.dateOfBirth(), true).values().forEach(candidates::addAll);
+      }
+    }
+
+    List<Long> matches = new ArrayList<>();
+    for (long id : candidates) {
+      if (registrations.get(id).matches(horse, name, description)) {
+        matches.add(id);
+      }
+    }
+    return matches;
+  }
+
+  /**
+   * Returns the number of saved searches in the index.
+   *
+   * @return the number of indexed saved searches
+   */
+  synchronized int size() {
+    return registrations.size();
+  }
+
+  /**
+   * Chooses the trigram of the name or description of a saved search that the fewest other saved searches are
+   * anchored at, or null if neither text has at least three characters.
+   */
+  private String anchorTrigram(SavedSearch savedSearch) {
+
+    String anchor = null;
+    int anchorSize = Integer.MAX_VALUE;
+    for (String text : new String[] {lower(savedSearch.name()), lower(savedSearch.description())}) {
+      for (String trigram : trigrams(text)) {
+        int size = byTrigram.getOrDefault(trigram, Set.of()).size();
+        if (size < anchorSize) {
+          anchor = trigram;
+          anchorSize = size;
+        }
+      }
+    }
+    return anchor;
+  }
+
+  /**
+   * Splits a lower-case text into all its distinct sequences of three consecutive characters.
+   */
+  private static Set<String> trigrams(String text) {
+
+    Set<String> trigrams = new HashSet<>();
+    if (text == null) {
+      return trigrams;
+    }
+    int[] codePoints = text.codePoints().toArray();
+    for (int i = 0; i + TRIGRAM_LENGTH <= codePoints.length; i++) {
+      trigrams.add(new String(codePoints, i, TRIGRAM_LENGTH));
+    }
+    return trigrams;
+  }
+
+  private static String lower(String text) {
+    return text == null ? null : text.toLowerCase(Locale.ROOT);
+  }
+
+  private static String sexKey(SavedSearch savedSearch) {
+    return savedSearch.sex() == null ? "" : savedSearch.sex().toString();
+  }
+
+  private static LocalDate bornFrom(SavedSearch savedSearch) {
+    return savedSearch.bornFrom() == null ? LocalDate.MIN : savedSearch.bornFrom();
+  }
+
+  private static <K> void removeFrom(Map<K, Set<Long>> buckets, K key, long id) {
+    Set<Long> bucket = buckets == null ? null : buckets.get(key);
+    if (bucket != null && bucket.remove(id) && bucket.isEmpty()) {
+      buckets.remove(key);
+    }
+  }
+
+  /**
+   * An indexed saved search together with its lower-case texts and the trigram it is anchored at, if any.
+   */
+  private record Registration(SavedSearch savedSearch, String name, String description, String trigram) {
+
+    /**
+     * Checks all criteria of the saved search with the same semantics as the horse search.
+     */
+    boolean matches(Horse horse, String horseName, String horseDescription) {
+      return (name == null || horseName.contains(name))
+          && (description == null || (horseDescription != null && horseDescription.contains(description)))
+          && (savedSearch.sex() == null || savedSearch.sex() == horse.sex())
+          && (savedSearch.bornFrom() == null || !horse.dateOfBirth().isBefore(savedSearch.bornFrom()))
+          && (savedSearch.bornBefore() == null || horse.dateOfBirth().isBefore(savedSearch.bornBefore()))
+          && (savedSearch.ownerId() == null || savedSearch.ownerId().equals(horse.ownerId()));
+    }
+  }
+}
@@ -0,0 +1,263 @@
+package at.ac.tuwien.sepr.assignment.individual.service.impl;
+
+import at.ac.tuwien.sepr.assignment.individual.dto.SavedSearchCreateDto;
+import at.ac.tuwien.sepr.assignment.individual.dto.SavedSearchDto;
+import at.ac.tuwien.sepr.assignment.individual.dto.SavedSearchNotificationDto;
+import at.ac.tuwien.sepr.assignment.individual.entity.Horse;
+import at.ac.tuwien.sepr.assignment.individual.entity.SavedSearch;
+import at.ac.tuwien.sepr.assignment.individual.exception.NotFoundException;
+import at.ac.tuwien.sepr.assignment.individual.exception.PersistenceException;
+import at.ac.tuwien.sepr.assignment.individual.exception.ValidationException;
+import at.ac.tuwien.sepr.assignment.individual.mapper.SavedSearchMapper;
+import at.ac.tuwien.sepr.assignment.individual.persistence.HorseDao;
+import at.ac.tuwien.sepr.assignment.individual.persistence.SavedSearchDao;
+import at.ac.tuwien.sepr.assignment.individual.service.SavedSearchService;
+
+import java.lang.invoke.MethodHandles;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Service implementation for managing saved searches and matching horses against them.
+ */
+@Service
+public class SavedSearchServiceImpl implements SavedSearchService {
+
+  private static final Logger LOG = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+  private final SavedSearchIndex index = new SavedSearchIndex();
+  private final SavedSearchDao dao;
+  private final HorseDao horseDao;
+  private final SavedSearchMapper mapper;
+  private final SavedSearchValidator validator;
+  private final Executor executor;
+
+  @Autowired
+  public SavedSearchServiceImpl(SavedSearchDao dao, HorseDao horseDao, SavedSearchMapper mapper, SavedSearchValidator validator,
+                                @Qualifier("savedSearchExecutor") Executor executor) {
+    this.dao = dao;
+    this.horseDao = horseDao;
+    this.mapper = mapper;
+    this.validator = validator;
+    this.executor = executor;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public Stream<SavedSearchDto> getAll() {
+
+    LOG.trace("Entering getAll [requestId={}]: Retrieving all saved searches", MDC.get("r"));
+
+    return dao.getAll().stream().map(mapper::entityToDto);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public SavedSearchDto create(SavedSearchCreateDto savedSearch) throws ValidationException {
+
+    LOG.trace("Entering create [requestId={}]: Creating saved search with data {}", MDC.get("r"), savedSearch);
+
+    validator.validateForCreate(savedSearch);
+
+    SavedSearch created = dao.create(savedSearch);
+    index.put(created);
+    onRollback(() -> index.remove(created.id()));
+
+    LOG.info("Successfully created saved search with id {} for subscriber {} [requestId={}]", created.id(), created.subscriber(), MDC.get("r"));
+
+    return mapper.entityToDto(created);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void delete(long id) throws NotFoundException {
+
+    LOG.trace("Entering delete [requestId={}]: Deleting saved search with id {}", MDC.get("r"), id);
+
+    SavedSearch deleted = dao.getById(id);
+    dao.delete(id);
+    index.remove(id);
+    onRollback(() -> index.put(deleted));
+
+    LOG.info("Successfully deleted saved search with id {} [requestId={}]", id, MDC.get("r"));
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public List<SavedSearchNotificationDto> getNotifications(long id) throws NotFoundException {
+
+    LOG.trace("Entering getNotifications [requestId={}]: Retrieving notifications of saved search {}", MDC.get("r"), id);
+
+    dao.getById(id);
+    return dao.getNotifications(id);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public int recordMatches(long horseId) throws NotFoundException {
+
+    LOG.trace("Entering recordMatches [requestId={}]: Matching horse {} against saved searches", MDC.get("r"), horseId);
+
+    long start = System.nanoTime();
+    Horse horse = horseDao.getById(horseId);
+    List<Long> matches = index.match(horse);
+    int recorded = dao.recordNotifications(horseId, matches);
+
+    LOG.info("Horse {} matched {} of {} saved searches, recorded {} notifications in {} ms [requestId={}]",
+        horseId, matches.size(), index.size(), recorded, (System.nanoTime() - start) / 1_000_000, MDC.get("r"));
+
+    return recorded;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public int recordMatches(Collection<Long> horseIds) {
+
+    LOG.trace("Entering recordMatches [requestId={}]: Matching {} horses against saved searches", MDC.get("r"), horseIds.size());
+
+    long start = System.nanoTime();
+    List<Horse> horses = horseDao.getAllById(horseIds);
+    int matched = 0;
+    int recorded = 0;
+    for (Horse horse : horses) {
+      List<Long> matches = index.match(horse);
+      matched += matches.size();
+      recorded += dao.recordNotifications(horse.id(), matches);
+    }
+
+    LOG.info("{} horses matched {} times against {} saved searches, recorded {} notifications in {} ms, skipped {} deleted horses [requestId={}]",
+        horses.size(), matched, index.size(), recorded, (System.nanoTime() - start) / 1_000_000, horseIds.size() - horses.size(), MDC.get("r"));
+
+    return recorded;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void recordMatchesAfterCommit(long horseId) {
+
+    String requestId = MDC.get("r");
+    submitAfterCommit("horse " + horseId, () -> {
+      try {
+        recordMatches(horseId);
+      } catch (NotFoundException e) {
+        LOG.debug("Horse {} was deleted before it could be matched against saved searches [requestId={}]", horseId, requestId);
+      }
+    });
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void recordMatchesAfterCommit(Collection<Long> horseIds) {
+
+    if (horseIds.isEmpty()) {
+      return;
+    }
+
+    List<Long> ids = List.copyOf(horseIds);
+    submitAfterCommit(ids.size() + " horses", () -> recordMatches(ids));
+  }
+
+  /**
+   * Submits a matching task to the executor once the current transaction has been committed, or right away if there is none.
+   */
+  private void submitAfterCommit(String horses, Runnable matching) {
+
+    /*
+    Matching reads the horses as committed, so it only starts once the write is visible. It runs on a
+    bounded executor; if the executor is saturated, the horses are not matched instead of delaying the
+    write, and the dropped match is logged.
+     */
+    String requestId = MDC.get("r");
+    Runnable task = () -> {
+      MDC.put("r", requestId);
+      try {
+        matching.run();
+      } catch (PersistenceException e) {
+        LOG.error("Matching {} against saved searches failed [requestId={}]", horses, requestId, e);
+      } finally {
+        MDC.remove("r");
+      }
+    };
+    Runnable submit = () -> {
+      try {
+        executor.execute(task);
+      } catch (RejectedExecutionException e) {
+        LOG.warn("Rejected matching of {} against saved searches [requestId={}]: Executor is saturated", horses, requestId);
+      }
+    };
+
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCommit() {
+          submit.run();
+        }
+      });
+    } else {
+      submit.run();
+    }
+  }
+
+  /**
+   * Loads all saved searches into the in-memory reverse index once the application has started.
+   * Afterwards the index is maintained by the writes of this service.
+   */
+  @EventListener(ApplicationReadyEvent.class)
+  public void loadIndex() {
+
+    MDC.put("r", "saved-search-index");
+    try {
+      dao.getAll().forEach(index::put);
+
+      LOG.info("Loaded {} saved searches into the matching index [requestId={}]", index.size(), MDC.get("r"));
+    } finally {
+      MDC.clear();
+    }
+  }
+
+  /**
+   * Runs an action if the current transaction is rolled back, to undo a change to the in-memory index.
+   * The index is changed right away, so that writes within the same transaction are matched against it.
+   */
+  private static void onRollback(Runnable action) {
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCompletion(int status) {
+          if (status == STATUS_ROLLED_BACK) {
+            action.run();
+          }
+        }
+      });
+    }
+  }
+}
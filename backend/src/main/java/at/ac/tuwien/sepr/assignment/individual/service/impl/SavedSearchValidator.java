@@ -0,0 +1,84 @@
+package at.ac.tuwien.sepr.assignment.individual.service.impl;
+
+import at.ac.tuwien.sepr.assignment.individual.dto.SavedSearchCreateDto;
+import at.ac.tuwien.sepr.assignment.individual.exception.NotFoundException;
+import at.ac.tuwien.sepr.assignment.individual.exception.ValidationException;
+import at.ac.tuwien.sepr.assignment.individual.service.OwnerService;
+
+import java.lang.invoke.MethodHandles;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Validator for saved searches, ensuring that their subscriber and criteria meet the required constraints.
+ */
+@Component
+public class SavedSearchValidator {
+
+  private static final Logger LOG = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+  private final OwnerService ownerService;
+
+  @Autowired
+  public SavedSearchValidator(OwnerService ownerService) {
+    this.ownerService = ownerService;
+  }
+
+  /**
+   * Validates a saved search before it is created.
+   *
+   * @param savedSearch the saved search to validate
+   * @throws ValidationException if the subscriber is missing, a text is too long, the birth date range is empty,
+   *                             the owner does not exist or no criterion is given
+   */
+  public void validateForCreate(SavedSearchCreateDto savedSearch) throws ValidationException {
+
+    LOG.trace("Entering validateForCreate [requestId={}]: Validating saved search {}", MDC.get("r"), savedSearch);
+
+    List<String> validationErrors = new ArrayList<>();
+
+    if (savedSearch.subscriber() == null || savedSearch.subscriber().isBlank()) {
+      validationErrors.add("Subscriber is required");
+    } else if (savedSearch.subscriber().length() > 255) {
+      validationErrors.add("Subscriber too long: must be 255 characters or fewer");
+    }
+
+    if (savedSearch.name() != null && savedSearch.name().length() > 255) {
+      validationErrors.add("Search name too long: must be 255 characters or fewer");
+    }
+
+    if (savedSearch.description() != null && savedSearch.description().length() > 4095) {
+      validationErrors.add("Search description too long: must be 4095 characters or fewer");
+    }
+
+    if (savedSearch.bornFrom() != null && savedSearch.bornBefore() != null
+        && !savedSearch.bornFrom().isBefore(savedSearch.bornBefore())) {
+      validationErrors.add("Birth date range is empty: bornFrom must be before bornBefore");
+    }
+
+    if (savedSearch.ownerId() != null) {
+      try {
+        ownerService.getById(savedSearch.ownerId());
+      } catch (NotFoundException e) {
+        validationErrors.add("Owner with ID " + savedSearch.ownerId() + " does not exist");
+      }
+    }
+
+    if (savedSearch.name() == null && savedSearch.description() == null && savedSearch.sex() == null
+        && savedSearch.bornFrom() == null && savedSearch.bornBefore() == null && savedSearch.ownerId() == null) {
+      validationErrors.add("At least one search criterion is required");
+    }
+
+    if (!validationErrors.isEmpty()) {
+      LOG.warn("Validation of saved search for create failed [requestId={}]: {}", MDC.get("r"), validationErrors);
+      throw new ValidationException("Validation of saved search for create failed", validationErrors);
+    }
+
+    LOG.debug("Successfully validated saved search for creation [requestId={}]: {}", MDC.get("r"), savedSearch);
+  }
+}
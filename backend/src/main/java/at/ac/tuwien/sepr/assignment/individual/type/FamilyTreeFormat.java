@@ -0,0 +1,11 @@
+package at.ac.tuwien.sepr.assignment.individual.type;
+
+/**
+ * Enum representing the formats a family tree can be returned in.
+ * {@code TREE} nests the parents within each horse, so shared ancestors are repeated;
+ * {@code GRAPH} contains every ancestor only once and references parents by index.
+ */
+public enum FamilyTreeFormat {
+  TREE,
+  GRAPH
+}
@@ -0,0 +1,26 @@
+package at.ac.tuwien.sepr.assignment.individual.type;
+
+/**
+ * Enum representing the attributes by which the horses of a search result can be counted.
+ * Each facet groups the horses by an SQL expression over the columns of the horse table.
+ */
+public enum HorseFacet {
+  SEX("sex"),
+  DECADE("FLOOR(EXTRACT(YEAR FROM date_of_birth) / 10) * 10"),
+  OWNER("owner_id");
+
+  private final String column;
+
+  HorseFacet(String column) {
+    this.column = column;
+  }
+
+  /**
+   * Returns the SQL expression whose distinct values are the buckets of this facet.
+   *
+   * @return the expression to group by
+   */
+  public String column() {
+    return column;
+  }
+}
@@ -0,0 +1,43 @@
+package at.ac.tuwien.sepr.assignment.individual.type;
+
+/**
+ * Enum representing the attributes of a horse that can be requested individually when listing horses.
+ * Each field is read from a column of the horse table and written to a property of the same name as in
+ * {@link at.ac.tuwien.sepr.assignment.individual.dto.HorseListDto}. The id is always included.
+ */
+public enum HorseField {
+  ID("id", "id"),
+  NAME("name", "name"),
+  DESCRIPTION("description", "description"),
+  DATE_OF_BIRTH("date_of_birth", "dateOfBirth"),
+  SEX("sex", "sex"),
+  OWNER("owner_id", "owner"),
+  IMAGE_URL("image_hash", "imageUrl"),
+  OFFSPRING_COUNT("offspring_count", "offspringCount");
+
+  private final String column;
+  private final String property;
+
+  HorseField(String column, String property) {
+    this.column = column;
+    this.property = property;
+  }
+
+  /**
+   * Returns the column of the horse table this field is read from.
+   *
+   * @return the column to select
+   */
+  public String column() {
+    return column;
+  }
+
+  /**
+   * Returns the name of the JSON property this field is written to.
+   *
+   * @return the property name
+   */
+  public String property() {
+    return property;
+  }
+}
@@ -0,0 +1,33 @@
+package at.ac.tuwien.sepr.assignment.individual.type;
+
+/**
+ * Enum representing the orders in which horse search results can be sorted.
+ * Every order ends with the horse id as a tiebreaker, so that results are stable across requests.
+ * The tiebreaker is sorted in the same direction as the main column, so that each order matches an index
+ * of the horse table, which can be read forwards or backwards instead of sorting the results.
+ */
+public enum HorseSort {
+  NAME_ASC("name ASC, id ASC"),
+  NAME_DESC("name DESC, id DESC"),
+  DATE_OF_BIRTH_ASC("date_of_birth ASC, id ASC"),
+  DATE_OF_BIRTH_DESC("date_of_birth DESC, id DESC"),
+  ID_ASC("id ASC"),
+  ID_DESC("id DESC"),
+  OFFSPRING_COUNT_ASC("offspring_count ASC, id ASC"),
+  OFFSPRING_COUNT_DESC("offspring_count DESC, id DESC");
+
+  private final String orderBy;
+
+  HorseSort(String orderBy) {
+    this.orderBy = orderBy;
+  }
+
+  /**
+   * Returns the SQL {@code ORDER BY} expression of this order.
+   *
+   * @return the columns and directions to sort by
+   */
+  public String orderBy() {
+    return orderBy;
+  }
+}
@@ -0,0 +1,24 @@
+package at.ac.tuwien.sepr.assignment.individual.type;
+
+/**
+ * Enum representing the image formats a pedigree chart can be rendered in.
+ */
+public enum PedigreeChartFormat {
+  SVG("image/svg+xml"),
+  PNG("image/png");
+
+  private final String mimeType;
+
+  PedigreeChartFormat(String mimeType) {
+    this.mimeType = mimeType;
+  }
+
+  /**
+   * Returns the MIME type of images in this format.
+   *
+   * @return the MIME type
+   */
+  public String mimeType() {
+    return mimeType;
+  }
+}
@@ -0,0 +1,13 @@
+package at.ac.tuwien.sepr.assignment.individual.type;
+
+/**
+ * Enum representing the file formats a pedigree can be exported in.
+ * {@code CSV} is a comma-separated file with a header line, using {@code M} and {@code F} for the sex.
+ * {@code BLUPF90} is a whitespace-separated file without a header as read by the BLUPF90 family of programs,
+ * with the date of birth as {@code yyyyMMdd} and {@code 1} for male and {@code 2} for female horses.
+ * In both formats unknown parents are written as {@code 0}.
+ */
+public enum PedigreeExportFormat {
+  CSV,
+  BLUPF90
+}
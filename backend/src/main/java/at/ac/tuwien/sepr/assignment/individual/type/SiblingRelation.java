@@ -0,0 +1,12 @@
+package at.ac.tuwien.sepr.assignment.individual.type;
+
+/**
+ * Enum representing how a sibling is related to a horse.
+ * Full siblings share both parents, maternal half-siblings only the mother and paternal half-siblings only the father.
+ * If a parent of either horse is unknown, siblings sharing the other parent are considered half-siblings.
+ */
+public enum SiblingRelation {
+  FULL,
+  MATERNAL_HALF,
+  PATERNAL_HALF
+}
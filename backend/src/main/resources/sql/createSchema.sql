@@ -6,6 +6,16 @@ CREATE TABLE IF NOT EXISTS owner
     description VARCHAR(4095)
     );
 
+CREATE TABLE IF NOT EXISTS image
+(
+    hash            VARCHAR(64) PRIMARY KEY,
+    data            BLOB NOT NULL,
+    mime_type       VARCHAR(255) NOT NULL,
+    size            BIGINT NOT NULL,
+    reference_count BIGINT DEFAULT 0 NOT NULL,
+    stored_at       TIMESTAMP DEFAULT CURRENT_TIMESTAMP NOT NULL
+    );
+
 CREATE TABLE IF NOT EXISTS horse
 (
     id            BIGINT auto_increment PRIMARY KEY,
@@ -16,9 +26,86 @@ CREATE TABLE IF NOT EXISTS horse
     owner_id      BIGINT,
     mother_id     BIGINT,
     father_id     BIGINT,
-    image         BLOB,
-    mime_type     VARCHAR(255),
-    CONSTRAINT fk_owner FOREIGN KEY (owner_id) REFERENCES owner(id) ON DELETE SET NULL,
+    image_hash    VARCHAR(64),
+    inbreeding_coefficient         DOUBLE,
+    pedigree_completeness          DOUBLE,
+    generation_depth               INT,
+    descendant_count               BIGINT,
+    pedigree_statistics_updated_at TIMESTAMP,
+    offspring_count                BIGINT DEFAULT 0 NOT NULL,
+    version                        BIGINT DEFAULT 0 NOT NULL,
     CONSTRAINT fk_mother FOREIGN KEY (mother_id) REFERENCES horse(id) ON DELETE SET NULL,
-    CONSTRAINT fk_father FOREIGN KEY (father_id) REFERENCES horse(id) ON DELETE SET NULL
-    );
\ No newline at end of file
+    CONSTRAINT fk_father FOREIGN KEY (father_id) REFERENCES horse(id) ON DELETE SET NULL,
+    CONSTRAINT fk_image FOREIGN KEY (image_hash) REFERENCES image(hash)
+    );
+
+-- CREATE TABLE IF NOT EXISTS leaves the table of an existing database untouched, so a database that predates a column
+-- of horse, or still stores images in the horse row, is upgraded by migrateSchema.sql. This script runs on every
+-- connection, so only this single catalog lookup is repeated once the database is up to date.
+EXECUTE IMMEDIATE CASE
+    WHEN (SELECT COUNT(CASE WHEN COLUMN_NAME IN ('INBREEDING_COEFFICIENT', 'PEDIGREE_COMPLETENESS', 'GENERATION_DEPTH',
+                                                'DESCENDANT_COUNT', 'PEDIGREE_STATISTICS_UPDATED_AT', 'IMAGE_HASH', 'VERSION')
+                                 OR COLUMN_NAME = 'OFFSPRING_COUNT' AND IS_NULLABLE = 'NO' THEN 1 END) = 8
+                 AND COUNT(CASE WHEN COLUMN_NAME IN ('IMAGE', 'MIME_TYPE') THEN 1 END) = 0
+          FROM INFORMATION_SCHEMA.COLUMNS WHERE TABLE_SCHEMA = SCHEMA() AND TABLE_NAME = 'HORSE')
+    THEN 'SET @SCHEMA_UP_TO_DATE = TRUE'
+    ELSE 'RUNSCRIPT FROM ''classpath:sql/migrateSchema.sql''' END;
+
+CREATE INDEX IF NOT EXISTS idx_horse_name ON horse (name, id);
+CREATE INDEX IF NOT EXISTS idx_horse_date_of_birth ON horse (date_of_birth, id);
+CREATE INDEX IF NOT EXISTS idx_horse_mother_id ON horse (mother_id, date_of_birth, id);
+CREATE INDEX IF NOT EXISTS idx_horse_father_id ON horse (father_id, date_of_birth, id);
+CREATE INDEX IF NOT EXISTS idx_horse_offspring_count ON horse (offspring_count, id);
+CREATE INDEX IF NOT EXISTS idx_horse_owner_id ON horse (owner_id, sex, id);
+-- the owner foreign key is added after its index, so that H2 backs it with that index instead of creating its own
+ALTER TABLE horse ADD CONSTRAINT IF NOT EXISTS fk_owner FOREIGN KEY (owner_id) REFERENCES owner(id) ON DELETE SET NULL;
+CREATE INDEX IF NOT EXISTS idx_horse_image_hash ON horse (image_hash);
+CREATE INDEX IF NOT EXISTS idx_image_reference_count ON image (reference_count);
+
+CREATE TABLE IF NOT EXISTS horse_name_trigram
+(
+    trigram            VARCHAR(12) NOT NULL,
+    horse_id           BIGINT NOT NULL,
+    name_trigram_count INT NOT NULL,
+    PRIMARY KEY (trigram, horse_id),
+    CONSTRAINT fk_horse_name_trigram FOREIGN KEY (horse_id) REFERENCES horse(id) ON DELETE CASCADE
+    );
+
+CREATE INDEX IF NOT EXISTS idx_horse_name_trigram_horse_id ON horse_name_trigram (horse_id);
+
+CREATE TABLE IF NOT EXISTS owner_name_trigram
+(
+    trigram            VARCHAR(12) NOT NULL,
+    owner_id           BIGINT NOT NULL,
+    name_trigram_count INT NOT NULL,
+    PRIMARY KEY (trigram, owner_id),
+    CONSTRAINT fk_owner_name_trigram FOREIGN KEY (owner_id) REFERENCES owner(id) ON DELETE CASCADE
+    );
+
+CREATE INDEX IF NOT EXISTS idx_owner_name_trigram_owner_id ON owner_name_trigram (owner_id);
+
+CREATE TABLE IF NOT EXISTS saved_search
+(
+    id          BIGINT auto_increment PRIMARY KEY,
+    subscriber  VARCHAR(255) NOT NULL,
+    name        VARCHAR(255),
+    description VARCHAR(4095),
+    sex         ENUM('MALE', 'FEMALE'),
+    born_from   DATE,
+    born_before DATE,
+    owner_id    BIGINT,
+    created_at  TIMESTAMP DEFAULT CURRENT_TIMESTAMP NOT NULL,
+    CONSTRAINT fk_saved_search_owner FOREIGN KEY (owner_id) REFERENCES owner(id) ON DELETE CASCADE
+    );
+
+CREATE TABLE IF NOT EXISTS saved_search_notification
+(
+    saved_search_id BIGINT NOT NULL,
+    horse_id        BIGINT NOT NULL,
+    notified_at     TIMESTAMP DEFAULT CURRENT_TIMESTAMP NOT NULL,
+    PRIMARY KEY (saved_search_id, horse_id),
+    CONSTRAINT fk_notification_saved_search FOREIGN KEY (saved_search_id) REFERENCES saved_search(id) ON DELETE CASCADE,
+    CONSTRAINT fk_notification_horse FOREIGN KEY (horse_id) REFERENCES horse(id) ON DELETE CASCADE
+    );
+
+CREATE INDEX IF NOT EXISTS idx_saved_search_notification_horse_id ON saved_search_notification (horse_id);
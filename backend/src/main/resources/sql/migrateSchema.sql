@@ -0,0 +1,40 @@
+-- Upgrades the horse table of a database created by an earlier release. createSchema.sql runs this script only if the
+-- table lacks a current column or still has a dropped one, and it must stay idempotent, as a database may be any
+-- number of releases behind. A column added to horse is added here and to the check in createSchema.sql.
+ALTER TABLE horse ADD COLUMN IF NOT EXISTS inbreeding_coefficient DOUBLE;
+ALTER TABLE horse ADD COLUMN IF NOT EXISTS pedigree_completeness DOUBLE;
+ALTER TABLE horse ADD COLUMN IF NOT EXISTS generation_depth INT;
+ALTER TABLE horse ADD COLUMN IF NOT EXISTS descendant_count BIGINT;
+ALTER TABLE horse ADD COLUMN IF NOT EXISTS pedigree_statistics_updated_at TIMESTAMP;
+
+-- offspring_count is added without a default, so exactly the rows of a database that predates it are NULL and get counted
+ALTER TABLE horse ADD COLUMN IF NOT EXISTS offspring_count BIGINT;
+UPDATE horse h
+SET offspring_count = (SELECT COUNT(*) FROM horse c WHERE c.mother_id = h.id)
+                    + (SELECT COUNT(*) FROM horse c WHERE c.father_id = h.id)
+WHERE offspring_count IS NULL;
+ALTER TABLE horse ALTER COLUMN offspring_count SET DEFAULT 0;
+ALTER TABLE horse ALTER COLUMN offspring_count SET NOT NULL;
+
+-- images used to be stored in the horse row; those of an older database are moved to the image table once per distinct
+-- content, referenced by their hash, and the old columns are dropped, so the migration runs only once
+ALTER TABLE horse ADD COLUMN IF NOT EXISTS image_hash VARCHAR(64);
+EXECUTE IMMEDIATE CASE WHEN EXISTS (SELECT * FROM INFORMATION_SCHEMA.COLUMNS
+                                    WHERE TABLE_SCHEMA = SCHEMA() AND TABLE_NAME = 'HORSE' AND COLUMN_NAME = 'IMAGE')
+    THEN 'INSERT INTO image (hash, data, mime_type, size, reference_count)
+          SELECT hash, ANY_VALUE(image), ANY_VALUE(mime_type), ANY_VALUE(OCTET_LENGTH(image)), COUNT(*)
+          FROM (SELECT LOWER(RAWTOHEX(HASH(''SHA-256'', image))) AS hash, image,
+                       COALESCE(mime_type, ''application/octet-stream'') AS mime_type
+                FROM horse WHERE image IS NOT NULL AND image_hash IS NULL) AS stored
+          WHERE hash NOT IN (SELECT hash FROM image)
+          GROUP BY hash'
+    ELSE 'SET @SCHEMA_UNCHANGED = TRUE' END;
+EXECUTE IMMEDIATE CASE WHEN EXISTS (SELECT * FROM INFORMATION_SCHEMA.COLUMNS
+                                    WHERE TABLE_SCHEMA = SCHEMA() AND TABLE_NAME = 'HORSE' AND COLUMN_NAME = 'IMAGE')
+    THEN 'UPDATE horse SET image_hash = LOWER(RAWTOHEX(HASH(''SHA-256'', image))) WHERE image IS NOT NULL AND image_hash IS NULL'
+    ELSE 'SET @SCHEMA_UNCHANGED = TRUE' END;
+ALTER TABLE horse DROP COLUMN IF EXISTS image;
+ALTER TABLE horse DROP COLUMN IF EXISTS mime_type;
+ALTER TABLE horse ADD CONSTRAINT IF NOT EXISTS fk_image FOREIGN KEY (image_hash) REFERENCES image(hash);
+
+ALTER TABLE horse ADD COLUMN IF NOT EXISTS version BIGINT DEFAULT 0 NOT NULL;
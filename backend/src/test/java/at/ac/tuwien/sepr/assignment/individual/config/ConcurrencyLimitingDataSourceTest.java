@@ -0,0 +1,58 @@
+package at.ac.tuwien.sepr.assignment.individual.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.sql.Connection;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * Integration test for {@link ConcurrencyLimitingDataSource}, ensuring database access beyond the limit waits and fails
+ * after the timeout.
+ */
+@ActiveProfiles({"test", "datagen"})
+@SpringBootTest
+public class ConcurrencyLimitingDataSourceTest {
+
+  @Autowired
+  DataSource dataSource;
+
+  /**
+   * Positive test: Verifies that the data source of the application is limited.
+   */
+  @Test
+  public void applicationDataSourceIsLimited() {
+    assertThat(dataSource).isInstanceOf(ConcurrencyLimitingDataSource.class);
+  }
+
+  /**
+   * Negative test: Verifies that a connection beyond the limit is refused after the timeout, and that closing a connection
+   * twice frees only one permit.
+   */
+  @Test
+  public void connectionBeyondLimitTimesOut() throws Exception {
+
+    ConcurrencyLimitingDataSource limited = new ConcurrencyLimitingDataSource(dataSource, 1, Duration.ofMillis(50));
+
+    Connection first = limited.getConnection();
+    assertThrows(SQLTransientConnectionException.class, limited::getConnection);
+    first.close();
+    first.close();
+
+    try (Connection second = limited.getConnection()) {
+      assertAll(
+          () -> assertThat(second.isValid(1)).isTrue(),
+          () -> assertThrows(SQLTransientConnectionException.class, limited::getConnection)
+      );
+    }
+    limited.getConnection().close();
+  }
+}
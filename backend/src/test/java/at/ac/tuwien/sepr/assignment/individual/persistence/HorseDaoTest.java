@@ -6,19 +6,23 @@ import static org.junit.jupiter.api.Assertions.assertAll;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import at.ac.tuwien.sepr.assignment.individual.dto.HorseCreateDto;
-import at.ac.tuwien.sepr.assignment.individual.dto.HorseImageDto;
 import at.ac.tuwien.sepr.assignment.individual.dto.HorseSearchDto;
 import at.ac.tuwien.sepr.assignment.individual.dto.HorseUpdateDto;
 import at.ac.tuwien.sepr.assignment.individual.entity.Horse;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import at.ac.tuwien.sepr.assignment.individual.exception.NotFoundException;
+import at.ac.tuwien.sepr.assignment.individual.exception.VersionConflictException;
+import at.ac.tuwien.sepr.assignment.individual.type.HorseSort;
 import at.ac.tuwien.sepr.assignment.individual.type.Sex;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.simple.JdbcClient;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -30,9 +34,17 @@ import org.springframework.transaction.annotation.Transactional;
 @Transactional
 public class HorseDaoTest {
 
+  /**
+   * The hash of the image of Wendys third child in the test data.
+   */
+  private static final String TEST_IMAGE_HASH = "fdf8e6a03934c5bfe01e8c7e557374993af22119bcdc89a46b1b41bd705f1454";
+
   @Autowired
   HorseDao horseDao;
 
+  @Autowired
+  JdbcClient jdbcClient;
+
   /**
    * Positive test: Verifies that retrieving all horses returns the expected number and a specific horse from test data.
    */
@@ -47,10 +59,10 @@ public class HorseDaoTest {
   }
 
   /**
-   * Positive test: Creates a new horse with valid data and image, and verifies it was persisted correctly.
+   * Positive test: Creates a new horse with valid data and a stored image, and verifies it was persisted correctly.
    */
   @Test
-  public void createHorseSuccessfully() {
+  public void createHorseSuccessfully() throws VersionConflictException {
 
     HorseCreateDto createDto = new HorseCreateDto(
         "Test Horse",
@@ -61,12 +73,7 @@ public class HorseDaoTest {
         -3L, // Wendys Mother
         -4L  // Wendys Father
     );
-    HorseImageDto imageDto = new HorseImageDto(
-        new byte[] {1, 2, 3},
-        "image/png"
-    );
-
-    Horse created = horseDao.create(createDto, imageDto);
+    Horse created = horseDao.create(createDto, TEST_IMAGE_HASH, Map.of());
 
     assertThat(created).isNotNull();
     assertAll(
@@ -78,7 +85,7 @@ public class HorseDaoTest {
         () -> assertThat(created.ownerId()).isEqualTo(-1L),
         () -> assertThat(created.motherId()).isEqualTo(-3L),
         () -> assertThat(created.fatherId()).isEqualTo(-4L),
-        () -> assertThat(created.imageUrl()).isEqualTo("/horses/" + created.id() + "/image")
+        () -> assertThat(created.imageUrl()).isEqualTo("/images/" + TEST_IMAGE_HASH)
     );
   }
 
@@ -118,6 +125,19 @@ public class HorseDaoTest {
     assertThat(exception.getMessage()).contains("No horse with ID 999 found");
   }
 
+  /**
+   * Positive test: Retrieves several horses by their IDs in one call and verifies that unknown IDs are ignored.
+   */
+  @Test
+  public void getAllByIdReturnsOnlyExistingHorses() {
+
+    List<Horse> horses = horseDao.getAllById(List.of(-1L, -2L, -6L, 999L));
+
+    assertThat(horses)
+        .map(Horse::id)
+        .containsExactlyInAnyOrder(-1L, -2L, -6L);
+  }
+
   /**
    * Negative test: Attempts to delete a horse with a non-existent ID and verifies a NotFoundException is thrown.
    */
@@ -130,13 +150,34 @@ public class HorseDaoTest {
     assertThat(exception.getMessage()).contains("No horse with ID 999 found for deletion");
   }
 
+  /**
+   * Negative test: Creates a foal of Wendy based on her current version, which increments her version, and verifies
+   * that creating another foal based on her previous version is rejected, as she might have changed since.
+   *
+   * @throws NotFoundException        if Wendy does not exist (not expected with test data)
+   * @throws VersionConflictException if the first foal cannot be created (not expected)
+   */
+  @Test
+  public void createWithOutdatedParentVersionThrowsVersionConflictException() throws NotFoundException, VersionConflictException {
+
+    long version = horseDao.getById(-6L).version();
+
+    horseDao.create(new HorseCreateDto("First Foal", null, LocalDate.of(2025, 1, 1), Sex.FEMALE, null, -6L, null), null, Map.of(-6L, version));
+
+    assertAll(
+        () -> assertThat(horseDao.getById(-6L).version()).isEqualTo(version + 1),
+        () -> assertThrows(VersionConflictException.class, () -> horseDao.create(
+            new HorseCreateDto("Second Foal", null, LocalDate.of(2025, 1, 1), Sex.FEMALE, null, -6L, null), null, Map.of(-6L, version)))
+    );
+  }
+
   /**
    * Positive test: Updates an existing horse with new data and image, and verifies the changes were persisted.
    *
    * @throws NotFoundException if the horse with ID -7 does not exist (not expected with test data)
    */
   @Test
-  public void updateHorseSuccessfully() throws NotFoundException {
+  public void updateHorseSuccessfully() throws NotFoundException, VersionConflictException {
 
     HorseUpdateDto updateDto = new HorseUpdateDto(
         -7L, // Wendys Husband
@@ -147,14 +188,10 @@ public class HorseDaoTest {
         -2L,
         null,
         null,
-        false
+        false,
+        null
     );
-    HorseImageDto imageDto = new HorseImageDto(
-        new byte[] {4, 5, 6},
-        "image/jpeg"
-    );
-
-    Horse updated = horseDao.update(updateDto, imageDto);
+    Horse updated = horseDao.update(updateDto, TEST_IMAGE_HASH, Map.of());
 
     assertThat(updated).isNotNull();
     assertAll(
@@ -166,7 +203,7 @@ public class HorseDaoTest {
         () -> assertThat(updated.ownerId()).isEqualTo(-2L),
         () -> assertThat(updated.motherId()).isNull(),
         () -> assertThat(updated.fatherId()).isNull(),
-        () -> assertThat(updated.imageUrl()).isEqualTo("/horses/-7/image")
+        () -> assertThat(updated.imageUrl()).isEqualTo("/images/" + TEST_IMAGE_HASH)
     );
   }
 
@@ -180,10 +217,16 @@ public class HorseDaoTest {
         "NonExistentHorse123",
         null,
         null,
-        Sex.FEMALE,
+        Set.of(Sex.FEMALE),
+        null,
         null,
+        5,
         null,
-        5
+        null,
+        null,
+        null,
+        null,
+        null
     );
 
     List<Horse> results = horseDao.search(searchDto);
@@ -193,4 +236,185 @@ public class HorseDaoTest {
         () -> assertThat(results).isEmpty()
     );
   }
-}
\ No newline at end of file
+
+  /**
+   * Positive test: Creates a foal of Wendy, moves it to Wendy's mother and deletes it again, and verifies that
+   * the offspring counters of all involved parents follow each write.
+   *
+   * @throws NotFoundException if one of the horses does not exist (not expected with test data)
+   */
+  @Test
+  public void offspringCountsFollowParentChanges() throws NotFoundException, VersionConflictException {
+
+    Horse foal = horseDao.create(new HorseCreateDto(
+        "Counted Foal", null, LocalDate.of(2025, 1, 1), Sex.FEMALE, null, -6L, -7L), null, Map.of());
+    long wendyAfterCreate = horseDao.getById(-6L).offspringCount();
+    long husbandAfterCreate = horseDao.getById(-7L).offspringCount();
+
+    horseDao.update(new HorseUpdateDto(
+        foal.id(), "Counted Foal", null, LocalDate.of(2025, 1, 1), Sex.FEMALE, null, -3L, -7L, true, null), null, Map.of());
+    long wendyAfterUpdate = horseDao.getById(-6L).offspringCount();
+    long motherAfterUpdate = horseDao.getById(-3L).offspringCount();
+    long husbandAfterUpdate = horseDao.getById(-7L).offspringCount();
+
+    horseDao.delete(foal.id());
+
+    assertAll(
+        () -> assertThat(wendyAfterCreate).isEqualTo(4),
+        () -> assertThat(husbandAfterCreate).isEqualTo(1),
+        () -> assertThat(wendyAfterUpdate).isEqualTo(3),
+        () -> assertThat(motherAfterUpdate).isEqualTo(2),
+        () -> assertThat(husbandAfterUpdate).isEqualTo(1),
+        () -> assertThat(horseDao.getById(-3L).offspringCount()).isEqualTo(1),
+        () -> assertThat(horseDao.getById(-7L).offspringCount()).isZero()
+    );
+  }
+
+  /**
+   * Positive test: Corrupts the offspring counter of Wendy directly in the database and verifies that the
+   * consistency repair corrects exactly this counter.
+   *
+   * @throws NotFoundException if the horse with ID -6 does not exist (not expected with test data)
+   */
+  @Test
+  public void repairOffspringCountsCorrectsDriftedCounters() throws NotFoundException {
+
+    jdbcClient.sql("UPDATE horse SET offspring_count = 42 WHERE id = -6").update();
+
+    int repaired = horseDao.repairOffspringCounts();
+
+    assertAll(
+        () -> assertThat(repaired).isEqualTo(1),
+        () -> assertThat(horseDao.getById(-6L).offspringCount()).isEqualTo(3)
+    );
+  }
+
+  /**
+   * Positive test: Searches horses sorted by descending offspring count and verifies that the most prolific
+   * horse comes first and that horses with equal counts are ordered by id.
+   */
+  @Test
+  public void searchSortedByOffspringCountReturnsMostProlificFirst() {
+
+    List<Horse> results = horseDao.search(new HorseSearchDto(
+        null, null, null, null, null, null, 2, HorseSort.OFFSPRING_COUNT_DESC, null, null, null, null, null));
+
+    assertThat(results)
+        .extracting(Horse::id, Horse::offspringCount)
+        .containsExactly(tuple(-6L, 3L), tuple(-1L, 1L));
+  }
+
+  /**
+   * Positive test: Searches the stallions descending from Wendy's grandfather, once without a generation limit
+   * and once within two generations, and verifies that only descendants of the requested depth are returned.
+   */
+  @Test
+  public void searchDescendantsRespectsMaxGenerations() {
+
+    List<Horse> allGenerations = horseDao.search(new HorseSearchDto(
+        null, null, null, Set.of(Sex.MALE), null, null, null, null, -2L, null, null, null, null));
+    List<Horse> twoGenerations = horseDao.search(new HorseSearchDto(
+        null, null, null, Set.of(Sex.MALE), null, null, null, null, -2L, 2, null, null, null));
+
+    assertAll(
+        () -> assertThat(allGenerations).extracting(Horse::id).containsExactlyInAnyOrder(-4L, -8L, -9L),
+        () -> assertThat(twoGenerations).extracting(Horse::id).containsExactly(-4L)
+    );
+  }
+
+  /**
+   * Positive test: Counts the descendants of Wendy's grandfather without and with a generation limit, and with a
+   * limit below their number, and verifies that counting stops at the limit.
+   */
+  @Test
+  public void countDescendantsStopsAtLimit() {
+
+    assertAll(
+        () -> assertThat(horseDao.countDescendants(-2L, Integer.MAX_VALUE, 100)).isEqualTo(5),
+        () -> assertThat(horseDao.countDescendants(-2L, 2, 100)).isEqualTo(2),
+        () -> assertThat(horseDao.countDescendants(-2L, Integer.MAX_VALUE, 3)).isEqualTo(3)
+    );
+  }
+
+  /**
+   * Positive test: Searches a misspelled name in fuzzy mode and verifies that the closest name is ranked first,
+   * while the substring search finds nothing.
+   */
+  @Test
+  public void fuzzySearchRanksMisspelledNameBySimilarity() {
+
+    List<Horse> fuzzy = horseDao.search(new HorseSearchDto(
+        "Wendi", null, null, null, null, null, null, null, null, null, true, null, null));
+    List<Horse> substring = horseDao.search(new HorseSearchDto(
+        "Wendi", null, null, null, null, null, null, null, null, null, null, null, null));
+
+    assertAll(
+        () -> assertThat(fuzzy).extracting(Horse::id).first().isEqualTo(-6L),
+        () -> assertThat(substring).isEmpty()
+    );
+  }
+
+  /**
+   * Positive test: Creates and renames a horse and verifies that the fuzzy search follows the current name.
+   */
+  @Test
+  public void fuzzySearchFollowsRenamedHorse() throws NotFoundException, VersionConflictException {
+
+    Horse created = horseDao.create(new HorseCreateDto(
+        "Rosinante", null, LocalDate.of(2021, 1, 1), Sex.MALE, null, null, null), null, Map.of());
+    List<Horse> beforeRename = horseDao.search(new HorseSearchDto(
+        "Rocinante", null, null, null, null, null, null, null, null, null, true, null, null));
+
+    horseDao.update(new HorseUpdateDto(
+        created.id(), "Babieca", null, LocalDate.of(2021, 1, 1), Sex.MALE, null, null, null, true, null), null, Map.of());
+    List<Horse> afterRename = horseDao.search(new HorseSearchDto(
+        "Rocinante", null, null, null, null, null, null, null, null, null, true, null, null));
+
+    assertAll(
+        () -> assertThat(beforeRename).extracting(Horse::id).containsExactly(created.id()),
+        () -> assertThat(afterRename).isEmpty()
+    );
+  }
+
+  /**
+   * Positive test: Searches Wendy's owner's horses of both sexes born in a date range, sorted by date of birth descending,
+   * and verifies that only horses in the range are returned in that order.
+   */
+  @Test
+  public void searchByBirthDateRangeSexesAndOwnersSortsByDateOfBirth() {
+
+    List<Horse> results = horseDao.search(new HorseSearchDto(
+        null, null, LocalDate.of(2023, 1, 1), Set.of(Sex.MALE, Sex.FEMALE), null, null, 10,
+        HorseSort.DATE_OF_BIRTH_DESC, null, null, null, LocalDate.of(2000, 1, 1), Set.of(-1L)));
+
+    assertThat(results).extracting(Horse::id).containsExactly(-9L, -8L, -6L);
+  }
+
+  /**
+   * Positive test: Explains searches with different combinations of criteria and sort orders, and verifies that each
+   * is answered from an index, reading the horses in the requested order where no other index is more selective.
+   */
+  @Test
+  public void explainSearchUsesIndexForFiltersAndSorting() {
+
+    String byName = horseDao.explainSearch(new HorseSearchDto(
+        null, null, null, null, null, null, 10, HorseSort.NAME_ASC, null, null, null, null, null));
+    String byDateRange = horseDao.explainSearch(new HorseSearchDto(
+        null, null, LocalDate.of(2020, 1, 1), null, null, null, 10, HorseSort.DATE_OF_BIRTH_DESC, null, null, null,
+        LocalDate.of(1950, 1, 1), null));
+    String bySexDefaultOrder = horseDao.explainSearch(new HorseSearchDto(
+        null, null, null, Set.of(Sex.FEMALE), null, null, 10, null, null, null, null, null, null));
+    String byOwnersAndSexes = horseDao.explainSearch(new HorseSearchDto(
+        null, null, null, Set.of(Sex.MALE, Sex.FEMALE), null, null, 10, HorseSort.NAME_DESC, null, null, null, null, Set.of(-1L, -2L)));
+    String byOffspringCount = horseDao.explainSearch(new HorseSearchDto(
+        "wendy", null, null, null, null, null, 10, HorseSort.OFFSPRING_COUNT_DESC, null, null, null, null, null));
+
+    assertAll(
+        () -> assertThat(byName).contains("IDX_HORSE_NAME").contains("/* index sorted */"),
+        () -> assertThat(byDateRange).contains("IDX_HORSE_DATE_OF_BIRTH: DATE_OF_BIRTH >=").contains("/* index sorted */"),
+        () -> assertThat(bySexDefaultOrder).contains("PRIMARY_KEY").contains("/* index sorted */"),
+        () -> assertThat(byOwnersAndSexes).contains("IDX_HORSE_OWNER_ID: OWNER_ID IN("),
+        () -> assertThat(byOffspringCount).contains("IDX_HORSE_OFFSPRING_COUNT").contains("/* index sorted */")
+    );
+  }
+}
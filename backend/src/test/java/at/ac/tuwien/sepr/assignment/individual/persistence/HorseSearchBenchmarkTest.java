@@ -0,0 +1,214 @@
+package at.ac.tuwien.sepr.assignment.individual.persistence;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import at.ac.tuwien.sepr.assignment.individual.dto.HorseSearchDto;
+import at.ac.tuwien.sepr.assignment.individual.entity.Horse;
+import at.ac.tuwien.sepr.assignment.individual.type.Sex;
+
+import java.lang.invoke.MethodHandles;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Benchmark for the ancestry filter of {@link HorseDao#search(HorseSearchDto)} on synthetic pedigrees.
+ * Compares the search, which expands the descendants with one query per generation, against expanding them
+ * with one query per horse, which is what a client had to do before. Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@ActiveProfiles({"test", "datagen"})
+@SpringBootTest
+@Transactional
+public class HorseSearchBenchmarkTest {
+
+  private static final Logger LOG = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+  private static final long FIRST_ID = -100_000L;
+  private static final int ITERATIONS = 5;
+
+  @Autowired
+  HorseDao horseDao;
+
+  @Autowired
+  JdbcTemplate jdbcTemplate;
+
+  /**
+   * Benchmark: A deep pedigree of 300 generations with 40 horses each, in which every stallion is used for breeding.
+   */
+  @Test
+  public void searchDescendantsInDeepPedigree() {
+    benchmark("deep", 300, 40, 20, new Integer[] {1, 10, null});
+  }
+
+  /**
+   * Benchmark: A wide pedigree of 5 generations with 4000 horses each, in which only 10 prolific stallions
+   * per generation are used for breeding.
+   */
+  @Test
+  public void searchDescendantsInWidePedigree() {
+    benchmark("wide", 5, 4000, 10, new Integer[] {1, 2, null});
+  }
+
+  /**
+   * Inserts a random pedigree and measures the search for the mares descending from its first stallion.
+   */
+  private void benchmark(String name, int generations, int width, int sires, Integer[] maxGenerations) {
+
+    Pedigree pedigree = insertPedigree(generations, width, sires, new Random(42));
+    long stallion = pedigree.id(1);
+
+    for (Integer limit : maxGenerations) {
+      HorseSearchDto search = new HorseSearchDto(null, null, null, Set.of(Sex.FEMALE), null, null, null, null, stallion, limit, null, null, null);
+      Set<Long> expected = pedigree.femaleDescendants(1, limit == null ? Integer.MAX_VALUE : limit);
+
+      long[] durations = new long[ITERATIONS];
+      for (int i = 0; i < ITERATIONS; i++) {
+        long start = System.nanoTime();
+        List<Horse> result = horseDao.search(search);
+        durations[i] = System.nanoTime() - start;
+        assertThat(result).extracting(Horse::id).containsExactlyInAnyOrderElementsOf(expected);
+      }
+
+      long start = System.nanoTime();
+      Set<Long> baseline = expandPerHorse(stallion, limit == null ? Integer.MAX_VALUE : limit);
+      long perHorse = System.nanoTime() - start;
+      assertThat(baseline).containsExactlyInAnyOrderElementsOf(expected);
+
+      LOG.info("Benchmark {} pedigree ({} horses), maxGenerations {}: {} mares, search median {} ms, one query per horse {} ms",
+          name, generations * width, limit, expected.size(), median(durations) / 1_000_000, perHorse / 1_000_000);
+    }
+  }
+
+  /**
+   * Collects the female descendants of a horse with one query per horse, as the baseline of the benchmark.
+   */
+  private Set<Long> expandPerHorse(long id, int maxGenerations) {
+
+    Set<Long> visited = new HashSet<>();
+    Set<Long> females = new HashSet<>();
+    List<Long> level = List.of(id);
+    for (int generation = 0; generation < maxGenerations && !level.isEmpty(); generation++) {
+      List<Long> next = new ArrayList<>();
+      for (long parent : level) {
+        for (Horse child : horseDao.getChildrenByParentId(parent)) {
+          if (visited.add(child.id())) {
+            next.add(child.id());
+            if (child.sex() == Sex.FEMALE) {
+              females.add(child.id());
+            }
+          }
+        }
+      }
+      level = next;
+    }
+    return females;
+  }
+
+  /**
+   * Inserts a pedigree in which every horse after the first generation has a random mother and father
+   * from the previous generation, the father being one of its first {@code sires} stallions. Even positions
+   * within a generation are mares, odd positions stallions.
+   */
+  private Pedigree insertPedigree(int generations, int width, int sires, Random random) {
+
+    int size = generations * width;
+    int[] mothers = new int[size];
+    int[] fathers = new int[size];
+    List<Object[]> rows = new ArrayList<>(size);
+    LocalDate founded = LocalDate.of(2020, 1, 1).minusYears(generations);
+
+    for (int i = 0; i < size; i++) {
+      int generation = i / width;
+      mothers[i] = -1;
+      fathers[i] = -1;
+      if (generation > 0) {
+        int previous = (generation - 1) * width;
+        mothers[i] = previous + 2 * random.nextInt(width / 2);
+        fathers[i] = previous + 2 * random.nextInt(sires) + 1;
+      }
+      rows.add(new Object[] {
+          FIRST_ID - i,
+          "Benchmark " + i,
+          Date.valueOf(founded.plusYears(generation)),
+          i % 2 == 0 ? "FEMALE" : "MALE",
+          mothers[i] < 0 ? null : FIRST_ID - mothers[i],
+          fathers[i] < 0 ? null : FIRST_ID - fathers[i]
+      });
+    }
+
+    long start = System.nanoTime();
+    jdbcTemplate.batchUpdate("INSERT INTO horse (id, name, date_of_birth, sex, mother_id, father_id) VALUES (?, ?, ?, ?, ?, ?)", rows);
+    LOG.info("Inserted {} benchmark horses in {} ms", size, (System.nanoTime() - start) / 1_000_000);
+
+    return new Pedigree(mothers, fathers);
+  }
+
+  private static long median(long[] values) {
+    long[] sorted = values.clone();
+    Arrays.sort(sorted);
+    return sorted[sorted.length / 2];
+  }
+
+  /**
+   * The inserted pedigree, kept in memory to compute the expected search results.
+   */
+  private record Pedigree(int[] mothers, int[] fathers) {
+
+    long id(int index) {
+      return FIRST_ID - index;
+    }
+
+    Set<Long> femaleDescendants(int index, int maxGenerations) {
+
+      List<List<Integer>> children = new ArrayList<>();
+      for (int i = 0; i < mothers.length; i++) {
+        children.add(new ArrayList<>());
+      }
+      for (int i = 0; i < mothers.length; i++) {
+        if (mothers[i] >= 0) {
+          children.get(mothers[i]).add(i);
+          children.get(fathers[i]).add(i);
+        }
+      }
+
+      Set<Long> females = new HashSet<>();
+      int[] depths = new int[mothers.length];
+      Arrays.fill(depths, -1);
+      depths[index] = 0;
+      Deque<Integer> queue = new ArrayDeque<>(List.of(index));
+      while (!queue.isEmpty()) {
+        int current = queue.poll();
+        if (depths[current] == maxGenerations) {
+          continue;
+        }
+        for (int child : children.get(current)) {
+          if (depths[child] < 0) {
+            depths[child] = depths[current] + 1;
+            queue.add(child);
+            if (child % 2 == 0) {
+              females.add(id(child));
+            }
+          }
+        }
+      }
+      return females;
+    }
+  }
+}
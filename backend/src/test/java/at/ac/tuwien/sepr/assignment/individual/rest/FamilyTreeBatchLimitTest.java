@@ -0,0 +1,81 @@
+package at.ac.tuwien.sepr.assignment.individual.rest;
+
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+
+/**
+ * Integration tests for the limit of a batch of family trees. The limit is lowered to twelve nodes, so that the
+ * six-node family trees of two of Wendys children fit into a batch, but those of all three of them do not.
+ */
+@ActiveProfiles({"test", "datagen"}) // Enables "test" Spring profile during test execution
+@SpringBootTest(properties = "horse.family-tree.max-batch-nodes=12")
+@EnableWebMvc
+@WebAppConfiguration
+@Transactional
+public class FamilyTreeBatchLimitTest {
+
+  @Autowired
+  private WebApplicationContext webAppContext;
+  private MockMvc mockMvc;
+
+  /**
+   * Sets up the MockMvc instance before each test.
+   */
+  @BeforeEach
+  public void setup() {
+    this.mockMvc = MockMvcBuilders.webAppContextSetup(webAppContext).build();
+  }
+
+  /**
+   * Positive test: Retrieves the family trees of two of Wendys children, which fit into the limit exactly,
+   * and verifies that both trees are returned in full.
+   *
+   * @throws Exception if the request fails unexpectedly
+   */
+  @Test
+  public void retrieveFamilyTreesWithinLimitReturnsFullTrees() throws Exception {
+    mockMvc
+        .perform(MockMvcRequestBuilders
+            .post("/horses/familytrees")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("{\"ids\": [-8, -9], \"generations\": 5}")
+            .accept(MediaType.APPLICATION_JSON))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[0].mother.father.mother.id").value(-1))
+        .andExpect(jsonPath("$[1].mother.father.father.id").value(-2))
+        .andExpect(jsonPath("$[1].mother.father.truncated").value(false));
+  }
+
+  /**
+   * Negative test: Retrieves the family trees of all three of Wendys children, which exceed the limit although they
+   * share all of their ancestors, and verifies that the request is rejected with 400 Bad Request instead of
+   * returning shallower trees.
+   *
+   * @throws Exception if the request fails unexpectedly
+   */
+  @Test
+  public void retrieveFamilyTreesBeyondLimitReturns400() throws Exception {
+    mockMvc
+        .perform(MockMvcRequestBuilders
+            .post("/horses/familytrees")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("{\"ids\": [-8, -9, -10], \"generations\": 5}")
+            .accept(MediaType.APPLICATION_JSON))
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.message").value("Family trees too large"));
+  }
+}
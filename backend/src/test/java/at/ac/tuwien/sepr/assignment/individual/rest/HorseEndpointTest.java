@@ -3,16 +3,28 @@ package at.ac.tuwien.sepr.assignment.individual.rest;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.tuple;
 import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
 
+import at.ac.tuwien.sepr.assignment.individual.dto.HorseBatchGetResultDto;
 import at.ac.tuwien.sepr.assignment.individual.dto.HorseDetailDto;
+import at.ac.tuwien.sepr.assignment.individual.dto.HorseFamilyGraphDto;
+import at.ac.tuwien.sepr.assignment.individual.dto.HorseFamilyGraphNodeDto;
+import at.ac.tuwien.sepr.assignment.individual.dto.HorseFamilyTreeDto;
 import at.ac.tuwien.sepr.assignment.individual.dto.HorseListDto;
 import at.ac.tuwien.sepr.assignment.individual.type.Sex;
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -140,6 +152,113 @@ public class HorseEndpointTest {
         .andExpect(status().isNotFound());
   }
 
+  /**
+   * Positive test: Retrieves the family tree of Wendy in graph format, given in lower case, and verifies that parents
+   * are referenced by index.
+   *
+   * @throws Exception if the request fails unexpectedly
+   */
+  @Test
+  public void retrieveFamilyTreeAsGraph() throws Exception {
+    MvcResult result = mockMvc
+        .perform(MockMvcRequestBuilders
+            .get("/horses/{id}/familytree", -6L)
+            .param("generations", "3")
+            .param("format", "graph")
+            .accept(MediaType.APPLICATION_JSON))
+        .andExpect(status().isOk())
+        .andReturn();
+
+    HorseFamilyGraphDto graph = objectMapper.readValue(result.getResponse().getContentAsByteArray(), HorseFamilyGraphDto.class);
+
+    HorseFamilyGraphNodeDto root = graph.nodes().get(graph.roots().getFirst());
+    assertAll(
+        () -> assertThat(graph.nodes()).hasSize(5),
+        () -> assertThat(root.id()).isEqualTo(-6L),
+        () -> assertThat(graph.nodes().get(root.mother()).id()).isEqualTo(-3L),
+        () -> assertThat(graph.nodes().get(root.father()).id()).isEqualTo(-4L)
+    );
+  }
+
+  /**
+   * Positive test: Retrieves the family trees of two of Wendys children with the format in lower case and verifies that
+   * they are returned as a single graph, in which their mother is contained only once.
+   *
+   * @throws Exception if the request fails unexpectedly
+   */
+  @Test
+  public void retrieveFamilyTreesAsGraphInLowerCase() throws Exception {
+    MvcResult result = mockMvc
+        .perform(MockMvcRequestBuilders
+            .post("/horses/familytrees")
+            .param("format", "graph")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("{\"ids\": [-8, -9], \"generations\": 2}")
+            .accept(MediaType.APPLICATION_JSON))
+        .andExpect(status().isOk())
+        .andReturn();
+
+    HorseFamilyGraphDto graph = objectMapper.readValue(result.getResponse().getContentAsByteArray(), HorseFamilyGraphDto.class);
+
+    assertAll(
+        () -> assertThat(graph.roots()).hasSize(2),
+        () -> assertThat(graph.nodes()).map(HorseFamilyGraphNodeDto::id).containsExactlyInAnyOrder(-8L, -9L, -6L)
+    );
+  }
+
+  /**
+   * Negative test: Requests the family tree of Wendy in a misspelled format and verifies a 400 Bad Request response
+   * instead of the nested tree.
+   *
+   * @throws Exception if the request fails unexpectedly
+   */
+  @Test
+  public void retrieveFamilyTreeInUnknownFormatFails() throws Exception {
+    mockMvc
+        .perform(MockMvcRequestBuilders
+            .get("/horses/{id}/familytree", -6L)
+            .param("generations", "3")
+            .param("format", "grpah")
+            .accept(MediaType.APPLICATION_JSON))
+        .andExpect(status().isBadRequest());
+  }
+
+  /**
+   * Negative test: Requests the family trees of several horses including a non-existent one and verifies a 404 Not Found response.
+   *
+   * @throws Exception if the request fails unexpectedly
+   */
+  @Test
+  public void retrieveFamilyTreesWithNonExistentHorseReturns404() throws Exception {
+    mockMvc
+        .perform(MockMvcRequestBuilders
+            .post("/horses/familytrees")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("{\"ids\": [-6, 999], \"generations\": 2}")
+            .accept(MediaType.APPLICATION_JSON))
+        .andExpect(status().isNotFound());
+  }
+
+  /**
+   * Positive test: Retrieves the family tree of Wendy as an SVG chart and verifies content type and entity tag.
+   *
+   * @throws Exception if the request fails unexpectedly
+   */
+  @Test
+  public void retrieveFamilyTreeAsSvg() throws Exception {
+    MvcResult pending = mockMvc
+        .perform(MockMvcRequestBuilders
+            .get("/horses/{id}/familytree.svg", -6L)
+            .param("generations", "2"))
+        .andExpect(request().asyncStarted())
+        .andReturn();
+
+    mockMvc.perform(asyncDispatch(pending))
+        .andExpect(status().isOk())
+        .andExpect(content().contentType("image/svg+xml"))
+        .andExpect(header().exists("ETag"));
+  }
+
   /**
    * Positive test: Creates a new horse with minimal valid data and verifies the response contains the created horse.
    *
@@ -251,4 +370,215 @@ public class HorseEndpointTest {
             .accept(MediaType.APPLICATION_JSON))
         .andExpect(status().isUnprocessableEntity());
   }
+
+  /**
+   * Positive test: Streams a JPEG image as raw request body and verifies that it is served afterwards,
+   * then streams content not matching its MIME type and verifies a 422 Unprocessable Entity response.
+   *
+   * @throws Exception if the request fails unexpectedly
+   */
+  @Test
+  public void putImageStreamsRequestBody() throws Exception {
+
+    byte[] jpeg = {(byte) 0xFF, (byte) 0xD8, (byte) 0xFF, (byte) 0xE0, 0, 0x10, 'J', 'F', 'I', 'F', 0, 1, 1};
+
+    mockMvc
+        .perform(MockMvcRequestBuilders.put("/horses/{id}/image", -5)
+            .contentType(MediaType.IMAGE_JPEG)
+            .content(jpeg))
+        .andExpect(status().isNoContent());
+    mockMvc
+        .perform(MockMvcRequestBuilders.get("/horses/{id}/image", -5))
+        .andExpect(status().isOk())
+        .andExpect(content().contentType(MediaType.IMAGE_JPEG))
+        .andExpect(content().bytes(jpeg));
+    mockMvc
+        .perform(MockMvcRequestBuilders.put("/horses/{id}/image", -5)
+            .contentType(MediaType.IMAGE_PNG)
+            .content(jpeg))
+        .andExpect(status().isUnprocessableEntity());
+  }
+
+  /**
+   * Positive test: Fetches the image of Wendys third child by its content hash and verifies that it is served as
+   * immutable, then revalidates it with its ETag and verifies a 304 Not Modified response.
+   *
+   * @throws Exception if the request fails unexpectedly
+   */
+  @Test
+  public void getImageByHashIsImmutable() throws Exception {
+
+    String hash = "fdf8e6a03934c5bfe01e8c7e557374993af22119bcdc89a46b1b41bd705f1454";
+
+    mockMvc
+        .perform(MockMvcRequestBuilders.get("/images/{hash}", hash))
+        .andExpect(status().isOk())
+        .andExpect(content().contentType(MediaType.IMAGE_JPEG))
+        .andExpect(header().string("Cache-Control", "max-age=31536000, public, immutable"))
+        .andExpect(header().string("ETag", "\"" + hash + "\""));
+    mockMvc
+        .perform(MockMvcRequestBuilders.get("/images/{hash}", hash)
+            .header("If-None-Match", "\"" + hash + "\""))
+        .andExpect(status().isNotModified());
+  }
+
+  /**
+   * Negative test: Reads the version of Wendys Friend from the ETag, updates the horse with it as If-Match header and
+   * verifies that repeating the update with the same, now outdated, If-Match header yields 412 Precondition Failed.
+   *
+   * @throws Exception if the request fails unexpectedly
+   */
+  @Test
+  public void updateWithOutdatedIfMatchReturnsPreconditionFailed() throws Exception {
+
+    String etag = mockMvc
+        .perform(MockMvcRequestBuilders.get("/horses/{id}", -5))
+        .andExpect(status().isOk())
+        .andReturn().getResponse().getHeader("ETag");
+
+    for (int expectedStatus : new int[] {200, 412}) {
+      mockMvc
+          .perform(multipart("/horses/{id}", -5)
+              .param("name", "Wendys Updated Friend")
+              .param("dateOfBirth", "1965-01-01")
+              .param("sex", "MALE")
+              .param("deleteImage", "false")
+              .header("If-Match", etag)
+              .with(request -> {
+                request.setMethod("PUT");
+                return request;
+              }))
+          .andExpect(status().is(expectedStatus));
+    }
+  }
+
+  /**
+   * Positive test: Updates Wendys Friend twice with the wildcard If-Match header and verifies that both updates succeed,
+   * as the wildcard matches any version.
+   *
+   * @throws Exception if the request fails unexpectedly
+   */
+  @Test
+  public void updateWithWildcardIfMatchIgnoresVersion() throws Exception {
+
+    for (String name : new String[] {"Wendys Updated Friend", "Wendys Updated Friend Again"}) {
+      mockMvc
+          .perform(multipart("/horses/{id}", -5)
+              .param("name", name)
+              .param("dateOfBirth", "1965-01-01")
+              .param("sex", "MALE")
+              .param("deleteImage", "false")
+              .header("If-Match", "*")
+              .with(request -> {
+                request.setMethod("PUT");
+                return request;
+              }))
+          .andExpect(status().isOk());
+    }
+  }
+
+  /**
+   * Positive test: Retrieves Wendys third child, Wendy and a horse that does not exist at once, the first one twice, and
+   * verifies that the existing horses are returned once each in the requested order with their mother and owner,
+   * while the missing one is listed as not found.
+   *
+   * @throws Exception if the request fails unexpectedly
+   */
+  @Test
+  public void batchGetReturnsFoundHorsesAndNotFoundIds() throws Exception {
+    MvcResult result = mockMvc
+        .perform(MockMvcRequestBuilders
+            .post("/horses/batch-get")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("{\"ids\": [-10, 999, -6, -10]}")
+            .accept(MediaType.APPLICATION_JSON))
+        .andExpect(status().isOk())
+        .andReturn();
+
+    HorseBatchGetResultDto batch = objectMapper.readValue(result.getResponse().getContentAsByteArray(), HorseBatchGetResultDto.class);
+
+    assertAll(
+        () -> assertThat(batch.horses()).extracting(HorseDetailDto::id).containsExactly(-10L, -6L),
+        () -> assertThat(batch.horses().getFirst().mother().name()).isEqualTo("Wendy"),
+        () -> assertThat(batch.horses().getFirst().owner().firstName()).isEqualTo("Wendy"),
+        () -> assertThat(batch.horses().get(1).father().name()).isEqualTo("Wendys Father"),
+        () -> assertThat(batch.notFound()).containsExactly(999L)
+    );
+  }
+
+  /**
+   * Positive test: Searches horses named like Wendy with only their name and sex and verifies that every returned horse
+   * contains exactly its id, name and sex.
+   *
+   * @throws Exception if the request fails unexpectedly
+   */
+  @Test
+  public void searchWithFieldsReturnsOnlyRequestedProperties() throws Exception {
+    byte[] body = mockMvc
+        .perform(MockMvcRequestBuilders
+            .get("/horses")
+            .param("name", "Wendy")
+            .param("limit", "3")
+            .param("fields", "NAME,SEX")
+            .accept(MediaType.APPLICATION_JSON))
+        .andExpect(status().isOk())
+        .andReturn().getResponse().getContentAsByteArray();
+
+    List<Map<String, Object>> horses = objectMapper.readValue(body, new TypeReference<>() { });
+
+    assertAll(
+        () -> assertThat(horses).hasSize(3),
+        () -> assertThat(horses).allSatisfy(horse -> assertThat(horse).containsOnlyKeys("id", "name", "sex")),
+        () -> assertThat(horses).extracting(horse -> horse.get("name")).allSatisfy(name -> assertThat((String) name).contains("Wendy"))
+    );
+  }
+
+  /**
+   * Positive test: Retrieves all horses encoded as CBOR and verifies that they decode to the same horses as in JSON.
+   *
+   * @throws Exception if the request fails unexpectedly
+   */
+  @Test
+  public void gettingAllHorsesAsCbor() throws Exception {
+    MvcResult result = mockMvc
+        .perform(MockMvcRequestBuilders
+            .get("/horses")
+            .accept("application/cbor"))
+        .andExpect(status().isOk())
+        .andExpect(content().contentType("application/cbor"))
+        .andReturn();
+
+    List<HorseListDto> horses = new CBORMapper().findAndRegisterModules()
+        .readValue(result.getResponse().getContentAsByteArray(), new TypeReference<>() { });
+
+    assertThat(horses)
+        .extracting(HorseListDto::id, HorseListDto::name, HorseListDto::dateOfBirth)
+        .contains(tuple(-1L, "Wendys Grandmother", LocalDate.of(1935, 1, 1)));
+  }
+
+  /**
+   * Positive test: Retrieves the family tree of Wendy encoded as Smile and verifies that it decodes to her tree.
+   *
+   * @throws Exception if the request fails unexpectedly
+   */
+  @Test
+  public void retrieveFamilyTreeAsSmile() throws Exception {
+    MvcResult result = mockMvc
+        .perform(MockMvcRequestBuilders
+            .get("/horses/{id}/familytree", -6L)
+            .param("generations", "2")
+            .accept("application/x-jackson-smile"))
+        .andExpect(status().isOk())
+        .andExpect(content().contentType("application/x-jackson-smile"))
+        .andReturn();
+
+    HorseFamilyTreeDto tree = new SmileMapper().findAndRegisterModules()
+        .readValue(result.getResponse().getContentAsByteArray(), HorseFamilyTreeDto.class);
+
+    assertAll(
+        () -> assertThat(tree.name()).isEqualTo("Wendy"),
+        () -> assertThat(tree.mother().id()).isEqualTo(-3L),
+        () -> assertThat(tree.father().id()).isEqualTo(-4L)
+    );
+  }
 }
\ No newline at end of file
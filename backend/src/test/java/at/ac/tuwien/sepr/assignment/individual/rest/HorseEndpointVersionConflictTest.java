@@ -0,0 +1,96 @@
+package at.ac.tuwien.sepr.assignment.individual.rest;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import at.ac.tuwien.sepr.assignment.individual.exception.VersionConflictException;
+import at.ac.tuwien.sepr.assignment.individual.service.HorseService;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+
+/**
+ * Integration tests for the mapping of version conflicts of conditional updates to HTTP responses.
+ * The service is replaced by a mock, as a concurrent change between validation and write cannot be provoked
+ * deterministically through the REST API.
+ */
+@ActiveProfiles({"test", "datagen"}) // Enables "test" Spring profile during test execution
+@SpringBootTest
+@EnableWebMvc
+@WebAppConfiguration
+public class HorseEndpointVersionConflictTest {
+
+  @Autowired
+  private WebApplicationContext webAppContext;
+  private MockMvc mockMvc;
+
+  @MockitoBean
+  private HorseService horseService;
+
+  /**
+   * Sets up the MockMvc instance before each test.
+   */
+  @BeforeEach
+  public void setup() {
+    this.mockMvc = MockMvcBuilders.webAppContextSetup(webAppContext).build();
+  }
+
+  /**
+   * Negative test: Updates Wendys Husband with an If-Match header while his version changes concurrently and verifies
+   * a 412 Precondition Failed response.
+   *
+   * @throws Exception if the request fails unexpectedly
+   */
+  @Test
+  public void updateWithIfMatchAndConcurrentlyChangedHorseReturnsPreconditionFailed() throws Exception {
+
+    when(horseService.update(any(), any())).thenThrow(new VersionConflictException("Horse was changed concurrently",
+        List.of("Horse with ID -7 has been changed by another request, reload it and try again"), List.of(-7L)));
+
+    updateWendysHusband().andExpect(status().isPreconditionFailed());
+  }
+
+  /**
+   * Negative test: Updates Wendys Husband with an If-Match header while his new mother changes concurrently and
+   * verifies a 409 Conflict response, as the husband himself still has the expected version.
+   *
+   * @throws Exception if the request fails unexpectedly
+   */
+  @Test
+  public void updateWithIfMatchAndConcurrentlyChangedParentReturnsConflict() throws Exception {
+
+    when(horseService.update(any(), any())).thenThrow(new VersionConflictException("Horse was changed concurrently",
+        List.of("Horse with ID -3 has been changed by another request, reload it and try again"), List.of(-3L)));
+
+    updateWendysHusband().andExpect(status().isConflict());
+  }
+
+  private ResultActions updateWendysHusband() throws Exception {
+    return mockMvc
+        .perform(multipart("/horses/{id}", -7)
+            .param("name", "Wendys Husband")
+            .param("dateOfBirth", "2000-01-01")
+            .param("sex", "MALE")
+            .param("motherId", "-3")
+            .param("deleteImage", "false")
+            .header("If-Match", "\"0\"")
+            .with(request -> {
+              request.setMethod("PUT");
+              return request;
+            }));
+  }
+}
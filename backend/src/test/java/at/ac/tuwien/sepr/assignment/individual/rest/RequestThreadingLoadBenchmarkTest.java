@@ -0,0 +1,112 @@
+package at.ac.tuwien.sepr.assignment.individual.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import at.ac.tuwien.sepr.assignment.individual.SeprIndividualAssignmentApplication;
+
+import java.lang.invoke.MethodHandles;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Load test comparing request handling on virtual threads with the platform-thread pool of Tomcat.
+ * Starts the application once per mode, each on its own in-memory database, and lets many concurrent clients request a
+ * mix of horse details, family trees and images, all of which share the bounded number of database connections.
+ * Reports the throughput and the latency percentiles of every mode. Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+public class RequestThreadingLoadBenchmarkTest {
+
+  private static final Logger LOG = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+  private static final String THIRD_CHILD_IMAGE_HASH = "fdf8e6a03934c5bfe01e8c7e557374993af22119bcdc89a46b1b41bd705f1454";
+  private static final String[] PATHS = {
+      "/horses/-10",
+      "/horses/-6/familytree?generations=3",
+      "/horses?name=Wendy&limit=10",
+      "/images/" + THIRD_CHILD_IMAGE_HASH
+  };
+  private static final int CLIENTS = 1000;
+  private static final int REQUESTS_PER_CLIENT = 20;
+
+  /**
+   * Benchmark: Runs the same load against the application with request handling on platform and on virtual threads.
+   */
+  @Test
+  public void compareThreadingModes() throws Exception {
+    for (boolean virtualThreads : new boolean[] {false, true}) {
+      String mode = virtualThreads ? "virtual threads" : "platform threads";
+      try (ConfigurableApplicationContext context = new SpringApplicationBuilder(SeprIndividualAssignmentApplication.class)
+          .profiles("test", "datagen")
+          .run(
+              "--server.port=0",
+              "--spring.threads.virtual.enabled=" + virtualThreads,
+              "--spring.datasource.url=jdbc:h2:mem:load-" + virtualThreads + ";INIT=RUNSCRIPT FROM 'classpath:sql/createSchema.sql'",
+              "--logging.level.at.ac.tuwien.sepr.assignment.individual=WARN",
+              "--logging.level." + RequestThreadingLoadBenchmarkTest.class.getName() + "=INFO")) {
+        String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+        load(baseUrl, CLIENTS / 10, mode + " (warmup)");
+        load(baseUrl, CLIENTS, mode);
+      }
+    }
+  }
+
+  private void load(String baseUrl, int clients, String name) throws Exception {
+
+    long[] latencies = new long[clients * REQUESTS_PER_CLIENT];
+    LongAdder failures = new LongAdder();
+    CountDownLatch start = new CountDownLatch(1);
+    List<Future<?>> results = new ArrayList<>();
+    try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+         HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).executor(executor).build()) {
+      for (int c = 0; c < clients; c++) {
+        int clientIndex = c;
+        results.add(executor.submit(() -> {
+          start.await();
+          for (int r = 0; r < REQUESTS_PER_CLIENT; r++) {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + PATHS[(clientIndex + r) % PATHS.length])).build();
+            long begin = System.nanoTime();
+            HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            latencies[clientIndex * REQUESTS_PER_CLIENT + r] = System.nanoTime() - begin;
+            if (response.statusCode() != 200) {
+              failures.increment();
+            }
+          }
+          return null;
+        }));
+      }
+      long begin = System.nanoTime();
+      start.countDown();
+      for (Future<?> result : results) {
+        result.get();
+      }
+      long duration = System.nanoTime() - begin;
+
+      Arrays.sort(latencies);
+      LOG.info("Benchmark {} with {} clients: {} requests in {} ms, {} requests/s, latency p50 {} ms, p99 {} ms, max {} ms",
+          name, clients, latencies.length, duration / 1_000_000, latencies.length * 1_000_000_000L / duration,
+          percentile(latencies, 0.50), percentile(latencies, 0.99), latencies[latencies.length - 1] / 1_000_000);
+      assertThat(failures.sum()).isZero();
+    }
+  }
+
+  private static long percentile(long[] sortedLatencies, double percentile) {
+    return sortedLatencies[(int) Math.ceil(percentile * sortedLatencies.length) - 1] / 1_000_000;
+  }
+}
@@ -0,0 +1,61 @@
+package at.ac.tuwien.sepr.assignment.individual.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertAll;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * Integration test for the transport compression of responses, which is applied by the embedded server and therefore
+ * tested through real HTTP requests. The minimum size is lowered, so that the small test data is compressed as well.
+ */
+@ActiveProfiles({"test", "datagen"}) // Enables "test" Spring profile during test execution
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "server.compression.min-response-size=1B")
+public class ResponseCompressionTest {
+
+  private static final String THIRD_CHILD_IMAGE_HASH = "fdf8e6a03934c5bfe01e8c7e557374993af22119bcdc89a46b1b41bd705f1454";
+
+  @LocalServerPort
+  private int port;
+
+  /**
+   * Positive test: Retrieves all horses as JSON and as CBOR and the image of Wendys third child from a client accepting gzip,
+   * and verifies that both encodings of the horses are compressed, but the image is not.
+   *
+   * @throws Exception if a request fails unexpectedly
+   */
+  @Test
+  public void compressesHorsesButNotImages() throws Exception {
+
+    HttpResponse<byte[]> json = get("/horses", "application/json");
+    HttpResponse<byte[]> cbor = get("/horses", "application/cbor");
+    HttpResponse<byte[]> image = get("/images/" + THIRD_CHILD_IMAGE_HASH, "image/*");
+
+    assertAll(
+        () -> assertThat(json.statusCode()).isEqualTo(200),
+        () -> assertThat(json.headers().firstValue("Content-Encoding")).hasValue("gzip"),
+        () -> assertThat(cbor.statusCode()).isEqualTo(200),
+        () -> assertThat(cbor.headers().firstValue("Content-Encoding")).hasValue("gzip"),
+        () -> assertThat(image.statusCode()).isEqualTo(200),
+        () -> assertThat(image.headers().firstValue("Content-Type")).hasValue("image/jpeg"),
+        () -> assertThat(image.headers().firstValue("Content-Encoding")).isEmpty()
+    );
+  }
+
+  private HttpResponse<byte[]> get(String path, String accept) throws Exception {
+    try (HttpClient client = HttpClient.newHttpClient()) {
+      return client.send(HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+          .header("Accept", accept)
+          .header("Accept-Encoding", "gzip")
+          .build(), HttpResponse.BodyHandlers.ofByteArray());
+    }
+  }
+}
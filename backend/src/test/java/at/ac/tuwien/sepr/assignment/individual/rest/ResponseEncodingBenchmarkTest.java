@@ -0,0 +1,139 @@
+package at.ac.tuwien.sepr.assignment.individual.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import at.ac.tuwien.sepr.assignment.individual.dto.HorseDetailOwnerDto;
+import at.ac.tuwien.sepr.assignment.individual.dto.HorseFamilyTreeDto;
+import at.ac.tuwien.sepr.assignment.individual.dto.HorseListDto;
+import at.ac.tuwien.sepr.assignment.individual.type.Sex;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+
+/**
+ * Benchmark for the response encodings of the REST endpoints on large synthetic responses.
+ * Measures the CPU time to serialize a long horse list and a deep family tree as JSON, CBOR and Smile with the
+ * object mappers of the registered message converters, and the bytes on the wire without and with gzip, which the
+ * embedded server applies above the configured minimum size. Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@ActiveProfiles({"test", "datagen"})
+@SpringBootTest
+public class ResponseEncodingBenchmarkTest {
+
+  private static final Logger LOG = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+  private static final int WARMUP_ITERATIONS = 20;
+  private static final int ITERATIONS = 50;
+
+  @Autowired
+  RequestMappingHandlerAdapter handlerAdapter;
+
+  /**
+   * Benchmark: A list of 10000 horses with descriptions and owners, as returned by {@code GET /horses}.
+   */
+  @Test
+  public void encodeLargeHorseList() throws IOException {
+
+    List<HorseListDto> horses = new ArrayList<>();
+    for (int i = 0; i < 10_000; i++) {
+      horses.add(new HorseListDto((long) i, "Horse " + i, "Description of horse " + i + ", a calm and reliable companion",
+          LocalDate.of(2000, 1, 1).plusDays(i), i % 2 == 0 ? Sex.FEMALE : Sex.MALE,
+          i % 3 == 0 ? null : new HorseDetailOwnerDto("Owner", "Number " + i % 100),
+          i % 5 == 0 ? "/images/" + "0".repeat(64) : null, i % 7));
+    }
+    benchmark("list of 10000 horses", horses);
+  }
+
+  /**
+   * Benchmark: A complete family tree of 13 generations with 8191 horses, as returned by {@code GET /horses/{id}/familytree}.
+   */
+  @Test
+  public void encodeDeepFamilyTree() throws IOException {
+    benchmark("family tree of 13 generations", tree(13, new int[] {0}));
+  }
+
+  private void benchmark(String name, Object response) throws IOException {
+
+    Map<String, ObjectMapper> mappers = new LinkedHashMap<>();
+    mappers.put("JSON", mapper(MappingJackson2HttpMessageConverter.class));
+    mappers.put("CBOR", mapper(MappingJackson2CborHttpMessageConverter.class));
+    mappers.put("Smile", mapper(MappingJackson2SmileHttpMessageConverter.class));
+
+    Map<String, Integer> sizes = new LinkedHashMap<>();
+    for (Map.Entry<String, ObjectMapper> format : mappers.entrySet()) {
+      ObjectMapper mapper = format.getValue();
+      for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+        gzip(mapper.writeValueAsBytes(response));
+      }
+
+      byte[] encoded = null;
+      long begin = System.nanoTime();
+      for (int i = 0; i < ITERATIONS; i++) {
+        encoded = mapper.writeValueAsBytes(response);
+      }
+      final long serialization = (System.nanoTime() - begin) / ITERATIONS;
+
+      byte[] compressed = null;
+      begin = System.nanoTime();
+      for (int i = 0; i < ITERATIONS; i++) {
+        compressed = gzip(encoded);
+      }
+      long compression = (System.nanoTime() - begin) / ITERATIONS;
+
+      sizes.put(format.getKey(), encoded.length);
+      LOG.info("Benchmark {} as {}: serialized in {} us to {} bytes, gzipped in {} us to {} bytes",
+          name, format.getKey(), serialization / 1_000, encoded.length, compression / 1_000, compressed.length);
+    }
+
+    assertThat(sizes.get("CBOR")).isLessThan(sizes.get("JSON"));
+    assertThat(sizes.get("Smile")).isLessThan(sizes.get("JSON"));
+  }
+
+  private ObjectMapper mapper(Class<? extends AbstractJackson2HttpMessageConverter> type) {
+    for (HttpMessageConverter<?> converter : handlerAdapter.getMessageConverters()) {
+      if (converter.getClass() == type) {
+        return ((AbstractJackson2HttpMessageConverter) converter).getObjectMapper();
+      }
+    }
+    throw new IllegalStateException("No message converter " + type.getSimpleName() + " registered");
+  }
+
+  private static HorseFamilyTreeDto tree(int generations, int[] nextId) {
+    long id = nextId[0]++;
+    if (generations == 1) {
+      return new HorseFamilyTreeDto(id, "Ancestor " + id, LocalDate.of(1900, 1, 1).plusDays(id), null, null, true);
+    }
+    return new HorseFamilyTreeDto(id, "Ancestor " + id, LocalDate.of(1900, 1, 1).plusDays(id),
+        tree(generations - 1, nextId), tree(generations - 1, nextId), false);
+  }
+
+  private static byte[] gzip(byte[] data) throws IOException {
+    ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+    try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+      gzip.write(data);
+    }
+    return compressed.toByteArray();
+  }
+}
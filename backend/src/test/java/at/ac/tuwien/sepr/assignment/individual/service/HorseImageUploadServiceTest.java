@@ -0,0 +1,130 @@
+package at.ac.tuwien.sepr.assignment.individual.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import at.ac.tuwien.sepr.assignment.individual.dto.HorseImageDto;
+import at.ac.tuwien.sepr.assignment.individual.dto.HorseImageUploadCreateDto;
+import at.ac.tuwien.sepr.assignment.individual.dto.HorseImageUploadDto;
+import at.ac.tuwien.sepr.assignment.individual.exception.ConflictException;
+import at.ac.tuwien.sepr.assignment.individual.exception.NotFoundException;
+import at.ac.tuwien.sepr.assignment.individual.exception.ValidationException;
+
+import java.io.ByteArrayInputStream;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.HexFormat;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Integration test for {@link HorseImageUploadService}.
+ */
+@ActiveProfiles({"test", "datagen"}) // Enables "test" Spring profile during test execution
+@SpringBootTest
+@Transactional
+public class HorseImageUploadServiceTest {
+
+  private static final byte[] PNG_SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A};
+
+  @Autowired
+  HorseImageUploadService imageUploadService;
+
+  @Autowired
+  HorseService horseService;
+
+  /**
+   * Positive test: Streams an image larger than the copy buffer to Wendys Grandmother and verifies that it is stored unchanged.
+   *
+   * @throws Exception if the upload fails unexpectedly
+   */
+  @Test
+  public void putImageStoresStreamedImage() throws Exception {
+
+    byte[] png = png(100_000);
+
+    imageUploadService.putImage(-1, "image/png", new ByteArrayInputStream(png));
+
+    HorseImageDto stored = horseService.getImageById(-1);
+    assertAll(
+        () -> assertThat(stored.mimeType()).isEqualTo("image/png"),
+        () -> assertThat(stored.image()).isEqualTo(png),
+        () -> assertThat(horseService.getById(-1).imageUrl()).isEqualTo("/images/" + HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(png)))
+    );
+  }
+
+  /**
+   * Positive test: Uploads an image in three chunks, the first shorter than the image signature, resumes after a chunk
+   * with a wrong offset and verifies that the image is stored once all bytes have been received.
+   *
+   * @throws Exception if the upload fails unexpectedly
+   */
+  @Test
+  public void resumableUploadStoresImageAfterLastChunk() throws Exception {
+
+    byte[] png = png(20_000);
+    HorseImageUploadDto started = imageUploadService.startUpload(-2, new HorseImageUploadCreateDto("image/png", (long) png.length));
+
+    HorseImageUploadDto first = imageUploadService.appendToUpload(-2, started.id(), 0, chunk(png, 0, 5));
+    assertThrows(ConflictException.class, () -> imageUploadService.appendToUpload(-2, started.id(), 0, chunk(png, 0, 5)));
+    HorseImageUploadDto resumed = imageUploadService.getUpload(-2, started.id());
+    HorseImageUploadDto second = imageUploadService.appendToUpload(-2, started.id(), resumed.offset(), chunk(png, 5, 10_000));
+    HorseImageUploadDto last = imageUploadService.appendToUpload(-2, started.id(), second.offset(), chunk(png, 10_000, png.length));
+
+    assertAll(
+        () -> assertThat(started.offset()).isZero(),
+        () -> assertThat(first.offset()).isEqualTo(5),
+        () -> assertThat(first.complete()).isFalse(),
+        () -> assertThat(resumed.offset()).isEqualTo(5),
+        () -> assertThat(last.offset()).isEqualTo(png.length),
+        () -> assertThat(last.complete()).isTrue(),
+        () -> assertThat(horseService.getImageById(-2).image()).isEqualTo(png),
+        () -> assertThrows(NotFoundException.class, () -> imageUploadService.getUpload(-2, started.id()))
+    );
+  }
+
+  /**
+   * Negative test: Streams content that does not match the declared MIME type, and an image exceeding the declared size
+   * of a resumable upload, which aborts the upload.
+   *
+   * @throws Exception if starting the upload fails unexpectedly
+   */
+  @Test
+  public void uploadWithWrongContentOrSizeThrowsValidationException() throws Exception {
+
+    HorseImageUploadDto started = imageUploadService.startUpload(-3, new HorseImageUploadCreateDto("image/png", 100L));
+
+    assertAll(
+        () -> assertThrows(ValidationException.class,
+            () -> imageUploadService.putImage(-3, "image/jpeg", new ByteArrayInputStream(png(1000)))),
+        () -> assertThrows(ValidationException.class,
+            () -> imageUploadService.putImage(-3, "text/plain", new ByteArrayInputStream(new byte[10]))),
+        () -> assertThrows(ValidationException.class,
+            () -> imageUploadService.appendToUpload(-3, started.id(), 0, new ByteArrayInputStream(png(101)))),
+        () -> assertThrows(NotFoundException.class, () -> imageUploadService.getUpload(-3, started.id())),
+        () -> assertThrows(ValidationException.class,
+            () -> imageUploadService.startUpload(-3, new HorseImageUploadCreateDto("image/png", null)))
+    );
+  }
+
+  /**
+   * Creates a fake PNG image of the given size, consisting of the PNG signature followed by a byte pattern.
+   */
+  private static byte[] png(int size) {
+    byte[] png = new byte[size];
+    System.arraycopy(PNG_SIGNATURE, 0, png, 0, PNG_SIGNATURE.length);
+    for (int i = PNG_SIGNATURE.length; i < size; i++) {
+      png[i] = (byte) i;
+    }
+    return png;
+  }
+
+  private static ByteArrayInputStream chunk(byte[] data, int from, int to) {
+    return new ByteArrayInputStream(Arrays.copyOfRange(data, from, to));
+  }
+}
@@ -1,22 +1,45 @@
 package at.ac.tuwien.sepr.assignment.individual.service;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
 import static org.assertj.core.api.Assertions.tuple;
 import static org.junit.jupiter.api.Assertions.assertAll;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
+import at.ac.tuwien.sepr.assignment.individual.dto.HorseBulkDeleteDto;
+import at.ac.tuwien.sepr.assignment.individual.dto.HorseBulkReassignOwnerDto;
+import at.ac.tuwien.sepr.assignment.individual.dto.HorseBulkResultDto;
 import at.ac.tuwien.sepr.assignment.individual.dto.HorseCreateDto;
 import at.ac.tuwien.sepr.assignment.individual.dto.HorseDetailDto;
+import at.ac.tuwien.sepr.assignment.individual.dto.HorseDetailOwnerDto;
+import at.ac.tuwien.sepr.assignment.individual.dto.HorseFamilyGraphDto;
+import at.ac.tuwien.sepr.assignment.individual.dto.HorseFamilyGraphNodeDto;
+import at.ac.tuwien.sepr.assignment.individual.dto.HorseFamilyTreeDto;
 import at.ac.tuwien.sepr.assignment.individual.dto.HorseImageDto;
 import at.ac.tuwien.sepr.assignment.individual.dto.HorseListDto;
+import at.ac.tuwien.sepr.assignment.individual.dto.HorseOwnerFacetDto;
+import at.ac.tuwien.sepr.assignment.individual.dto.HorseSearchCacheStatsDto;
 import at.ac.tuwien.sepr.assignment.individual.dto.HorseSearchDto;
+import at.ac.tuwien.sepr.assignment.individual.dto.HorseSearchResultDto;
+import at.ac.tuwien.sepr.assignment.individual.dto.HorseSiblingDto;
+import at.ac.tuwien.sepr.assignment.individual.dto.HorseSiblingsDto;
+import at.ac.tuwien.sepr.assignment.individual.dto.HorseSuggestionDto;
+import at.ac.tuwien.sepr.assignment.individual.dto.HorseSuggestionSearchDto;
+import at.ac.tuwien.sepr.assignment.individual.dto.HorseUpdateDto;
 import at.ac.tuwien.sepr.assignment.individual.exception.ConflictException;
+import at.ac.tuwien.sepr.assignment.individual.exception.LimitExceededException;
 import at.ac.tuwien.sepr.assignment.individual.exception.NotFoundException;
 import at.ac.tuwien.sepr.assignment.individual.exception.ValidationException;
+import at.ac.tuwien.sepr.assignment.individual.exception.VersionConflictException;
+import at.ac.tuwien.sepr.assignment.individual.type.HorseFacet;
+import at.ac.tuwien.sepr.assignment.individual.type.HorseField;
 import at.ac.tuwien.sepr.assignment.individual.type.Sex;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -90,7 +113,7 @@ public class HorseServiceTest {
         () -> assertThat(created.mother().name()).isEqualTo("Wendys Mother"),
         () -> assertThat(created.father().id()).isEqualTo(-4L),
         () -> assertThat(created.father().name()).isEqualTo("Wendys Father"),
-        () -> assertThat(created.imageUrl()).isEqualTo("/horses/" + created.id() + "/image")
+        () -> assertThat(created.imageUrl()).isEqualTo("/images/039058c6f2c0cb492c533b0a4d14ef77cc0f78abccced5287d84a1a2011cfb81")
     );
   }
 
@@ -135,7 +158,13 @@ public class HorseServiceTest {
         null,
         null,
         null,
-        10
+        10,
+        null,
+        null,
+        null,
+        null,
+        null,
+        null
     );
 
     List<HorseListDto> results = horseService.search(searchDto).toList();
@@ -212,4 +241,513 @@ public class HorseServiceTest {
     );
     assertThat(exception.getMessage()).contains("Owner with ID 999 does not exist");
   }
-}
\ No newline at end of file
+
+  /**
+   * Positive test: Retrieves the family tree of Wendy with two generations and verifies that ancestors beyond
+   * the requested depth are omitted and marked as truncated.
+   *
+   * @throws NotFoundException   if the horse with ID -6 does not exist (not expected with test data)
+   * @throws ValidationException if the depth is invalid (not expected in this test)
+   */
+  @Test
+  public void getFamilyTreeWithTwoGenerationsMarksTruncatedAncestors() throws NotFoundException, ValidationException {
+
+    HorseFamilyTreeDto tree = horseService.getFamilyTree(-6L, 2);
+
+    assertAll(
+        () -> assertThat(tree.id()).isEqualTo(-6L),
+        () -> assertThat(tree.truncated()).isFalse(),
+        () -> assertThat(tree.mother().id()).isEqualTo(-3L),
+        () -> assertThat(tree.mother().truncated()).isFalse(),
+        () -> assertThat(tree.father().id()).isEqualTo(-4L),
+        () -> assertThat(tree.father().mother()).isNull(),
+        () -> assertThat(tree.father().father()).isNull(),
+        () -> assertThat(tree.father().truncated()).isTrue()
+    );
+  }
+
+  /**
+   * Positive test: Retrieves the family tree of Wendy with a depth beyond the former limit and verifies that all
+   * ancestors are included without truncation.
+   *
+   * @throws NotFoundException   if the horse with ID -6 does not exist (not expected with test data)
+   * @throws ValidationException if the depth is invalid (not expected in this test)
+   */
+  @Test
+  public void getFamilyTreeWithManyGenerationsReturnsCompleteTree() throws NotFoundException, ValidationException {
+
+    HorseFamilyTreeDto tree = horseService.getFamilyTree(-6L, 30);
+
+    assertAll(
+        () -> assertThat(tree.father().mother().id()).isEqualTo(-1L),
+        () -> assertThat(tree.father().father().id()).isEqualTo(-2L),
+        () -> assertThat(tree.father().truncated()).isFalse(),
+        () -> assertThat(tree.father().father().truncated()).isFalse()
+    );
+  }
+
+  /**
+   * Negative test: Attempts to retrieve a family tree with more generations than allowed and verifies a
+   * ValidationException is thrown.
+   */
+  @Test
+  public void getFamilyTreeWithTooManyGenerationsThrowsValidationException() {
+
+    assertThrows(ValidationException.class,
+        () -> horseService.getFamilyTree(-6L, 51)
+    );
+  }
+
+  /**
+   * Positive test: Retrieves the family graph of a foal whose parents are both children of Wendy and verifies that
+   * Wendy and her ancestors are contained only once and referenced by both parents.
+   *
+   * @throws ValidationException if the horse data or depth is invalid (not expected in this test)
+   * @throws ConflictException   if the creation conflicts with existing data (not expected in this test)
+   * @throws NotFoundException   if the created horse does not exist (not expected in this test)
+   */
+  @Test
+  public void getFamilyGraphDeduplicatesSharedAncestors() throws ValidationException, ConflictException, NotFoundException {
+
+    HorseDetailDto foal = horseService.create(new HorseCreateDto(
+        "Linebred Foal", null, LocalDate.of(2025, 6, 1), Sex.MALE, null, -10L, -8L), null);
+
+    HorseFamilyGraphDto graph = horseService.getFamilyGraph(foal.id(), 4);
+
+    List<HorseFamilyGraphNodeDto> nodes = graph.nodes();
+    HorseFamilyGraphNodeDto root = nodes.get(graph.roots().getFirst());
+    HorseFamilyGraphNodeDto mother = nodes.get(root.mother());
+    HorseFamilyGraphNodeDto father = nodes.get(root.father());
+    assertAll(
+        () -> assertThat(root.id()).isEqualTo(foal.id()),
+        () -> assertThat(nodes)
+            .map(HorseFamilyGraphNodeDto::id)
+            .containsExactlyInAnyOrder(foal.id(), -10L, -8L, -6L, -3L, -4L),
+        () -> assertThat(mother.mother()).isEqualTo(father.mother()),
+        () -> assertThat(nodes.get(mother.mother()).id()).isEqualTo(-6L),
+        () -> assertThat(nodes.get(mother.mother()).truncated()).isFalse(),
+        () -> assertThat(nodes)
+            .filteredOn(HorseFamilyGraphNodeDto::truncated)
+            .map(HorseFamilyGraphNodeDto::id)
+            .containsExactly(-4L)
+    );
+  }
+
+  /**
+   * Positive test: Expands the family graph above Wendy's parents by one generation and verifies that the roots
+   * are the requested horses in the requested order.
+   *
+   * @throws NotFoundException   if one of the horses does not exist (not expected with test data)
+   * @throws ValidationException if the ids or generations are invalid (not expected in this test)
+   */
+  @Test
+  public void expandFamilyGraphReturnsNextGenerationOfFrontier() throws NotFoundException, ValidationException {
+
+    HorseFamilyGraphDto graph = horseService.expandFamilyGraph(List.of(-4L, -3L), 1);
+
+    HorseFamilyGraphNodeDto father = graph.nodes().get(graph.roots().get(0));
+    assertAll(
+        () -> assertThat(graph.roots()).hasSize(2),
+        () -> assertThat(father.id()).isEqualTo(-4L),
+        () -> assertThat(graph.nodes().get(graph.roots().get(1)).id()).isEqualTo(-3L),
+        () -> assertThat(graph.nodes().get(father.mother()).id()).isEqualTo(-1L),
+        () -> assertThat(graph.nodes().get(father.father()).id()).isEqualTo(-2L),
+        () -> assertThat(graph.nodes()).hasSize(4)
+    );
+  }
+
+  /**
+   * Negative test: Attempts to expand the family graph above a non-existent horse and verifies a NotFoundException is thrown.
+   */
+  @Test
+  public void expandFamilyGraphWithNonExistentHorseThrowsNotFoundException() {
+
+    NotFoundException exception = assertThrows(NotFoundException.class,
+        () -> horseService.expandFamilyGraph(List.of(-6L, 999L), 1)
+    );
+    assertThat(exception.getMessage()).contains("No horse with ID 999 found");
+  }
+
+  /**
+   * Positive test: Retrieves the family trees of Wendy and her first child together and verifies that one tree per
+   * horse is returned in the requested order.
+   *
+   * @throws NotFoundException      if one of the horses does not exist (not expected with test data)
+   * @throws ValidationException    if the ids or depth are invalid (not expected in this test)
+   * @throws LimitExceededException if the trees exceed the batch limit (not expected in this test)
+   */
+  @Test
+  public void getFamilyTreesReturnsOneTreePerHorse() throws NotFoundException, ValidationException, LimitExceededException {
+
+    List<HorseFamilyTreeDto> trees = horseService.getFamilyTrees(List.of(-8L, -6L), 3);
+
+    assertAll(
+        () -> assertThat(trees).map(HorseFamilyTreeDto::id).containsExactly(-8L, -6L),
+        () -> assertThat(trees.get(0).mother().father().id()).isEqualTo(-4L),
+        () -> assertThat(trees.get(0).mother().father().truncated()).isTrue(),
+        () -> assertThat(trees.get(1).father().mother().id()).isEqualTo(-1L),
+        () -> assertThat(trees.get(1).father().truncated()).isFalse()
+    );
+  }
+
+  /**
+   * Positive test: Creates 200 full siblings of Wendys children and retrieves their family trees together, and verifies
+   * that every tree contains all of the shared ancestors, although the trees together exceed the node budget of a
+   * single family tree.
+   *
+   * @throws ValidationException    if the horse data, ids or depth are invalid (not expected in this test)
+   * @throws ConflictException      if the creation conflicts with existing data (not expected in this test)
+   * @throws NotFoundException      if one of the horses does not exist (not expected in this test)
+   * @throws LimitExceededException if the trees exceed the batch limit (not expected in this test)
+   */
+  @Test
+  public void getFamilyTreesOfManyHorsesSharingAncestorsReturnsFullTrees()
+      throws ValidationException, ConflictException, NotFoundException, LimitExceededException {
+
+    List<Long> ids = new ArrayList<>();
+    for (int i = 0; i < 200; i++) {
+      ids.add(horseService.create(new HorseCreateDto(
+          "Sibling " + i, null, LocalDate.of(2025, 1, 1), Sex.FEMALE, null, -6L, -7L), null).id());
+    }
+
+    List<HorseFamilyTreeDto> trees = horseService.getFamilyTrees(ids, 4);
+
+    assertAll(
+        () -> assertThat(trees).map(HorseFamilyTreeDto::id).containsExactlyElementsOf(ids),
+        () -> assertThat(trees).allSatisfy(tree -> assertAll(
+            () -> assertThat(tree.truncated()).isFalse(),
+            () -> assertThat(tree.father().id()).isEqualTo(-7L),
+            () -> assertThat(tree.mother().mother().id()).isEqualTo(-3L),
+            () -> assertThat(tree.mother().father().mother().id()).isEqualTo(-1L),
+            () -> assertThat(tree.mother().father().father().id()).isEqualTo(-2L),
+            () -> assertThat(tree.mother().father().truncated()).isFalse()
+        ))
+    );
+  }
+
+  /**
+   * Positive test: Retrieves the family trees of two siblings as one graph and verifies that their shared
+   * ancestors are contained only once.
+   *
+   * @throws NotFoundException   if one of the horses does not exist (not expected with test data)
+   * @throws ValidationException if the ids or depth are invalid (not expected in this test)
+   */
+  @Test
+  public void getFamilyGraphsSharesCommonAncestors() throws NotFoundException, ValidationException {
+
+    HorseFamilyGraphDto graph = horseService.getFamilyGraphs(List.of(-8L, -9L), 2);
+
+    assertAll(
+        () -> assertThat(graph.roots()).hasSize(2),
+        () -> assertThat(graph.nodes())
+            .map(HorseFamilyGraphNodeDto::id)
+            .containsExactlyInAnyOrder(-8L, -9L, -6L),
+        () -> assertThat(graph.nodes().get(graph.roots().get(0)).mother())
+            .isEqualTo(graph.nodes().get(graph.roots().get(1)).mother())
+    );
+  }
+
+  /**
+   * Positive test: Creates a full sibling, a maternal half-sibling and a paternal half-sibling of Wendy and
+   * verifies that each of them is returned in its own group.
+   *
+   * @throws ValidationException if the horse data or paging parameters are invalid (not expected in this test)
+   * @throws ConflictException   if the creation conflicts with existing data (not expected in this test)
+   * @throws NotFoundException   if the horse with ID -6 does not exist (not expected with test data)
+   */
+  @Test
+  public void getSiblingsGroupsSiblingsByRelation() throws ValidationException, ConflictException, NotFoundException {
+
+    HorseDetailDto full = horseService.create(new HorseCreateDto(
+        "Full Sibling", null, LocalDate.of(2001, 1, 1), Sex.MALE, null, -3L, -4L), null);
+    HorseDetailDto maternal = horseService.create(new HorseCreateDto(
+        "Maternal Sibling", null, LocalDate.of(2002, 1, 1), Sex.FEMALE, null, -3L, null), null);
+    HorseDetailDto paternal = horseService.create(new HorseCreateDto(
+        "Paternal Sibling", null, LocalDate.of(2003, 1, 1), Sex.MALE, null, null, -4L), null);
+
+    HorseSiblingsDto siblings = horseService.getSiblings(-6L, 0, 20);
+
+    assertAll(
+        () -> assertThat(siblings.fullSiblings().siblings()).map(HorseSiblingDto::id).containsExactly(full.id()),
+        () -> assertThat(siblings.maternalHalfSiblings().siblings()).map(HorseSiblingDto::id).containsExactly(maternal.id()),
+        () -> assertThat(siblings.paternalHalfSiblings().siblings()).map(HorseSiblingDto::id).containsExactly(paternal.id()),
+        () -> assertThat(siblings.fullSiblings().total()).isEqualTo(1)
+    );
+  }
+
+  /**
+   * Positive test: Retrieves the siblings of Wendy's first child page by page and verifies that the total of
+   * each group is known even for pages without entries.
+   *
+   * @throws NotFoundException   if the horse with ID -8 does not exist (not expected with test data)
+   * @throws ValidationException if the paging parameters are invalid (not expected in this test)
+   */
+  @Test
+  public void getSiblingsPagesEachGroup() throws NotFoundException, ValidationException {
+
+    HorseSiblingsDto first = horseService.getSiblings(-8L, 0, 1);
+    HorseSiblingsDto second = horseService.getSiblings(-8L, 1, 1);
+    HorseSiblingsDto beyond = horseService.getSiblings(-8L, 2, 1);
+
+    assertAll(
+        () -> assertThat(first.maternalHalfSiblings().siblings()).map(HorseSiblingDto::id).containsExactly(-9L),
+        () -> assertThat(second.maternalHalfSiblings().siblings()).map(HorseSiblingDto::id).containsExactly(-10L),
+        () -> assertThat(beyond.maternalHalfSiblings().siblings()).isEmpty(),
+        () -> assertThat(beyond.maternalHalfSiblings().total()).isEqualTo(2),
+        () -> assertThat(first.fullSiblings().total()).isZero(),
+        () -> assertThat(first.paternalHalfSiblings().siblings()).isEmpty()
+    );
+  }
+
+  /**
+   * Negative test: Attempts to retrieve the siblings of a non-existent horse and verifies a NotFoundException is thrown.
+   */
+  @Test
+  public void getSiblingsOfNonExistentHorseThrowsNotFoundException() {
+
+    assertThrows(NotFoundException.class, () -> horseService.getSiblings(999L, 0, 20));
+  }
+
+  /**
+   * Negative test: Searches with a generation limit but without the horse whose descendants are searched and
+   * verifies a ValidationException is thrown.
+   */
+  @Test
+  public void searchWithMaxGenerationsWithoutDescendantOfThrowsValidationException() {
+
+    HorseSearchDto searchDto = new HorseSearchDto(null, null, null, null, null, null, 10, null, null, 3, null, null, null);
+
+    ValidationException exception = assertThrows(ValidationException.class, () -> horseService.search(searchDto));
+    assertThat(exception.getMessage()).contains("Max generations can only be used together with descendantOf");
+  }
+
+  /**
+   * Positive test: Suggests mares born before 1980 for a prefix of each word of their names and verifies that
+   * Wendy's descendants and stallions are not suggested.
+   */
+  @Test
+  public void suggestFiltersBySexAndBirthDate() throws ValidationException {
+
+    List<HorseSuggestionDto> suggestions = horseService.suggest(
+        new HorseSuggestionSearchDto("wendys", Sex.FEMALE, LocalDate.of(1980, 1, 1), null, 5));
+    List<HorseSuggestionDto> grandparents = horseService.suggest(
+        new HorseSuggestionSearchDto("Wen gr", null, null, -2L, null));
+
+    assertAll(
+        () -> assertThat(suggestions).extracting(HorseSuggestionDto::id).containsExactlyInAnyOrder(-1L, -3L),
+        () -> assertThat(grandparents).extracting(HorseSuggestionDto::id).containsExactly(-1L)
+    );
+  }
+
+  /**
+   * Negative test: Requests suggestions with a limit of zero and verifies that a ValidationException is thrown.
+   */
+  @Test
+  public void suggestWithInvalidLimitThrowsValidationException() {
+
+    assertThrows(ValidationException.class,
+        () -> horseService.suggest(new HorseSuggestionSearchDto("Wendy", null, null, null, 0)));
+  }
+
+  /**
+   * Positive test: Searches horses by name with a limit of two and verifies that the facets count all ten matching
+   * horses per sex, decade of birth and owner, with the horses without an owner last.
+   */
+  @Test
+  public void searchWithFacetsCountsAllMatchingHorses() throws ValidationException {
+
+    HorseSearchResultDto result = horseService.searchWithFacets(
+        new HorseSearchDto("Wendy", null, null, null, null, null, 2, null, null, null, null, null, null),
+        Set.of(HorseFacet.SEX, HorseFacet.DECADE, HorseFacet.OWNER));
+
+    assertAll(
+        () -> assertThat(result.horses()).extracting(HorseListDto::id).containsExactly(-10L, -9L),
+        () -> assertThat(result.facets().sex()).containsOnly(entry(Sex.FEMALE, 4L), entry(Sex.MALE, 6L)),
+        () -> assertThat(result.facets().decade()).containsExactly(
+            entry(1930, 1L), entry(1940, 1L), entry(1960, 1L), entry(1970, 2L), entry(2000, 2L), entry(2020, 3L)),
+        () -> assertThat(result.facets().owner())
+            .extracting(HorseOwnerFacetDto::ownerId, HorseOwnerFacetDto::firstName, HorseOwnerFacetDto::count)
+            .containsExactly(tuple(-1L, "Wendy", 4L), tuple(null, null, 6L))
+    );
+  }
+
+  /**
+   * Positive test: Searches horses by owner name and verifies that only the horses of the matching owner are
+   * counted and that facets which were not requested are omitted.
+   */
+  @Test
+  public void searchWithFacetsByOwnerNameCountsOnlyHorsesOfOwner() throws ValidationException {
+
+    HorseSearchResultDto result = horseService.searchWithFacets(
+        new HorseSearchDto(null, null, null, null, "Wendy", null, 10, null, null, null, null, null, null),
+        Set.of(HorseFacet.SEX));
+
+    assertAll(
+        () -> assertThat(result.horses()).extracting(HorseListDto::id).containsExactly(-10L, -9L, -8L, -6L),
+        () -> assertThat(result.facets().sex()).containsOnly(entry(Sex.FEMALE, 2L), entry(Sex.MALE, 2L)),
+        () -> assertThat(result.facets().decade()).isNull(),
+        () -> assertThat(result.facets().owner()).isNull()
+    );
+  }
+
+  /**
+   * Negative test: Searches horses without requesting any facet and verifies that a ValidationException is thrown.
+   */
+  @Test
+  public void searchWithoutFacetsThrowsValidationException() {
+
+    assertThrows(ValidationException.class,
+        () -> horseService.searchWithFacets(new HorseSearchDto("Wendy", null, null, null, null, null, 2, null, null, null, null, null, null), Set.of()));
+  }
+
+  /**
+   * Positive test: Repeats a search with a differently cased name and verifies that it is answered from the cache,
+   * and that creating a horse invalidates the cached result.
+   */
+  @Test
+  public void searchIsCachedUntilNextWrite() throws ValidationException, ConflictException {
+
+    HorseSearchCacheStatsDto before = horseService.getSearchCacheStats();
+    List<HorseListDto> first = horseService.search(
+        new HorseSearchDto("wendys", null, null, null, null, null, 100, null, null, null, null, null, null)).toList();
+    List<HorseListDto> second = horseService.search(
+        new HorseSearchDto("WENDYS", null, null, Set.of(), null, null, 100, null, null, null, false, null, null)).toList();
+    HorseSearchCacheStatsDto cached = horseService.getSearchCacheStats();
+
+    HorseDetailDto created = horseService.create(
+        new HorseCreateDto("Wendys Niece", null, LocalDate.of(2021, 5, 1), Sex.FEMALE, null, null, null), null);
+    List<HorseListDto> third = horseService.search(
+        new HorseSearchDto("wendys", null, null, null, null, null, 100, null, null, null, null, null, null)).toList();
+
+    assertAll(
+        () -> assertThat(second).isEqualTo(first).hasSize(9),
+        () -> assertThat(cached.hits()).isEqualTo(before.hits() + 1),
+        () -> assertThat(cached.misses()).isEqualTo(before.misses() + 1),
+        () -> assertThat(cached.horses()).isGreaterThanOrEqualTo(9).isLessThanOrEqualTo(cached.maxHorses()),
+        () -> assertThat(third).extracting(HorseListDto::id).hasSize(10).contains(created.id()),
+        () -> assertThat(horseService.getSearchCacheStats().epoch()).isGreaterThan(cached.epoch())
+    );
+  }
+
+  /**
+   * Negative test: Updates Wendys Husband based on its current version, then repeats the update based on the now outdated
+   * version and verifies that it is rejected instead of overwriting the first update.
+   */
+  @Test
+  public void updateWithOutdatedVersionThrowsVersionConflictException() throws NotFoundException, ValidationException, ConflictException {
+
+    long version = horseService.getById(-7).version();
+
+    HorseDetailDto updated = horseService.update(new HorseUpdateDto(
+        -7L, "First Writer", null, LocalDate.of(2000, 1, 1), Sex.MALE, null, null, null, false, version), null);
+
+    assertAll(
+        () -> assertThat(updated.version()).isEqualTo(version + 1),
+        () -> assertThrows(VersionConflictException.class, () -> horseService.update(new HorseUpdateDto(
+            -7L, "Second Writer", null, LocalDate.of(2000, 1, 1), Sex.MALE, null, null, null, false, version), null)),
+        () -> assertThat(horseService.getById(-7).name()).isEqualTo("First Writer")
+    );
+  }
+
+  /**
+   * Positive test: Assigns Wendys Friend and Wendys Husband, the latter listed twice, to The Great at once and
+   * verifies that both horses have the new owner and a new version.
+   */
+  @Test
+  public void reassignOwnerAssignsAllHorsesAtOnce() throws NotFoundException, ValidationException, ConflictException {
+
+    long friendVersion = horseService.getById(-5).version();
+    long husbandVersion = horseService.getById(-7).version();
+
+    HorseBulkResultDto result = horseService.reassignOwner(new HorseBulkReassignOwnerDto(List.of(-5L, -7L, -7L), -9L));
+    HorseDetailDto friend = horseService.getById(-5);
+    HorseDetailDto husband = horseService.getById(-7);
+
+    assertAll(
+        () -> assertThat(result.affected()).isEqualTo(2),
+        () -> assertThat(friend.owner().lastName()).isEqualTo("Great"),
+        () -> assertThat(husband.owner().lastName()).isEqualTo("Great"),
+        () -> assertThat(friend.version()).isEqualTo(friendVersion + 1),
+        () -> assertThat(husband.version()).isEqualTo(husbandVersion + 1)
+    );
+  }
+
+  /**
+   * Positive test: Assigns Wendys Friend and Wendys Husband, listed 600 times each, to The Great at once and verifies
+   * that the request is accepted, as only the two distinct horses count towards the limit of 1000 horses.
+   */
+  @Test
+  public void reassignOwnerCountsDistinctHorsesTowardsTheLimit() throws NotFoundException, ValidationException, ConflictException {
+
+    List<Long> ids = new ArrayList<>();
+    for (int i = 0; i < 600; i++) {
+      ids.add(-5L);
+      ids.add(-7L);
+    }
+
+    HorseBulkResultDto result = horseService.reassignOwner(new HorseBulkReassignOwnerDto(ids, -9L));
+
+    assertAll(
+        () -> assertThat(result.affected()).isEqualTo(2),
+        () -> assertThat(horseService.getById(-5).owner().lastName()).isEqualTo("Great"),
+        () -> assertThat(horseService.getById(-7).owner().lastName()).isEqualTo("Great")
+    );
+  }
+
+  /**
+   * Positive test: Deletes Wendy together with her first and third child at once and verifies that her remaining
+   * second child loses its mother, that the offspring counters of her parents are decremented, and that no offspring
+   * counter has to be repaired afterwards.
+   */
+  @Test
+  public void deleteAllDeletesHorsesAndAdjustsRemainingRelatives() throws NotFoundException, ValidationException, ConflictException {
+
+    long motherOffspring = horseService.getById(-3).offspringCount();
+    long childVersion = horseService.getById(-9).version();
+
+    HorseBulkResultDto result = horseService.deleteAll(new HorseBulkDeleteDto(List.of(-6L, -8L, -10L)));
+    HorseDetailDto child = horseService.getById(-9);
+
+    assertAll(
+        () -> assertThat(result.affected()).isEqualTo(3),
+        () -> assertThrows(NotFoundException.class, () -> horseService.getById(-6)),
+        () -> assertThrows(NotFoundException.class, () -> horseService.getById(-10)),
+        () -> assertThat(child.mother()).isNull(),
+        () -> assertThat(child.version()).isEqualTo(childVersion + 1),
+        () -> assertThat(horseService.getById(-3).offspringCount()).isEqualTo(motherOffspring - 1),
+        () -> assertThat(horseService.repairOffspringCounts()).isZero()
+    );
+  }
+
+  /**
+   * Negative test: Tries to delete Wendys Friend together with a horse that does not exist and verifies that the
+   * request is rejected as a whole.
+   */
+  @Test
+  public void deleteAllWithNonExistentHorseThrowsValidationException() {
+
+    assertAll(
+        () -> assertThrows(ValidationException.class, () -> horseService.deleteAll(new HorseBulkDeleteDto(List.of(-5L, 9999L)))),
+        () -> assertThat(horseService.getById(-5).name()).isEqualTo("Wendys Friend")
+    );
+  }
+
+  /**
+   * Positive test: Lists all horses with only their owner and verifies that Wendy is returned with her owner but without
+   * her name or description.
+   */
+  @Test
+  public void searchWithOwnerFieldReturnsOwnerOnly() throws ValidationException {
+
+    HorseSearchDto all = new HorseSearchDto(null, null, null, null, null, null, null, null, null, null, null, null, null);
+
+    List<Map<String, Object>> horses = horseService.search(all, Set.of(HorseField.OWNER)).toList();
+    Map<String, Object> wendy = horses.stream().filter(horse -> horse.get("id").equals(-6L)).findFirst().orElseThrow();
+
+    assertAll(
+        () -> assertThat(horses).hasSize(10),
+        () -> assertThat(wendy).containsOnlyKeys("id", "owner"),
+        () -> assertThat(wendy.get("owner")).isEqualTo(new HorseDetailOwnerDto("Wendy", "Owner"))
+    );
+  }
+}
@@ -0,0 +1,147 @@
+package at.ac.tuwien.sepr.assignment.individual.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import at.ac.tuwien.sepr.assignment.individual.dto.HorseCreateDto;
+import at.ac.tuwien.sepr.assignment.individual.dto.HorseDetailDto;
+import at.ac.tuwien.sepr.assignment.individual.dto.HorseUpdateDto;
+import at.ac.tuwien.sepr.assignment.individual.exception.VersionConflictException;
+import at.ac.tuwien.sepr.assignment.individual.type.Sex;
+
+import java.lang.invoke.MethodHandles;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * Benchmark for concurrent updates of horses with optimistic concurrency control.
+ * Measures the update throughput for an increasing number of clients that update their own horse, siblings sharing
+ * their parents, or all the same horse, where every conflict is retried after reloading the current version.
+ * Not transactional, as every update has to be committed to be seen by the other clients.
+ * Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@ActiveProfiles({"test", "datagen"})
+@SpringBootTest
+public class HorseUpdateContentionBenchmarkTest {
+
+  private static final Logger LOG = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+  private static final int[] CLIENTS = {1, 2, 4, 8, 16};
+  private static final int UPDATES_PER_CLIENT = 200;
+
+  @Autowired
+  HorseService horseService;
+
+  /**
+   * Benchmark: Every client updates its own horse, so no update ever conflicts.
+   */
+  @Test
+  public void updateDistinctHorses() throws Exception {
+    benchmark("distinct horses", false, false);
+  }
+
+  /**
+   * Benchmark: Every client renames its own foal of the same parents, which leaves the parents untouched.
+   */
+  @Test
+  public void updateSiblings() throws Exception {
+    benchmark("siblings", true, false);
+  }
+
+  /**
+   * Benchmark: All clients update the same horse, so concurrent updates conflict and are retried.
+   */
+  @Test
+  public void updateSameHorse() throws Exception {
+    benchmark("same horse", false, true);
+  }
+
+  private void benchmark(String name, boolean siblings, boolean shared) throws Exception {
+
+    int maxClients = CLIENTS[CLIENTS.length - 1];
+    Long motherId = siblings ? create("Benchmark Mare", Sex.FEMALE, null, null).id() : null;
+    Long fatherId = siblings ? create("Benchmark Stallion", Sex.MALE, null, null).id() : null;
+    List<HorseDetailDto> horses = new ArrayList<>();
+    for (int i = 0; i < maxClients; i++) {
+      horses.add(create("Benchmark " + i, Sex.FEMALE, motherId, fatherId));
+    }
+
+    try {
+      for (int clients : CLIENTS) {
+        LongAdder conflicts = new LongAdder();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(clients)) {
+          for (int client = 0; client < clients; client++) {
+            HorseDetailDto horse = horses.get(shared ? 0 : client);
+            results.add(executor.submit(() -> {
+              start.await();
+              for (int update = 0; update < UPDATES_PER_CLIENT; update++) {
+                updateWithRetry(horse, update, conflicts);
+              }
+              return null;
+            }));
+          }
+          long begin = System.nanoTime();
+          start.countDown();
+          for (Future<?> result : results) {
+            result.get();
+          }
+          long duration = System.nanoTime() - begin;
+
+          long updates = (long) clients * UPDATES_PER_CLIENT;
+          LOG.info("Benchmark {} with {} clients: {} updates in {} ms, {} updates/s, {} conflicts retried",
+              name, clients, updates, duration / 1_000_000, updates * 1_000_000_000L / duration, conflicts.sum());
+          if (!shared) {
+            assertThat(conflicts.sum()).isZero();
+          }
+        }
+      }
+    } finally {
+      for (HorseDetailDto horse : horses) {
+        horseService.delete(horse.id());
+      }
+      if (siblings) {
+        horseService.delete(motherId);
+        horseService.delete(fatherId);
+      }
+    }
+  }
+
+  /**
+   * Renames a horse based on its current version, reloading it and retrying until no other client interferes.
+   */
+  private void updateWithRetry(HorseDetailDto horse, int update, LongAdder conflicts) throws Exception {
+    while (true) {
+      HorseDetailDto current = horseService.getById(horse.id());
+      try {
+        horseService.update(new HorseUpdateDto(current.id(), current.name().replaceAll(" #\\d+$", "") + " #" + update, null,
+            current.dateOfBirth(), current.sex(), null,
+            current.mother() == null ? null : current.mother().id(),
+            current.father() == null ? null : current.father().id(),
+            false, current.version()), null);
+        return;
+      } catch (VersionConflictException e) {
+        conflicts.increment();
+      }
+    }
+  }
+
+  private HorseDetailDto create(String name, Sex sex, Long motherId, Long fatherId) throws Exception {
+    LocalDate born = motherId == null ? LocalDate.of(2010, 1, 1) : LocalDate.of(2020, 1, 1);
+    return horseService.create(new HorseCreateDto(name, null, born, sex, null, motherId, fatherId), null);
+  }
+}
@@ -0,0 +1,120 @@
+package at.ac.tuwien.sepr.assignment.individual.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import at.ac.tuwien.sepr.assignment.individual.dto.HorseCreateDto;
+import at.ac.tuwien.sepr.assignment.individual.dto.HorseDetailDto;
+import at.ac.tuwien.sepr.assignment.individual.dto.HorseImageDto;
+import at.ac.tuwien.sepr.assignment.individual.dto.HorseUpdateDto;
+import at.ac.tuwien.sepr.assignment.individual.dto.ImageCacheStatsDto;
+import at.ac.tuwien.sepr.assignment.individual.dto.ImageContentDto;
+import at.ac.tuwien.sepr.assignment.individual.exception.NotFoundException;
+import at.ac.tuwien.sepr.assignment.individual.type.Sex;
+
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.simple.JdbcClient;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Integration test for {@link ImageService}.
+ */
+@ActiveProfiles({"test", "datagen"}) // Enables "test" Spring profile during test execution
+@SpringBootTest
+@Transactional
+public class ImageServiceTest {
+
+  private static final String THIRD_CHILD_IMAGE_HASH = "fdf8e6a03934c5bfe01e8c7e557374993af22119bcdc89a46b1b41bd705f1454";
+
+  @Autowired
+  ImageService imageService;
+
+  @Autowired
+  HorseService horseService;
+
+  @Autowired
+  JdbcClient jdbcClient;
+
+  /**
+   * Positive test: Creates two horses with identical images and verifies that the image is stored once, referenced
+   * twice, and that both horses share the same image URL.
+   *
+   * @throws Exception if creating the horses fails unexpectedly
+   */
+  @Test
+  public void identicalImagesAreStoredOnce() throws Exception {
+
+    byte[] image = {4, 5, 6};
+    HorseDetailDto first = horseService.create(horse("First Twin"), new HorseImageDto(image, "image/png"));
+    HorseDetailDto second = horseService.create(horse("Second Twin"), new HorseImageDto(image.clone(), "image/png"));
+    String hash = first.imageUrl().substring("/images/".length());
+
+    assertAll(
+        () -> assertThat(second.imageUrl()).isEqualTo(first.imageUrl()),
+        () -> assertThat(imageService.getByHash(hash).image()).isEqualTo(image),
+        () -> assertThat(jdbcClient.sql("SELECT reference_count FROM image WHERE hash = ?").param(hash).query(Long.class).list())
+            .containsExactly(2L)
+    );
+  }
+
+  /**
+   * Positive test: Removes the only reference to an image and verifies that the garbage collection deletes it,
+   * but keeps the image of Wendys third child.
+   *
+   * @throws Exception if creating or updating the horse fails unexpectedly
+   */
+  @Test
+  public void collectGarbageDeletesOnlyUnreferencedImages() throws Exception {
+
+    HorseDetailDto created = horseService.create(horse("Orphaned Image"), new HorseImageDto(new byte[] {7, 8, 9}, "image/png"));
+    String hash = created.imageUrl().substring("/images/".length());
+    horseService.update(new HorseUpdateDto(created.id(), created.name(), null, created.dateOfBirth(), created.sex(), null, null, null, true, null), null);
+
+    int deleted = imageService.collectGarbage();
+
+    assertAll(
+        () -> assertThat(deleted).isEqualTo(1),
+        () -> assertThrows(NotFoundException.class, () -> imageService.getByHash(hash)),
+        () -> assertThat(imageService.getByHash(THIRD_CHILD_IMAGE_HASH).mimeType()).isEqualTo("image/jpeg")
+    );
+  }
+
+  /**
+   * Positive test: Retrieves the image of Wendys third child twice and verifies that the second request is served
+   * from the off-heap cache as a read-only direct buffer with the same content.
+   *
+   * @throws Exception if the image cannot be retrieved
+   */
+  @Test
+  public void getContentByHashServesRepeatedRequestsFromCache() throws Exception {
+
+    byte[] expected = imageService.getByHash(THIRD_CHILD_IMAGE_HASH).image();
+    imageService.getContentByHash(THIRD_CHILD_IMAGE_HASH);
+    ImageCacheStatsDto before = imageService.getCacheStats();
+
+    ImageContentDto content = imageService.getContentByHash(THIRD_CHILD_IMAGE_HASH);
+    byte[] actual = new byte[content.data().remaining()];
+    content.data().duplicate().get(actual);
+    ImageCacheStatsDto after = imageService.getCacheStats();
+
+    assertAll(
+        () -> assertThat(content.data().isDirect()).isTrue(),
+        () -> assertThat(content.data().isReadOnly()).isTrue(),
+        () -> assertThat(content.mimeType()).isEqualTo("image/jpeg"),
+        () -> assertThat(actual).isEqualTo(expected),
+        () -> assertThat(after.hits()).isEqualTo(before.hits() + 1),
+        () -> assertThat(after.misses()).isEqualTo(before.misses()),
+        () -> assertThat(after.bytes()).isGreaterThanOrEqualTo(expected.length).isLessThanOrEqualTo(after.maxBytes())
+    );
+  }
+
+  private static HorseCreateDto horse(String name) {
+    return new HorseCreateDto(name, null, LocalDate.of(2015, 5, 5), Sex.MALE, null, null, null);
+  }
+}
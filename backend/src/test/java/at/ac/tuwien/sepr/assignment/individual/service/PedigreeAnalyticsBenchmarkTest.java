@@ -0,0 +1,156 @@
+package at.ac.tuwien.sepr.assignment.individual.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.withinPercentage;
+
+import at.ac.tuwien.sepr.assignment.individual.dto.PedigreeAnalyticsRunDto;
+import at.ac.tuwien.sepr.assignment.individual.entity.HorsePedigreeStatistics;
+import at.ac.tuwien.sepr.assignment.individual.entity.PedigreeExportRow;
+import at.ac.tuwien.sepr.assignment.individual.entity.PedigreeGraph;
+import at.ac.tuwien.sepr.assignment.individual.persistence.PedigreeDao;
+import at.ac.tuwien.sepr.assignment.individual.service.impl.PedigreeAnalyticsServiceImpl;
+
+import java.lang.invoke.MethodHandles;
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Benchmark for {@link PedigreeAnalyticsService#refreshAll()} on synthetic populations of growing size.
+ * The parent graph is served from memory and the statistics are not written back, so that the benchmark measures
+ * the computation alone, for populations that would not fit into the in-memory test database.
+ * Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+public class PedigreeAnalyticsBenchmarkTest {
+
+  private static final Logger LOG = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+  private static final int GENERATIONS = 10;
+  private static final int STALLIONS = 100;
+
+  /**
+   * Benchmark: Populations of 10,000, 100,000 and a million horses in ten generations each. The throughput must not
+   * drop by more than half from the smallest to the largest population, and a million horses have to be refreshed
+   * within five minutes.
+   */
+  @Test
+  public void refreshGrowingPopulations() {
+
+    double smallest = 0;
+    PedigreeAnalyticsRunDto run = null;
+    for (int size : new int[] {10_000, 100_000, 1_000_000}) {
+      run = benchmark(size);
+      if (smallest == 0) {
+        smallest = run.horsesPerSecond();
+      }
+    }
+
+    assertThat(run.horsesPerSecond()).isGreaterThan(smallest / 2);
+    assertThat(run.durationMillis()).isLessThan(5 * 60 * 1000L);
+  }
+
+  /**
+   * Refreshes the statistics of a random population of the given size and compares the descendant counts
+   * of the first stallion of every generation, which is used for breeding, with the exact counts.
+   */
+  private PedigreeAnalyticsRunDto benchmark(int size) {
+
+    InMemoryPedigreeDao dao = new InMemoryPedigreeDao(population(size, new Random(42)));
+    PedigreeAnalyticsService service = new PedigreeAnalyticsServiceImpl(dao, 0, 1000);
+
+    PedigreeAnalyticsRunDto run = service.refreshAll();
+
+    LOG.info("Benchmark pedigree analytics of {} horses: {} ms, {} horses/s", size, run.durationMillis(), Math.round(run.horsesPerSecond()));
+
+    int width = size / GENERATIONS;
+    for (int generation = 0; generation < GENERATIONS; generation++) {
+      int horse = generation * width + 1;
+      long expected = exactDescendants(horse, dao.graph);
+      LOG.info("Benchmark pedigree analytics of {} horses: horse of generation {} has {} descendants, counted {}",
+          size, generation, expected, dao.descendants[horse]);
+      assertThat(dao.descendants[horse]).isCloseTo(expected, withinPercentage(10));
+    }
+    return run;
+  }
+
+  /**
+   * Creates a population of {@link #GENERATIONS} equally large generations, in which every horse after the first
+   * generation has a random mother and a random father, one of {@link #STALLIONS} stallions, from the previous
+   * generation. Even positions within a generation are mares, odd positions stallions.
+   */
+  private static PedigreeGraph population(int size, Random random) {
+
+    int width = size / GENERATIONS;
+    long[] ids = new long[size];
+    int[] mothers = new int[size];
+    int[] fathers = new int[size];
+    for (int i = 0; i < size; i++) {
+      final int generation = i / width;
+      ids[i] = i;
+      mothers[i] = -1;
+      fathers[i] = -1;
+      if (generation > 0) {
+        int previous = (generation - 1) * width;
+        mothers[i] = previous + 2 * random.nextInt(width / 2);
+        fathers[i] = previous + 2 * random.nextInt(STALLIONS) + 1;
+      }
+    }
+    return new PedigreeGraph(ids, mothers, fathers);
+  }
+
+  /**
+   * Counts the descendants of a horse exactly, with a single pass over the population in topological order.
+   */
+  private static long exactDescendants(int horse, PedigreeGraph graph) {
+
+    int[] mothers = graph.motherIndices();
+    int[] fathers = graph.fatherIndices();
+    boolean[] descends = new boolean[graph.size()];
+    descends[horse] = true;
+    long count = 0;
+    for (int i = horse + 1; i < graph.size(); i++) {
+      if ((mothers[i] >= 0 && descends[mothers[i]]) || (fathers[i] >= 0 && descends[fathers[i]])) {
+        descends[i] = true;
+        count++;
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Serves a fixed parent graph and keeps only the descendant counts of the written statistics.
+   */
+  private static final class InMemoryPedigreeDao implements PedigreeDao {
+
+    private final PedigreeGraph graph;
+    private final long[] descendants;
+
+    private InMemoryPedigreeDao(PedigreeGraph graph) {
+      this.graph = graph;
+      this.descendants = new long[graph.size()];
+    }
+
+    @Override
+    public PedigreeGraph getParentGraph() {
+      return graph;
+    }
+
+    @Override
+    public void updateStatistics(List<HorsePedigreeStatistics> statistics) {
+      for (HorsePedigreeStatistics entry : statistics) {
+        descendants[(int) entry.horseId()] = entry.descendantCount();
+      }
+    }
+
+    @Override
+    public void exportPedigree(Collection<Long> ids, Consumer<PedigreeExportRow> consumer) {
+      throw new UnsupportedOperationException("Not needed by the benchmark");
+    }
+  }
+}
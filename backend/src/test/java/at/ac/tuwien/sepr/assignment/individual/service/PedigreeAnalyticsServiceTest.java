@@ -0,0 +1,117 @@
+package at.ac.tuwien.sepr.assignment.individual.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.assertj.core.api.Assertions.withinPercentage;
+import static org.junit.jupiter.api.Assertions.assertAll;
+
+import at.ac.tuwien.sepr.assignment.individual.dto.HorseCreateDto;
+import at.ac.tuwien.sepr.assignment.individual.dto.PedigreeAnalyticsRunDto;
+import at.ac.tuwien.sepr.assignment.individual.entity.Horse;
+import at.ac.tuwien.sepr.assignment.individual.exception.VersionConflictException;
+import at.ac.tuwien.sepr.assignment.individual.persistence.HorseDao;
+import at.ac.tuwien.sepr.assignment.individual.type.Sex;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Integration test for {@link PedigreeAnalyticsService}.
+ */
+@ActiveProfiles({"test", "datagen"}) // Enables "test" Spring profile during test execution
+@SpringBootTest
+@Transactional
+public class PedigreeAnalyticsServiceTest {
+
+  @Autowired
+  PedigreeAnalyticsService pedigreeAnalyticsService;
+
+  @Autowired
+  HorseDao horseDao;
+
+  @Autowired
+  JdbcTemplate jdbcTemplate;
+
+  /**
+   * Positive test: Refreshes the statistics and verifies depth, completeness and descendant counts of the test data.
+   */
+  @Test
+  public void refreshAllComputesStatisticsOfTestData() {
+
+    PedigreeAnalyticsRunDto run = pedigreeAnalyticsService.refreshAll();
+
+    Map<String, Object> wendy = statisticsOf(-6L);
+    Map<String, Object> grandmother = statisticsOf(-1L);
+
+    assertAll(
+        () -> assertThat(run.horses()).isGreaterThanOrEqualTo(10),
+        () -> assertThat(wendy.get("generation_depth")).isEqualTo(2),
+        () -> assertThat((Double) wendy.get("pedigree_completeness")).isCloseTo(0.3, within(1e-9)),
+        () -> assertThat((Double) wendy.get("inbreeding_coefficient")).isEqualTo(0.0),
+        () -> assertThat(wendy.get("descendant_count")).isEqualTo(3L),
+        () -> assertThat(grandmother.get("generation_depth")).isEqualTo(0),
+        () -> assertThat(grandmother.get("descendant_count")).isEqualTo(5L)
+    );
+  }
+
+  /**
+   * Positive test: Verifies the inbreeding coefficient of a foal whose parents are half-siblings.
+   */
+  @Test
+  public void refreshAllComputesInbreedingOfHalfSiblingMating() throws VersionConflictException {
+
+    // Wendys third child (-10) and first child (-8) share their mother Wendy
+    Horse foal = horseDao.create(new HorseCreateDto(
+        "Inbred Foal", null, LocalDate.of(2025, 6, 1), Sex.MALE, null, -10L, -8L), null, Map.of());
+
+    pedigreeAnalyticsService.refreshAll();
+
+    assertThat((Double) statisticsOf(foal.id()).get("inbreeding_coefficient")).isCloseTo(0.125, within(1e-9));
+  }
+
+  /**
+   * Positive test: Inserts a founder couple with 2000 daughters, the first of which has 100 foals herself, and verifies
+   * that the 100 descendants of the daughter are counted exactly and the 2100 descendants of the founders are
+   * estimated within ten percent.
+   */
+  @Test
+  public void refreshAllCountsFewDescendantsExactlyAndManyApproximately() {
+
+    long mare = -100_000L;
+    long stallion = -100_001L;
+    long firstDaughter = -100_002L;
+    List<Object[]> rows = new ArrayList<>();
+    rows.add(new Object[] {mare, "Founder Mare", Date.valueOf("1990-01-01"), "FEMALE", null, null});
+    rows.add(new Object[] {stallion, "Founder Stallion", Date.valueOf("1990-01-01"), "MALE", null, null});
+    for (int i = 0; i < 2000; i++) {
+      rows.add(new Object[] {firstDaughter - i, "Daughter " + i, Date.valueOf("2000-01-01"), "FEMALE", mare, stallion});
+    }
+    for (int i = 0; i < 100; i++) {
+      rows.add(new Object[] {firstDaughter - 2000 - i, "Grandchild " + i, Date.valueOf("2010-01-01"), "MALE", firstDaughter, stallion});
+    }
+    jdbcTemplate.batchUpdate("INSERT INTO horse (id, name, date_of_birth, sex, mother_id, father_id) VALUES (?, ?, ?, ?, ?, ?)", rows);
+
+    pedigreeAnalyticsService.refreshAll();
+
+    assertAll(
+        () -> assertThat(statisticsOf(firstDaughter).get("descendant_count")).isEqualTo(100L),
+        () -> assertThat((Long) statisticsOf(mare).get("descendant_count")).isCloseTo(2100L, withinPercentage(10)),
+        () -> assertThat((Long) statisticsOf(stallion).get("descendant_count")).isCloseTo(2100L, withinPercentage(10))
+    );
+  }
+
+  private Map<String, Object> statisticsOf(long id) {
+    return jdbcTemplate.queryForMap(
+        "SELECT inbreeding_coefficient, pedigree_completeness, generation_depth, descendant_count FROM horse WHERE id = ?", id);
+  }
+}
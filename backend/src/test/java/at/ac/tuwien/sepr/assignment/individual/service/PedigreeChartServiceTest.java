@@ -0,0 +1,87 @@
+package at.ac.tuwien.sepr.assignment.individual.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import at.ac.tuwien.sepr.assignment.individual.dto.HorseUpdateDto;
+import at.ac.tuwien.sepr.assignment.individual.dto.PedigreeChartDto;
+import at.ac.tuwien.sepr.assignment.individual.exception.NotFoundException;
+import at.ac.tuwien.sepr.assignment.individual.type.PedigreeChartFormat;
+import at.ac.tuwien.sepr.assignment.individual.type.Sex;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Integration test for {@link PedigreeChartService}.
+ */
+@ActiveProfiles({"test", "datagen"}) // Enables "test" Spring profile during test execution
+@SpringBootTest
+@Transactional
+public class PedigreeChartServiceTest {
+
+  @Autowired
+  PedigreeChartService pedigreeChartService;
+
+  @Autowired
+  HorseService horseService;
+
+  /**
+   * Positive test: Renders the family tree of Wendy as SVG twice and verifies the chart contains all horses
+   * and the second request is served from the cache.
+   *
+   * @throws Exception if rendering fails unexpectedly
+   */
+  @Test
+  public void renderSvgContainsAncestorsAndIsCached() throws Exception {
+
+    PedigreeChartDto chart = pedigreeChartService.renderFamilyTree(-6L, 3, PedigreeChartFormat.SVG).get();
+    PedigreeChartDto cached = pedigreeChartService.renderFamilyTree(-6L, 3, PedigreeChartFormat.SVG).get();
+
+    String svg = new String(chart.image(), StandardCharsets.UTF_8);
+    assertAll(
+        () -> assertThat(chart.mimeType()).isEqualTo("image/svg+xml"),
+        () -> assertThat(svg).startsWith("<svg"),
+        () -> assertThat(svg).contains(">Wendy<", ">Wendys Mother<", ">Wendys Father<", ">Wendys Grandmother<", ">Wendys Grandfather<"),
+        () -> assertThat(cached).isSameAs(chart)
+    );
+  }
+
+  /**
+   * Positive test: Renders the family tree of Wendy as PNG, changes an ancestor and verifies a new version is rendered.
+   *
+   * @throws Exception if rendering fails unexpectedly
+   */
+  @Test
+  public void renderPngChangesVersionWhenAncestorChanges() throws Exception {
+
+    PedigreeChartDto before = pedigreeChartService.renderFamilyTree(-6L, 2, PedigreeChartFormat.PNG).get();
+    horseService.update(new HorseUpdateDto(-3L, "Wendys Renamed Mother", "The famous one!", LocalDate.of(1970, 1, 1),
+        Sex.FEMALE, null, null, null, true, null), null);
+    PedigreeChartDto after = pedigreeChartService.renderFamilyTree(-6L, 2, PedigreeChartFormat.PNG).get();
+
+    assertAll(
+        () -> assertThat(before.mimeType()).isEqualTo("image/png"),
+        () -> assertThat(before.image()).startsWith((byte) 0x89, (byte) 'P', (byte) 'N', (byte) 'G'),
+        () -> assertThat(after.version()).isNotEqualTo(before.version())
+    );
+  }
+
+  /**
+   * Negative test: Attempts to render the family tree of a non-existent horse and verifies a NotFoundException is thrown.
+   */
+  @Test
+  public void renderNonExistentHorseThrowsNotFoundException() {
+
+    assertThrows(NotFoundException.class,
+        () -> pedigreeChartService.renderFamilyTree(999L, 2, PedigreeChartFormat.SVG)
+    );
+  }
+}
@@ -0,0 +1,92 @@
+package at.ac.tuwien.sepr.assignment.individual.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import at.ac.tuwien.sepr.assignment.individual.exception.NotFoundException;
+import at.ac.tuwien.sepr.assignment.individual.exception.ValidationException;
+import at.ac.tuwien.sepr.assignment.individual.type.PedigreeExportFormat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Integration test for {@link PedigreeExportService}.
+ */
+@ActiveProfiles({"test", "datagen"}) // Enables "test" Spring profile during test execution
+@SpringBootTest
+@Transactional
+public class PedigreeExportServiceTest {
+
+  @Autowired
+  PedigreeExportService pedigreeExportService;
+
+  /**
+   * Positive test: Exports the ancestry of Wendy as CSV and verifies that the horses are renumbered
+   * in topological order with parents referenced by their new numbers.
+   *
+   * @throws Exception if the export fails unexpectedly
+   */
+  @Test
+  public void exportAncestryAsCsvRenumbersInTopologicalOrder() throws Exception {
+
+    List<String> lines = export(List.of(-6L), PedigreeExportFormat.CSV);
+
+    assertThat(lines).containsExactly(
+        "id,sire,dam,birth_date,sex,horse_id",
+        "1,0,0,1935-01-01,F,-1",
+        "2,0,0,1940-01-01,M,-2",
+        "3,2,1,1970-01-01,M,-4",
+        "4,0,0,1970-01-01,F,-3",
+        "5,3,4,2000-01-01,F,-6"
+    );
+  }
+
+  /**
+   * Positive test: Exports all horses in the BLUPF90 format and verifies that every parent precedes its offspring.
+   *
+   * @throws Exception if the export fails unexpectedly
+   */
+  @Test
+  public void exportAllAsBlupf90ListsParentsBeforeOffspring() throws Exception {
+
+    List<String> lines = export(null, PedigreeExportFormat.BLUPF90);
+
+    assertAll(
+        () -> assertThat(lines.size()).isGreaterThanOrEqualTo(10),
+        () -> assertThat(lines).allSatisfy(line -> {
+          String[] columns = line.split(" ");
+          long id = Long.parseLong(columns[0]);
+          assertThat(Long.parseLong(columns[1])).isLessThan(id);
+          assertThat(Long.parseLong(columns[2])).isLessThan(id);
+        })
+    );
+  }
+
+  /**
+   * Negative test: Attempts to export the ancestry of a non-existent horse and verifies a NotFoundException is thrown.
+   */
+  @Test
+  public void exportNonExistentHorseThrowsNotFoundException() {
+
+    NotFoundException exception = assertThrows(NotFoundException.class,
+        () -> pedigreeExportService.exportPedigree(List.of(999L), PedigreeExportFormat.CSV)
+    );
+    assertThat(exception.getMessage()).contains("No horse with ID 999 found");
+  }
+
+  private List<String> export(List<Long> ids, PedigreeExportFormat format) throws NotFoundException, ValidationException, IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    pedigreeExportService.exportPedigree(ids, format).writeTo(out);
+    return out.toString(StandardCharsets.UTF_8).lines().toList();
+  }
+}
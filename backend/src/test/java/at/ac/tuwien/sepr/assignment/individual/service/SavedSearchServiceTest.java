@@ -0,0 +1,121 @@
+package at.ac.tuwien.sepr.assignment.individual.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import at.ac.tuwien.sepr.assignment.individual.dto.SavedSearchCreateDto;
+import at.ac.tuwien.sepr.assignment.individual.dto.SavedSearchDto;
+import at.ac.tuwien.sepr.assignment.individual.dto.SavedSearchNotificationDto;
+import at.ac.tuwien.sepr.assignment.individual.exception.NotFoundException;
+import at.ac.tuwien.sepr.assignment.individual.exception.ValidationException;
+import at.ac.tuwien.sepr.assignment.individual.type.Sex;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Integration test for {@link SavedSearchService}.
+ */
+@ActiveProfiles({"test", "datagen"}) // Enables "test" Spring profile during test execution
+@SpringBootTest
+@Transactional
+public class SavedSearchServiceTest {
+
+  @Autowired
+  SavedSearchService savedSearchService;
+
+  /**
+   * Positive test: Saves a search for mares whose name contains "child" and a search for horses of Wendy Owner
+   * born from 2021, and verifies which of Wendys children match them and that matching again records no duplicates.
+   *
+   * @throws Exception if saving or matching fails unexpectedly
+   */
+  @Test
+  public void recordMatchesNotifiesOnlyMatchingSavedSearchesOnce() throws Exception {
+
+    SavedSearchDto mares = savedSearchService.create(
+        new SavedSearchCreateDto("buyer@example.com", "CHILD", null, Sex.FEMALE, null, null, null));
+    SavedSearchDto young = savedSearchService.create(
+        new SavedSearchCreateDto("breeder@example.com", null, null, null, LocalDate.of(2021, 1, 1), null, -1L));
+
+    int thirdChild = savedSearchService.recordMatches(-10);
+    int secondChild = savedSearchService.recordMatches(-9);
+    int firstChild = savedSearchService.recordMatches(-8);
+    int repeated = savedSearchService.recordMatches(-10);
+
+    assertAll(
+        () -> assertThat(thirdChild).isEqualTo(2),
+        () -> assertThat(secondChild).isEqualTo(1),
+        () -> assertThat(firstChild).isZero(),
+        () -> assertThat(repeated).isZero(),
+        () -> assertThat(savedSearchService.getNotifications(mares.id()))
+            .extracting(SavedSearchNotificationDto::horseId)
+            .containsExactly(-10L),
+        () -> assertThat(savedSearchService.getNotifications(young.id()))
+            .extracting(SavedSearchNotificationDto::horseId)
+            .containsExactlyInAnyOrder(-10L, -9L)
+    );
+  }
+
+  /**
+   * Positive test: Matches Wendys children and a non-existent horse at once against a search for horses of Wendy Owner
+   * born from 2021, and verifies that the matching children are recorded and the missing horse is skipped.
+   *
+   * @throws Exception if saving or matching fails unexpectedly
+   */
+  @Test
+  public void recordMatchesOfSeveralHorsesSkipsMissingHorses() throws Exception {
+
+    SavedSearchDto young = savedSearchService.create(
+        new SavedSearchCreateDto("breeder@example.com", null, null, null, LocalDate.of(2021, 1, 1), null, -1L));
+
+    int recorded = savedSearchService.recordMatches(List.of(-10L, -9L, -8L, 999L));
+
+    assertAll(
+        () -> assertThat(recorded).isEqualTo(2),
+        () -> assertThat(savedSearchService.getNotifications(young.id()))
+            .extracting(SavedSearchNotificationDto::horseId)
+            .containsExactlyInAnyOrder(-10L, -9L)
+    );
+  }
+
+  /**
+   * Positive test: Deletes a saved search and verifies that it no longer matches any horse.
+   *
+   * @throws Exception if saving, deleting or matching fails unexpectedly
+   */
+  @Test
+  public void deletedSavedSearchNoLongerMatches() throws Exception {
+
+    SavedSearchDto stallions = savedSearchService.create(
+        new SavedSearchCreateDto("buyer@example.com", null, null, Sex.MALE, null, LocalDate.of(1950, 1, 1), null));
+    savedSearchService.delete(stallions.id());
+
+    assertAll(
+        () -> assertThat(savedSearchService.recordMatches(-2)).isZero(),
+        () -> assertThrows(NotFoundException.class, () -> savedSearchService.getNotifications(stallions.id()))
+    );
+  }
+
+  /**
+   * Negative test: Tries to save a search without any criterion, which would match every horse,
+   * and with an empty birth date range.
+   */
+  @Test
+  public void createWithoutCriteriaOrWithEmptyRangeThrowsValidationException() {
+
+    assertAll(
+        () -> assertThrows(ValidationException.class, () -> savedSearchService.create(
+            new SavedSearchCreateDto("buyer@example.com", null, null, null, null, null, null))),
+        () -> assertThrows(ValidationException.class, () -> savedSearchService.create(
+            new SavedSearchCreateDto("buyer@example.com", null, null, null, LocalDate.of(2020, 1, 1), LocalDate.of(2010, 1, 1), null)))
+    );
+  }
+}
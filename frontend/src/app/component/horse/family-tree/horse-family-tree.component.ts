@@ -6,6 +6,7 @@ import {HttpClient, HttpParams} from '@angular/common/http';
 import {ToastrService} from 'ngx-toastr';
 import {environment} from 'src/environments/environment';
 import {Horse} from 'src/app/dto/horse';
+import {HorseFamilyGraph} from 'src/app/dto/horse-family-graph';
 import {HorseService} from 'src/app/service/horse.service';
 import {ConfirmDeleteDialogComponent} from 'src/app/component/confirm-delete-dialog/confirm-delete-dialog.component';
 import {Subscription} from 'rxjs';
@@ -29,8 +30,29 @@ interface FamilyTreeHorse extends Horse {
    * The horse's father in the family tree.
    */
   father?: FamilyTreeHorse;
+
+  /**
+   * Indicates whether ancestors of this horse were omitted by the backend, because the requested
+   * number of generations or the maximum size of a family tree was reached.
+   */
+  truncated?: boolean;
 }
 
+/**
+ * Maximum number of generations that can be requested from the backend.
+ */
+const MAX_GENERATIONS = 50;
+
+/**
+ * Number of generations loaded when a collapsed node is expanded lazily.
+ */
+const EXPANSION_GENERATIONS = 2;
+
+/**
+ * Maximum number of horses the backend expands with a single request.
+ */
+const MAX_EXPANSION_HORSES = 1000;
+
 @Component({
   selector: 'app-horse-family-tree',
   templateUrl: './horse-family-tree.component.html',
@@ -52,8 +74,11 @@ export class HorseFamilyTreeComponent implements OnInit, OnDestroy {
   loading = true;
   error = false;
   generations = 3;
+  loadedGenerations = 0;
+  readonly maxGenerations = MAX_GENERATIONS;
   horseForDeletion: Horse | undefined;
   private routeSubscription: Subscription | null = null;
+  private skipReload = false;
   private baseUri = environment.backendUrl;
 
   constructor(
@@ -79,6 +104,10 @@ export class HorseFamilyTreeComponent implements OnInit, OnDestroy {
           if (gen) {
             this.generations = +gen;
           }
+          if (this.skipReload) {
+            this.skipReload = false;
+            return;
+          }
           this.loadFamilyTree(+id, this.generations);
         });
       } else {
@@ -108,12 +137,14 @@ export class HorseFamilyTreeComponent implements OnInit, OnDestroy {
     this.error = false;
 
     let params = new HttpParams()
-      .set('generations', generations.toString());
+      .set('generations', generations.toString())
+      .set('format', 'GRAPH');
 
-    this.http.get<FamilyTreeHorse>(`${this.baseUri}/horses/${id}/familytree`, {params})
+    this.http.get<HorseFamilyGraph>(`${this.baseUri}/horses/${id}/familytree`, {params})
       .subscribe({
         next: (data) => {
-          this.horse = this.processHorseData(data);
+          this.horse = this.toFamilyTree(data, data.roots[0], 1, generations);
+          this.loadedGenerations = generations;
           this.loading = false;
         },
         error: error => {
@@ -128,26 +159,138 @@ export class HorseFamilyTreeComponent implements OnInit, OnDestroy {
   }
 
   /**
-   * Processes horse data recursively to fix dates and set expansion state.
+   * Expands a node of the compact family graph into a family tree for display.
+   * Ancestors shared by several lines of the pedigree are only transferred once, but each occurrence gets
+   * its own tree node, so that it can be expanded and collapsed independently.
    *
-   * @param horse The horse object to process
-   * @returns The processed horse object with updated properties
+   * @param graph The family graph returned by the backend
+   * @param index The index of the node to expand
+   * @param generation The generation of the node, starting with 1 for the root
+   * @param generations The number of generations to display
+   * @returns The family tree rooted at the given node
    * @private
    */
-  private processHorseData(horse: FamilyTreeHorse): FamilyTreeHorse {
-    if (!horse) return horse;
-    horse.dateOfBirth = new Date(horse.dateOfBirth as unknown as string);
-    horse.isExpanded = true;
-    if (horse.mother) {
-      horse.mother = this.processHorseData(horse.mother);
-    }
-    if (horse.father) {
-      horse.father = this.processHorseData(horse.father);
+  private toFamilyTree(graph: HorseFamilyGraph, index: number, generation: number, generations: number): FamilyTreeHorse {
+    const node = graph.nodes[index];
+    const horse = {
+      id: node.id,
+      name: node.name,
+      dateOfBirth: new Date(node.dateOfBirth),
+      isExpanded: true,
+      truncated: node.truncated
+    } as FamilyTreeHorse;
+    const hasParents = node.mother != null || node.father != null;
+    if (generation < generations) {
+      if (node.mother != null) {
+        horse.mother = this.toFamilyTree(graph, node.mother, generation + 1, generations);
+      }
+      if (node.father != null) {
+        horse.father = this.toFamilyTree(graph, node.father, generation + 1, generations);
+      }
+    } else if (hasParents) {
+      horse.truncated = true;
     }
 
     return horse;
   }
 
+  /**
+   * Loads the next generations above the given horses and attaches them to the already displayed tree.
+   * All horses are expanded with a single request, unless there are more than the backend accepts at once.
+   *
+   * @param horses The truncated horses of the tree to expand
+   * @param generations The number of generations to load above the given horses
+   * @returns A promise that resolves once the ancestors are attached
+   * @private
+   */
+  private expandFrontier(horses: FamilyTreeHorse[], generations: number): Promise<void> {
+    if (horses.length > MAX_EXPANSION_HORSES) {
+      const chunks = [];
+      for (let i = 0; i < horses.length; i += MAX_EXPANSION_HORSES) {
+        chunks.push(this.expandFrontier(horses.slice(i, i + MAX_EXPANSION_HORSES), generations));
+      }
+      return Promise.all(chunks).then(() => undefined);
+    }
+    const params = new HttpParams()
+      .set('ids', horses.map(horse => horse.id).join(','))
+      .set('generations', generations.toString());
+
+    return new Promise(resolve => {
+      this.http.get<HorseFamilyGraph>(`${this.baseUri}/horses/familytree/expansion`, {params})
+        .subscribe({
+          next: (data) => {
+            horses.forEach((horse, i) => {
+              const expanded = this.toFamilyTree(data, data.roots[i], 1, generations + 1);
+              horse.mother = expanded.mother;
+              horse.father = expanded.father;
+              horse.truncated = expanded.truncated;
+              horse.isExpanded = true;
+            });
+            resolve();
+          },
+          error: error => {
+            this.notification.error(this.errorFormatter.format(error), 'Could not load ancestors', {
+              enableHtml: true,
+              timeOut: 10000,
+            });
+            resolve();
+          }
+        });
+    });
+  }
+
+  /**
+   * Lazily loads further ancestors of a horse whose ancestors were not part of the loaded tree.
+   *
+   * @param horse The truncated horse to expand
+   */
+  loadAncestors(horse: FamilyTreeHorse): void {
+    this.expandFrontier([horse], EXPANSION_GENERATIONS);
+  }
+
+  /**
+   * Collects all truncated horses of the displayed tree at the given generation.
+   *
+   * @param horse The root of the (sub)tree to search
+   * @param generation The generation of {@code horse}, starting with 1 for the root
+   * @param target The generation to collect horses from
+   * @param result The list the truncated horses are added to
+   * @private
+   */
+  private collectFrontier(horse: FamilyTreeHorse | undefined, generation: number, target: number, result: FamilyTreeHorse[]): void {
+    if (!horse) return;
+    if (generation === target) {
+      if (horse.truncated) {
+        result.push(horse);
+      }
+      return;
+    }
+    this.collectFrontier(horse.mother, generation + 1, target, result);
+    this.collectFrontier(horse.father, generation + 1, target, result);
+  }
+
+  /**
+   * Removes all ancestors beyond the given generation from the displayed tree.
+   *
+   * @param horse The root of the (sub)tree to prune
+   * @param generation The generation of {@code horse}, starting with 1 for the root
+   * @param generations The number of generations to keep
+   * @private
+   */
+  private pruneTree(horse: FamilyTreeHorse | undefined, generation: number, generations: number): void {
+    if (!horse) return;
+    if (generation === generations) {
+      if (horse.mother || horse.father) {
+        horse.mother = undefined;
+        horse.father = undefined;
+        horse.truncated = true;
+      }
+      return;
+    }
+    this.pruneTree(horse.mother, generation + 1, generations);
+    this.pruneTree(horse.father, generation + 1, generations);
+  }
+
   /**
    * Toggles the expanded state of a horse in the family tree.
    *
@@ -158,11 +301,12 @@ export class HorseFamilyTreeComponent implements OnInit, OnDestroy {
   }
 
   /**
-   * Updates the number of generations displayed in the family tree and reloads it.
+   * Updates the number of generations displayed in the family tree.
+   * Additional generations are loaded above the current frontier, fewer generations are pruned locally.
    */
   updateGenerations(): void {
-    if (this.generations > 10) {
-      this.notification.error('Maximum generations allowed is 10', 'Invalid Input');
+    if (this.generations > MAX_GENERATIONS) {
+      this.notification.error(`Maximum generations allowed is ${MAX_GENERATIONS}`, 'Invalid Input');
       return;
     }
     if (this.generations < 1) {
@@ -171,16 +315,25 @@ export class HorseFamilyTreeComponent implements OnInit, OnDestroy {
     }
 
     if (this.horse && this.horse.id) {
-      this.router.navigate([], {
-        relativeTo: this.route,
-        queryParams: {generations: this.generations},
-        queryParamsHandling: 'merge'
-      }).then(() => {
-        if (this.horse && this.horse.id !== undefined) {
-          this.loadFamilyTree(this.horse.id, this.generations);
-        } else {
-          this.notification.error('Cannot load family tree', 'Missing horse ID');
-        }
+      const generations = this.generations;
+      const frontier: FamilyTreeHorse[] = [];
+      if (generations > this.loadedGenerations) {
+        this.collectFrontier(this.horse, 1, this.loadedGenerations, frontier);
+      } else {
+        this.pruneTree(this.horse, 1, generations);
+      }
+      const expansion = frontier.length > 0
+        ? this.expandFrontier(frontier, generations - this.loadedGenerations)
+        : Promise.resolve();
+      expansion.then(() => {
+        this.loadedGenerations = generations;
+        // only the query parameter is updated, the subscription must not reload the whole tree
+        this.skipReload = this.route.snapshot.queryParamMap.get('generations') !== generations.toString();
+        return this.router.navigate([], {
+          relativeTo: this.route,
+          queryParams: {generations: generations},
+          queryParamsHandling: 'merge'
+        });
       });
     }
   }
@@ -200,10 +353,10 @@ export class HorseFamilyTreeComponent implements OnInit, OnDestroy {
   validateGenerations(event: Event): void {
     const input = event.target as HTMLInputElement;
     const value = parseInt(input.value, 10);
-    if (value > 10) {
-      input.value = '10';
-      this.generations = 10;
-      this.notification.error('Maximum generations allowed is 10', 'Invalid Input');
+    if (value > MAX_GENERATIONS) {
+      input.value = MAX_GENERATIONS.toString();
+      this.generations = MAX_GENERATIONS;
+      this.notification.error(`Maximum generations allowed is ${MAX_GENERATIONS}`, 'Invalid Input');
     } else if (value < 1) {
       input.value = '1';
       this.generations = 1;
@@ -171,21 +171,21 @@ export class HorseCreateEditComponent implements OnInit {
    * Provides mother suggestions for the autocomplete feature.
    *
    * @param input The search string entered by the user
-   * @returns An Observable of female horse suggestions
+   * @returns An Observable of female horse suggestions born before the horse
    */
   motherSuggestions = (input: string) => (input === '')
     ? of([])
-    : this.service.getAllOrSearch({name: input, limit: 5, sex: 'FEMALE', excludeId: this.horse.id!});
+    : this.service.suggest(input, {limit: 5, sex: 'FEMALE', bornBefore: this.horseBirthDateText, excludeId: this.horse.id});
 
   /**
    * Provides father suggestions for the autocomplete feature.
    *
    * @param input The search string entered by the user
-   * @returns An Observable of male horse suggestions
+   * @returns An Observable of male horse suggestions born before the horse
    */
   fatherSuggestions = (input: string) => (input === '')
     ? of([])
-    : this.service.getAllOrSearch({name: input, limit: 5, sex: 'MALE', excludeId: this.horse.id!});
+    : this.service.suggest(input, {limit: 5, sex: 'MALE', bornBefore: this.horseBirthDateText, excludeId: this.horse.id});
 
   /**
    * Cancels the create/edit process and navigates back to the previous page.
@@ -310,6 +310,9 @@ export class HorseCreateEditComponent implements OnInit {
           formData.append('image', this.selectedFile, this.selectedFile.name);
         }
         formData.append('deleteImage', this.deleteImageOnSubmit.toString());
+        if (this.horse.version !== undefined) {
+          formData.append('version', this.horse.version.toString());
+        }
       }
 
       let observable: Observable<Horse>;
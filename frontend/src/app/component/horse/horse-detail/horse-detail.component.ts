@@ -4,12 +4,16 @@ import {ActivatedRoute, Router, RouterLink} from '@angular/router';
 import {ToastrService} from 'ngx-toastr';
 import {HorseService} from 'src/app/service/horse.service';
 import {Horse} from 'src/app/dto/horse';
+import {HorseSiblingPage, HorseSiblings} from 'src/app/dto/horse-siblings';
 import {ConfirmDeleteDialogComponent} from 'src/app/component/confirm-delete-dialog/confirm-delete-dialog.component';
 import {environment} from 'src/environments/environment';
 import {Subscription} from 'rxjs';
 import {ErrorFormatterService} from "../../../service/error-formatter.service";
 
 const baseUri = environment.backendUrl;
+const SIBLINGS_PAGE_SIZE = 20;
+
+type SiblingGroup = keyof HorseSiblings;
 
 @Component({
   selector: 'app-horse-detail',
@@ -30,6 +34,13 @@ export class HorseDetailComponent implements OnInit, OnDestroy {
   horse: Horse | null = null;
   loading = true;
   error = false;
+  siblings: HorseSiblings | null = null;
+  loadingSiblings = false;
+  readonly siblingGroups: { key: SiblingGroup, label: string }[] = [
+    {key: 'fullSiblings', label: 'Full Siblings'},
+    {key: 'maternalHalfSiblings', label: 'Maternal Half-Siblings'},
+    {key: 'paternalHalfSiblings', label: 'Paternal Half-Siblings'},
+  ];
   private routeSubscription: Subscription | null = null;
 
   constructor(
@@ -78,6 +89,7 @@ export class HorseDetailComponent implements OnInit, OnDestroy {
       next: data => {
         this.horse = data;
         this.loading = false;
+        this.loadSiblings(id);
       },
       error: error => {
         this.notification.error(this.errorFormatter.format(error), 'Could Not Load Horse Details', {
@@ -90,6 +102,71 @@ export class HorseDetailComponent implements OnInit, OnDestroy {
     });
   }
 
+  /**
+   * Loads the first page of all sibling groups of the given horse with a single request.
+   *
+   * @param id The ID of the horse whose siblings to load
+   */
+  loadSiblings(id: number): void {
+    this.siblings = null;
+    this.loadingSiblings = true;
+    this.service.getSiblings(id, 0, SIBLINGS_PAGE_SIZE).subscribe({
+      next: data => {
+        this.siblings = data;
+        this.loadingSiblings = false;
+      },
+      error: error => {
+        this.notification.error(this.errorFormatter.format(error), 'Could Not Load Siblings', {
+          enableHtml: true,
+          timeOut: 10000,
+        });
+        this.loadingSiblings = false;
+      }
+    });
+  }
+
+  /**
+   * Loads the next page of a single sibling group and appends it to the already loaded siblings.
+   *
+   * @param group The sibling group to extend
+   */
+  loadMoreSiblings(group: SiblingGroup): void {
+    if (!this.horse || !this.siblings) {
+      return;
+    }
+    const loaded = this.siblings[group].siblings;
+    const page = Math.floor(loaded.length / SIBLINGS_PAGE_SIZE);
+    this.loadingSiblings = true;
+    this.service.getSiblings(this.horse.id!, page, SIBLINGS_PAGE_SIZE).subscribe({
+      next: data => {
+        if (this.siblings) {
+          this.siblings[group] = {
+            siblings: loaded.concat(data[group].siblings),
+            total: data[group].total
+          };
+        }
+        this.loadingSiblings = false;
+      },
+      error: error => {
+        this.notification.error(this.errorFormatter.format(error), 'Could Not Load Siblings', {
+          enableHtml: true,
+          timeOut: 10000,
+        });
+        this.loadingSiblings = false;
+      }
+    });
+  }
+
+  /**
+   * Checks whether a sibling group has more siblings than are currently loaded.
+   *
+   * @param page The loaded page of the sibling group
+   * @returns True if further siblings can be loaded
+   */
+  hasMoreSiblings(page: HorseSiblingPage): boolean {
+    return page.siblings.length < page.total;
+  }
+
   /**
    * Deletes the currently loaded horse and navigates back to the horse list.
    */
@@ -124,7 +201,7 @@ export class HorseDetailComponent implements OnInit, OnDestroy {
    * @param date The date to format
    * @returns The formatted date string or an empty string if date is undefined
    */
-  formatDate(date: Date | undefined): string {
+  formatDate(date: Date | string | undefined): string {
     return date ? new Date(date).toLocaleDateString() : '';
   }
 
@@ -1,4 +1,5 @@
 import {Component, OnInit} from '@angular/core';
+import {KeyValuePipe} from '@angular/common';
 import {FormsModule} from '@angular/forms';
 import {RouterLink} from '@angular/router';
 import {ToastrService} from 'ngx-toastr';
@@ -6,6 +7,7 @@ import {AutocompleteComponent} from 'src/app/component/autocomplete/autocomplete
 import {HorseService} from 'src/app/service/horse.service';
 import {Horse} from 'src/app/dto/horse';
 import {Owner} from 'src/app/dto/owner';
+import {HorseFacets, HorseOwnerFacet} from 'src/app/dto/horse-search-result';
 import {ConfirmDeleteDialogComponent} from 'src/app/component/confirm-delete-dialog/confirm-delete-dialog.component';
 import {OwnerService} from "../../service/owner.service";
 import {Observable, of} from "rxjs";
@@ -16,6 +18,7 @@ import {Observable, of} from "rxjs";
   imports: [
     RouterLink,
     FormsModule,
+    KeyValuePipe,
     AutocompleteComponent,
     ConfirmDeleteDialogComponent
   ],
@@ -28,20 +31,26 @@ import {Observable, of} from "rxjs";
  */
 export class HorseComponent implements OnInit {
   horses: Horse[] = [];
+  facets: HorseFacets = {};
   bannerError: string | null = null;
   horseForDeletion: Horse | undefined;
   searchFilter: {
     name?: string,
     description?: string,
+    bornFrom?: string,
     dateOfBirth?: string,
     sex?: string,
-    owner?: string
+    owner?: string,
+    sort?: string,
+    fuzzy?: boolean
   } = {
     name: '',
     description: '',
+    bornFrom: '',
     dateOfBirth: '',
     sex: '',
-    owner: ''
+    owner: '',
+    sort: ''
   };
 
   constructor(
@@ -88,10 +97,11 @@ export class HorseComponent implements OnInit {
    * Reloads the list of horses based on current search filters.
    */
   reloadHorses() {
-    this.service.getAllOrSearch(this.searchFilter)
+    this.service.searchWithFacets(this.searchFilter)
       .subscribe({
         next: data => {
-          this.horses = data;
+          this.horses = data.horses;
+          this.facets = data.facets;
           this.bannerError = null;
         },
         error: error => {
@@ -126,6 +136,18 @@ export class HorseComponent implements OnInit {
       : '';
   }
 
+  /**
+   * Formats the owner of an owner facet for display.
+   *
+   * @param facet The owner facet to format
+   * @returns The owner's full name, or a placeholder for the horses without an owner
+   */
+  ownerFacetName(facet: HorseOwnerFacet): string {
+    return facet.ownerId == null
+      ? 'No owner'
+      : `${facet.firstName} ${facet.lastName}`;
+  }
+
   /**
    * Converts a horse's date of birth to a localized date string.
    *
@@ -0,0 +1,19 @@
+/**
+ * A single horse of a family graph. Parents are referenced by their index in {@link HorseFamilyGraph.nodes}.
+ */
+export interface HorseFamilyGraphNode {
+  id: number;
+  name: string;
+  dateOfBirth: string;
+  mother?: number;
+  father?: number;
+  truncated: boolean;
+}
+
+/**
+ * Compact representation of one or more family trees, in which every horse is contained only once.
+ */
+export interface HorseFamilyGraph {
+  roots: number[];
+  nodes: HorseFamilyGraphNode[];
+}
@@ -0,0 +1,28 @@
+import {Horse} from './horse';
+
+/**
+ * The number of matching horses of one owner; the owner fields are missing for the horses without an owner.
+ */
+export interface HorseOwnerFacet {
+  ownerId?: number;
+  firstName?: string;
+  lastName?: string;
+  count: number;
+}
+
+/**
+ * The number of matching horses per sex, per decade of birth and per owner.
+ */
+export interface HorseFacets {
+  sex?: { [sex: string]: number };
+  decade?: { [decade: string]: number };
+  owner?: HorseOwnerFacet[];
+}
+
+/**
+ * A page of matching horses together with the facet counts over all matching horses.
+ */
+export interface HorseSearchResult {
+  horses: Horse[];
+  facets: HorseFacets;
+}
@@ -0,0 +1,28 @@
+import {Sex} from './sex';
+
+/**
+ * A single sibling of a horse.
+ */
+export interface HorseSibling {
+  id: number;
+  name: string;
+  dateOfBirth: string;
+  sex: Sex;
+}
+
+/**
+ * One page of the siblings of a horse sharing the same relation, together with the total number of such siblings.
+ */
+export interface HorseSiblingPage {
+  siblings: HorseSibling[];
+  total: number;
+}
+
+/**
+ * The full siblings and the maternal and paternal half-siblings of a horse, each paged independently.
+ */
+export interface HorseSiblings {
+  fullSiblings: HorseSiblingPage;
+  maternalHalfSiblings: HorseSiblingPage;
+  paternalHalfSiblings: HorseSiblingPage;
+}
@@ -11,4 +11,6 @@ export interface Horse {
   mother?: Horse;
   father?: Horse;
   imageUrl?: string;
+  offspringCount?: number;
+  version?: number;
 }
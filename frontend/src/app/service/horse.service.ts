@@ -4,6 +4,8 @@ import {map, Observable} from 'rxjs';
 import {tap, catchError} from 'rxjs/operators';
 import {environment} from 'src/environments/environment';
 import {Horse} from '../dto/horse';
+import {HorseSiblings} from '../dto/horse-siblings';
+import {HorseSearchResult} from '../dto/horse-search-result';
 import {ToastrService} from "ngx-toastr";
 
 
@@ -47,11 +49,14 @@ export class HorseService {
   getAllOrSearch(filters: {
     name?: string,
     description?: string,
+    bornFrom?: string,
     dateOfBirth?: string,
     sex?: string,
     owner?: string,
     limit?: number,
-    excludeId?: number
+    excludeId?: number,
+    sort?: string,
+    fuzzy?: boolean
   } = {}): Observable<Horse[]> {
     let params = new HttpParams();
 
@@ -60,11 +65,14 @@ export class HorseService {
     if (hasFilters) {
       if (filters.name) params = params.set('name', filters.name);
       if (filters.description) params = params.set('description', filters.description);
+      if (filters.bornFrom) params = params.set('bornFrom', filters.bornFrom);
       if (filters.dateOfBirth) params = params.set('dateOfBirth', filters.dateOfBirth);
       if (filters.sex) params = params.set('sex', filters.sex);
       if (filters.owner) params = params.set('ownerName', filters.owner);
       params = params.set('limit', (filters.limit !== undefined ? filters.limit : 100).toString());
       if (filters.excludeId !== undefined) params = params.set('excludeId', filters.excludeId.toString());
+      if (filters.sort) params = params.set('sort', filters.sort);
+      if (filters.fuzzy) params = params.set('fuzzy', 'true');
     }
 
     return this.http.get<Horse[]>(baseUri, {params})
@@ -73,6 +81,71 @@ export class HorseService {
       );
   }
 
+  /**
+   * Searches horses like {@link getAllOrSearch} and additionally counts all matching horses per sex,
+   * decade of birth and owner.
+   *
+   * @param filters Optional criteria to filter horses, including limit and excludeId
+   * @returns An Observable containing the matching horses and the facet counts
+   */
+  searchWithFacets(filters: {
+    name?: string,
+    description?: string,
+    bornFrom?: string,
+    dateOfBirth?: string,
+    sex?: string,
+    owner?: string,
+    limit?: number,
+    sort?: string,
+    fuzzy?: boolean
+  } = {}): Observable<HorseSearchResult> {
+    let params = new HttpParams().set('facets', 'SEX,DECADE,OWNER');
+
+    const hasFilters = Object.values(filters).some(val => val !== undefined && val !== null && val !== '');
+
+    if (hasFilters) {
+      if (filters.name) params = params.set('name', filters.name);
+      if (filters.description) params = params.set('description', filters.description);
+      if (filters.bornFrom) params = params.set('bornFrom', filters.bornFrom);
+      if (filters.dateOfBirth) params = params.set('dateOfBirth', filters.dateOfBirth);
+      if (filters.sex) params = params.set('sex', filters.sex);
+      if (filters.owner) params = params.set('ownerName', filters.owner);
+      params = params.set('limit', (filters.limit !== undefined ? filters.limit : 100).toString());
+      if (filters.sort) params = params.set('sort', filters.sort);
+      if (filters.fuzzy) params = params.set('fuzzy', 'true');
+    }
+
+    return this.http.get<HorseSearchResult>(baseUri, {params})
+      .pipe(
+        map(result => ({...result, horses: result.horses.map(this.fixHorseDate)}))
+      );
+  }
+
+  /**
+   * Suggests horses whose name starts with the typed prefix, for autocomplete fields.
+   *
+   * @param prefix The name as typed so far
+   * @param constraints Optional sex, latest birth date (exclusive), horse to exclude and maximum number of suggestions
+   * @returns An Observable containing the suggested horses
+   */
+  suggest(prefix: string, constraints: {
+    sex?: string,
+    bornBefore?: string,
+    excludeId?: number,
+    limit?: number
+  } = {}): Observable<Horse[]> {
+    let params = new HttpParams().set('prefix', prefix);
+    if (constraints.sex) params = params.set('sex', constraints.sex);
+    if (constraints.bornBefore) params = params.set('bornBefore', constraints.bornBefore);
+    if (constraints.excludeId !== undefined) params = params.set('excludeId', constraints.excludeId.toString());
+    if (constraints.limit !== undefined) params = params.set('limit', constraints.limit.toString());
+
+    return this.http.get<Horse[]>(baseUri + '/suggest', {params})
+      .pipe(
+        map(horses => horses.map(this.fixHorseDate))
+      );
+  }
+
   /**
    * Creates a new horse in the system.
    *
@@ -104,6 +177,23 @@ export class HorseService {
     );
   }
 
+  /**
+   * Retrieves the full siblings and the maternal and paternal half-siblings of a horse in a single request.
+   *
+   * @param id The ID of the horse whose siblings to retrieve
+   * @param page The zero-based page number, applied to each group of siblings
+   * @param size The maximum number of siblings per group
+   * @returns An Observable containing one page of siblings per relation
+   */
+  getSiblings(id: number, page: number, size: number): Observable<HorseSiblings> {
+    const params = new HttpParams()
+      .set('page', page)
+      .set('size', size);
+    return this.http.get<HorseSiblings>(
+      `${baseUri}/${id}/siblings`, {params}
+    );
+  }
+
   /**
    * Deletes a horse from the system by its ID.
    *
@@ -30,15 +30,15 @@ export class OwnerService {
   }
 
   /**
-   * Searches for owners by name with a limit on results.
+   * Suggests owners whose first or last name starts with the typed name, with a limit on results.
    *
-   * @param name The name to search for
+   * @param name The name as typed so far
    * @returns An Observable containing an array of matching owner objects (up to 5)
    */
   public searchByName(name: string): Observable<Owner[]> {
     return this.http.get<Owner[]>(
-      baseUri, {
-        params: {name: name, limit: 5}
+      baseUri + '/suggest', {
+        params: {prefix: name, limit: 5}
       }
     );
   }